@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the callbacks the instrumented SUT performs on every executed branch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionTracerBenchmark {
+
+	/**
+	 * Number of distinct branches in the simulated SUT
+	 */
+	@Param({ "16", "1024" })
+	public int branches;
+
+	private int counter = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		ExecutionTracer.setCheckCallerThread(false);
+		ExecutionTracer.enable();
+	}
+
+	@Setup(Level.Iteration)
+	public void resetTrace() {
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ExecutionTracer.disable();
+		ExecutionTracer.setCheckCallerThread(true);
+	}
+
+	@Benchmark
+	public void passedBranchIntZero() {
+		int i = counter++;
+		ExecutionTracer.passedBranch(i % 7 - 3, Opcodes.IFEQ, i % branches + 1, i % branches + 1);
+	}
+
+	@Benchmark
+	public void passedBranchIntInt() {
+		int i = counter++;
+		ExecutionTracer.passedBranch(i % 11, i % 13, Opcodes.IF_ICMPLT, i % branches + 1, i % branches + 1);
+	}
+}
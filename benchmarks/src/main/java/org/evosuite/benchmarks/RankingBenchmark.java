@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.operators.ranking.CrowdingDistance;
+import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ranking of a MOSA population: non-dominated sorting on the uncovered goals,
+ * followed by the crowding distance of the first front
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankingBenchmark {
+
+	@Param({ "50", "200" })
+	public int populationSize;
+
+	@Param({ "10", "100" })
+	public int goals;
+
+	private List<DummyChromosome> population;
+
+	private Set<GoalFitness> uncoveredGoals;
+
+	private List<GoalFitness> goalList;
+
+	/**
+	 * Goal whose fitness is simply stored in the chromosome
+	 */
+	private static class GoalFitness extends FitnessFunction<DummyChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double getFitness(DummyChromosome individual) {
+			return individual.getFitness(this);
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+
+		goalList = new ArrayList<>();
+		for (int i = 0; i < goals; i++) {
+			goalList.add(new GoalFitness());
+		}
+		uncoveredGoals = new LinkedHashSet<>(goalList);
+
+		population = new ArrayList<>();
+		for (int i = 0; i < populationSize; i++) {
+			DummyChromosome c = new DummyChromosome(i);
+			for (GoalFitness goal : goalList) {
+				// never 0, as MOSA would have archived covered goals
+				c.setFitness(goal, 1 + random.nextInt(100) / 10.0);
+			}
+			population.add(c);
+		}
+	}
+
+	@Benchmark
+	public int fastNonDominatedSorting() {
+		FastNonDominatedSorting<DummyChromosome> sorting = new FastNonDominatedSorting<>();
+		sorting.computeRankingAssignment(population, uncoveredGoals);
+		return sorting.getNumberOfSubfronts();
+	}
+
+	@Benchmark
+	public List<DummyChromosome> crowdingDistance() {
+		CrowdingDistance<DummyChromosome> distance = new CrowdingDistance<>();
+		distance.crowdingDistanceAssignment(population, goalList);
+		return population;
+	}
+}
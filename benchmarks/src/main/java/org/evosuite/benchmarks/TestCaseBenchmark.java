@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestCodeVisitor;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.examples.with.different.packagename.FlagExample1;
+
+/**
+ * Cloning and code generation of test cases, which happen for every
+ * offspring and every written test respectively
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestCaseBenchmark {
+
+	/**
+	 * Number of calls on the SUT object; each call adds two statements
+	 */
+	@Param({ "10", "100" })
+	public int calls;
+
+	private TestCase test;
+
+	private TestChromosome chromosome;
+
+	@Setup
+	public void setUp() throws Exception {
+		test = createTest(calls);
+		chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+	}
+
+	/**
+	 * Builds <code>FlagExample1 f = new FlagExample1(); int x0 = 0; f.testMe(x0); ...</code>
+	 */
+	static TestCase createTest(int calls) throws NoSuchMethodException {
+		TestCase test = new DefaultTestCase();
+
+		GenericConstructor constructor = new GenericConstructor(FlagExample1.class.getConstructor(),
+				FlagExample1.class);
+		VariableReference callee = test.addStatement(new ConstructorStatement(test, constructor,
+				Collections.<VariableReference> emptyList()));
+
+		Method testMe = FlagExample1.class.getMethod("testMe", int.class);
+		GenericMethod method = new GenericMethod(testMe, FlagExample1.class);
+		for (int i = 0; i < calls; i++) {
+			VariableReference x = test.addStatement(new IntPrimitiveStatement(test, i));
+			test.addStatement(new MethodStatement(test, method, callee, Collections.singletonList(x)));
+		}
+		return test;
+	}
+
+	@Benchmark
+	public TestCase cloneTestCase() {
+		return test.clone();
+	}
+
+	@Benchmark
+	public TestChromosome cloneTestChromosome() {
+		return chromosome.clone();
+	}
+
+	@Benchmark
+	public String writeTestCode() {
+		TestCodeVisitor visitor = new TestCodeVisitor();
+		test.accept(visitor);
+		return visitor.getCode();
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.runtime.mock.MockFramework;
+import org.evosuite.runtime.mock.java.io.MockFileInputStream;
+import org.evosuite.runtime.mock.java.io.MockFileOutputStream;
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read/write throughput of the virtual file system used when SUTs access files
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VirtualFileSystemBenchmark {
+
+	private static final String WRITE_FILE = "evosuite_benchmark_write.bin";
+
+	private static final String READ_FILE = "evosuite_benchmark_read.bin";
+
+	/**
+	 * Size of the file written/read by each invocation
+	 */
+	@Param({ "4096", "1048576" })
+	public int fileSize;
+
+	/**
+	 * Size of the buffer passed to each read/write call
+	 */
+	@Param({ "1", "8192" })
+	public int chunkSize;
+
+	private byte[] chunk;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		MockFramework.enable();
+		VirtualFileSystem.getInstance().resetSingleton();
+		VirtualFileSystem.getInstance().init();
+
+		chunk = new byte[chunkSize];
+		for (int i = 0; i < chunk.length; i++) {
+			chunk[i] = (byte) i;
+		}
+
+		write(READ_FILE);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		VirtualFileSystem.getInstance().resetSingleton();
+		MockFramework.disable();
+	}
+
+	private void write(String fileName) throws IOException {
+		try (OutputStream out = new MockFileOutputStream(fileName)) {
+			for (int written = 0; written < fileSize; written += chunkSize) {
+				out.write(chunk, 0, Math.min(chunkSize, fileSize - written));
+			}
+		}
+	}
+
+	@Benchmark
+	public void writeFile() throws IOException {
+		write(WRITE_FILE);
+	}
+
+	@Benchmark
+	public int readFile() throws IOException {
+		byte[] buffer = new byte[chunkSize];
+		int total = 0;
+		try (InputStream in = new MockFileInputStream(READ_FILE)) {
+			int n;
+			while ((n = in.read(buffer, 0, buffer.length)) >= 0) {
+				total += n;
+			}
+		}
+		return total;
+	}
+}
@@ -190,6 +190,10 @@ public class Properties {
 	@Parameter(key = "max_generic_depth", group = "Test Creation", description = "Maximum level of nesting for generic types")
 	public static int MAX_GENERIC_DEPTH = 3;
 
+	@Parameter(key = "generic_type_cache_size", group = "Test Creation", description = "Maximum number of assignability checks and type variable maps of generic types kept in memory (0 to disable the cache)")
+	@IntValue(min = 0)
+	public static int GENERIC_TYPE_CACHE_SIZE = 100000;
+
 	@Parameter(key = "string_length", group = "Test Creation", description = "Maximum length of randomly generated strings")
 	public static int STRING_LENGTH = 20;
 
@@ -298,6 +302,14 @@ public class Properties {
 	@Parameter(key = "num_parallel_clients", group = "Test Creation", description = "Number of EvoSuite clients to run in parallel")
 	public static int NUM_PARALLEL_CLIENTS = 1;
 
+	@Parameter(key = "fitness_evaluation_threads", group = "Search Algorithm", description = "Number of threads MOSA uses to compute the fitness values of a batch of executed tests. Tests themselves are still executed sequentially")
+	@IntValue(min = 1)
+	public static int FITNESS_EVALUATION_THREADS = 1;
+
+	@Parameter(key = "num_islands", group = "Search Algorithm", description = "Number of populations (islands) MOSA and DynaMOSA evolve within one client. The islands are time-sliced on the single search thread, one generation each in turn, so they add diversity but no parallelism. Individuals are exchanged as configured by migrants_iteration_frequency and migrants_communication_rate")
+	@IntValue(min = 1)
+	public static int NUM_ISLANDS = 1;
+
 	@Parameter(key = "migrants_iteration_frequency", group = "Test Creation", description = "Determines amount of iterations between sending migrants to other client (-1 to disable any iterations between clients)")
 	public static int MIGRANTS_ITERATION_FREQUENCY = 2;
 
@@ -323,7 +335,10 @@ public class Properties {
 	public enum RankingType {
 		// Preference sorting is the ranking strategy proposed in
 		PREFERENCE_SORTING, 
-		FAST_NON_DOMINATED_SORTING
+		FAST_NON_DOMINATED_SORTING,
+		// Same rankings, computed with the Efficient Non-dominated Sort
+		EFFICIENT_PREFERENCE_SORTING,
+		EFFICIENT_NON_DOMINATED_SORTING
 	}
 
 	@Parameter(key = "ranking_type", group = "Runtime", description = "type of ranking to use in MOSA")
@@ -437,6 +452,13 @@ public class Properties {
 	@Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
 	public static String CVC4_PATH = null;
 
+	@Parameter(key = "dse_solver_cache_size", group = "DSE", description = "Maximum number of constraint systems whose solver result is kept in the cache")
+	@IntValue(min = 1)
+	public static int DSE_SOLVER_CACHE_SIZE = 10000;
+
+	@Parameter(key = "dse_solver_cache_dir", group = "DSE", description = "If set, folder where the solver results for the CUT are stored at the end of the search, and loaded from at the next run")
+	public static String DSE_SOLVER_CACHE_DIR = null;
+
 
 	// --------- LS ---------
 
@@ -779,6 +801,9 @@ public class Properties {
 	@Parameter(key = "ctg_cores", group = "Continuous Test Generation", description = "Number of cores CTG will use")
 	public static int CTG_CORES = 1;
 
+	@Parameter(key = "ctg_jobs_per_worker", group = "Continuous Test Generation", description = "How many jobs a CTG worker process executes before it is replaced by a new one. A worker runs both the master and the client of its jobs, resetting the test generation state between them, and is also replaced after a failed job. With a value of 1, each job is run in its own master and client processes")
+	public static int CTG_JOBS_PER_WORKER = 1;
+
 	@Parameter(key = "ctg_time", group = "Continuous Test Generation", description = "How many minutes in total CTG will run")
 	public static int CTG_TIME = 3;
 
@@ -821,6 +846,15 @@ public class Properties {
 	@Parameter(key = "ctg_seeds_dir_name", group = "Continuous Test Generation", description = "Name of seed folder where the serialized tests are stored")
 	public static String CTG_SEEDS_DIR_NAME = "seeds";
 
+	@Parameter(key = "ctg_solver_cache_dir_name", group = "Continuous Test Generation", description = "Name of the folder where the constraint solver results are stored for each CUT")
+	public static String CTG_SOLVER_CACHE_DIR_NAME = "solver-cache";
+
+	@Parameter(key = "ctg_instrumentation_cache_dir_name", group = "Continuous Test Generation", description = "Name of the folder where the instrumented bytecode of dependencies is shared by all CUT runs")
+	public static String CTG_INSTRUMENTATION_CACHE_DIR_NAME = "instrumentation-cache";
+
+	@Parameter(key = "ctg_classpath_index_dir_name", group = "Continuous Test Generation", description = "Name of the folder where the class listings of the jars on the classpath are shared by all CUT runs")
+	public static String CTG_CLASSPATH_INDEX_DIR_NAME = "classpath-index";
+
 	@Parameter(key = "ctg_seeds_ext", group = "Continuous Test Generation", description = "File extension for serialized test files")
 	public static String CTG_SEEDS_EXT = "seed";
 
@@ -1112,7 +1146,7 @@ public class Properties {
 
 
 	public enum StatisticsBackend {
-		NONE, CONSOLE, CSV, HTML, DEBUG;
+		NONE, CONSOLE, CSV, HTML, DEBUG, STREAMING;
 	}
 
 	@Parameter(key = "statistics_backend", group = "Output", description = "Which backend to use to collect data")
@@ -1216,6 +1250,12 @@ public class Properties {
 	@Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
 	public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+	@Parameter(key = "instrumentation_cache_dir", description = "If set, folder where the instrumented bytecode of dependencies is stored, and loaded from when the same class is instrumented in the same way again")
+	public static String INSTRUMENTATION_CACHE_DIR = null;
+
+	@Parameter(key = "classpath_index_dir", description = "If set, folder where the class listings of the jars on the classpath are stored, and loaded from when the same jar is on the classpath again")
+	public static String CLASSPATH_INDEX_DIR = null;
+
 	@Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
 	public static boolean INSTRUMENT_PARENT = false;
 
@@ -1343,6 +1383,12 @@ public class Properties {
 	@Parameter(key = "timeout_reset", group = "Test Execution", description = "Milliseconds allowed to execute the static reset of a test")
 	public static int TIMEOUT_RESET = 2000;
 
+	@Parameter(key = "incremental_execution", group = "Test Execution", description = "Execute a modified test only from its first modified statement on, if the statements after that checkpoint had no side effects in the previous execution, and the previous execution neither wrote static fields or system properties nor accessed files, network, time or random numbers. Only used with reset_static_fields and when no execution observers are registered")
+	public static boolean INCREMENTAL_EXECUTION = false;
+
+
+	@Parameter(key = "method_handles", group = "Test Execution", description = "Invoke the methods and constructors of tests through cached method handles rather than reflection")
+	public static boolean METHOD_HANDLES = true;
 
 	@Parameter(key = "concolic_timeout", group = "Test Execution", description = "Milliseconds allowed per test during concolic execution")
 	public static int CONCOLIC_TIMEOUT = 15000;
@@ -1519,7 +1565,7 @@ public class Properties {
 	public static int MIN_FREE_MEM = 50 * 1000 * 1000;
 
 
-	@Parameter(key = "client_on_thread", group = "Runtime", description = "Run client process on same JVM of master in separate thread. To be used only for debugging purposes")
+	@Parameter(key = "client_on_thread", group = "Runtime", description = "Run client process on same JVM of master in separate thread. To be used only for debugging purposes, and by CTG workers (see ctg_jobs_per_worker)")
 	public static volatile boolean CLIENT_ON_THREAD = false;
 
 
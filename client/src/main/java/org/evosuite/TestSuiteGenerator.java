@@ -32,6 +32,7 @@ import org.evosuite.coverage.TestFitnessFactory;
 import org.evosuite.coverage.dataflow.DefUseCoverageSuiteFitness;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.instrumentation.InstrumentationCache;
 import org.evosuite.junit.JUnitAnalyzer;
 import org.evosuite.junit.writer.TestSuiteWriter;
 import org.evosuite.result.TestGenerationResult;
@@ -49,6 +50,7 @@ import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.statistics.StatisticsSender;
 import org.evosuite.strategy.TestGenerationStrategy;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.symbolic.solver.SolverCache;
 import org.evosuite.testcase.*;
 import org.evosuite.testcase.execution.*;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
@@ -61,6 +63,7 @@ import org.evosuite.testsuite.*;
 import org.evosuite.utils.ArrayUtil;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.generic.GenericMethod;
+import org.evosuite.utils.generic.GenericTypeCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -465,6 +468,12 @@ public class TestSuiteGenerator {
 
 		DSEStats.getInstance().trackSolverStatistics();
 
+		SolverCache.getInstance().saveToDisk();
+
+		InstrumentationCache.getInstance().trackStatistics();
+
+		GenericTypeCache.getInstance().trackStatistics();
+
 		if (Properties.DSE_PROBABILITY > 0.0 && Properties.LOCAL_SEARCH_RATE > 0
 				&& Properties.LOCAL_SEARCH_PROBABILITY > 0.0) {
 			DSEStats.getInstance().logStatistics();
@@ -56,6 +56,8 @@ public class CheapPurityAnalyzer {
 			.getLogger(CheapPurityAnalyzer.class);
 
 	private final HashSet<MethodEntry> updateFieldMethodList = new HashSet<>();
+	private final HashSet<MethodEntry> updateArrayMethodList = new HashSet<>();
+	private final HashMap<MethodEntry, Boolean> sideEffectCache = new HashMap<>();
 	private final HashMap<MethodEntry, Boolean> purityCache = new HashMap<>();
 	private final HashSet<MethodEntry> methodEntries = new HashSet<>();
 
@@ -356,6 +358,35 @@ public class CheapPurityAnalyzer {
 	 * @return true if the method is cheap-pure, otherwise false.
 	 */
 	public boolean isPure(java.lang.reflect.Method method) {
+		MethodEntry entry = getMethodEntry(method);
+		boolean isPureValue = isPure(entry);
+		return isPureValue;
+	}
+
+	/**
+	 * Returns if a Method is <code>cheap-pure</code> and in addition does not
+	 * store into arrays, neither directly nor through the methods it calls.
+	 * Cheap-purity only considers field updates, so a cheap-pure method may
+	 * still change the elements of an array it has access to.
+	 * 
+	 * @param method
+	 * @return true if calling the method cannot change any existing object
+	 */
+	public boolean isSideEffectFree(java.lang.reflect.Method method) {
+		MethodEntry entry = getMethodEntry(method);
+		if (!isPure(entry))
+			return false;
+
+		// Only complete results are cached, as the recursion cuts cycles
+		Boolean cached = sideEffectCache.get(entry);
+		if (cached == null) {
+			cached = !updatesArray(entry, new HashSet<>());
+			sideEffectCache.put(entry, cached);
+		}
+		return cached;
+	}
+
+	private MethodEntry getMethodEntry(java.lang.reflect.Method method) {
 		// Using getName rather than getCanonicalName because that's what
 		// the inheritancetree also uses
 		String className = method.getDeclaringClass().getName();
@@ -366,9 +397,61 @@ public class CheapPurityAnalyzer {
 		String methodName = method.getName();
 		String descriptor = Type.getMethodDescriptor(method);
 
-		MethodEntry entry = new MethodEntry(className, methodName, descriptor);
-		boolean isPureValue = isPure(entry);
-		return isPureValue;
+		return new MethodEntry(className, methodName, descriptor);
+	}
+
+	private boolean updatesArray(MethodEntry entry, Set<MethodEntry> visited) {
+		if (!visited.add(entry))
+			return false;
+
+		if (isArrayCall(entry))
+			return false;
+
+		if (isJdkPureMethod(entry)) {
+			// The JDK list only considers fields, e.g. it contains System.arraycopy
+			for (Type parameter : Type.getArgumentTypes(entry.descriptor)) {
+				if (parameter.getSort() == Type.ARRAY)
+					return true;
+			}
+			return false;
+		}
+
+		if (!BytecodeInstrumentation.checkIfCanInstrument(entry.className))
+			return true;
+
+		if (updateArrayMethodList.contains(entry))
+			return true;
+
+		for (HashMap<MethodEntry, Set<MethodEntry>> calls : Arrays.asList(staticCalls,
+				specialCalls, virtualCalls, interfaceCalls)) {
+			if (calls.containsKey(entry)) {
+				for (MethodEntry call : calls.get(entry)) {
+					if (updatesArray(call, visited))
+						return true;
+				}
+			}
+		}
+
+		InheritanceTree inheritanceTree = DependencyAnalysis.getInheritanceTree();
+		if (inheritanceTree == null || !inheritanceTree.hasClass(entry.className))
+			return true;
+
+		for (String subclassName : inheritanceTree.getSubclasses(entry.className)) {
+			MethodEntry subclassEntry = new MethodEntry(subclassName,
+					entry.methodName, entry.descriptor);
+			if (methodEntries.contains(subclassEntry) && updatesArray(subclassEntry, visited))
+				return true;
+		}
+
+		if (!methodsWithBodies.contains(entry) && !interfaceMethodEntries.contains(entry)) {
+			for (String superClassName : inheritanceTree.getOrderedSuperclasses(entry.className)) {
+				MethodEntry superEntry = new MethodEntry(superClassName,
+						entry.methodName, entry.descriptor);
+				if (methodsWithBodies.contains(superEntry))
+					return updatesArray(superEntry, visited);
+			}
+		}
+		return false;
 	}
 
 	private static class MethodEntry {
@@ -430,6 +513,14 @@ public class CheapPurityAnalyzer {
 		updateFieldMethodList.add(entry);
 	}
 
+	public void addUpdatesArrayMethod(String className, String methodName,
+			String descriptor) {
+		String classNameWithDots = className.replace('/', '.');
+		MethodEntry entry = new MethodEntry(classNameWithDots, methodName,
+				descriptor);
+		updateArrayMethodList.add(entry);
+	}
+
 	private final HashMap<MethodEntry, Set<MethodEntry>> staticCalls = new HashMap<>();
 	private final HashMap<MethodEntry, Set<MethodEntry>> virtualCalls = new HashMap<>();
 	private final HashMap<MethodEntry, Set<MethodEntry>> specialCalls = new HashMap<>();
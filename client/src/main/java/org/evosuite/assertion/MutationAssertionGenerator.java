@@ -31,6 +31,7 @@ import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.Properties.Criterion;
 import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.mutation.MutantBatch;
 import org.evosuite.coverage.mutation.Mutation;
 import org.evosuite.coverage.mutation.MutationObserver;
 import org.evosuite.coverage.mutation.MutationPool;
@@ -137,6 +138,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		containsTraceObserver.clear();
 		try {
 			logger.debug("Executing test");
+			long start = System.nanoTime();
 			if (mutant == null) {
 				MutationObserver.deactivateMutation();
 			} else {
@@ -144,6 +146,8 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 			}
 			result = TestCaseExecutor.getInstance().execute(test);
 			MutationObserver.deactivateMutation(mutant);
+			if (mutant != null)
+				MutantBatch.executed(System.nanoTime() - start);
 
 			int num = test.size();
 			MaxStatementsStoppingCondition.statementsExecuted(num);
@@ -222,6 +226,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 			LoggingUtils.getEvoLogger().info(
 					"* Resulting test suite's mutation score: " + NumberFormat.getPercentInstance().format(score));
 		}
+		MutantBatch.trackStatistics();
 	}
 
 	/**
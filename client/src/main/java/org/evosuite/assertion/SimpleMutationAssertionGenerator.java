@@ -31,6 +31,7 @@ import java.util.Map.Entry;
 
 import org.evosuite.Properties;
 import org.evosuite.TimeController;
+import org.evosuite.coverage.mutation.MutantBatch;
 import org.evosuite.coverage.mutation.Mutation;
 import org.evosuite.coverage.mutation.MutationTimeoutStoppingCondition;
 import org.evosuite.rmi.ClientServices;
@@ -153,11 +154,24 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 				executedMutants.add(mutants.get(mutationId));
 		}
 
-		Randomness.shuffle(executedMutants);
 		logger.debug("Executed mutants: "+origResult.getTrace().getTouchedMutants());
 
+		// Mutants that were reached but never infected the state would produce
+		// the very same traces as the original, so only infected ones are run
+		MutantBatch batch = new MutantBatch(origResult.getTrace(), executedMutants);
+		List<Mutation> infectedMutants = batch.getInfected();
+		Randomness.shuffle(infectedMutants);
+		MutantBatch.skipped(batch.getUninfected().size());
+		logger.debug("Skipping {} uninfected mutants", batch.getUninfected().size());
+		for (Mutation m : batch.getUninfected()) {
+			if (MutationTimeoutStoppingCondition.isDisabled(m)
+					|| timedOutMutations.getOrDefault(m, 0) >= Properties.MUTATION_TIMEOUTS
+					|| exceptionMutations.getOrDefault(m, 0) >= Properties.MUTATION_TIMEOUTS)
+				killed.add(m.getId());
+		}
+
 		int numExecutedMutants = 0;
-		for (Mutation m : executedMutants) {
+		for (Mutation m : infectedMutants) {
 
 			numExecutedMutants++;
 			if (! TimeController.getInstance().isThereStillTimeInThisPhase()) {
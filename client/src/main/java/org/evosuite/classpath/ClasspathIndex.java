@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.classpath;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.evosuite.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists the classes contained in classpath entries (folders and jar files).
+ *
+ * <p>
+ * Entries are listed in parallel on the common fork-join pool, as for large
+ * classpaths this is dominated by file system access. The listing of a jar
+ * file only needs its central directory, which {@link ZipFile} maps into
+ * memory without reading the compressed entries.
+ * </p>
+ *
+ * <p>
+ * If <code>classpath_index_dir</code> is set, the listings of jar files are
+ * stored in that folder, keyed by path, size and modification time of the
+ * jar, and later runs on the same jars load them from there. Folders are
+ * always scanned, as they are typically the build output of the project
+ * under test.
+ * </p>
+ */
+class ClasspathIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ClasspathIndex.class);
+
+	/** To be increased whenever the format of the stored listings changes */
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String FILE_EXTENSION = ".classes";
+
+	private ClasspathIndex() {
+	}
+
+	/**
+	 * List the classes of several classpath entries in parallel
+	 *
+	 * @param classPathEntries
+	 *            paths of folders and jar files
+	 * @return the names (e.g., foo.Foo) of the classes in each entry, keyed
+	 *         by its absolute path. Entries that do not exist or are neither a
+	 *         folder nor a jar file are missing.
+	 */
+	static Map<String, List<String>> listClasses(Collection<String> classPathEntries) {
+		Map<String, List<String>> listings = new ConcurrentHashMap<>();
+		classPathEntries.parallelStream().map(entry -> new File(entry).getAbsoluteFile()).distinct()
+				.forEach(file -> {
+					List<String> classes = listClasses(file);
+					if (classes != null) {
+						listings.put(file.getPath(), classes);
+					}
+				});
+		return listings;
+	}
+
+	/**
+	 * @return the names of the classes in the given folder or jar file, in
+	 *         the order they are found, or null if it is neither
+	 */
+	static List<String> listClasses(File classPathEntry) {
+		if (classPathEntry.isDirectory()) {
+			List<String> classes = new ArrayList<>();
+			scanDirectory(classPathEntry, classPathEntry.getAbsolutePath(), classes);
+			return classes;
+		} else if (classPathEntry.getName().endsWith(".jar") && classPathEntry.isFile()) {
+			return listJar(classPathEntry);
+		}
+		return null;
+	}
+
+	private static void scanDirectory(File directory, String classPathFolder, List<String> classes) {
+		if (!directory.canRead()) {
+			logger.warn("No permission to read: " + directory.getAbsolutePath());
+			return;
+		}
+
+		File[] fileList = directory.listFiles();
+		if (fileList == null) {
+			return;
+		}
+		for (File file : fileList) {
+			if (file.isDirectory()) {
+				scanDirectory(file, classPathFolder, classes);
+			} else if (file.getName().endsWith(".class")) {
+				String relativeFilePath = file.getAbsolutePath().replace(classPathFolder + File.separator, "");
+				classes.add(ResourceList.getClassNameFromResourcePath(relativeFilePath));
+			}
+		}
+	}
+
+	private static List<String> listJar(File jar) {
+		File stored = getStoredListing(jar);
+		if (stored != null && stored.exists()) {
+			try {
+				return Files.readAllLines(stored.toPath(), StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				logger.warn("Could not read listing of " + jar + " from " + stored + ": " + e);
+			}
+		}
+
+		List<String> classes = new ArrayList<>();
+		try (ZipFile zip = new ZipFile(jar)) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				String entryName = entries.nextElement().getName();
+				if (entryName.endsWith(".class")) {
+					classes.add(ResourceList.getClassNameFromResourcePath(entryName));
+				}
+			}
+		} catch (IOException e) {
+			logger.error("Error while reading jar file " + jar + ": " + e.getMessage(), e);
+			return classes;
+		}
+
+		if (stored != null) {
+			store(stored, classes);
+		}
+		return classes;
+	}
+
+	/**
+	 * @return the file the listing of the jar is stored in, or null if
+	 *         listings are not stored
+	 */
+	private static File getStoredListing(File jar) {
+		if (Properties.CLASSPATH_INDEX_DIR == null) {
+			return null;
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			String fingerprint = FORMAT_VERSION + ";" + jar.getAbsolutePath() + ";" + jar.length() + ";"
+					+ jar.lastModified();
+			digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+			String key = String.format("%064x", new BigInteger(1, digest.digest()));
+			return new File(Properties.CLASSPATH_INDEX_DIR, key + FILE_EXTENSION);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void store(File file, List<String> classes) {
+		try {
+			File folder = file.getParentFile();
+			folder.mkdirs();
+			// Other processes may read the listing at any time, so it has to
+			// appear at once
+			Path tmp = Files.createTempFile(folder.toPath(), file.getName(), ".tmp");
+			Files.write(tmp, classes, StandardCharsets.UTF_8);
+			try {
+				Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			logger.warn("Could not store classpath listing in " + file + ": " + e);
+		}
+	}
+}
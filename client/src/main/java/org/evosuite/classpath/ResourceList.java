@@ -24,8 +24,8 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -492,13 +492,27 @@ public class ResourceList {
 		cache = new Cache();
 
 		String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		List<String> entries = Arrays.asList(cp.split(File.pathSeparator));
 
-		for(String entry : cp.split(File.pathSeparator)){
-			addEntry(entry);
-		}		
+		/*
+		 * Listing the classes of the entries is what takes time, and can be done in parallel.
+		 * The entries are still added in classpath order, as the first one having a class wins
+		 */
+		Map<String, List<String>> listings = ClasspathIndex.listClasses(entries);
+		for(String entry : entries){
+			addEntry(entry, listings.get(new File(entry).getAbsolutePath()));
+		}
 	}
 
 	private void addEntry(String classPathElement) throws IllegalArgumentException{
+		addEntry(classPathElement, null);
+	}
+
+	/**
+	 * @param classPathElement
+	 * @param classes the classes in the entry, or null if they have not been listed yet
+	 */
+	private void addEntry(String classPathElement, List<String> classes) throws IllegalArgumentException{
 		final File file = new File(classPathElement);
 
 		classPathElement = file.getAbsolutePath();
@@ -515,102 +529,38 @@ public class ResourceList {
 					+ file.getAbsolutePath() + " does not exist");
 		}
 
-		if (file.isDirectory()) {
-			scanDirectory(file,classPathElement);
-		} else if (file.getName().endsWith(".jar")) {
-			scanJar(classPathElement);
-		} else {
+		if(classes == null){
+			classes = ClasspathIndex.listClasses(file);
+		}
+		if(classes == null){
 			throw new IllegalArgumentException("The class path resource "
 					+ file.getAbsolutePath() + " is not valid");
-		}		
-	}
-
-	private void scanDirectory(final File directory,
-			final String classPathFolder) {
-
-		if (!directory.exists()) {
-			return;
-		}
-		if (!directory.isDirectory()) {
-			return;
 		}
-		if (!directory.canRead()) {
-			logger.warn("No permission to read: "+directory.getAbsolutePath());
-			return;
-		}
-
-		String prefix =  directory.getAbsolutePath().replace(classPathFolder + File.separator,"");
-		prefix = prefix.replace(File.separatorChar, '.');
-
-		File[] fileList = directory.listFiles();
-		for (final File file : fileList) {
-			if (file.isDirectory()) {
-				/*
-				 * recursion till we get to a file that is not a folder.
-				 */
-				scanDirectory(file, classPathFolder);
-			} else {
-				if(! file.getName().endsWith(".class")){
-					continue; // we are only interested in class files
-				}
-				String relativeFilePath = file.getAbsolutePath().replace(classPathFolder + File.separator,"");
-				String className = getClassNameFromResourcePath(relativeFilePath);
-
-				// The same class may exist in different classpath entries
-				// and only the first one is kept
-				if(getCache().mapClassToCP.containsKey(className))
-					continue;
-				
-				// If there is an outer class, then we also have a classpath
-				// problem and should ignore this
-				if(className.contains("$")) {
-					String outerClass = className.substring(0, className.indexOf('$'));
-					if(getCache().mapClassToCP.containsKey(outerClass)) {
-						if(!getCache().mapClassToCP.get(outerClass).equals(classPathFolder)) {
-							continue;
-						}
-					}
-				}
 
-
-				getCache().mapClassToCP.put(className, classPathFolder);
-				getCache().mapCPtoClasses.get(classPathFolder).add(className);
-				getCache().addPrefix(prefix, classPathFolder);
-			}
-		}
+		addClasses(classPathElement, classes);
 	}
 
-	private void scanJar(String jarEntry) {
-		JarFile zf = getCache().getJar(jarEntry);
-
-		Enumeration<?> e = zf.entries();
-		while (e.hasMoreElements()) {
-			JarEntry ze = (JarEntry) e.nextElement();
-			String entryName = ze.getName();
-
-			if(! entryName.endsWith(".class")){
-				continue;
-			}
-
-			String className = getClassNameFromResourcePath(entryName);
-			
+	private void addClasses(String classPathElement, List<String> classes) {
+		for(String className : classes){
 			// The same class may exist in different classpath entries
 			// and only the first one is kept
 			if(getCache().mapClassToCP.containsKey(className))
 				continue;
-			
+
+			// If there is an outer class, then we also have a classpath
+			// problem and should ignore this
 			if(className.contains("$")) {
 				String outerClass = className.substring(0, className.indexOf('$'));
 				if(getCache().mapClassToCP.containsKey(outerClass)) {
-					if(!getCache().mapClassToCP.get(outerClass).equals(jarEntry)) {
+					if(!getCache().mapClassToCP.get(outerClass).equals(classPathElement)) {
 						continue;
 					}
 				}
 			}
-			
-			getCache().mapClassToCP.put(className, jarEntry);//getPackageName
-			getCache().mapCPtoClasses.get(jarEntry).add(className);
-			getCache().addPrefix(getParentPackageName(className), jarEntry);
+
+			getCache().mapClassToCP.put(className, classPathElement);
+			getCache().mapCPtoClasses.get(classPathElement).add(className);
+			getCache().addPrefix(getParentPackageName(className), classPathElement);
 		}
 	}
 
@@ -22,11 +22,11 @@ package org.evosuite.coverage.branch;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
@@ -35,6 +35,7 @@ import org.evosuite.graphs.cfg.CFGMethodAdapter;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionSummary;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testsuite.TestSuiteChromosome;
@@ -80,6 +81,11 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	private final Set<Integer> removedBranchesT = new LinkedHashSet<>();
 	private final Set<Integer> removedBranchesF = new LinkedHashSet<>();
 	private final Set<String> removedRootBranches = new LinkedHashSet<>();
+
+	// Dense views of branchesId and the removed branches, indexed by actual branch id
+	private transient boolean[] isTargetBranch = new boolean[0];
+	private transient boolean[] isRemovedT = new boolean[0];
+	private transient boolean[] isRemovedF = new boolean[0];
 	
 	/**
 	 * <p>
@@ -108,6 +114,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		methods.addAll(CFGMethodAdapter.getMethodsPrefix(classLoader, prefix));
 
 		determineCoverageGoals(true);
+		indexBranches();
 
 		totalGoals = branchCoverageTrueMap.size() + branchCoverageFalseMap.size() + branchlessMethodCoverageMap.size();
 
@@ -145,6 +152,30 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		}
 	}
 
+	/**
+	 * Build the dense views of the target and removed branches. Actual branch
+	 * ids are assigned consecutively by the BranchPool, so they can be used as
+	 * array indices.
+	 */
+	private void indexBranches() {
+		int size = 0;
+		for (Integer id : branchesId)
+			size = Math.max(size, id + 1);
+		isTargetBranch = new boolean[size];
+		isRemovedT = new boolean[size];
+		isRemovedF = new boolean[size];
+		for (Integer id : branchesId)
+			isTargetBranch[id] = true;
+		for (Integer id : removedBranchesT)
+			isRemovedT[id] = true;
+		for (Integer id : removedBranchesF)
+			isRemovedF[id] = true;
+	}
+
+	private boolean isTargetBranch(int id) {
+		return id >= 0 && id < isTargetBranch.length && isTargetBranch[id];
+	}
+
 	/**
 	 * If there is an exception in a superconstructor, then the corresponding
 	 * constructor might not be included in the execution trace
@@ -190,22 +221,18 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	}
 
 	protected void handleBranchlessMethods(TestChromosome test, ExecutionResult result, Map<String, Integer> callCount) {
-		for (Entry<String, Integer> entry : result.getTrace().getMethodExecutionCount().entrySet()) {
-
-			if (entry.getKey() == null || !methods.contains(entry.getKey()) || removedRootBranches.contains(entry.getKey()))
+		ExecutionSummary summary = result.getSummary();
+		for (int i = 0; i < summary.getNumMethods(); i++) {
+			String method = summary.getMethod(i);
+			if (method == null || !methods.contains(method) || removedRootBranches.contains(method))
 				continue;
-			if (!callCount.containsKey(entry.getKey()))
-				callCount.put(entry.getKey(), entry.getValue());
-			else {
-				callCount.put(entry.getKey(),
-						callCount.get(entry.getKey()) + entry.getValue());
-			}
+			callCount.merge(method, summary.getMethodCount(i), Integer::sum);
 			// If a specific target method is set we need to check
 			// if this is a target branch or not
-			if (branchlessMethodCoverageMap.containsKey(entry.getKey())) {
-				TestFitnessFunction goal = branchlessMethodCoverageMap.get(entry.getKey());
+			if (branchlessMethodCoverageMap.containsKey(method)) {
+				TestFitnessFunction goal = branchlessMethodCoverageMap.get(method);
 				test.getTestCase().addCoveredGoal(goal);
-				toRemoveRootBranches.add(entry.getKey());
+				toRemoveRootBranches.add(method);
 				if (Properties.TEST_ARCHIVE) {
 					Archive.getArchiveInstance().updateArchive(goal, test, 0.0);
 				}
@@ -213,67 +240,48 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		}
 	}
 
-	protected void handlePredicateCount(ExecutionResult result, Map<Integer, Integer> predicateCount) {
-		for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
-			if (!branchesId.contains(entry.getKey())
-					|| (removedBranchesT.contains(entry.getKey())
-					&& removedBranchesF.contains(entry.getKey())))
+	/**
+	 * Merge the predicate counts and branch distances of one test into the
+	 * suite-level arrays, which are indexed by actual branch id. A distance
+	 * is NaN as long as no test has reached the branch.
+	 */
+	protected void handleBranches(TestChromosome test, ExecutionSummary summary, int[] predicateCount,
+	        double[] trueDistance, double[] falseDistance) {
+		for (int i = 0; i < summary.getNumBranches(); i++) {
+			int id = summary.getBranchId(i);
+			if (!isTargetBranch(id))
 				continue;
-			if (!predicateCount.containsKey(entry.getKey()))
-				predicateCount.put(entry.getKey(), entry.getValue());
-			else {
-				predicateCount.put(entry.getKey(),
-						predicateCount.get(entry.getKey())
-								+ entry.getValue());
-			}
-		}
-	}
-
 
-	protected void handleTrueDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> trueDistance) {
-		for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-			if(!branchesId.contains(entry.getKey())||removedBranchesT.contains(entry.getKey())) continue;
-			if (!trueDistance.containsKey(entry.getKey()))
-				trueDistance.put(entry.getKey(), entry.getValue());
-			else {
-				trueDistance.put(entry.getKey(),
-						Math.min(trueDistance.get(entry.getKey()),
-								entry.getValue()));
-			}
-			BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageTrueMap.get(entry.getKey());
-			assert goal != null;
-			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
-				test.getTestCase().addCoveredGoal(goal);
-				toRemoveBranchesT.add(entry.getKey());
-			}
-			if(Properties.TEST_ARCHIVE) {
-				Archive.getArchiveInstance().updateArchive(goal, test, entry.getValue());
+			if (summary.getPredicateCount(i) > 0 && !(isRemovedT[id] && isRemovedF[id]))
+				predicateCount[id] += summary.getPredicateCount(i);
+
+			double dt = summary.getTrueDistance(i);
+			if (!Double.isNaN(dt) && !isRemovedT[id]) {
+				trueDistance[id] = Double.isNaN(trueDistance[id]) ? dt : Math.min(trueDistance[id], dt);
+				TestFitnessFunction goal = branchCoverageTrueMap.get(id);
+				assert goal != null;
+				if (Double.compare(dt, 0.0) == 0) {
+					test.getTestCase().addCoveredGoal(goal);
+					toRemoveBranchesT.add(id);
+				}
+				if (Properties.TEST_ARCHIVE) {
+					Archive.getArchiveInstance().updateArchive(goal, test, dt);
+				}
 			}
-		}
 
-	}
-
-	protected void handleFalseDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> falseDistance) {
-		for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-			if(!branchesId.contains(entry.getKey())||!branchCoverageFalseMap.containsKey(entry.getKey())||removedBranchesF.contains(entry.getKey())) continue;
-			if (!falseDistance.containsKey(entry.getKey()))
-				falseDistance.put(entry.getKey(), entry.getValue());
-			else {
-				falseDistance.put(entry.getKey(),
-						Math.min(falseDistance.get(entry.getKey()),
-								entry.getValue()));
-			}
-			BranchCoverageTestFitness goal = (BranchCoverageTestFitness) this.branchCoverageFalseMap.get(entry.getKey());
-			assert goal != null;
-			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
-				test.getTestCase().addCoveredGoal(goal);
-				toRemoveBranchesF.add(entry.getKey());
-			}
-			if(Properties.TEST_ARCHIVE) {
-				Archive.getArchiveInstance().updateArchive(goal, test, entry.getValue());
+			double df = summary.getFalseDistance(i);
+			if (!Double.isNaN(df) && !isRemovedF[id] && branchCoverageFalseMap.containsKey(id)) {
+				falseDistance[id] = Double.isNaN(falseDistance[id]) ? df : Math.min(falseDistance[id], df);
+				TestFitnessFunction goal = branchCoverageFalseMap.get(id);
+				if (Double.compare(df, 0.0) == 0) {
+					test.getTestCase().addCoveredGoal(goal);
+					toRemoveBranchesF.add(id);
+				}
+				if (Properties.TEST_ARCHIVE) {
+					Archive.getArchiveInstance().updateArchive(goal, test, df);
+				}
 			}
 		}
-
 	}
 
 	/**
@@ -288,8 +296,8 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	 */
 	private boolean analyzeTraces(TestSuiteChromosome suite,
 								  List<ExecutionResult> results,
-								  Map<Integer, Integer> predicateCount, Map<String, Integer> callCount,
-								  Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
+								  int[] predicateCount, Map<String, Integer> callCount,
+								  double[] trueDistance, double[] falseDistance) {
 		boolean hasTimeoutOrTestException = false;
 		for (ExecutionResult result : results) {
 			if (result.hasTimeout() || result.hasTestException()) {
@@ -303,9 +311,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			test.setChanged(false);
 
 			handleBranchlessMethods(test, result, callCount);
-			handlePredicateCount(result, predicateCount);
-			handleTrueDistances(test, result, trueDistance);
-			handleFalseDistances(test, result, falseDistance);
+			handleBranches(test, result.getSummary(), predicateCount, trueDistance, falseDistance);
 
 			// In case there were exceptions in a constructor
 			handleConstructorExceptions(test, result, callCount);
@@ -336,6 +342,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			TestFitnessFunction f = branchCoverageTrueMap.remove(branch);
 			if (f != null) {
 				removedBranchesT.add(branch);
+				isRemovedT[branch] = true;
 				if (removedBranchesF.contains(branch)) {
 					totalBranches--;
 					//if(isFullyCovered(f.getTargetClass(), f.getTargetMethod())) {
@@ -350,6 +357,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			TestFitnessFunction f = branchCoverageFalseMap.remove(branch);
 			if (f != null) {
 				removedBranchesF.add(branch);
+				isRemovedF[branch] = true;
 				if (removedBranchesT.contains(branch)) {
 					totalBranches--;
 					//if(isFullyCovered(f.getTargetClass(), f.getTargetMethod())) {
@@ -380,9 +388,11 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		double fitness = 0.0;
 
 		List<ExecutionResult> results = runTestSuite(suite);
-		Map<Integer, Double> trueDistance = new LinkedHashMap<>();
-		Map<Integer, Double> falseDistance = new LinkedHashMap<>();
-		Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
+		int[] predicateCount = new int[isTargetBranch.length];
+		double[] trueDistance = new double[isTargetBranch.length];
+		double[] falseDistance = new double[isTargetBranch.length];
+		Arrays.fill(trueDistance, Double.NaN);
+		Arrays.fill(falseDistance, Double.NaN);
 		Map<String, Integer> callCount = new LinkedHashMap<>();
 
 		// Collect stats in the traces 
@@ -392,23 +402,27 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 
 		// Collect branch distances of covered branches
 		int numCoveredBranches = 0;
+		int numExecutedBranches = 0;
+
+		for (int key = 0; key < predicateCount.length; key++) {
+			if (predicateCount[key] == 0)
+				continue;
+			numExecutedBranches++;
 
-		for (Integer key : predicateCount.keySet()) {
-			
 			double df = 0.0;
 			double dt = 0.0;
-			int numExecuted = predicateCount.get(key);
+			int numExecuted = predicateCount[key];
 			
-			if(removedBranchesT.contains(key))
+			if(isRemovedT[key])
 				numExecuted++;
-			if(removedBranchesF.contains(key))
+			if(isRemovedF[key])
 				numExecuted++;
 			
-			if (trueDistance.containsKey(key)) {
-				dt =  trueDistance.get(key);
+			if (!Double.isNaN(trueDistance[key])) {
+				dt = trueDistance[key];
 			}
-			if(falseDistance.containsKey(key)){
-				df = falseDistance.get(key);
+			if (!Double.isNaN(falseDistance[key])) {
+				df = falseDistance[key];
 			}
 			// If the branch predicate was only executed once, then add 1 
 			if (numExecuted == 1) {
@@ -417,15 +431,15 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 				fitness += normalize(df) + normalize(dt);
 			}
 
-			if (falseDistance.containsKey(key)&&(Double.compare(df, 0.0) == 0))
+			if (!Double.isNaN(falseDistance[key]) && (Double.compare(df, 0.0) == 0))
 				numCoveredBranches++;
 
-			if (trueDistance.containsKey(key)&&(Double.compare(dt, 0.0) == 0))
+			if (!Double.isNaN(trueDistance[key]) && (Double.compare(dt, 0.0) == 0))
 				numCoveredBranches++;
 		}
 		
 		// +1 for every branch that was not executed
-		fitness += 2 * (totalBranches - predicateCount.size());
+		fitness += 2 * (totalBranches - numExecutedBranches);
 
 		// Ensure all methods are called
 		int missingMethods = 0;
@@ -535,5 +549,6 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		branchlessMethodCoverageMap = new LinkedHashMap<>();
 
 		determineCoverageGoals(false);
+		indexBranches();
 	}
 }
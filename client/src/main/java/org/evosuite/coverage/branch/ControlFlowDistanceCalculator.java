@@ -27,7 +27,7 @@ import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.graphs.cfg.ControlDependency;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testcase.execution.ExecutionResult;
-import org.evosuite.testcase.execution.MethodCall;
+import org.evosuite.testcase.execution.ExecutionSummary.CallDistances;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
@@ -214,16 +214,12 @@ public class ControlFlowDistanceCalculator {
 		r.setApproachLevel(branch.getInstruction().getActualCFG().getDiameter() + 1);
 
 		// Minimal distance between target node and path
-		for (MethodCall call : result.getTrace().getMethodCalls()) {
-			if (call.className.equals(className) && call.methodName.equals(methodName)) {
-				ControlFlowDistance d2;
-				Set<Branch> handled = new HashSet<>();
-				//				result.intermediateDistances = new HashMap<Branch,ControlFlowDistance>();
-				d2 = getNonRootDistance(result, call, branch, value, className,
-				                        methodName, handled);
-				if (d2.compareTo(r) < 0) {
-					r = d2;
-				}
+		for (CallDistances call : result.getSummary().getCallDistances(className, methodName)) {
+			Set<Branch> handled = new HashSet<>();
+			ControlFlowDistance d2 = getNonRootDistance(result, call, branch, value, className,
+			                                            methodName, handled);
+			if (d2.compareTo(r) < 0) {
+				r = d2;
 			}
 		}
 
@@ -231,7 +227,7 @@ public class ControlFlowDistanceCalculator {
 	}
 
 	private static ControlFlowDistance getNonRootDistance(ExecutionResult result,
-	        MethodCall call, Branch branch, boolean value, String className,
+	        CallDistances call, Branch branch, boolean value, String className,
 	        String methodName, Set<Branch> handled) {
 
 		if (branch == null)
@@ -251,9 +247,6 @@ public class ControlFlowDistanceCalculator {
 		}
 		handled.add(branch);
 
-		List<Double> trueDistances = call.trueDistanceTrace;
-		List<Double> falseDistances = call.falseDistanceTrace;
-
 		// IDEA:
 		// if this goal's branch is traced in the given path, return the
 		// true_/false_distance, depending on this.value
@@ -261,26 +254,11 @@ public class ControlFlowDistanceCalculator {
 		// and return 1 + minimum of the branch coverage goal distance over all
 		// such branches taking as value the branchExpressionValue
 
-		Set<Integer> branchTracePositions = determineBranchTracePositions(call, branch);
-
-		if (!branchTracePositions.isEmpty()) {
-
+		int index = call.indexOf(branch.getActualBranchId());
+		if (index >= 0) {
 			// branch was traced in given path
-			ControlFlowDistance r = new ControlFlowDistance(0, Double.MAX_VALUE);
-
-			for (Integer branchTracePosition : branchTracePositions)
-				if (value)
-					r.setBranchDistance(Math.min(r.getBranchDistance(),
-					                             trueDistances.get(branchTracePosition)));
-				else
-					r.setBranchDistance(Math.min(r.getBranchDistance(),
-					                             falseDistances.get(branchTracePosition)));
-
-			if (r.getBranchDistance() == Double.MAX_VALUE)
-				throw new IllegalStateException("should be impossible");
-
-			//			result.intermediateDistances.put(branch, r);
-			return r;
+			return new ControlFlowDistance(0, value ? call.getTrueDistance(index)
+			        : call.getFalseDistance(index));
 		}
 
 		ControlFlowDistance controlDependenceDistance = getControlDependenceDistancesFor(result,
@@ -298,7 +276,7 @@ public class ControlFlowDistanceCalculator {
 	}
 
 	private static ControlFlowDistance getControlDependenceDistancesFor(
-	        ExecutionResult result, MethodCall call, BytecodeInstruction instruction,
+	        ExecutionResult result, CallDistances call, BytecodeInstruction instruction,
 	        String className, String methodName, Set<Branch> handled) {
 
 		Set<ControlFlowDistance> cdDistances = getDistancesForControlDependentBranchesOf(result,
@@ -321,7 +299,7 @@ public class ControlFlowDistanceCalculator {
 	 * @param handled
 	 */
 	private static Set<ControlFlowDistance> getDistancesForControlDependentBranchesOf(
-	        ExecutionResult result, MethodCall call, BytecodeInstruction instruction,
+	        ExecutionResult result, CallDistances call, BytecodeInstruction instruction,
 	        String className, String methodName, Set<Branch> handled) {
 
 		Set<ControlFlowDistance> r = new HashSet<>();
@@ -353,17 +331,4 @@ public class ControlFlowDistanceCalculator {
 		return r;
 	}
 
-	private static Set<Integer> determineBranchTracePositions(MethodCall call,
-	        Branch branch) {
-
-		Set<Integer> r = new HashSet<>();
-		List<Integer> path = call.branchTrace;
-		for (int pos = 0; pos < path.size(); pos++) {
-			if (path.get(pos) == branch.getActualBranchId()) { //.getActualBranchId()); {
-				r.add(pos);
-			}
-		}
-		return r;
-	}
-
 }
@@ -20,7 +20,6 @@
 package org.evosuite.coverage.line;
 
 import java.util.*;
-import java.util.Map.Entry;
 
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
@@ -31,6 +30,7 @@ import org.evosuite.graphs.cfg.ControlDependency;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionSummary;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.slf4j.Logger;
@@ -62,6 +62,9 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
     private final Set<Integer> branchesToCoverFalse = new LinkedHashSet<>();
     private final Set<Integer> branchesToCoverBoth  = new LinkedHashSet<>();
 
+    /** Upper bound of the actual ids of the branches above */
+    private int branchIdBound = 0;
+
 	public LineCoverageSuiteFitness() {
 		@SuppressWarnings("unused")
 		String prefix = Properties.TARGET_CLASS_PREFIX;
@@ -259,45 +262,47 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		branchesToCoverTrue.removeAll(branchesToCoverBoth);
 		branchesToCoverFalse.removeAll(branchesToCoverBoth);
 		
+		for(Integer branchId : branchesToCoverTrue) {
+			branchIdBound = Math.max(branchIdBound, branchId + 1);
+		}
+		for(Integer branchId : branchesToCoverFalse) {
+			branchIdBound = Math.max(branchIdBound, branchId + 1);
+		}
+		for(Integer branchId : branchesToCoverBoth) {
+			branchIdBound = Math.max(branchIdBound, branchId + 1);
+		}
+
 		logger.info("Covering branches true: "+branchesToCoverTrue);
 		logger.info("Covering branches false: "+branchesToCoverFalse);
 		logger.info("Covering branches both: "+branchesToCoverBoth);
 	}
 
 	private double getControlDependencyGuidance(List<ExecutionResult> results) {
-		Map<Integer, Integer> predicateCount = new LinkedHashMap<>();
-		Map<Integer, Double> trueDistance = new LinkedHashMap<>();
-		Map<Integer, Double> falseDistance = new LinkedHashMap<>();
+		// Indexed by actual branch id; a distance is NaN as long as no test has reached the branch
+		int[] predicateCount = new int[branchIdBound];
+		double[] trueDistance = new double[branchIdBound];
+		double[] falseDistance = new double[branchIdBound];
+		Arrays.fill(trueDistance, Double.NaN);
+		Arrays.fill(falseDistance, Double.NaN);
 
 		for (ExecutionResult result : results) {
 			if (result.hasTimeout() || result.hasTestException()) {
 				continue;
 			}
-			for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
-				if (!predicateCount.containsKey(entry.getKey()))
-					predicateCount.put(entry.getKey(), entry.getValue());
-				else {
-					predicateCount.put(entry.getKey(),
-							predicateCount.get(entry.getKey())
-							+ entry.getValue());
+			ExecutionSummary summary = result.getSummary();
+			for (int i = 0; i < summary.getNumBranches(); i++) {
+				int id = summary.getBranchId(i);
+				if (id >= branchIdBound) {
+					break; // ids are sorted
 				}
-			}
-			for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-				if (!trueDistance.containsKey(entry.getKey()))
-					trueDistance.put(entry.getKey(), entry.getValue());
-				else {
-					trueDistance.put(entry.getKey(),
-							Math.min(trueDistance.get(entry.getKey()),
-									entry.getValue()));
+				predicateCount[id] += summary.getPredicateCount(i);
+				double dt = summary.getTrueDistance(i);
+				if (!Double.isNaN(dt)) {
+					trueDistance[id] = Double.isNaN(trueDistance[id]) ? dt : Math.min(trueDistance[id], dt);
 				}
-			}
-			for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-				if (!falseDistance.containsKey(entry.getKey()))
-					falseDistance.put(entry.getKey(), entry.getValue());
-				else {
-					falseDistance.put(entry.getKey(),
-							Math.min(falseDistance.get(entry.getKey()),
-									entry.getValue()));
+				double df = summary.getFalseDistance(i);
+				if (!Double.isNaN(df)) {
+					falseDistance[id] = Double.isNaN(falseDistance[id]) ? df : Math.min(falseDistance[id], df);
 				}
 			}
 		}
@@ -305,29 +310,29 @@ public class LineCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		double distance = 0.0;
 
 		for(Integer branchId : branchesToCoverBoth) {
-			if(!predicateCount.containsKey(branchId)) {
+			if(predicateCount[branchId] == 0) {
 				distance += 2.0;
-			} else if(predicateCount.get(branchId) == 1) {
+			} else if(predicateCount[branchId] == 1) {
 				distance += 1.0;
 			} else {
-				distance += normalize(trueDistance.get(branchId));
-				distance += normalize(falseDistance.get(branchId));
+				distance += normalize(trueDistance[branchId]);
+				distance += normalize(falseDistance[branchId]);
 			}
 		}
 		
 		for(Integer branchId : branchesToCoverTrue) {
-			if(!trueDistance.containsKey(branchId)) {
+			if(Double.isNaN(trueDistance[branchId])) {
 				distance += 1;
 			} else {
-				distance += normalize(trueDistance.get(branchId));
+				distance += normalize(trueDistance[branchId]);
 			}
 		}
 
 		for(Integer branchId : branchesToCoverFalse) {
-			if(!falseDistance.containsKey(branchId)) {
+			if(Double.isNaN(falseDistance[branchId])) {
 				distance += 1;
 			} else {
-				distance += normalize(falseDistance.get(branchId));
+				distance += normalize(falseDistance[branchId]);
 			}
 		}
 		
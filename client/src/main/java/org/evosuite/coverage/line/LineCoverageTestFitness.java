@@ -161,7 +161,7 @@ public class LineCoverageTestFitness extends TestFitnessFunction {
 		// evaluating will attempt to claim coverage for it in the archive
 		boolean archive = Properties.TEST_ARCHIVE;
 		Properties.TEST_ARCHIVE = false;
-		if (result.getTrace().getCoveredLines().contains(this.line)) {
+		if (result.getSummary().isLineCovered(this.line)) {
 			fitness = 0.0;
 		} else {
 			double r = Double.MAX_VALUE;
@@ -19,9 +19,6 @@
  */
 package org.evosuite.coverage.method;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
 import java.util.Objects;
 
 import org.evosuite.Properties;
@@ -29,10 +26,6 @@ import org.evosuite.ga.archive.Archive;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
-import org.evosuite.testcase.statements.ConstructorStatement;
-import org.evosuite.testcase.statements.EntityWithParametersStatement;
-import org.evosuite.testcase.statements.MethodStatement;
-import org.evosuite.testcase.statements.Statement;
 
 /**
  * Fitness function for a single test on a single method (including calls that throw exceptions)
@@ -92,25 +85,10 @@ public class MethodCoverageTestFitness extends TestFitnessFunction {
      */
     @Override
     public double getFitness(TestChromosome individual, ExecutionResult result) {
+        // The methods called by a test are only collected once per execution
         double fitness = 1.0;
-
-        List<Integer> exceptionPositions = asSortedList(result.getPositionsWhereExceptionsWereThrown());
-        for (Statement stmt : result.test) {
-            if (!isValidPosition(exceptionPositions, stmt.getPosition())) {
-              break;
-            }
-
-            if ((stmt instanceof MethodStatement || stmt instanceof ConstructorStatement)) {
-                EntityWithParametersStatement ps = (EntityWithParametersStatement)stmt;
-                String className  = ps.getDeclaringClassName();
-                String methodDesc = ps.getDescriptor();
-                String methodName = ps.getMethodName() + methodDesc;
-
-                if (this.className.equals(className) && this.methodName.equals(methodName)) {
-                    fitness = 0.0;
-                    break;
-                }
-            }
+        if (result.getSummary().getCalledMethods().contains(className + "." + methodName)) {
+            fitness = 0.0;
         }
 
         updateIndividual(individual, fitness);
@@ -126,20 +104,6 @@ public class MethodCoverageTestFitness extends TestFitnessFunction {
         return fitness;
     }
 
-    private boolean isValidPosition(List<Integer> exceptionPositions, Integer position) {
-        if (Properties.BREAK_ON_EXCEPTION) {
-            return exceptionPositions.isEmpty() || position <= exceptionPositions.get(0);
-        } else {
-            return true;
-        }
-    }
-
-    private <T extends Comparable<? super T>> List<T> asSortedList(Collection<T> c) {
-        List<T> list = new ArrayList<>(c);
-        java.util.Collections.sort(list);
-        return list;
-    }
-
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.coverage.mutation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.evosuite.rmi.ClientServices;
+import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.execution.ExecutionTrace;
+import org.evosuite.utils.IntDoubleHashMap;
+
+/**
+ * The mutants touched by one execution of a test on the original unit.
+ *
+ * <p>
+ * A mutant whose infection distance stayed above 0 during the original run
+ * was reached, but never changed the state of the execution: running the test
+ * again with the mutant activated would follow exactly the same path and
+ * produce the same traces. Such mutants are put aside as uninfected so that
+ * only the infected ones need a mutant execution.
+ * </p>
+ *
+ * <p>
+ * The class also keeps global counters of how many mutant executions were
+ * done and skipped, which are reported as output variables.
+ * </p>
+ */
+public class MutantBatch {
+
+	private static final AtomicLong executedMutants = new AtomicLong();
+
+	private static final AtomicLong skippedMutants = new AtomicLong();
+
+	private static final AtomicLong executionTime = new AtomicLong();
+
+	private final List<Mutation> infected = new ArrayList<>();
+
+	private final List<Mutation> uninfected = new ArrayList<>();
+
+	/**
+	 * @param trace
+	 *            the trace of the test executed on the original unit
+	 * @param mutants
+	 *            the mutants touched by that execution
+	 */
+	public MutantBatch(ExecutionTrace trace, Collection<Mutation> mutants) {
+		for (Mutation m : mutants) {
+			if (isInfected(trace, m.getId()))
+				infected.add(m);
+			else
+				uninfected.add(m);
+		}
+	}
+
+	/**
+	 * Mutants that need to be executed to find out whether they are killed.
+	 * The list may be reordered by the caller.
+	 */
+	public List<Mutation> getInfected() {
+		return infected;
+	}
+
+	/**
+	 * Mutants whose execution would be identical to the original one
+	 */
+	public List<Mutation> getUninfected() {
+		return Collections.unmodifiableList(uninfected);
+	}
+
+	/**
+	 * Mutants without a recorded infection distance are considered to be
+	 * infected, so that they are never skipped by mistake
+	 *
+	 * @param trace
+	 *            the trace of the test executed on the original unit
+	 * @param mutationId
+	 *            the id of the mutant
+	 * @return false if the mutant was reached, but never infected the state
+	 */
+	public static boolean isInfected(ExecutionTrace trace, int mutationId) {
+		Map<Integer, Double> distances = trace.getMutationDistances();
+		if (distances instanceof IntDoubleHashMap) {
+			return ((IntDoubleHashMap) distances).getOrDefault(mutationId, 0.0) <= 0.0;
+		}
+		Double distance = distances.get(mutationId);
+		return distance == null || distance <= 0.0;
+	}
+
+	/**
+	 * Record one execution of a test on a mutant
+	 *
+	 * @param nanos
+	 *            time the execution took
+	 */
+	public static void executed(long nanos) {
+		executedMutants.incrementAndGet();
+		executionTime.addAndGet(nanos);
+	}
+
+	/**
+	 * Record mutant executions that were not necessary
+	 */
+	public static void skipped(int num) {
+		skippedMutants.addAndGet(num);
+	}
+
+	public static long getNumExecutedMutants() {
+		return executedMutants.get();
+	}
+
+	public static long getNumSkippedMutants() {
+		return skippedMutants.get();
+	}
+
+	/**
+	 * @return mutant executions per second of time spent executing mutants
+	 */
+	public static double getExecutedMutantsPerSecond() {
+		long nanos = executionTime.get();
+		if (nanos <= 0)
+			return 0.0;
+		return executedMutants.get() * 1_000_000_000.0 / nanos;
+	}
+
+	public static void trackStatistics() {
+		ClientServices.track(RuntimeVariable.Mutants_Executed, getNumExecutedMutants());
+		ClientServices.track(RuntimeVariable.Mutants_Skipped, getNumSkippedMutants());
+		ClientServices.track(RuntimeVariable.Mutants_Executed_Per_Second, getExecutedMutantsPerSecond());
+	}
+
+	public static void reset() {
+		executedMutants.set(0);
+		skippedMutants.set(0);
+		executionTime.set(0);
+	}
+}
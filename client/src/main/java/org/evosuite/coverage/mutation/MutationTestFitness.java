@@ -112,11 +112,14 @@ public abstract class MutationTestFitness extends TestFitnessFunction {
 			else
 				logger.debug("Executing test witout mutant");
 
+			long start = System.nanoTime();
 			if (mutant != null)
 				MutationObserver.activateMutation(mutant);
 			result = TestCaseExecutor.getInstance().execute(test);
-			if (mutant != null)
+			if (mutant != null) {
 				MutationObserver.deactivateMutation(mutant);
+				MutantBatch.executed(System.nanoTime() - start);
+			}
 
 			int num = test.size();
 			if (!result.noThrownExceptions()) {
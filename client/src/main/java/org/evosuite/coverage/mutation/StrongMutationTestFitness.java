@@ -92,11 +92,14 @@ public class StrongMutationTestFitness extends MutationTestFitness {
 			else
 				logger.debug("Executing test without mutant");
 
+			long start = System.nanoTime();
 			if (mutant != null)
 				MutationObserver.activateMutation(mutant);
 			result = TestCaseExecutor.getInstance().execute(test);
-			if (mutant != null)
+			if (mutant != null) {
 				MutationObserver.deactivateMutation(mutant);
+				MutantBatch.executed(System.nanoTime() - start);
+			}
 
 			int num = test.size();
 			if (!result.noThrownExceptions()) {
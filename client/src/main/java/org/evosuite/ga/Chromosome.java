@@ -26,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -58,6 +59,15 @@ public abstract class Chromosome<T extends Chromosome<T>>
 	/** Previous fitness, to see if there was an improvement */
     private final LinkedHashMap<FitnessFunction<T>, Double> previousFitnessValues = new LinkedHashMap<>();
 
+	/** Numbering of the goals of a many-objective search, if any */
+	private transient GoalIndex<T> goalIndex = null;
+
+	/**
+	 * Last recorded fitness value of each goal of the goal index, NaN if it has
+	 * not been recorded
+	 */
+	private transient double[] goalFitness = null;
+
 	/** Has this chromosome changed since its fitness was last evaluated? */
 	private boolean changed = true;
 
@@ -126,6 +136,63 @@ public abstract class Chromosome<T extends Chromosome<T>>
 				: ff.getFitness(self()); // Calculate new value if non is cached
 	}
 
+	/**
+	 * Returns the fitness of this chromosome for the goal with the given number
+	 * in the goal index of this chromosome.
+	 *
+	 * @param goal the number of the goal, as assigned by {@link #getGoalIndex()}
+	 * @return the fitness of this chromosome
+	 */
+	public double getFitness(int goal) {
+		if (goalFitness != null && goal < goalFitness.length) {
+			double value = goalFitness[goal];
+			if (!Double.isNaN(value))
+				return value;
+		}
+		return getFitness(goalIndex.get(goal));
+	}
+
+	public GoalIndex<T> getGoalIndex() {
+		return goalIndex;
+	}
+
+	/**
+	 * Sets the numbering of the goals, after which the fitness values of the
+	 * registered goals are also kept in a dense array.
+	 *
+	 * @param goalIndex the goal index, shared by all chromosomes of a search
+	 */
+	public void setGoalIndex(GoalIndex<T> goalIndex) {
+		if (this.goalIndex == goalIndex)
+			return;
+		this.goalIndex = goalIndex;
+		this.goalFitness = null;
+		if (goalIndex != null)
+			fitnessValues.forEach(this::setGoalFitness);
+	}
+
+	/**
+	 * Copies the goal index and the fitness array of the given chromosome,
+	 * which must have the same fitness values as this one.
+	 */
+	protected void copyGoalFitness(Chromosome<T> other) {
+		goalIndex = other.goalIndex;
+		goalFitness = other.goalFitness == null ? null : other.goalFitness.clone();
+	}
+
+	private void setGoalFitness(FitnessFunction<T> ff, double value) {
+		int goal = goalIndex.indexOf(ff);
+		if (goal < 0)
+			return;
+		if (goalFitness == null || goal >= goalFitness.length) {
+			int length = goalFitness == null ? 0 : goalFitness.length;
+			goalFitness = goalFitness == null ? new double[goalIndex.size()]
+			        : Arrays.copyOf(goalFitness, Math.max(goal + 1, goalIndex.size()));
+			Arrays.fill(goalFitness, length, goalFitness.length, Double.NaN);
+		}
+		goalFitness[goal] = value;
+	}
+
 	public Map<FitnessFunction<T>, Double> getFitnessValues() {
 		return this.fitnessValues;
 	}
@@ -149,6 +216,10 @@ public abstract class Chromosome<T extends Chromosome<T>>
 		//TODO mainfitness?
 		this.fitnessValues.clear();
 		this.fitnessValues.putAll(fits);
+		if (goalIndex != null) {
+			goalFitness = null;
+			fitnessValues.forEach(this::setGoalFitness);
+		}
 	}
 
 	public void setPreviousFitnessValues(Map<FitnessFunction<T>, Double> lastFits) {
@@ -212,6 +283,8 @@ public abstract class Chromosome<T extends Chromosome<T>>
                            int numCoveredGoals) {
 		this.fitnessValues.put(ff, fitnessValue);
 		this.previousFitnessValues.put(ff, fitnessValue);
+		if (goalIndex != null)
+			setGoalFitness(ff, fitnessValue);
 		this.coverageValues.put(ff, coverage);
 		this.numsCoveredGoals.put(ff, numCoveredGoals);
 		this.numsNotCoveredGoals.put(ff, -1);
@@ -232,6 +305,8 @@ public abstract class Chromosome<T extends Chromosome<T>>
 
 		previousFitnessValues.put(ff, fitnessValues.getOrDefault(ff, value));
 		fitnessValues.put(ff, value);
+		if (goalIndex != null)
+			setGoalFitness(ff, value);
 	}
 
     /**
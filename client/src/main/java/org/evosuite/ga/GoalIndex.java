@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense numbering of the goals of a many-objective search.
+ *
+ * <p>
+ * Goals are numbered in the order in which they are registered, starting at
+ * 0. Chromosomes that know the index of the goals they are evaluated against
+ * (see {@link Chromosome#setGoalIndex(GoalIndex)}) store the fitness for each
+ * goal in an array at that position, so that the ranking and comparators of
+ * MOSA do not need to look goals up in hash maps. Goals have to be registered
+ * before the search starts; the index is read-only afterwards and can thus be
+ * shared between threads.
+ * </p>
+ */
+public class GoalIndex<T extends Chromosome<T>> implements Serializable {
+
+	private static final long serialVersionUID = -4262016683342393154L;
+
+	private final Map<FitnessFunction<T>, Integer> indices = new HashMap<>();
+
+	private final List<FitnessFunction<T>> goals = new ArrayList<>();
+
+	/**
+	 * @return the number of the goal, which is newly assigned if the goal has
+	 *         not been registered yet
+	 */
+	public int register(FitnessFunction<T> goal) {
+		Integer index = indices.get(goal);
+		if (index == null) {
+			index = goals.size();
+			indices.put(goal, index);
+			goals.add(goal);
+		}
+		return index;
+	}
+
+	public void registerAll(Collection<? extends FitnessFunction<T>> goals) {
+		goals.forEach(this::register);
+	}
+
+	/**
+	 * @return the number of the goal, or -1 if it has not been registered
+	 */
+	public int indexOf(FitnessFunction<?> goal) {
+		return indices.getOrDefault(goal, -1);
+	}
+
+	/**
+	 * @return the numbers of the given goals in iteration order, with -1 for
+	 *         goals that have not been registered
+	 */
+	public int[] indicesOf(Collection<? extends FitnessFunction<T>> goals) {
+		int[] result = new int[goals.size()];
+		int i = 0;
+		for (FitnessFunction<T> goal : goals)
+			result[i++] = indexOf(goal);
+		return result;
+	}
+
+	public FitnessFunction<T> get(int index) {
+		return goals.get(index);
+	}
+
+	public int size() {
+		return goals.size();
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A list of goals whose fitness values are read from the fitness arrays of
+ * the chromosomes when these have a {@link GoalIndex}, and from their fitness
+ * maps otherwise.
+ *
+ * <p>
+ * The numbers of the goals are resolved once per goal index rather than once
+ * per access, which is what makes the comparisons of the ranking of
+ * many-objective algorithms cheap.
+ * </p>
+ */
+public class IndexedGoals<T extends Chromosome<T>> implements Serializable {
+
+	private static final long serialVersionUID = 2203725946245383914L;
+
+	/** Numbers of the goals in one goal index */
+	private static final class Resolved<T extends Chromosome<T>> {
+
+		private final GoalIndex<T> goalIndex;
+
+		private final int[] indices;
+
+		Resolved(GoalIndex<T> goalIndex, int[] indices) {
+			this.goalIndex = goalIndex;
+			this.indices = indices;
+		}
+	}
+
+	private final List<FitnessFunction<T>> goals;
+
+	private transient Resolved<T> resolved = null;
+
+	public IndexedGoals(Collection<? extends FitnessFunction<T>> goals) {
+		this.goals = new ArrayList<>(goals);
+	}
+
+	public int size() {
+		return goals.size();
+	}
+
+	public FitnessFunction<T> get(int i) {
+		return goals.get(i);
+	}
+
+	/**
+	 * @param c the chromosome
+	 * @param i the position of the goal in this list
+	 * @return the fitness of the chromosome for the goal
+	 */
+	public double getFitness(T c, int i) {
+		GoalIndex<T> goalIndex = c.getGoalIndex();
+		if (goalIndex != null) {
+			Resolved<T> current = resolved;
+			if (current == null || current.goalIndex != goalIndex) {
+				current = new Resolved<>(goalIndex, goalIndex.indicesOf(goals));
+				resolved = current;
+			}
+			int goal = current.indices[i];
+			if (goal >= 0)
+				return c.getFitness(goal);
+		}
+		return c.getFitness(goals.get(i));
+	}
+}
@@ -23,12 +23,15 @@ import org.evosuite.Properties;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.factories.RandomLengthTestFactory;
+import org.evosuite.testsuite.SerializedTests;
 import org.evosuite.testsuite.TestSuiteSerialization;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 public class ArchiveTestChromosomeFactory implements ChromosomeFactory<TestChromosome> {
@@ -44,18 +47,58 @@ public class ArchiveTestChromosomeFactory implements ChromosomeFactory<TestChrom
    */
   private List<TestChromosome> seededTests;
 
+  /**
+   * Tests from previous runs stored in the binary format, which are only decoded when used
+   */
+  private transient SerializedTests seeds;
+
+  /**
+   * Indices in {@link #seeds} of the tests for the target class that have not been used yet
+   */
+  private transient List<Integer> seedIndices;
+
   public ArchiveTestChromosomeFactory() {
     if (Properties.CTG_SEEDS_FILE_IN != null) {
       //This does happen in CTG
-      seededTests = TestSuiteSerialization.loadTests(Properties.CTG_SEEDS_FILE_IN);
-      LoggingUtils.getEvoLogger().info("* Loaded {} tests from {}", seededTests.size(), Properties.CTG_SEEDS_FILE_IN);
+      File file = new File(Properties.CTG_SEEDS_FILE_IN);
+      if (SerializedTests.isBinaryFormat(file)) {
+        try {
+          seeds = SerializedTests.open(file);
+          seedIndices = seeds.getIndices(Properties.TARGET_CLASS);
+          LoggingUtils.getEvoLogger().info("* Found {} tests in {}", seedIndices.size(), Properties.CTG_SEEDS_FILE_IN);
+        } catch (IOException e) {
+          logger.error("Failed to read tests from " + file.getAbsolutePath() + ": " + e.getMessage());
+        }
+      } else {
+        seededTests = TestSuiteSerialization.loadTests(file);
+        LoggingUtils.getEvoLogger().info("* Loaded {} tests from {}", seededTests.size(), Properties.CTG_SEEDS_FILE_IN);
+      }
+    }
+  }
+
+  /**
+   * @return a test from a previous run that has not been used yet, or {@code null} if there is none left
+   */
+  private TestChromosome nextSeededTest() {
+    if (seededTests != null && !seededTests.isEmpty()) {
+      return seededTests.remove(seededTests.size() - 1); //pull out one element, 'last' just for efficiency
+    }
+    while (seedIndices != null && !seedIndices.isEmpty()) {
+      int index = seedIndices.remove(seedIndices.size() - 1);
+      try {
+        return seeds.loadTest(index);
+      } catch (IOException e) {
+        logger.warn("Problems when reading a serialized test: " + e.getMessage());
+      }
     }
+    return null;
   }
 
   @Override
   public TestChromosome getChromosome() {
 
-    if (seededTests != null && !seededTests.isEmpty()) {
+    TestChromosome seeded = nextSeededTest();
+    if (seeded != null) {
       /*
               Ideally, we should populate the archive directly when EvoSuite starts.
               But might be bit tricky based on current archive implementation (which needs executed tests).
@@ -63,12 +106,8 @@ public class ArchiveTestChromosomeFactory implements ChromosomeFactory<TestChrom
               However, this is done just once per test, as anyway those will end up
               in archive.
        */
-      TestChromosome
-          test =
-          seededTests
-              .remove(seededTests.size() - 1); //pull out one element, 'last' just for efficiency
-      test.getTestCase().removeAssertions(); // no assertions are used during search
-      return test;
+      seeded.getTestCase().removeAssertions(); // no assertions are used during search
+      return seeded;
     }
 
     TestChromosome test = null;
@@ -79,7 +79,7 @@ public class CoverageArchive extends Archive {
    * {@inheritDoc}
    */
   @Override
-  public void updateArchive(TestFitnessFunction target, TestChromosome solution, double fitnessValue) {
+  public synchronized void updateArchive(TestFitnessFunction target, TestChromosome solution, double fitnessValue) {
     super.updateArchive(target, solution, fitnessValue);
     assert this.covered.containsKey(target) || this.uncovered.contains(target) : "Unknown goal: "+target;
 
@@ -81,7 +81,7 @@ public class MIOArchive extends Archive {
    * {@inheritDoc}
    */
   @Override
-  public void updateArchive(TestFitnessFunction target, TestChromosome solution, double fitnessValue) {
+  public synchronized void updateArchive(TestFitnessFunction target, TestChromosome solution, double fitnessValue) {
     super.updateArchive(target, solution, fitnessValue);
     assert this.archive.containsKey(target);
 
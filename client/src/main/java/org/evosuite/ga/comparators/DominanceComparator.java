@@ -25,6 +25,7 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.IndexedGoals;
 
 /**
  * This class implements a <code>Comparator</code> (a method for comparing <code>Chromosomes</code>
@@ -38,6 +39,8 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
 
     private Set<FitnessFunction<T>> objectives;
 
+    private IndexedGoals<T> goals;
+
 
     public DominanceComparator() {
       this.objectives = null;
@@ -49,6 +52,7 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
      */
     public DominanceComparator(Set<? extends FitnessFunction<T>> goals) {
       this.objectives = new LinkedHashSet<>(goals);
+      this.goals = new IndexedGoals<>(this.objectives);
     }
 
     /**
@@ -58,6 +62,7 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
     public DominanceComparator(FitnessFunction<T> goal) {
       this.objectives = new LinkedHashSet<>();
       this.objectives.add(goal);
+      this.goals = new IndexedGoals<>(this.objectives);
     }
 
     /**
@@ -83,10 +88,11 @@ public class DominanceComparator<T extends Chromosome<T>> implements Comparator<
 
         if (this.objectives == null) {
           this.objectives = new LinkedHashSet<>(c1.getFitnessValues().keySet());
+          this.goals = new IndexedGoals<>(this.objectives);
         }
 
-        for (FitnessFunction<T> ff : this.objectives) {
-            int flag = Double.compare(c1.getFitness(ff), c2.getFitness(ff));
+        for (int i = 0; i < this.goals.size(); i++) {
+            int flag = Double.compare(this.goals.getFitness(c1, i), this.goals.getFitness(c2, i));
 
             if (flag < 0) {
               dominate1 = true;
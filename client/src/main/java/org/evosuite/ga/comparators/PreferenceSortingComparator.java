@@ -18,10 +18,12 @@
 package org.evosuite.ga.comparators;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Comparator;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.IndexedGoals;
 
 /**
  * This class implements a <code>Comparator</code> (a method for comparing <code>Chromosomes</code>
@@ -35,7 +37,7 @@ public class PreferenceSortingComparator<T extends Chromosome<T>> implements Com
 
 	private static final long serialVersionUID = 8939172959105413213L;
 
-	private final FitnessFunction<T> objective;
+	private final IndexedGoals<T> objective;
 
 	/**
 	 * Constructor
@@ -43,7 +45,7 @@ public class PreferenceSortingComparator<T extends Chromosome<T>> implements Com
 	 * @param goal a {@link org.evosuite.ga.FitnessFunction} object
 	 */
 	public PreferenceSortingComparator(FitnessFunction<T> goal) {
-		this.objective = goal;
+		this.objective = new IndexedGoals<>(Collections.singleton(goal));
 	}
 
 	/**
@@ -63,8 +65,8 @@ public class PreferenceSortingComparator<T extends Chromosome<T>> implements Com
 		}
 
 		double value1, value2;
-		value1 = solution1.getFitness(this.objective);
-		value2 = solution2.getFitness(this.objective);
+		value1 = this.objective.getFitness(solution1, 0);
+		value2 = this.objective.getFitness(solution2, 0);
 		if (value1 < value2) {
 			return -1;
 		} else if (value1 > value2) {
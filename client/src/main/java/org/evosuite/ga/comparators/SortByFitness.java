@@ -20,10 +20,12 @@
 package org.evosuite.ga.comparators;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Comparator;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.IndexedGoals;
 
 /**
  * Sort a Collection of Chromosomes by their fitness value
@@ -34,7 +36,7 @@ public class SortByFitness<T extends Chromosome<T>> implements Comparator<T>, Se
 
     private static final long serialVersionUID = 4982933698286500461L;
 
-    private final FitnessFunction<T> ff;
+    private final IndexedGoals<T> ff;
 
     private final boolean order;
 
@@ -44,7 +46,7 @@ public class SortByFitness<T extends Chromosome<T>> implements Comparator<T>, Se
      * @param desc descending order
      */
     public SortByFitness(FitnessFunction<T> ff, boolean desc) {
-        this.ff = ff;
+        this.ff = new IndexedGoals<>(Collections.singleton(ff));
         this.order = desc;
     }
 
@@ -56,8 +58,8 @@ public class SortByFitness<T extends Chromosome<T>> implements Comparator<T>, Se
         else if (c2 == null)
             return -1;
 
-        double objetive1 = c1.getFitness(this.ff);
-        double objetive2 = c2.getFitness(this.ff);
+        double objetive1 = this.ff.getFitness(c1, 0);
+        double objetive2 = this.ff.getFitness(c2, 0);
 
         return this.order
                 ? Double.compare(objetive2, objetive1)
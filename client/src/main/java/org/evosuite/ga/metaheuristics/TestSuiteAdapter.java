@@ -6,6 +6,7 @@ import org.evosuite.ga.*;
 import org.evosuite.ga.bloatcontrol.BloatControlFunction;
 import org.evosuite.ga.bloatcontrol.MaxSizeBloatControl;
 import org.evosuite.ga.operators.crossover.*;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
 import org.evosuite.ga.operators.ranking.RankingFunction;
@@ -269,6 +270,9 @@ public abstract class TestSuiteAdapter<A extends GeneticAlgorithm<TestChromosome
             return new FastNonDominatedSorting<>();
         } else if (function instanceof RankBasedPreferenceSorting) {
             return new RankBasedPreferenceSorting<>();
+        } else if (function instanceof EfficientNonDominatedSorting) {
+            return new EfficientNonDominatedSorting<>(
+                    ((EfficientNonDominatedSorting<?>) function).isPreferenceSorting());
         } else {
             throw new IllegalArgumentException("cannot adapt ranking function " + function);
         }
@@ -26,6 +26,7 @@ import org.evosuite.coverage.exception.ExceptionCoverageSuiteFitness;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.GoalIndex;
 import org.evosuite.ga.archive.Archive;
 import org.evosuite.ga.comparators.DominanceComparator;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
@@ -61,6 +62,9 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 	// This is required for the Archive, which currently only supports TestFitnessFunctions.
 	protected final List<TestFitnessFunction> fitnessFunctions = new ArrayList<>();
 
+	/** Dense numbering of the fitness functions, see {@link GoalIndex} */
+	protected final GoalIndex<TestChromosome> goalIndex = new GoalIndex<>();
+
 	private MOSATestSuiteAdapter adapter = null;
 
 	/** Keep track of overall suite fitness functions and correspondent test fitness functions */
@@ -69,6 +73,12 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 	/** Object used to keep track of the execution time needed to reach the maximum coverage */
 	protected final BudgetConsumptionMonitor budgetMonitor;
 
+	/** Computes fitness values of batches concurrently, if enabled */
+	private transient ParallelFitnessEvaluator parallelEvaluator = null;
+
+	/** Populations evolved in turn if <code>num_islands</code> is greater than one */
+	private Islands islands = null;
+
 	/**
 	 * Constructor.
 	 *
@@ -111,6 +121,7 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 	public void addFitnessFunction(final FitnessFunction<TestChromosome> function) {
 		if (function instanceof TestFitnessFunction) {
 			fitnessFunctions.add((TestFitnessFunction) function);
+			goalIndex.register(function);
 		} else {
 			throw new IllegalArgumentException("Only TestFitnessFunctions are supported");
 		}
@@ -134,6 +145,8 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 	 */
 	protected List<TestChromosome> breedNextGeneration() {
 		List<TestChromosome> offspringPopulation = new ArrayList<>(Properties.POPULATION);
+		// offspring whose evaluation is deferred to a single batch
+		List<TestChromosome> pending = new ArrayList<>();
 		// we apply only Properties.POPULATION/2 iterations since in each generation
 		// we generate two offsprings
 		for (int i = 0; i < Properties.POPULATION / 2 && !this.isFinished(); i++) {
@@ -167,7 +180,7 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 			if (offspring1.isChanged()) {
 				this.clearCachedResults(offspring1);
 				offspring1.updateAge(this.currentIteration);
-				this.calculateFitness(offspring1);
+				this.evaluateOffspring(offspring1, pending);
 				offspringPopulation.add(offspring1);
 			}
 
@@ -176,7 +189,7 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 			if (offspring2.isChanged()) {
 				this.clearCachedResults(offspring2);
 				offspring2.updateAge(this.currentIteration);
-				this.calculateFitness(offspring2);
+				this.evaluateOffspring(offspring2, pending);
 				offspringPopulation.add(offspring2);
 			}
 		}
@@ -193,10 +206,11 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 			}
 			if (tch.isChanged()) {
 				tch.updateAge(this.currentIteration);
-				this.calculateFitness(tch);
+				this.evaluateOffspring(tch, pending);
 				offspringPopulation.add(tch);
 			}
 		}
+		this.calculateFitness(pending);
 		logger.info("Number of offsprings = {}", offspringPopulation.size());
 		return offspringPopulation;
 	}
@@ -266,7 +280,7 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 		chromosome.clearCachedMutationResults();
 		chromosome.clearCachedResults();
 		chromosome.clearMutationHistory();
-		chromosome.getFitnessValues().clear();
+		chromosome.setFitnessValues(Collections.emptyMap());
 	}
 
 	/**
@@ -354,6 +368,50 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 		// Determine fitness
 		this.calculateFitness();
 		this.notifyIteration();
+
+		if (Properties.NUM_ISLANDS > 1) {
+			this.initializeIslands();
+		}
+	}
+
+	/**
+	 * Creates the initial populations of the other islands. Their individuals have neither a rank
+	 * nor a crowding distance yet, so the first parents of these islands are selected at random.
+	 */
+	private void initializeIslands() {
+		this.islands = new Islands();
+		this.islands.add(this.population);
+		for (int i = 1; i < Properties.NUM_ISLANDS && !this.isFinished(); i++) {
+			this.population = new ArrayList<>(Properties.POPULATION);
+			this.generateInitialPopulation(Properties.POPULATION);
+			this.calculateFitness();
+			this.islands.add(this.population);
+		}
+		this.population = this.islands.getPopulation(this.islands.getCurrent());
+	}
+
+	/**
+	 * Evolves the current population by one generation. If there are several islands, the
+	 * population of the next island becomes the current one afterwards.
+	 */
+	protected void evolveIsland() {
+		this.evolve();
+		if (this.islands != null) {
+			this.population = this.islands.next(this.population);
+		}
+	}
+
+	/**
+	 * Returns the individuals that have migrated from the previous island to the current one since
+	 * its last generation. They already have their fitness values.
+	 *
+	 * @return the immigrants, which may be empty
+	 */
+	protected List<TestChromosome> pollIslandImmigrants() {
+		if (this.islands == null) {
+			return Collections.emptyList();
+		}
+		return this.islands.pollImmigrants();
 	}
 
 	/**
@@ -476,6 +534,73 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 	@Override
 	protected void notifySearchFinished() {
 		super.notifySearchFinished();
+		if (this.parallelEvaluator != null) {
+			this.parallelEvaluator.shutdown();
+			this.parallelEvaluator = null;
+		}
+	}
+
+	/**
+	 * Whether the fitness of a batch of tests may be computed concurrently (see
+	 * {@link ParallelFitnessEvaluator}). Variants whose set of goals changes while a test is
+	 * evaluated have to compute fitness values one test at a time.
+	 *
+	 * @return {@code false} by default
+	 */
+	protected boolean supportsParallelFitnessEvaluation() {
+		return false;
+	}
+
+	private boolean isParallelFitnessEvaluationEnabled() {
+		return this.supportsParallelFitnessEvaluation() && ParallelFitnessEvaluator.isEnabled();
+	}
+
+	/**
+	 * Evaluates the given offspring right away, or defers it to the next batch evaluation if
+	 * parallel fitness evaluation is enabled.
+	 */
+	private void evaluateOffspring(TestChromosome offspring, List<TestChromosome> pending) {
+		if (this.isParallelFitnessEvaluationEnabled()) {
+			pending.add(offspring);
+		} else {
+			this.calculateFitness(offspring);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void calculateFitness() {
+		logger.debug("Calculating fitness for " + population.size() + " individuals");
+		this.calculateFitness(this.population);
+	}
+
+	/**
+	 * Calculates the fitness of a batch of individuals.
+	 *
+	 * @param batch the individuals to evaluate
+	 */
+	protected void calculateFitness(List<TestChromosome> batch) {
+		if (!this.isParallelFitnessEvaluationEnabled() || batch.size() < 2) {
+			for (TestChromosome c : batch) {
+				if (this.isFinished()) {
+					break;
+				}
+				this.calculateFitness(c);
+			}
+			return;
+		}
+
+		if (this.isFinished()) {
+			return;
+		}
+		batch.forEach(c -> c.setGoalIndex(this.goalIndex));
+		if (this.parallelEvaluator == null) {
+			this.parallelEvaluator = new ParallelFitnessEvaluator(Properties.FITNESS_EVALUATION_THREADS);
+		}
+		this.parallelEvaluator.evaluate(batch, this.fitnessFunctions);
+		batch.forEach(this::afterFitnessCalculation);
 	}
 
 	/**
@@ -483,8 +608,18 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 	 */
 	@Override
 	protected void calculateFitness(TestChromosome c) {
+		c.setGoalIndex(this.goalIndex);
 		this.fitnessFunctions.forEach(fitnessFunction -> fitnessFunction.getFitness(c));
+		this.afterFitnessCalculation(c);
+	}
 
+	/**
+	 * Bookkeeping that has to happen sequentially once the fitness values of an individual
+	 * have been computed.
+	 *
+	 * @param c the evaluated individual
+	 */
+	private void afterFitnessCalculation(TestChromosome c) {
 		// if one of the coverage criterion is Criterion.EXCEPTION, then we have to analyse the results
 		// of the execution to look for generated exceptions
 		if (ArrayUtil.contains(Properties.CRITERION, Properties.Criterion.EXCEPTION)) {
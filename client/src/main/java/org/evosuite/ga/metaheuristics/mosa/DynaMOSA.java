@@ -70,6 +70,9 @@ public class DynaMOSA extends AbstractMOSA {
 		union.addAll(this.population);
 		union.addAll(offspringPopulation);
 
+		// for several islands: integrate individuals from the previous island
+		union.addAll(this.pollIslandImmigrants());
+
 		// Ranking the union
 		logger.debug("Union Size = {}", union.size());
 
@@ -164,7 +167,7 @@ public class DynaMOSA extends AbstractMOSA {
 		// Evolve the population generation by generation until all gaols have been covered or the
 		// search budget has been consumed.
 		while (!isFinished() && this.goalsManager.getUncoveredGoals().size() > 0) {
-			this.evolve();
+			this.evolveIsland();
 			this.notifyIteration();
 		}
 
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.operators.selection.BestKSelection;
+import org.evosuite.ga.operators.selection.RandomKSelection;
+import org.evosuite.ga.operators.selection.RankSelection;
+import org.evosuite.ga.operators.selection.SelectionFunction;
+import org.evosuite.testcase.TestChromosome;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Populations that are evolved in turn by one MOSA instance, i.e., an island model within the
+ * client process. Every island keeps its own population, while the test cluster, the instrumented
+ * classes and the archive are shared. Every <code>migrants_iteration_frequency</code> generations
+ * of an island, <code>migrants_communication_rate</code> of its individuals migrate to the next
+ * island of the ring.
+ *
+ * <p>The islands do not run concurrently: the instrumented classes report to the global
+ * {@link org.evosuite.testcase.execution.ExecutionTracer} and all tests are executed by the same
+ * sandboxed executor, so only one test can be executed at a time anyway.</p>
+ */
+class Islands {
+
+	private final List<List<TestChromosome>> populations = new ArrayList<>();
+
+	/** Individuals waiting to be integrated by the island with the same index */
+	private final List<List<TestChromosome>> immigrants = new ArrayList<>();
+
+	private final List<Integer> generations = new ArrayList<>();
+
+	private final SelectionFunction<TestChromosome> emigrantsSelection;
+
+	private int current = 0;
+
+	Islands() {
+		switch (Properties.EMIGRANT_SELECTION_FUNCTION) {
+			case RANK:
+				this.emigrantsSelection = new RankSelection<>();
+				break;
+			case RANDOMK:
+				this.emigrantsSelection = new RandomKSelection<>();
+				break;
+			default:
+				this.emigrantsSelection = new BestKSelection<>();
+		}
+	}
+
+	void add(List<TestChromosome> population) {
+		this.populations.add(population);
+		this.immigrants.add(new ArrayList<>());
+		this.generations.add(0);
+	}
+
+	int size() {
+		return this.populations.size();
+	}
+
+	int getCurrent() {
+		return this.current;
+	}
+
+	List<TestChromosome> getPopulation(int island) {
+		return this.populations.get(island);
+	}
+
+	/**
+	 * Returns and forgets the individuals that have migrated to the current island.
+	 */
+	List<TestChromosome> pollImmigrants() {
+		List<TestChromosome> arrived = this.immigrants.get(this.current);
+		this.immigrants.set(this.current, new ArrayList<>());
+		return arrived;
+	}
+
+	/**
+	 * Stores the evolved population of the current island, lets individuals migrate if due, and
+	 * switches to the next island.
+	 *
+	 * @param population the population of the current island after one generation
+	 * @return the population of the next island
+	 */
+	List<TestChromosome> next(List<TestChromosome> population) {
+		int generation = this.generations.get(this.current) + 1;
+		this.generations.set(this.current, generation);
+		this.populations.set(this.current, population);
+
+		int target = (this.current + 1) % this.populations.size();
+		if (Properties.MIGRANTS_ITERATION_FREQUENCY > 0
+				&& generation % Properties.MIGRANTS_ITERATION_FREQUENCY == 0 && !population.isEmpty()) {
+			// Ranks and crowding distances are stored in the individuals, so islands must not share them
+			for (TestChromosome emigrant : this.emigrantsSelection.select(population,
+					Properties.MIGRANTS_COMMUNICATION_RATE)) {
+				this.immigrants.get(target).add(emigrant.clone());
+			}
+		}
+
+		this.current = target;
+		return this.populations.get(this.current);
+	}
+}
@@ -92,9 +92,15 @@ public class MOSA extends AbstractMOSA {
 		union.addAll(this.population);
 		union.addAll(offspringPopulation);
 
+		// for several islands: integrate individuals from the previous island
+		union.addAll(this.pollIslandImmigrants());
+
 		// for parallel runs: integrate possible immigrants
 		if (Properties.NUM_PARALLEL_CLIENTS > 1 && !immigrants.isEmpty()) {
-			union.addAll(immigrants.poll());
+			// Immigrants arrive without fitness values
+			List<TestChromosome> arrived = immigrants.poll();
+			arrived.forEach(this::calculateFitness);
+			union.addAll(arrived);
 		}
 
 		Set<TestFitnessFunction> uncoveredGoals = this.getUncoveredGoals();
@@ -183,7 +189,7 @@ public class MOSA extends AbstractMOSA {
 
 		// TODO add here dynamic stopping condition
 		while (!this.isFinished() && this.getNumberOfUncoveredGoals() > 0) {
-			this.evolve();
+			this.evolveIsland();
 			this.notifyIteration();
 		}
 
@@ -214,4 +220,14 @@ public class MOSA extends AbstractMOSA {
 				this.budgetMonitor.getTime2MaxCoverage());
 		this.notifySearchFinished();
 	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>MOSA evaluates every test on a fixed set of goals.</p>
+	 */
+	@Override
+	protected boolean supportsParallelFitnessEvaluation() {
+		return true;
+	}
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates the goals of a batch of test cases on several threads.
+ *
+ * <p>
+ * Instrumented code reports to the global {@link org.evosuite.testcase.execution.ExecutionTracer}
+ * and runs inside the shared sandbox and static state of the SUT, so the tests of a batch are
+ * still executed one after the other on the calling thread. Only the computation of the fitness
+ * values on the resulting traces, which dominates when there are many goals, is distributed over
+ * {@link Properties#FITNESS_EVALUATION_THREADS} threads, one test case per task.
+ * </p>
+ */
+public class ParallelFitnessEvaluator {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelFitnessEvaluator.class);
+
+	/**
+	 * Criteria whose test fitness functions only read the execution result of a test.
+	 * Others (e.g., strong mutation) re-execute the test and cannot run concurrently.
+	 */
+	private static final Set<Criterion> SUPPORTED_CRITERIA = EnumSet.of(Criterion.BRANCH,
+			Criterion.LINE, Criterion.EXCEPTION, Criterion.WEAKMUTATION, Criterion.OUTPUT,
+			Criterion.INPUT, Criterion.METHOD, Criterion.METHODNOEXCEPTION, Criterion.CBRANCH,
+			Criterion.ONLYBRANCH, Criterion.ONLYLINE, Criterion.METHODTRACE);
+
+	private final ForkJoinPool pool;
+
+	public ParallelFitnessEvaluator(int threads) {
+		this.pool = new ForkJoinPool(threads);
+	}
+
+	/**
+	 * Parallel evaluation is opt-in and restricted to criteria whose fitness functions
+	 * are free of side effects on the test execution.
+	 */
+	public static boolean isEnabled() {
+		if (Properties.FITNESS_EVALUATION_THREADS <= 1)
+			return false;
+		for (Criterion criterion : Properties.CRITERION) {
+			if (!SUPPORTED_CRITERIA.contains(criterion))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Executes the changed tests of the batch and then computes all fitness values.
+	 *
+	 * @param batch the test cases to evaluate
+	 * @param fitnessFunctions the goals to evaluate each test case on
+	 */
+	public void evaluate(List<TestChromosome> batch, List<TestFitnessFunction> fitnessFunctions) {
+		for (TestChromosome c : batch) {
+			if (c.getLastExecutionResult() == null || c.isChanged()) {
+				c.setLastExecutionResult(TestCaseExecutor.runTest(c.getTestCase()));
+				c.setChanged(false);
+			}
+		}
+
+		try {
+			pool.submit(() -> batch.parallelStream()
+					.forEach(c -> fitnessFunctions.forEach(ff -> ff.getFitness(c)))).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.warn("Interrupted while computing fitness values");
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Failed to compute fitness values", e.getCause());
+		}
+	}
+
+	public void shutdown() {
+		pool.shutdownNow();
+	}
+}
@@ -90,6 +90,7 @@ public class BranchesManager extends StructuralGoalManager {
 		ExecutionResult result = TestCaseExecutor.runTest(test);
 		c.setLastExecutionResult(result);
 		c.setChanged(false);
+		c.setGoalIndex(goalIndex);
 		
 		if (result.hasTimeout() || result.hasTestException()){
 			currentGoals.forEach(f -> c.setFitness(f, Double.MAX_VALUE));
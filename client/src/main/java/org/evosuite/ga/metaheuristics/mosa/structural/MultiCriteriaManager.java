@@ -386,6 +386,7 @@ public class MultiCriteriaManager extends StructuralGoalManager implements Seria
 		ExecutionResult result = TestCaseExecutor.runTest(test);
 		c.setLastExecutionResult(result);
 		c.setChanged(false);
+		c.setGoalIndex(goalIndex);
 
 		// If the test failed to execute properly, or if the test does not cover anything,
     	// it means none of the current gaols could be reached.
@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.evosuite.ga.GoalIndex;
 import org.evosuite.ga.archive.Archive;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.testcase.TestChromosome;
@@ -59,6 +60,9 @@ public abstract class StructuralGoalManager implements Serializable {
 	/** Archive of tests and corresponding covered targets*/
 	protected Archive archive;
 
+	/** Dense numbering of all targets, used for the fitness vectors of the chromosomes */
+	protected final GoalIndex<TestChromosome> goalIndex = new GoalIndex<>();
+
 	/**
 	 * Creates a new {@code StructuralGoalManager} with the given list of targets.
 	 *
@@ -68,6 +72,7 @@ public abstract class StructuralGoalManager implements Serializable {
 	protected StructuralGoalManager(List<TestFitnessFunction> fitnessFunctions){
 		currentGoals = new HashSet<>(fitnessFunctions.size());
 		archive = Archive.getArchiveInstance();
+		goalIndex.registerAll(fitnessFunctions);
 
 		// initialize uncovered goals
 		this.archive.addTargets(fitnessFunctions);
@@ -100,6 +105,15 @@ public abstract class StructuralGoalManager implements Serializable {
 		return currentGoals;
 	}
 
+	/**
+	 * Returns the numbering of the targets.
+	 *
+	 * @return the goal index
+	 */
+	public GoalIndex<TestChromosome> getGoalIndex() {
+		return goalIndex;
+	}
+
 	/**
 	 * Returns the set of already covered goals.
 	 *
@@ -19,12 +19,13 @@ package org.evosuite.ga.operators.ranking;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.SortByFitness;
+import org.evosuite.ga.IndexedGoals;
 
 /**
  * This class implements different variants of Crowding Distance for many-objective problems
@@ -62,19 +63,21 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 		double objetiveMinn;
 		double distance;
 
-		for (final FitnessFunction<T> ff : set) {
+		IndexedGoals<T> goals = new IndexedGoals<>(set);
+		for (int i = 0; i < goals.size(); i++) {
+			final int goal = i;
 			// Sort the population by Fit n
-			front.sort(new SortByFitness<>(ff, false));
+			front.sort(Comparator.comparingDouble(t -> goals.getFitness(t, goal)));
 
-			objetiveMinn = front.get(0).getFitness(ff);
-			objetiveMaxn = front.get(front.size() - 1).getFitness(ff);
+			objetiveMinn = goals.getFitness(front.get(0), goal);
+			objetiveMaxn = goals.getFitness(front.get(front.size() - 1), goal);
 
 			// set crowding distance
 			front.get(0).setDistance(Double.POSITIVE_INFINITY);
 			front.get(size - 1).setDistance(Double.POSITIVE_INFINITY);
 
 			for (int j = 1; j < size - 1; j++) {
-				distance = front.get(j + 1).getFitness(ff) - front.get(j - 1).getFitness(ff);
+				distance = goals.getFitness(front.get(j + 1), goal) - goals.getFitness(front.get(j - 1), goal);
 				distance = distance / (objetiveMaxn - objetiveMinn);
 				distance += front.get(j).getDistance();
 				front.get(j).setDistance(distance);
@@ -101,6 +104,7 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 
 		front.forEach(t -> t.setDistance(Double.MAX_VALUE));
 
+		IndexedGoals<T> goals = new IndexedGoals<>(set);
 		int dominate1, dominate2;
 		for (int i = 0; i<front.size()-1; i++){
 			T p1 = front.get(i);
@@ -108,9 +112,9 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 				T p2 = front.get(j);
 				dominate1 = 0;
 				dominate2 = 0;
-				for (final FitnessFunction<T> ff : set) {
-					double value1 = p1.getFitness(ff);
-					double value2 = p2.getFitness(ff);
+				for (int goal = 0; goal < goals.size(); goal++) {
+					double value1 = goals.getFitness(p1, goal);
+					double value2 = goals.getFitness(p2, goal);
 					if (value1 < value2)
 						dominate1++;
 					else if (value1 > value2)
@@ -136,12 +140,13 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 		double value;
 		front.forEach(test -> test.setDistance(0));
 
-		for (final FitnessFunction<T> ff : set) {
+		IndexedGoals<T> goals = new IndexedGoals<>(set);
+		for (int goal = 0; goal < goals.size(); goal++) {
 			double min = Double.POSITIVE_INFINITY;
 			List<T> minSet = new ArrayList<>(front.size());
 			double max = 0;
 			for (T test : front){
-				value = test.getFitness(ff);
+				value = goals.getFitness(test, goal);
 				if (value < min){
 					min = value;
 					minSet.clear();
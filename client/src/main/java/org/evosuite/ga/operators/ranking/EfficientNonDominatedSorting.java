@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.utils.Randomness;
+
+/**
+ * Non-dominated sorting with the Efficient Non-dominated Sort (ENS) by Zhang
+ * et al., using binary search to find the front of each solution.
+ *
+ * <p>
+ * The fitness values of all solutions for all goals are copied once into a
+ * dense matrix, so that neither the dominance checks nor the sorting need to
+ * look up fitness values in maps. The solutions are sorted lexicographically
+ * by their fitness vectors, which guarantees that no solution is dominated by
+ * a solution that comes after it. Each solution then only needs to be
+ * compared with the solutions of the fronts built so far, and with the
+ * solutions of a few fronts only, as dominance by a front is monotone in the
+ * front index.
+ * </p>
+ *
+ * <p>
+ * With preference sorting enabled, the first front is computed as in
+ * {@link RankBasedPreferenceSorting}: it contains the best solution for each
+ * goal. The remaining solutions are ranked by the non-dominated sorting.
+ * </p>
+ */
+public class EfficientNonDominatedSorting<T extends Chromosome<T>> implements RankingFunction<T> {
+
+	private static final long serialVersionUID = 4378102245683310295L;
+
+	private final boolean preferenceSorting;
+
+	/**
+	 * A list containing all the fronts found during the search.
+	 */
+	private List<List<T>> fronts = new ArrayList<>();
+
+	public EfficientNonDominatedSorting() {
+		this(false);
+	}
+
+	/**
+	 * @param preferenceSorting
+	 *            whether the first front should contain the best solution for
+	 *            each goal instead of the non-dominated solutions
+	 */
+	public EfficientNonDominatedSorting(boolean preferenceSorting) {
+		this.preferenceSorting = preferenceSorting;
+	}
+
+	public boolean isPreferenceSorting() {
+		return preferenceSorting;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void computeRankingAssignment(List<T> solutions,
+										 Set<? extends FitnessFunction<T>> uncovered_goals) {
+		this.fronts = new ArrayList<>();
+		if (solutions.isEmpty()) {
+			return;
+		}
+
+		double[][] fitness = getFitnessMatrix(solutions, uncovered_goals);
+		int[] remaining = new int[solutions.size()];
+		int numRemaining = 0;
+
+		if (preferenceSorting) {
+			boolean[] inZeroFront = getZeroFront(solutions, fitness, uncovered_goals.size());
+			List<T> zeroFront = new ArrayList<>();
+			for (int i = 0; i < solutions.size(); i++) {
+				if (inZeroFront[i]) {
+					solutions.get(i).setRank(0);
+					zeroFront.add(solutions.get(i));
+				} else {
+					remaining[numRemaining++] = i;
+				}
+			}
+			this.fronts.add(zeroFront);
+
+			if (zeroFront.size() >= Properties.POPULATION) {
+				// No further ranking is needed to fill the next population
+				List<T> rest = new ArrayList<>(numRemaining);
+				for (int i = 0; i < numRemaining; i++) {
+					T solution = solutions.get(remaining[i]);
+					solution.setRank(1);
+					rest.add(solution);
+				}
+				this.fronts.add(rest);
+				return;
+			}
+		} else {
+			for (int i = 0; i < solutions.size(); i++) {
+				remaining[numRemaining++] = i;
+			}
+		}
+
+		sortFronts(solutions, fitness, Arrays.copyOf(remaining, numRemaining));
+	}
+
+	/**
+	 * Copies the fitness values into a matrix with one row per solution and
+	 * one column per goal
+	 */
+	private static <T extends Chromosome<T>> double[][] getFitnessMatrix(List<T> solutions,
+			Set<? extends FitnessFunction<T>> goals) {
+		double[][] fitness = new double[solutions.size()][goals.size()];
+		for (int i = 0; i < solutions.size(); i++) {
+			T solution = solutions.get(i);
+			int j = 0;
+			for (FitnessFunction<T> goal : goals) {
+				fitness[i][j++] = solution.getFitness(goal);
+			}
+		}
+		return fitness;
+	}
+
+	/**
+	 * For each goal, selects the solution with the lowest fitness value,
+	 * breaking ties by the secondary objectives and then randomly
+	 */
+	private static <T extends Chromosome<T>> boolean[] getZeroFront(List<T> solutions,
+			double[][] fitness, int numGoals) {
+		boolean[] zeroFront = new boolean[solutions.size()];
+		for (int goal = 0; goal < numGoals; goal++) {
+			int best = 0;
+			for (int i = 1; i < solutions.size(); i++) {
+				int flag = Double.compare(fitness[i][goal], fitness[best][goal]);
+				if (flag == 0) {
+					flag = solutions.get(i).compareSecondaryObjective(solutions.get(best));
+				}
+				if (flag < 0 || (flag == 0 && Randomness.nextBoolean())) {
+					best = i;
+				}
+			}
+			zeroFront[best] = true;
+		}
+		return zeroFront;
+	}
+
+	private void sortFronts(List<T> solutions, double[][] fitness, int[] indices) {
+		if (indices.length == 0) {
+			return;
+		}
+		int firstRank = this.fronts.size();
+
+		Integer[] order = new Integer[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			order[i] = indices[i];
+		}
+		// Stable, so solutions with equal fitness keep their order
+		Arrays.sort(order, (a, b) -> compareLexicographically(fitness[a], fitness[b]));
+
+		// members[k][0..sizes[k]) are the solutions of front k
+		int[][] members = new int[order.length][];
+		int[] sizes = new int[order.length];
+		int numFronts = 0;
+
+		for (int solution : order) {
+			// Find the first front that has no solution dominating this one
+			int low = 0;
+			int high = numFronts;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (isDominatedByFront(fitness, members[mid], sizes[mid], solution)) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			if (low == numFronts) {
+				members[numFronts++] = new int[4];
+			} else if (sizes[low] == members[low].length) {
+				members[low] = Arrays.copyOf(members[low], sizes[low] * 2);
+			}
+			members[low][sizes[low]++] = solution;
+		}
+
+		for (int k = 0; k < numFronts; k++) {
+			List<T> front = new ArrayList<>(sizes[k]);
+			for (int i = 0; i < sizes[k]; i++) {
+				T solution = solutions.get(members[k][i]);
+				solution.setRank(firstRank + k);
+				front.add(solution);
+			}
+			this.fronts.add(front);
+		}
+	}
+
+	private static boolean isDominatedByFront(double[][] fitness, int[] front, int size, int solution) {
+		// The solutions added last are the most similar ones, so check them first
+		for (int i = size - 1; i >= 0; i--) {
+			if (dominates(fitness[front[i]], fitness[solution])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Whether <code>first</code> is not worse than <code>second</code> for any
+	 * goal and better for at least one
+	 */
+	private static boolean dominates(double[] first, double[] second) {
+		boolean better = false;
+		for (int j = 0; j < first.length; j++) {
+			int flag = Double.compare(first[j], second[j]);
+			if (flag > 0) {
+				return false;
+			} else if (flag < 0) {
+				better = true;
+			}
+		}
+		return better;
+	}
+
+	private static int compareLexicographically(double[] first, double[] second) {
+		for (int j = 0; j < first.length; j++) {
+			int flag = Double.compare(first[j], second[j]);
+			if (flag != 0) {
+				return flag;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<T> getSubfront(int rank) {
+		if (rank >= this.fronts.size()) {
+			return new ArrayList<>();
+		}
+		return this.fronts.get(rank);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNumberOfSubfronts() {
+		return this.fronts.size();
+	}
+}
@@ -489,10 +489,10 @@ public class ControlDependenceGraph extends EvoSuiteGraph<BasicBlock, ControlFlo
 
 	private void computeControlDependence() {
 
-		ActualControlFlowGraph rcfg = cfg.computeReverseCFG();
-		DominatorTree<BasicBlock> dt = new DominatorTree<>(rcfg);
+		// post dominators, i.e., the dominators of the reverse CFG
+		DominatorTree<BasicBlock> dt = new DominatorTree<>(cfg, true);
 
-		for (BasicBlock b : rcfg.vertexSet())
+		for (BasicBlock b : cfg.vertexSet())
 			if (!b.isExitBlock()) {
 
 				logger.debug("DFs for: " + b.getName());
@@ -19,18 +19,12 @@
  */
 package org.evosuite.graphs.cdg;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * This class serves as a convenience data structure within cfg.DominatorTree
  * 
- * For every node within a CFG for which the immediateDominators are to be
- * computed this class holds auxiliary information needed during the computation
- * inside the DominatorTree
- * 
- * After that computation instances of this class hold the connection between
- * CFG nodes and their immediateDominators
+ * For every node within a CFG reachable from its root this class holds the
+ * connection between the CFG node and its immediateDominator, and forms the
+ * vertices of the DominatorTree
  * 
  * Look at cfg.DominatorTree for more detailed information
  * 
@@ -40,60 +34,16 @@ import java.util.Set;
 class DominatorNode<V> {
 
 	final V node;
-	int n = 0;
 
-	// parent of node within spanning tree of DFS inside cfg.DominatorTree
-	DominatorNode<V> parent;
+	// position in reverse postorder of the CFG, starting with 1 for the root
+	final int n;
 
-	// computed dominators 
-	DominatorNode<V> semiDominator;
+	// computed dominator
 	DominatorNode<V> immediateDominator;
 
-	// auxiliary field needed for dominator computation
-	Set<DominatorNode<V>> bucket = new HashSet<>();
-
-	// data structure needed to represented forest produced during cfg.DominatorTree computation
-	DominatorNode<V> ancestor;
-	DominatorNode<V> label;
-
-	DominatorNode(V node) {
+	DominatorNode(V node, int n) {
 		this.node = node;
-
-		this.label = this;
-	}
-
-	void link(DominatorNode<V> v) {
-		ancestor = v;
-	}
-
-	DominatorNode<V> eval() {
-		if (ancestor == null)
-			return this;
-
-		compress();
-
-		return label;
-	}
-
-	void compress() {
-		if (ancestor == null)
-			throw new IllegalStateException("may only be called when ancestor is set");
-
-		if (ancestor.ancestor != null) {
-			ancestor.compress();
-			if (ancestor.label.semiDominator.n < label.semiDominator.n)
-				label = ancestor.label;
-
-			ancestor = ancestor.ancestor;
-		}
-	}
-
-	DominatorNode<V> getFromBucket() {
-
-		for (DominatorNode<V> r : bucket)
-			return r;
-
-		return null;
+		this.n = n;
 	}
 
 	/**
@@ -19,8 +19,12 @@
  */
 package org.evosuite.graphs.cdg;
 
-import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,36 +40,51 @@ import org.jgrapht.graph.DefaultEdge;
  * Given a CFG this class computes the immediateDominators and the
  * dominatingFrontiers for each CFG vertex
  *
- * The current algorithm to determine the immediateDominators runs in time
- * O(e*log n) where e is the number of control flow edges and n the number of
- * CFG vertices and is taken from:
+ * The CFG is first copied into arrays of successor and predecessor indices,
+ * so that the computation itself does not look up any vertices or edges in
+ * the (hash based) graph. The immediateDominators are then computed with the
+ * iterative algorithm from:
  *
- * "A Fast Algorithm for Finding Dominators in a Flowgraph" THOMAS LENGAUER and
- * ROBERT ENDRE TARJAN 1979, Stanford University
+ * "A Simple, Fast Dominance Algorithm" KEITH D. COOPER, TIMOTHY J. HARVEY and
+ * KEN KENNEDY 2001, Rice University
  *
- * DOI: 10.1145/357062.357071
- * http://portal.acm.org/citation.cfm?doid=357062.357071
- *
- *
- * The algorithm for computing the dominatingFrontiers when given the
- * immediateDominators is taken from
+ * which in practice is faster than the algorithm by Lengauer and Tarjan on
+ * control flow graphs, and is taken from the same paper for the
+ * dominatingFrontiers. These are the same as the ones defined in
  *
  * "Efficiently Computing Static Single Assignment Form and the Control
  * Dependence Graph" RON CYTRON, JEANNE FERRANTE, BARRY K. ROSEN, and MARK N.
  * WEGMAN IBM Research Division and F. KENNETH ZADECK Brown University 1991
  *
+ * The vertices and edges of this graph are the dominator tree itself.
+ *
  * @author Andre Mis
  */
 public class DominatorTree<V> extends EvoSuiteGraph<DominatorNode<V>, DefaultEdge> {
 
 	private static final Logger logger = LoggerFactory.getLogger(DominatorTree.class);
 
-	private int nodeCount = 0;
+	private static final int UNDEFINED = -1;
+
 	private final ControlFlowGraph<V> cfg;
 
-	private final Map<V, DominatorNode<V>> dominatorNodesMap = new LinkedHashMap<>();
-	private final Map<Integer, DominatorNode<V>> dominatorIDMap = new LinkedHashMap<>();
-	private final Map<V, Set<V>> dominatingFrontiers = new LinkedHashMap<>();
+	/** The vertices of the CFG, by index */
+	private final List<V> vertices;
+	private final Map<V, Integer> indices;
+
+	/** Successors and predecessors by index, reversed for post dominators */
+	private final int[][] successors;
+	private final int[][] predecessors;
+
+	/** Position of each reachable vertex in the reverse postorder, the root being 0 */
+	private final int[] order;
+
+	/** Immediate dominator of each vertex, the root being its own */
+	private final int[] immediateDominators;
+
+	private final int[][] dominatingFrontiers;
+
+	private final Map<V, DominatorNode<V>> dominatorNodesMap = new HashMap<>();
 
 	/**
 	 * Will start the computation of all immediateDominators for the given CFG
@@ -74,46 +93,219 @@ public class DominatorTree<V> extends EvoSuiteGraph<DominatorNode<V>, DefaultEdg
 	 * @param cfg a {@link org.evosuite.graphs.cfg.ControlFlowGraph} object.
 	 */
 	public DominatorTree(ControlFlowGraph<V> cfg) {
+		this(cfg, false);
+	}
+
+	/**
+	 * Will start the computation of all immediateDominators for the given CFG,
+	 * or of all immediate post dominators if <code>postDominators</code> is set.
+	 * The latter are the immediateDominators of the reverse CFG, which does not
+	 * have to be built for that.
+	 *
+	 * @param cfg a {@link org.evosuite.graphs.cfg.ControlFlowGraph} object.
+	 * @param postDominators whether to follow the edges of the CFG backwards
+	 */
+	public DominatorTree(ControlFlowGraph<V> cfg, boolean postDominators) {
 		super(DefaultEdge.class);
 
 		logger.debug("Computing DominatorTree for " + cfg.getName());
 
 		this.cfg = cfg;
+		this.vertices = new ArrayList<>(cfg.vertexSet());
+		this.indices = new HashMap<>(vertices.size() * 2);
+		for (int i = 0; i < vertices.size(); i++)
+			indices.put(vertices.get(i), i);
+
+		int[][] children = new int[vertices.size()][];
+		int[][] parents = new int[vertices.size()][];
+		indexEdges(children, parents);
+		this.successors = postDominators ? parents : children;
+		this.predecessors = postDominators ? children : parents;
+
+		int root = determineRoot();
+		logger.debug("determined root: " + vertices.get(root));
+
+		int[] postorder = computePostorder(root);
+		this.order = new int[vertices.size()];
+		Arrays.fill(order, UNDEFINED);
+		for (int i = 0; i < postorder.length; i++)
+			order[postorder[postorder.length - 1 - i]] = i;
+
+		this.immediateDominators = computeImmediateDominators(root, postorder);
+		this.dominatingFrontiers = computeDominatingFrontiers(postorder);
+
+		createDominatorTree(root, postorder);
+	}
 
-		createDominatorNodes();
+	private void indexEdges(int[][] children, int[][] parents) {
+		int[] inDegrees = new int[vertices.size()];
+		for (int i = 0; i < vertices.size(); i++) {
+			Set<V> targets = cfg.getChildren(vertices.get(i));
+			children[i] = new int[targets.size()];
+			int j = 0;
+			for (V target : targets) {
+				int t = indices.get(target);
+				children[i][j++] = t;
+				inDegrees[t]++;
+			}
+		}
+		for (int i = 0; i < vertices.size(); i++)
+			parents[i] = new int[inDegrees[i]];
+		for (int i = 0; i < vertices.size(); i++)
+			for (int t : children[i])
+				parents[t][--inDegrees[t]] = i;
+	}
 
-		V root = cfg.determineEntryPoint(); // TODO change to getEntryPoint()
-		logger.debug("determined root: " + root);
-		DominatorNode<V> rootNode = getDominatorNodeFor(root);
+	/**
+	 * The root is the only vertex without predecessors, as in
+	 * {@link ControlFlowGraph#determineEntryPoint()}
+	 */
+	private int determineRoot() {
+		int root = UNDEFINED;
+		for (int i = 0; i < vertices.size(); i++) {
+			if (predecessors[i].length > 0)
+				continue;
+			if (root != UNDEFINED)
+				throw new IllegalStateException(
+				        "expect CFG to contain exactly one root for dominator computation in "
+				                + cfg.getName());
+			root = i;
+		}
+		if (root == UNDEFINED)
+			throw new IllegalStateException(
+			        "expect CFG to contain exactly one root for dominator computation in "
+			                + cfg.getName());
+		return root;
+	}
 
-		depthFirstAnalyze(rootNode);
+	/**
+	 * Iterative depth first search, as huge methods would overflow the stack
+	 *
+	 * @return the vertices reachable from the root in postorder
+	 */
+	private int[] computePostorder(int root) {
+		int[] postorder = new int[vertices.size()];
+		int size = 0;
+
+		boolean[] visited = new boolean[vertices.size()];
+		int[] stack = new int[vertices.size()];
+		int[] nextChild = new int[vertices.size()];
+		int top = 0;
+		stack[0] = root;
+		visited[root] = true;
+		while (top >= 0) {
+			int v = stack[top];
+			if (nextChild[v] < successors[v].length) {
+				int w = successors[v][nextChild[v]++];
+				if (!visited[w]) {
+					visited[w] = true;
+					stack[++top] = w;
+				}
+			} else {
+				postorder[size++] = v;
+				top--;
+			}
+		}
+		return Arrays.copyOf(postorder, size);
+	}
 
-		computeSemiDominators();
-		computeImmediateDominators(rootNode);
+	private int[] computeImmediateDominators(int root, int[] postorder) {
+		int[] idoms = new int[vertices.size()];
+		Arrays.fill(idoms, UNDEFINED);
+		idoms[root] = root;
+
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			// reverse postorder, skipping the root
+			for (int i = postorder.length - 2; i >= 0; i--) {
+				int b = postorder[i];
+				int newIdom = UNDEFINED;
+				for (int p : predecessors[b]) {
+					if (idoms[p] == UNDEFINED)
+						continue;
+					newIdom = newIdom == UNDEFINED ? p : intersect(idoms, p, newIdom);
+				}
+				if (idoms[b] != newIdom) {
+					idoms[b] = newIdom;
+					changed = true;
+				}
+			}
+		}
+		return idoms;
+	}
 
-		createDominatorTree();
+	private int intersect(int[] idoms, int b1, int b2) {
+		while (b1 != b2) {
+			while (order[b1] > order[b2])
+				b1 = idoms[b1];
+			while (order[b2] > order[b1])
+				b2 = idoms[b2];
+		}
+		return b1;
+	}
 
-		computeDominatorFrontiers(rootNode);
+	/**
+	 * A vertex b is in the dominatingFrontier of every vertex on the path in
+	 * the dominator tree from a predecessor of b up to (excluding) the
+	 * immediateDominator of b
+	 */
+	private int[][] computeDominatingFrontiers(int[] postorder) {
+		int[][] frontiers = new int[vertices.size()][];
+		int[] sizes = new int[vertices.size()];
+		int[] lastAdded = new int[vertices.size()];
+		Arrays.fill(lastAdded, UNDEFINED);
+
+		for (int b : postorder) {
+			for (int p : predecessors[b]) {
+				if (order[p] == UNDEFINED)
+					continue;
+				int runner = p;
+				while (runner != immediateDominators[b] || runner == b) {
+					if (lastAdded[runner] != b) {
+						lastAdded[runner] = b;
+						if (frontiers[runner] == null)
+							frontiers[runner] = new int[2];
+						else if (sizes[runner] == frontiers[runner].length)
+							frontiers[runner] = Arrays.copyOf(frontiers[runner], 2 * sizes[runner]);
+						frontiers[runner][sizes[runner]++] = b;
+					}
+					if (runner == immediateDominators[runner])
+						break;
+					runner = immediateDominators[runner];
+				}
+			}
+		}
 
-		//		toDot();
+		for (int i = 0; i < frontiers.length; i++) {
+			if (frontiers[i] != null) {
+				frontiers[i] = Arrays.copyOf(frontiers[i], sizes[i]);
+				Arrays.sort(frontiers[i]);
+			}
+		}
+		return frontiers;
 	}
 
-	private void createDominatorTree() {
+	private void createDominatorTree(int root, int[] postorder) {
 
-		// add dominator nodes
-		addVertices(dominatorIDMap.values());
+		// add dominator nodes, numbered in reverse postorder starting with 1 for the root
+		for (int i = postorder.length - 1; i >= 0; i--) {
+			int v = postorder[i];
+			DominatorNode<V> node = new DominatorNode<>(vertices.get(v), order[v] + 1);
+			dominatorNodesMap.put(node.node, node);
+			addVertex(node);
+		}
 
 		logger.debug("DTNodes: " + vertexCount());
 
 		// build up tree by adding for each node v an edge from v.iDom to v
-		for (DominatorNode<V> v : vertexSet()) {
-			if (v.isRootNode())
-				continue;
-			if (addEdge(v.immediateDominator, v) == null)
+		for (int i = postorder.length - 2; i >= 0; i--) {
+			int v = postorder[i];
+			DominatorNode<V> node = dominatorNodesMap.get(vertices.get(v));
+			node.immediateDominator = dominatorNodesMap.get(vertices.get(immediateDominators[v]));
+			if (addEdge(node.immediateDominator, node) == null)
 				throw new IllegalStateException(
 				        "internal error while building dominator tree edges");
-
-			logger.debug("added DTEdge from " + v.immediateDominator.n + " to " + v.n);
 		}
 
 		logger.debug("DTEdges: " + edgeCount());
@@ -121,43 +313,8 @@ public class DominatorTree<V> extends EvoSuiteGraph<DominatorNode<V>, DefaultEdg
 		// sanity check
 		if (isEmpty())
 			throw new IllegalStateException("expect dominator trees to not be empty");
-		// check tree is connected
-		if (!isConnected())
+		if (edgeCount() != vertexCount() - 1)
 			throw new IllegalStateException("dominator tree expected to be connected");
-		// TODO more sanity checks - no one likes to be insane ;)
-	}
-
-	private void computeDominatorFrontiers(DominatorNode<V> currentNode) {
-
-		// TODO check assumption: exitPoints in original CFG are exitPoints in resulting DominatorTree
-
-		for (DominatorNode<V> child : getChildren(currentNode))
-			computeDominatorFrontiers(child);
-
-		logger.debug("computing dominatingFrontier for: " + currentNode.toString());
-
-		Set<V> dominatingFrontier = dominatingFrontiers.get(currentNode);
-		if (dominatingFrontier == null)
-			dominatingFrontier = new HashSet<>();
-
-		// "local"
-		for (V child : cfg.getChildren(currentNode.node)) {
-			DominatorNode<V> y = getDominatorNodeFor(child);
-			if (y.immediateDominator.n != currentNode.n) {
-				logger.debug("  LOCAL adding to DFs: " + y.node);
-				dominatingFrontier.add(y.node);
-			}
-		}
-
-		// "up"
-		for (DominatorNode<V> z : getChildren(currentNode))
-			for (V y : dominatingFrontiers.get(z.node))
-				if (getDominatorNodeFor(y).immediateDominator.n != currentNode.n) {
-					logger.debug("  UP adding to DFs: " + y);
-					dominatingFrontier.add(y);
-				}
-
-		dominatingFrontiers.put(currentNode.node, dominatingFrontier);
 	}
 
 	/**
@@ -181,128 +338,43 @@ public class DominatorTree<V> extends EvoSuiteGraph<DominatorNode<V>, DefaultEdg
 	public V getImmediateDominator(V v) {
 		if (v == null)
 			throw new IllegalArgumentException("null given");
-		DominatorNode<V> domNode = dominatorNodesMap.get(v);
-		if (domNode == null)
+		Integer index = indices.get(v);
+		if (index == null)
 			throw new IllegalStateException("unknown vertice given");
 
-		if (domNode.immediateDominator == null) {
+		int idom = immediateDominators[index];
+		if (idom == index || idom == UNDEFINED) {
 			// sanity check: this is only allowed to happen if v is root of CFG
-			if (domNode.n != 1)
+			if (order[index] != 0)
 				throw new IllegalStateException(
 				        "expect known node without iDom to be root of CFG");
 
 			return null;
 		}
 
-		return domNode.immediateDominator.node;
+		return vertices.get(idom);
 	}
 
 	/**
 	 * <p>Getter for the field <code>dominatingFrontiers</code>.</p>
 	 *
 	 * @param v a V object.
-	 * @return a {@link java.util.Set} object.
+	 * @return a {@link java.util.Set} object, empty for nodes not reachable from the root.
 	 */
 	public Set<V> getDominatingFrontiers(V v) {
 		if (v == null)
 			throw new IllegalStateException("null given");
+		Integer index = indices.get(v);
+		if (index == null)
+			return null;
 
-		return dominatingFrontiers.get(v);
-	}
-
-	// computation
-
-	private void createDominatorNodes() {
-
-		for (V v : cfg.vertexSet())
-			dominatorNodesMap.put(v, new DominatorNode<>(v));
-	}
-
-	private void depthFirstAnalyze(DominatorNode<V> currentNode) {
-		// step 1
-
-		initialize(currentNode);
-
-		for (V w : cfg.getChildren(currentNode.node)) {
-			DominatorNode<V> wNode = getDominatorNodeFor(w);
-			if (wNode.semiDominator == null) {
-				wNode.parent = currentNode;
-				depthFirstAnalyze(wNode);
-			}
-		}
-	}
-
-	private void initialize(DominatorNode<V> currentNode) {
-
-		nodeCount++;
-		currentNode.n = nodeCount;
-		currentNode.semiDominator = currentNode;
-
-		logger.debug("created " + currentNode.toString() + " for "
-		        + currentNode.node.toString());
-
-		dominatorIDMap.put(nodeCount, currentNode);
-	}
-
-	private void computeSemiDominators() {
-
-		for (int i = nodeCount; i >= 2; i--) {
-			DominatorNode<V> w = getDominatorNodeById(i);
-
-			// step 2
-			for (V current : cfg.getParents(w.node)) {
-				DominatorNode<V> v = getDominatorNodeFor(current);
-				DominatorNode<V> u = v.eval();
-
-				if (u.semiDominator.n < w.semiDominator.n)
-					w.semiDominator = u.semiDominator;
-			}
-
-			w.semiDominator.bucket.add(w);
-			w.link(w.parent);
-
-			// step 3
-			while (!w.parent.bucket.isEmpty()) {
-
-				DominatorNode<V> v = w.parent.getFromBucket();
-				if (!w.parent.bucket.remove(v))
-					throw new IllegalStateException("internal error");
-
-				DominatorNode<V> u = v.eval();
-				v.immediateDominator = (u.semiDominator.n < v.semiDominator.n ? u
-				        : w.parent);
-			}
-		}
-	}
-
-	private void computeImmediateDominators(DominatorNode<V> rootNode) {
-		// step 4
-		for (int i = 2; i <= nodeCount; i++) {
-			DominatorNode<V> w = getDominatorNodeById(i);
-
-			if (w.immediateDominator != w.semiDominator)
-				w.immediateDominator = w.immediateDominator.immediateDominator;
-
-			//			logger.debug("iDom for node "+i+" was: "+w.immediateDominator.n);
-		}
-
-		rootNode.immediateDominator = null;
-	}
-
-	private DominatorNode<V> getDominatorNodeById(int id) {
-		DominatorNode<V> r = dominatorIDMap.get(id);
-		if (r == null)
-			throw new IllegalArgumentException("id unknown to this tree");
-
-		return r;
-	}
-
-	private DominatorNode<V> getDominatorNodeFor(V v) {
-		DominatorNode<V> r = dominatorNodesMap.get(v);
-		if (r == null)
-			throw new IllegalStateException(
-			        "expect dominatorNodesMap to contain domNodes for all Vs");
+		int[] frontier = dominatingFrontiers[index];
+		if (frontier == null)
+			return Collections.emptySet();
 
+		Set<V> r = new LinkedHashSet<>();
+		for (int y : frontier)
+			r.add(vertices.get(y));
 		return r;
 	}
 
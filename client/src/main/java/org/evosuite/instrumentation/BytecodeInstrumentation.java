@@ -164,6 +164,22 @@ public class BytecodeInstrumentation {
 
 		TransformationStatistics.reset();
 
+		String cacheKey = null;
+		InstrumentationCache cache = InstrumentationCache.getInstance();
+		if (cache.isEnabled() && isCacheable(classNameWithDots)) {
+			@SuppressWarnings("deprecation")
+			byte[] bytecode = reader.b;
+			cacheKey = cache.getKey(className, bytecode);
+			byte[] cached = cache.get(cacheKey);
+			if (cached != null) {
+				// Only register the information collected during instrumentation
+				ClassVisitor cv = createClassVisitor(classLoader, className,
+						new InstrumentationCache.DiscardingClassVisitor(), false);
+				reader.accept(cv, readFlags);
+				return cached;
+			}
+		}
+
 		/*
 		 * To use COMPUTE_FRAMES we need to remove JSR commands. Therefore, we
 		 * have a JSRInlinerAdapter in NonTargetClassAdapter as well as
@@ -177,6 +193,92 @@ public class BytecodeInstrumentation {
 			cv = new TraceClassVisitor(cv, new PrintWriter(System.err));
 		}
 
+		cv = createClassVisitor(classLoader, className, cv, true);
+
+		// Testability Transformations
+		if (classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
+				|| (!Properties.TARGET_CLASS_PREFIX.isEmpty()
+						&& classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
+				|| shouldTransform(classNameWithDots)) {
+
+			ClassNode cn = new AnnotatedClassNode();
+			reader.accept(cn, readFlags);
+			logger.info("Starting transformation of " + className);
+
+			if (Properties.STRING_REPLACEMENT) {
+				StringTransformation st = new StringTransformation(cn);
+				if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots))
+					cn = st.transform();
+			}
+
+			ComparisonTransformation cmp = new ComparisonTransformation(cn);
+			if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots)) {
+				cn = cmp.transform();
+				ContainerTransformation ct = new ContainerTransformation(cn);
+				cn = ct.transform();
+			}
+
+			if (shouldTransform(classNameWithDots)) {
+				logger.info("Testability Transforming " + className);
+
+				BooleanTestabilityTransformation tt = new BooleanTestabilityTransformation(cn, classLoader);
+				try {
+					cn = tt.transform();
+				} catch (Throwable t) {
+					throw new Error(t);
+				}
+				logger.info("Testability Transformation done: " + className);
+			}
+
+			// -----
+			cn.accept(cv);
+
+			if (Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
+				return handleCarving(className, writer);
+			}
+
+		} else {
+			reader.accept(cv, readFlags);
+		}
+
+		byte[] result = writer.toByteArray();
+		if (cacheKey != null) {
+			cache.put(cacheKey, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Only dependencies can be taken from the {@link InstrumentationCache}, as
+	 * the CFGs, branches, lines and mutants registered for analyzed classes
+	 * are not stored
+	 */
+	private boolean isCacheable(String classNameWithDots) {
+		if (Properties.TEST_CARVING || DependencyAnalysis.shouldAnalyze(classNameWithDots))
+			return false;
+		if (Properties.TT && classNameWithDots.startsWith(Properties.CLASS_PREFIX))
+			return false;
+		return !(classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
+				|| (!Properties.TARGET_CLASS_PREFIX.isEmpty()
+						&& classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
+				|| shouldTransform(classNameWithDots));
+	}
+
+	/**
+	 * Creates the chain of class visitors that instruments the class, except
+	 * for the testability transformations
+	 *
+	 * @param cv
+	 *            the class visitor receiving the instrumented class
+	 * @param countLoops
+	 *            whether loop counters should be added, which assigns new
+	 *            loop indices
+	 * @return the first class visitor of the chain
+	 */
+	private ClassVisitor createClassVisitor(ClassLoader classLoader, String className, ClassVisitor cv,
+			boolean countLoops) {
+		String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
+
 		if (Properties.RESET_STATIC_FIELDS) {
 			cv = new StaticAccessClassAdapter(cv, className);
 		}
@@ -186,7 +288,7 @@ public class BytecodeInstrumentation {
 			cv = new PurityAnalysisClassVisitor(cv, className, purityAnalyzer);
 		}
 
-		if (Properties.MAX_LOOP_ITERATIONS >= 0) {
+		if (countLoops && Properties.MAX_LOOP_ITERATIONS >= 0) {
 			cv = new LoopCounterClassAdapter(cv);
 		}
 
@@ -248,53 +350,7 @@ public class BytecodeInstrumentation {
 				cv = new SerialVersionUIDAdder(cv);
 		}
 
-		// Testability Transformations
-		if (classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
-				|| (!Properties.TARGET_CLASS_PREFIX.isEmpty()
-						&& classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
-				|| shouldTransform(classNameWithDots)) {
-
-			ClassNode cn = new AnnotatedClassNode();
-			reader.accept(cn, readFlags);
-			logger.info("Starting transformation of " + className);
-
-			if (Properties.STRING_REPLACEMENT) {
-				StringTransformation st = new StringTransformation(cn);
-				if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots))
-					cn = st.transform();
-			}
-
-			ComparisonTransformation cmp = new ComparisonTransformation(cn);
-			if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots)) {
-				cn = cmp.transform();
-				ContainerTransformation ct = new ContainerTransformation(cn);
-				cn = ct.transform();
-			}
-
-			if (shouldTransform(classNameWithDots)) {
-				logger.info("Testability Transforming " + className);
-
-				BooleanTestabilityTransformation tt = new BooleanTestabilityTransformation(cn, classLoader);
-				try {
-					cn = tt.transform();
-				} catch (Throwable t) {
-					throw new Error(t);
-				}
-				logger.info("Testability Transformation done: " + className);
-			}
-
-			// -----
-			cn.accept(cv);
-
-			if (Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
-				return handleCarving(className, writer);
-			}
-
-		} else {
-			reader.accept(cv, readFlags);
-		}
-
-		return writer.toByteArray();
+		return cv;
 	}
 
 	private byte[] handleCarving(String className, ClassWriter writer) {
@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.evosuite.Properties;
+import org.evosuite.junit.writer.TestSuiteWriterUtils;
+import org.evosuite.rmi.ClientServices;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.statistics.RuntimeVariable;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.TypePath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of instrumented bytecode, shared by all EvoSuite runs that
+ * use the same <code>instrumentation_cache_dir</code>.
+ *
+ * <p>
+ * Only classes that are instrumented as dependencies are cached, i.e., classes
+ * for which no CFG is built and which therefore register nothing in the
+ * <code>BranchPool</code>, <code>LinePool</code> or
+ * <code>MutationPool</code>. The instrumentation of such a class still
+ * registers some information (constants for the seeding pool, purity
+ * information, final classes, modified static fields), so on a hit the class
+ * visitors are run again over the original bytecode with all output
+ * discarded. This skips the generation of the bytecode and the computation
+ * of stack map frames, which is the expensive part of the instrumentation.
+ * </p>
+ *
+ * <p>
+ * The key of an entry is a hash of the original bytecode, the name of the
+ * class and all properties that influence the instrumentation of
+ * dependencies. The loop counter indices assigned during instrumentation are
+ * only valid within one run, so they are replaced by fresh indices when the
+ * bytecode is taken from the cache.
+ * </p>
+ */
+public class InstrumentationCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(InstrumentationCache.class);
+
+	/** To be increased whenever the instrumentation changes incompatibly */
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String FILE_EXTENSION = ".class";
+
+	private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+	private static final InstrumentationCache instance = new InstrumentationCache();
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private final AtomicInteger misses = new AtomicInteger();
+
+	private InstrumentationCache() {
+	}
+
+	public static InstrumentationCache getInstance() {
+		return instance;
+	}
+
+	public boolean isEnabled() {
+		return Properties.INSTRUMENTATION_CACHE_DIR != null;
+	}
+
+	/**
+	 * Determine the key of the instrumented version of a class
+	 *
+	 * @param className
+	 *            the name of the class, with slashes
+	 * @param bytecode
+	 *            the original bytecode of the class
+	 * @return the name of the cache entry
+	 */
+	public String getKey(String className, byte[] bytecode) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(bytecode);
+			digest.update(getSettings(className).getBytes(StandardCharsets.UTF_8));
+			return String.format("%064x", new BigInteger(1, digest.digest()));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Everything besides the bytecode that determines the outcome of
+	 * instrumenting a dependency
+	 */
+	private static String getSettings(String className) {
+		StringBuilder settings = new StringBuilder();
+		settings.append(FORMAT_VERSION).append(';');
+		settings.append(Properties.class.getPackage().getImplementationVersion()).append(';');
+		settings.append(className).append(';');
+		settings.append(Arrays.toString(Properties.CRITERION)).append(';');
+		settings.append(Properties.RESET_STATIC_FIELDS).append(';');
+		settings.append(Properties.RESET_STATIC_FINAL_FIELDS).append(';');
+		settings.append(Properties.PURE_INSPECTORS).append(';');
+		settings.append(Properties.MAX_LOOP_ITERATIONS >= 0).append(';');
+		settings.append(Properties.MAKE_ACCESSIBLE).append(';');
+		settings.append(Properties.INSTRUMENTATION_SKIP_DEBUG).append(';');
+		settings.append(TestSuiteWriterUtils.needToUseAgent()).append(';');
+		settings.append(RuntimeSettings.applyUIDTransformation).append(';');
+		settings.append(RuntimeSettings.mockJVMNonDeterminism).append(';');
+		settings.append(RuntimeSettings.mockSystemIn).append(';');
+		settings.append(RuntimeSettings.mockGUI).append(';');
+		settings.append(RuntimeSettings.useVFS).append(';');
+		settings.append(RuntimeSettings.useVNET).append(';');
+		settings.append(RuntimeSettings.useJEE);
+		return settings.toString();
+	}
+
+	/**
+	 * @param key
+	 *            as returned by {@link #getKey(String, byte[])}
+	 * @return the instrumented bytecode, or null if it is not in the cache
+	 */
+	public byte[] get(String key) {
+		File file = getFile(key);
+		if (file.exists()) {
+			try {
+				byte[] bytecode = relocateLoopCounters(Files.readAllBytes(file.toPath()));
+				hits.incrementAndGet();
+				return bytecode;
+			} catch (IOException | RuntimeException e) {
+				logger.warn("Could not read cached bytecode from " + file + ": " + e);
+			}
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Store the instrumented bytecode of a class
+	 *
+	 * @param key
+	 *            as returned by {@link #getKey(String, byte[])}
+	 */
+	public void put(String key, byte[] bytecode) {
+		File file = getFile(key);
+		try {
+			File folder = file.getParentFile();
+			folder.mkdirs();
+			// Other processes may read the entry at any time, so it has to
+			// appear at once
+			Path tmp = Files.createTempFile(folder.toPath(), key, ".tmp");
+			Files.write(tmp, bytecode);
+			try {
+				Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			logger.warn("Could not store instrumented bytecode in " + file + ": " + e);
+		}
+	}
+
+	private static File getFile(String key) {
+		return new File(Properties.INSTRUMENTATION_CACHE_DIR, key + FILE_EXTENSION);
+	}
+
+	/**
+	 * Replace the loop counter indices, which were assigned in the run that
+	 * stored the bytecode, with new ones
+	 */
+	private static byte[] relocateLoopCounters(byte[] bytecode) {
+		if (Properties.MAX_LOOP_ITERATIONS < 0) {
+			return bytecode;
+		}
+		final Map<Integer, Integer> indices = new HashMap<>();
+		ClassReader reader = new ClassReader(bytecode);
+		ClassWriter writer = new ClassWriter(reader, 0);
+		reader.accept(new ClassVisitor(Opcodes.ASM9, writer) {
+			@Override
+			public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+					String[] exceptions) {
+				MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+				return new MethodVisitor(Opcodes.ASM9, mv) {
+
+					/** The index is loaded right after the loop counter */
+					private boolean loadsIndex = false;
+
+					@Override
+					public void visitMethodInsn(int opcode, String owner, String name, String descriptor,
+							boolean isInterface) {
+						loadsIndex = opcode == Opcodes.INVOKESTATIC && owner.equals(LOOP_COUNTER)
+								&& name.equals("getInstance");
+						super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+					}
+
+					@Override
+					public void visitLdcInsn(Object value) {
+						if (loadsIndex && value instanceof Integer) {
+							value = indices.computeIfAbsent((Integer) value,
+									k -> LoopCounter.getInstance().getNewIndex());
+						}
+						loadsIndex = false;
+						super.visitLdcInsn(value);
+					}
+				};
+			}
+		}, 0);
+		return indices.isEmpty() ? bytecode : writer.toByteArray();
+	}
+
+	public double getHitRate() {
+		int total = hits.get() + misses.get();
+		return total == 0 ? 0.0 : (double) hits.get() / total;
+	}
+
+	public void trackStatistics() {
+		if (isEnabled()) {
+			ClientServices.track(RuntimeVariable.Instrumentation_Cache_Hit_Rate, getHitRate());
+		}
+	}
+
+	public void reset() {
+		hits.set(0);
+		misses.set(0);
+	}
+
+	/**
+	 * End of a chain of class visitors whose output is not needed
+	 */
+	static class DiscardingClassVisitor extends ClassVisitor {
+
+		private static final AnnotationVisitor annotationVisitor = new AnnotationVisitor(Opcodes.ASM9) {
+			@Override
+			public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+				return this;
+			}
+
+			@Override
+			public AnnotationVisitor visitArray(String name) {
+				return this;
+			}
+		};
+
+		DiscardingClassVisitor() {
+			super(Opcodes.ASM9);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			return annotationVisitor;
+		}
+
+		@Override
+		public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor,
+				boolean visible) {
+			return annotationVisitor;
+		}
+
+		@Override
+		public FieldVisitor visitField(int access, String name, String descriptor, String signature,
+				Object value) {
+			return new FieldVisitor(Opcodes.ASM9) {
+				@Override
+				public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+					return annotationVisitor;
+				}
+			};
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+				String[] exceptions) {
+			return new MethodVisitor(Opcodes.ASM9) {
+				@Override
+				public AnnotationVisitor visitAnnotationDefault() {
+					return annotationVisitor;
+				}
+
+				@Override
+				public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+					return annotationVisitor;
+				}
+
+				@Override
+				public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor,
+						boolean visible) {
+					return annotationVisitor;
+				}
+			};
+		}
+	}
+}
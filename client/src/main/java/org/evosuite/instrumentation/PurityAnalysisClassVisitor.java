@@ -128,6 +128,10 @@ public class PurityAnalysisClassVisitor extends ClassVisitor {
 				purityAnalyzer.addUpdatesFieldMethod(method_entry.className,
 						method_entry.methodName, method_entry.descriptor);
 			}
+			if (this.method_adapters.get(method_entry).updatesArray()) {
+				purityAnalyzer.addUpdatesArrayMethod(method_entry.className,
+						method_entry.methodName, method_entry.descriptor);
+			}
 		}
 	}
 
@@ -30,6 +30,7 @@ import org.objectweb.asm.Opcodes;
  * <ul>
  * 	<li>PUTSTATIC</li>
  * 	<li>PUTFIELD</li>
+ * 	<li>IASTORE, LASTORE, FASTORE, DASTORE, AASTORE, BASTORE, CASTORE, SASTORE</li>
  * 	<li>INVOKESTATIC</li>
  * 	<li>INVOKESPECIAL</li>
  * 	<li>INVOKEINTERFACE</li>
@@ -42,6 +43,7 @@ import org.objectweb.asm.Opcodes;
 public class PurityAnalysisMethodVisitor extends MethodVisitor {
 
 	private boolean updatesField;
+	private boolean updatesArray;
 	private final CheapPurityAnalyzer purityAnalyzer;
 	private final String classNameWithDots;
 	private final String methodName;
@@ -61,6 +63,7 @@ public class PurityAnalysisMethodVisitor extends MethodVisitor {
 			CheapPurityAnalyzer purityAnalyzer) {
 		super(Opcodes.ASM9, mv);
 		this.updatesField = false;
+		this.updatesArray = false;
 		this.purityAnalyzer = purityAnalyzer;
 		this.classNameWithDots = className.replace('/', '.');
 		this.methodName = methodName;
@@ -84,6 +87,19 @@ public class PurityAnalysisMethodVisitor extends MethodVisitor {
 		return updatesField;
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public void visitInsn(int opcode) {
+		if (opcode >= Opcodes.IASTORE && opcode <= Opcodes.SASTORE) {
+			updatesArray = true;
+		}
+		super.visitInsn(opcode);
+	}
+
+	public boolean updatesArray() {
+		return updatesArray;
+	}
+
 	@Override
 	public void visitMethodInsn(int opcode, String owner, String name,
 			String desc, boolean itf) {
@@ -26,6 +26,7 @@ import org.evosuite.Properties;
 import org.evosuite.Properties.Criterion;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.TestSuiteGenerator;
+import org.evosuite.TimeController;
 import org.evosuite.annotations.EvoSuiteTest;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.classpath.ResourceList;
@@ -35,6 +36,7 @@ import org.evosuite.coverage.TestFitnessFactory;
 import org.evosuite.coverage.mutation.Mutation;
 import org.evosuite.coverage.mutation.MutationObserver;
 import org.evosuite.coverage.mutation.MutationPool;
+import org.evosuite.junit.CoverageShard.GoalCoverage;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.runtime.EvoRunner;
@@ -142,6 +144,11 @@ public class CoverageAnalysis {
          * static state dependencies
          */
 		sortTestClasses(testClasses);
+		if (isSharded()) {
+			testClasses = getShard(testClasses);
+			LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Executing "
+			        + testClasses.size() + " test class(es) of shard " + getShardIndex());
+		}
 
 		Class<?>[] tests = testClasses.toArray(new Class<?>[testClasses.size()]);
 		LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Executing test(s)");
@@ -455,7 +462,7 @@ public class CoverageAnalysis {
 		return testClasses;
 	}
 
-	private static void analyzeCoverageCriterion(List<JUnitResult> results, Properties.Criterion criterion) {
+	private static GoalCoverage analyzeCoverageCriterion(List<JUnitResult> results, Properties.Criterion criterion) {
 
 		logger.info("analysing coverage of " + criterion);
 
@@ -471,8 +478,6 @@ public class CoverageAnalysis {
 		} else {
 			goals = factory.getCoverageGoals();
 		}
-		totalGoals += goals.size();
-
 		// A dummy Chromosome
         TestChromosome dummy = new TestChromosome();
         dummy.setChanged(false);
@@ -535,20 +540,29 @@ public class CoverageAnalysis {
 
             coverage_matrix[index_test][goals.size()] = tR.wasSuccessful();
         }
-        totalCoveredGoals += covered.cardinality();
-
         if (Properties.COVERAGE_MATRIX) {
 		    CoverageReportGenerator.writeCoverage(coverage_matrix, criterion);
         }
 
+        List<String> goalNames = new ArrayList<>(goals.size());
+        for (Object goal : goals) {
+        	goalNames.add(goal.toString());
+        }
+        return new GoalCoverage(goalNames, covered);
+	}
+
+	private static void reportCoverageCriterion(Properties.Criterion criterion, GoalCoverage coverage) {
+        totalGoals += coverage.getNumGoals();
+        totalCoveredGoals += coverage.getNumCoveredGoals();
+
         StringBuilder str = new StringBuilder();
-        for (int index_component = 0; index_component < goals.size(); index_component++) {
-        	str.append(covered.get(index_component) ? "1" : "0");
+        for (int index_component = 0; index_component < coverage.getNumGoals(); index_component++) {
+        	str.append(coverage.isCovered(index_component) ? "1" : "0");
         }
         logger.info("* CoverageBitString " + str.toString());
 
         RuntimeVariable bitStringVariable = CoverageCriteriaAnalyzer.getBitStringVariable(criterion);
-        if (goals.isEmpty()) {
+        if (coverage.getNumGoals() == 0) {
 			LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Coverage of criterion "
                     + criterion + ": 100% (no goals)");
 			ClientServices.getInstance().getClientNode().trackOutputVariable(CoverageCriteriaAnalyzer.getCoverageVariable(criterion), 1.0);
@@ -557,13 +571,13 @@ public class CoverageAnalysis {
 			}
 		} 
         else {
-        	double coverage = ((double) covered.cardinality()) / ((double) goals.size());
+        	double ratio = ((double) coverage.getNumCoveredGoals()) / ((double) coverage.getNumGoals());
         	LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Coverage of criterion " + criterion
-                    + ": " + NumberFormat.getPercentInstance().format(coverage));
+                    + ": " + NumberFormat.getPercentInstance().format(ratio));
 			LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Number of covered goals: "
-                    + covered.cardinality() + " / " + goals.size());
+                    + coverage.getNumCoveredGoals() + " / " + coverage.getNumGoals());
 
-			ClientServices.getInstance().getClientNode().trackOutputVariable(CoverageCriteriaAnalyzer.getCoverageVariable(criterion), coverage);
+			ClientServices.getInstance().getClientNode().trackOutputVariable(CoverageCriteriaAnalyzer.getCoverageVariable(criterion), ratio);
 			if (bitStringVariable != null) {
 				ClientServices.getInstance().getClientNode().trackOutputVariable(bitStringVariable, str.toString());
 			}
@@ -572,9 +586,37 @@ public class CoverageAnalysis {
 
 	private static void printReport(List<JUnitResult> results) {
 
-		Iterator<String> it = targetClasses.iterator();
 		Criterion[] criterion = Properties.CRITERION;
 
+		// target class -> criterion -> coverage
+		Map<String, Map<Criterion, GoalCoverage>> coverage = new LinkedHashMap<>();
+		for (String targetClass : targetClasses) {
+			Properties.TARGET_CLASS = targetClass;
+			Map<Criterion, GoalCoverage> classCoverage = new LinkedHashMap<>();
+			for (Criterion c : criterion) {
+				Properties.CRITERION = new Criterion[]{c};
+
+				classCoverage.put(c, analyzeCoverageCriterion(results, c));
+			}
+			coverage.put(targetClass, classCoverage);
+		}
+
+		// restore
+		Properties.CRITERION = criterion;
+
+		if (isSharded()) {
+			CoverageShard shard = new CoverageShard(results.size(), coverage);
+			if (getShardIndex() != 0) {
+				LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Sending coverage to "
+						+ ClientProcess.DEFAULT_CLIENT_NAME);
+				ClientServices.getInstance().getClientNode().sendCoverage(shard);
+				return;
+			}
+			int testsExecuted = mergeShards(coverage, results.size());
+			ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, testsExecuted);
+		}
+
+		Iterator<String> it = targetClasses.iterator();
 		while (it.hasNext()) {
 			String targetClass = it.next();
 
@@ -588,23 +630,18 @@ public class CoverageAnalysis {
 			ClientServices.getInstance().getClientNode().updateProperty("TARGET_CLASS", Properties.TARGET_CLASS);
 
 			for (Criterion c : criterion) {
-				Properties.CRITERION = new Criterion[]{c};
-
-				analyzeCoverageCriterion(results, c);
+				reportCoverageCriterion(c, coverage.get(targetClass).get(c));
 			}
 
-			// restore
-			Properties.CRITERION = criterion;
-
 			LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Total number of covered goals: "
                     + totalCoveredGoals + " / " + "" + totalGoals);
 			ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Total_Goals, totalGoals);
 			ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Covered_Goals, totalCoveredGoals);
 
-			double coverage = totalGoals == 0 ? 1.0 : ((double) totalCoveredGoals) / ((double) totalGoals);
+			double ratio = totalGoals == 0 ? 1.0 : ((double) totalCoveredGoals) / ((double) totalGoals);
 			LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Total coverage: "
-                    + NumberFormat.getPercentInstance().format(coverage));
-			ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Coverage, coverage);
+                    + NumberFormat.getPercentInstance().format(ratio));
+			ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Coverage, ratio);
 
 			// need to give some time for transmission before client is killed
 			try {
@@ -620,6 +657,55 @@ public class CoverageAnalysis {
 		}
 	}
 
+	/**
+	 * Test classes are sharded across parallel clients when measuring the
+	 * coverage of existing tests, unless they are carved
+	 */
+	private static boolean isSharded() {
+		return Properties.NUM_PARALLEL_CLIENTS > 1 && Properties.SELECTED_JUNIT == null;
+	}
+
+	private static int getShardIndex() {
+		return Integer.parseInt(ClientProcess.getIdentifier().substring(ClientProcess.CLIENT_PREFIX.length()));
+	}
+
+	/**
+	 * @param testClasses
+	 *            all test classes, in the same order in all clients
+	 * @return the test classes executed by this client
+	 */
+	static List<Class<?>> getShard(List<Class<?>> testClasses, int shardIndex, int numShards) {
+		List<Class<?>> shard = new ArrayList<>();
+		for (int i = shardIndex; i < testClasses.size(); i += numShards) {
+			shard.add(testClasses.get(i));
+		}
+		return shard;
+	}
+
+	private static List<Class<?>> getShard(List<Class<?>> testClasses) {
+		return getShard(testClasses, getShardIndex(), Properties.NUM_PARALLEL_CLIENTS);
+	}
+
+	/**
+	 * Wait for the coverage of the other clients and merge it into the given
+	 * coverage
+	 *
+	 * @return the number of tests executed by all clients
+	 */
+	private static int mergeShards(Map<String, Map<Criterion, GoalCoverage>> coverage, int testsExecuted) {
+		long timeout = TimeController.getInstance().calculateForHowLongClientWillRunInSeconds() * 1000L;
+		List<CoverageShard> shards = ClientServices.getInstance().getClientNode().getCoverageShards(timeout);
+		if (shards.size() < Properties.NUM_PARALLEL_CLIENTS - 1) {
+			LoggingUtils.getEvoLogger().warn("* " + ClientProcess.getPrettyPrintIdentifier() + "Received coverage of only "
+					+ shards.size() + " of " + (Properties.NUM_PARALLEL_CLIENTS - 1) + " other client(s)");
+		}
+		for (CoverageShard shard : shards) {
+			shard.mergeInto(coverage);
+			testsExecuted += shard.getTestsExecuted();
+		}
+		return testsExecuted;
+	}
+
 	private static List<JUnitResult> executeTests(Class<?>... testClasses) {
 
 		ExecutionTracer.enable();
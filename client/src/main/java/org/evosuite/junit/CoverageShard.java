@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.evosuite.Properties.Criterion;
+
+/**
+ * Coverage of the test classes executed by one client, when the test classes
+ * are sharded across parallel clients. All shards are sent to the first
+ * client, which merges them and reports the coverage.
+ */
+public class CoverageShard implements Serializable {
+
+	private static final long serialVersionUID = -2637340383402342716L;
+
+	/**
+	 * Goals of one criterion for one target class, and which of them are
+	 * covered.
+	 *
+	 * <p>
+	 * Goals are identified by name when merging, as the goals known to
+	 * different clients may differ (e.g., goals of inner classes only loaded
+	 * by the tests of one shard). If both clients know the same goals in the
+	 * same order, which is the common case, the covered goals are merged as
+	 * bit sets.
+	 * </p>
+	 */
+	public static class GoalCoverage implements Serializable {
+
+		private static final long serialVersionUID = 6106498331010749426L;
+
+		private final List<String> goals;
+
+		private final BitSet covered;
+
+		public GoalCoverage(List<String> goals, BitSet covered) {
+			this.goals = goals;
+			this.covered = covered;
+		}
+
+		public int getNumGoals() {
+			return goals.size();
+		}
+
+		public int getNumCoveredGoals() {
+			return covered.cardinality();
+		}
+
+		public boolean isCovered(int goal) {
+			return covered.get(goal);
+		}
+
+		/**
+		 * Add the goals and covered goals of the given coverage to this one
+		 */
+		public void merge(GoalCoverage other) {
+			if (goals.equals(other.goals)) {
+				covered.or(other.covered);
+				return;
+			}
+			Map<String, Integer> indices = new HashMap<>();
+			for (int i = 0; i < goals.size(); i++) {
+				indices.putIfAbsent(goals.get(i), i);
+			}
+			for (int i = 0; i < other.goals.size(); i++) {
+				Integer index = indices.get(other.goals.get(i));
+				if (index == null) {
+					index = goals.size();
+					goals.add(other.goals.get(i));
+					indices.put(other.goals.get(i), index);
+				}
+				if (other.covered.get(i)) {
+					covered.set(index);
+				}
+			}
+		}
+	}
+
+	private final int testsExecuted;
+
+	/** Target class -> criterion -> coverage */
+	private final Map<String, Map<Criterion, GoalCoverage>> coverage;
+
+	public CoverageShard(int testsExecuted, Map<String, Map<Criterion, GoalCoverage>> coverage) {
+		this.testsExecuted = testsExecuted;
+		this.coverage = coverage;
+	}
+
+	public int getTestsExecuted() {
+		return testsExecuted;
+	}
+
+	/**
+	 * Add the coverage of this shard to the given coverage
+	 */
+	public void mergeInto(Map<String, Map<Criterion, GoalCoverage>> target) {
+		for (Entry<String, Map<Criterion, GoalCoverage>> classCoverage : coverage.entrySet()) {
+			Map<Criterion, GoalCoverage> targetClassCoverage = target.computeIfAbsent(classCoverage.getKey(),
+			        k -> new LinkedHashMap<>());
+			for (Entry<Criterion, GoalCoverage> criterionCoverage : classCoverage.getValue().entrySet()) {
+				GoalCoverage targetCriterionCoverage = targetClassCoverage.get(criterionCoverage.getKey());
+				if (targetCriterionCoverage == null) {
+					targetClassCoverage.put(criterionCoverage.getKey(), criterionCoverage.getValue());
+				} else {
+					targetCriterionCoverage.merge(criterionCoverage.getValue());
+				}
+			}
+		}
+	}
+}
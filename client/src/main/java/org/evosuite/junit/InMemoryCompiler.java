@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles Java sources held in memory, and keeps the generated bytecode in
+ * memory as well. Nothing is written to disk.
+ * 
+ * <p>
+ * All sources are compiled in a single compiler invocation, and each error
+ * is attributed to the compilation unit it was reported for, so that the
+ * caller can tell which of its sources do not compile.
+ * </p>
+ */
+class InMemoryCompiler {
+
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryCompiler.class);
+
+	/**
+	 * Outcome of a compilation
+	 */
+	static class Result {
+
+		private final boolean compiled;
+
+		private final Map<String, byte[]> classes;
+
+		private final Set<String> failedUnits;
+
+		private final boolean unattributedErrors;
+
+		private Result(boolean compiled, Map<String, byte[]> classes, Set<String> failedUnits,
+				boolean unattributedErrors) {
+			this.compiled = compiled;
+			this.classes = classes;
+			this.failedUnits = failedUnits;
+			this.unattributedErrors = unattributedErrors;
+		}
+
+		public boolean isCompiled() {
+			return compiled;
+		}
+
+		/**
+		 * @return bytecode of all generated classes (including nested and
+		 *         anonymous ones), indexed by binary class name
+		 */
+		public Map<String, byte[]> getClasses() {
+			return classes;
+		}
+
+		/**
+		 * @return fully qualified names of the compilation units that have at
+		 *         least one error
+		 */
+		public Set<String> getFailedUnits() {
+			return failedUnits;
+		}
+
+		/**
+		 * @return true if some error could not be associated with any of the
+		 *         compilation units, e.g. because of an invalid classpath
+		 */
+		public boolean hasUnattributedErrors() {
+			return unattributedErrors;
+		}
+	}
+
+	/**
+	 * Compile the given sources
+	 * 
+	 * @param sources
+	 *            source code indexed by the fully qualified name of the
+	 *            top-level class it declares
+	 * @param classpath
+	 *            the classpath the sources are compiled against
+	 * @return null if no Java compiler is available
+	 */
+	static Result compile(Map<String, String> sources, String classpath) {
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			logger.error("No Java compiler is available");
+			return null;
+		}
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		StandardJavaFileManager standardManager = compiler.getStandardFileManager(diagnostics,
+				Locale.getDefault(), Charset.forName("UTF-8"));
+
+		List<SourceFile> units = new ArrayList<>();
+		for (Map.Entry<String, String> source : sources.entrySet()) {
+			units.add(new SourceFile(source.getKey(), source.getValue()));
+		}
+
+		// errors of one unit must not hide the errors of the others
+		List<String> options = new ArrayList<>(Arrays.asList("-classpath", classpath,
+				"-Xmaxerrs", String.valueOf(Integer.MAX_VALUE)));
+
+		Map<String, byte[]> classes = new LinkedHashMap<>();
+		boolean compiled;
+		try (MemoryFileManager fileManager = new MemoryFileManager(standardManager, classes)) {
+			compiled = compiler.getTask(null, fileManager, diagnostics, options, null, units).call();
+		} catch (IOException e) {
+			logger.error("" + e, e);
+			compiled = false;
+		}
+
+		if (compiled) {
+			return new Result(true, classes, Collections.emptySet(), false);
+		}
+
+		Set<String> failedUnits = new LinkedHashSet<>();
+		boolean unattributedErrors = false;
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+				continue;
+			}
+			JavaFileObject source = diagnostic.getSource();
+			if (source instanceof SourceFile) {
+				SourceFile unit = (SourceFile) source;
+				failedUnits.add(unit.className);
+				logger.debug("Compilation error in " + unit.className + " at line "
+						+ diagnostic.getLineNumber() + ": " + diagnostic.getMessage(null));
+			} else {
+				unattributedErrors = true;
+				logger.error("Diagnostic: " + diagnostic.getMessage(null));
+			}
+		}
+		if (failedUnits.isEmpty()) {
+			// the compilation failed, but we do not know why
+			unattributedErrors = true;
+		}
+		return new Result(false, Collections.emptyMap(), failedUnits, unattributedErrors);
+	}
+
+	/**
+	 * Source code of a single top-level class
+	 */
+	private static class SourceFile extends SimpleJavaFileObject {
+
+		private final String className;
+
+		private final String code;
+
+		SourceFile(String className, String code) {
+			super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension),
+					Kind.SOURCE);
+			this.className = className;
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	/**
+	 * Bytecode of a generated class
+	 */
+	private static class ClassFile extends SimpleJavaFileObject {
+
+		private final String className;
+
+		private final Map<String, byte[]> classes;
+
+		ClassFile(String className, Map<String, byte[]> classes) {
+			super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension),
+					Kind.CLASS);
+			this.className = className;
+			this.classes = classes;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return new ByteArrayOutputStream() {
+				@Override
+				public void close() throws IOException {
+					super.close();
+					classes.put(className, toByteArray());
+				}
+			};
+		}
+	}
+
+	/**
+	 * Reads dependencies through the standard file manager, but keeps the
+	 * generated classes in memory
+	 */
+	private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, byte[]> classes;
+
+		MemoryFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classes) {
+			super(fileManager);
+			this.classes = classes;
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className,
+				JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+			if (location == StandardLocation.CLASS_OUTPUT && kind == JavaFileObject.Kind.CLASS) {
+				return new ClassFile(className, classes);
+			}
+			return super.getJavaFileForOutput(location, className, kind, sibling);
+		}
+	}
+}
@@ -20,16 +20,9 @@
 package org.evosuite.junit;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.*;
 
-import javax.tools.Diagnostic;
-import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
-import javax.tools.JavaCompiler.CompilationTask;
-import javax.tools.JavaFileObject;
-import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
 
 import org.apache.commons.io.FileUtils;
@@ -63,15 +56,17 @@ public class JUnitAnalyzer {
 
 	private static int dirCounter = 0;
 
-	private static final String JAVA = ".java";
-	private static final String CLASS = ".class";
-
 	
 	private static NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
 	
 	/**
 	 * Try to compile each test separately, and remove the ones that cannot be
-	 * compiled
+	 * compiled.
+	 * 
+	 * <p>
+	 * Each test is written to its own test class, but all of them are compiled
+	 * in memory with a single compiler invocation. Compilation errors are then
+	 * traced back to the tests through the class they were reported for.
 	 * 
 	 * @param tests
 	 */
@@ -83,44 +78,86 @@ public class JUnitAnalyzer {
 			return;
 		}
 
-		Iterator<TestCase> iter = tests.iterator();
-
-		while (iter.hasNext()) {
+		List<Map<String, String>> suites = new ArrayList<>();
+		for (TestCase test : tests) {
 			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
 				break;
 			}
+			suites.add(generateSources(Collections.singletonList(test)));
+		}
 
-			TestCase test = iter.next();
+		Set<Integer> failing = findSuitesThatDoNotCompile(suites);
 
-			File dir = createNewTmpDir();
-			if (dir == null) {
-				logger.warn("Failed to create tmp dir");
-				return;
-			}
-			logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
-			try {
-				List<TestCase> singleList = new ArrayList<>();
-				singleList.add(test);
-				List<File> generated = compileTests(singleList, dir);
-				if (generated == null) {
-					iter.remove();
-					String code = test.toCode();
-					logger.error("Failed to compile test case:\n" + code);
+		List<Integer> toRemove = new ArrayList<>(failing);
+		Collections.sort(toRemove, Collections.reverseOrder());
+		for (int index : toRemove) {
+			TestCase test = tests.remove(index);
+			String code = test.toCode();
+			logger.error("Failed to compile test case:\n" + code);
+		}
+	}
+
+	/**
+	 * Compile the given suites all at once, and determine which of them do not
+	 * compile
+	 * 
+	 * @param suites
+	 *            sources of each suite, as returned by {@link #generateSources}
+	 * @return the indices of the suites with compilation errors
+	 */
+	private static Set<Integer> findSuitesThatDoNotCompile(List<Map<String, String>> suites) {
+
+		String classpath = getCompilationClasspath();
+		Set<Integer> failing = new LinkedHashSet<>();
+		List<Integer> pending = new ArrayList<>();
+		for (int i = 0; i < suites.size(); i++) {
+			pending.add(i);
+		}
+
+		/*
+		 * The compiler reports errors for all the compilation units, so usually one
+		 * iteration to find the failing suites and a second one to confirm that the
+		 * others compile are enough
+		 */
+		while (!pending.isEmpty()) {
+			Map<String, String> sources = new LinkedHashMap<>();
+			Map<String, Integer> unitToSuite = new HashMap<>();
+			for (int index : pending) {
+				for (Map.Entry<String, String> unit : suites.get(index).entrySet()) {
+					sources.put(unit.getKey(), unit.getValue());
+					unitToSuite.put(unit.getKey(), index);
 				}
-			} finally {
-				//let's be sure we clean up all what we wrote on disk
-				if (dir != null) {
-					try {
-						FileUtils.deleteDirectory(dir);
-						logger.debug("Deleted tmp folder: " + dir.getAbsolutePath());
-					} catch (Exception e) {
-						logger.error("Cannot delete tmp dir: " + dir.getAbsolutePath(), e);
+			}
+
+			InMemoryCompiler.Result result = InMemoryCompiler.compile(sources, classpath);
+			if (result == null) {
+				failing.addAll(pending);
+				break;
+			}
+			if (result.isCompiled()) {
+				break;
+			}
+
+			if (result.hasUnattributedErrors()) {
+				// fall back to checking one suite at a time
+				logger.warn("Cannot attribute all compilation errors, compiling each test on its own");
+				for (int index : pending) {
+					InMemoryCompiler.Result single = InMemoryCompiler.compile(suites.get(index), classpath);
+					if (single == null || !single.isCompiled()) {
+						failing.add(index);
 					}
 				}
+				break;
 			}
 
-		} // end of while
+			for (String unit : result.getFailedUnits()) {
+				Integer index = unitToSuite.get(unit);
+				failing.add(index);
+				pending.remove(index);
+			}
+		}
+
+		return failing;
 	}
 
 	/**
@@ -143,15 +180,9 @@ public class JUnitAnalyzer {
 			return numUnstable;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.error("Failed to create tmp dir");
-			return numUnstable;
-		}
-		logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
 		try {
-			List<File> generated = compileTests(tests, dir);
+			Map<String, String> sources = generateSources(tests);
+			Map<String, byte[]> generated = compileTests(sources);
 			if (generated == null) {
 				/*
 				 * Note: in theory this shouldn't really happen, as check for compilation
@@ -168,14 +199,14 @@ public class JUnitAnalyzer {
 
             // Create a new classloader so that each test gets freshly loaded classes
 			loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = loadTests(sources.keySet(), generated);
 
 			if (testClasses == null) {
 				logger.error("Found no classes for compiled tests");
 				return numUnstable;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (result.wasSuccessful()) {
 				return numUnstable; //everything is OK
@@ -254,24 +285,13 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return numUnstable;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (Exception e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
-
 		}
 
 		//if we arrive here, then it means at least one test was unstable
 		return numUnstable;
 	}
 
-	private static JUnitResult runTests(Class<?>[] testClasses, File testClassDir)
+	private static JUnitResult runTests(Class<?>[] testClasses)
 	        throws JUnitExecutionException {
 		return runJUnitOnCurrentProcess(testClasses);
 	}
@@ -340,7 +360,13 @@ public class JUnitAnalyzer {
 	// EvoSuite classloader, and thus cannot easily be re-loaded
 	private static int NUM = 0;
 
-	private static List<File> compileTests(List<TestCase> tests, File dir) {
+	/**
+	 * Write the given tests as a JUnit test suite with a unique name, without
+	 * touching the disk
+	 * 
+	 * @return sources indexed by fully qualified class name
+	 */
+	private static Map<String, String> generateSources(List<TestCase> tests) {
 
 		TestSuiteWriter suite = new TestSuiteWriter();
 		suite.insertAllTests(tests);
@@ -350,88 +376,67 @@ public class JUnitAnalyzer {
 		String name = Properties.TARGET_CLASS.substring(beginIndex);
 		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
 
-		try {
-			//now generate the JUnit test case
-			List<File> generated = suite.writeTestSuite(name, dir.getAbsolutePath(), Collections.EMPTY_LIST);
-			for (File file : generated) {
-				if (!file.exists()) {
-					logger.error("Supposed to generate " + file
-					        + " but it does not exist");
-					return null;
-				}
-			}
-
-			//try to compile the test cases
-			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-			if (compiler == null) {
-				logger.error("No Java compiler is available");
-				return null;
-			}
-
-			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-			Locale locale = Locale.getDefault();
-			Charset charset = Charset.forName("UTF-8");
-			StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
-			                                                                      locale,
-			                                                                      charset);
-
-			Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(generated);
+		String packagePrefix = Properties.CLASS_PREFIX;
+		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+			packagePrefix += ".";
+		}
 
-			String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
-			if(JarPathing.containsAPathingJar(evosuiteCP)){
-				evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
-			}
+		Map<String, String> sources = new LinkedHashMap<>();
+		for (Map.Entry<String, String> source : suite.generateTestSuiteSources(name,
+				Collections.emptyList()).entrySet()) {
+			sources.put(packagePrefix + source.getKey(), source.getValue());
+		}
+		return sources;
+	}
 
-			String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
-			if(JarPathing.containsAPathingJar(targetProjectCP)){
-				targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
-			}
+	private static String getCompilationClasspath() {
+		String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+		if(JarPathing.containsAPathingJar(evosuiteCP)){
+			evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+		}
 
-			String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
+		String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if(JarPathing.containsAPathingJar(targetProjectCP)){
+			targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+		}
 
-			List<String> optionList = new ArrayList<>(Arrays.asList("-classpath", classpath));
+		return targetProjectCP + File.pathSeparator + evosuiteCP;
+	}
 
-			CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
-			                                        optionList, null, compilationUnits);
-			boolean compiled = task.call();
-			fileManager.close();
+	/**
+	 * Compile the given sources in memory
+	 * 
+	 * @return the bytecode of the generated classes, or null if the sources
+	 *         do not compile
+	 */
+	private static Map<String, byte[]> compileTests(Map<String, String> sources) {
 
-			if (!compiled) {
-				logger.error("Compilation failed on compilation units: "+ compilationUnits);
-				logger.error("Classpath: "+classpath);
-				//TODO remove
-				logger.error("evosuiteCP: "+evosuiteCP);
+		String classpath = getCompilationClasspath();
+		InMemoryCompiler.Result result = InMemoryCompiler.compile(sources, classpath);
+		if (result == null) {
+			return null;
+		}
 
+		if (!result.isCompiled()) {
+			logger.error("Compilation failed on compilation units: " + result.getFailedUnits());
+			logger.error("Classpath: " + classpath);
 
-				for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
-					if (diagnostic.getMessage(null).startsWith("error while writing")) {
-						logger.error("Error is due to file permissions, ignoring...");
-						return generated;
-					}
-					logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
-					        + diagnostic.getLineNumber());
+			StringBuilder buffer = new StringBuilder();
+			for (Map.Entry<String, String> source : sources.entrySet()) {
+				if (!result.getFailedUnits().contains(source.getKey())) {
+					continue;
 				}
-
-				StringBuffer buffer = new StringBuffer();
-				for (JavaFileObject sourceFile : compilationUnits) {
-					List<String> lines = FileUtils.readLines(new File(sourceFile.toUri().getPath()));
-
-					buffer.append(compilationUnits.iterator().next().toString()+"\n");
-
-					for (int i = 0; i < lines.size(); i++) {
-						buffer.append((i + 1) + ": " + lines.get(i) +"\n");
-					}
+				buffer.append(source.getKey()).append("\n");
+				String[] lines = source.getValue().split("\n");
+				for (int i = 0; i < lines.length; i++) {
+					buffer.append(i + 1).append(": ").append(lines[i]).append("\n");
 				}
-				logger.error(buffer.toString());
-				return null;
 			}
-
-			return generated;
-
-		} catch (IOException e) {
-			logger.error("" + e, e);
+			logger.error(buffer.toString());
 			return null;
 		}
+
+		return result.getClasses();
 	}
 
 	protected static File createNewTmpDir() {
@@ -455,7 +460,7 @@ public class JUnitAnalyzer {
 		return dir;
 	}
 
-	private static Class<?>[] loadTests(List<File> tests) {
+	private static Class<?>[] loadTests(Set<String> testSuiteClasses, Map<String, byte[]> bytecode) {
 
 		/*
 		 * Ideally, when we run a generated test case, it
@@ -469,67 +474,43 @@ public class JUnitAnalyzer {
 		 * non-instrumenting classloader to re-load the CUT, and so see
 		 * if the JavaAgent works properly.
 		 */
-		Class<?>[] testClasses = getClassesFromFiles(tests);
-		List<File> otherClasses = listOnlyFiles(tests);
+
 		/*
-		 * this is important to force the loading of all files generated
-		 * in the target folder.
-		 * If we do not do that, then we will miss all the anonymous classes 
+		 * first load only the scaffolding files
 		 */
-		getClassesFromFiles(otherClasses);
-
-		return testClasses;
-	}
-
-	private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException{
-		if(tests==null || tests.isEmpty()){
-			return null;
-		}
-
-		Set<String> classNames = new LinkedHashSet<>();
-		
-		File parentFolder = tests.get(0).getParentFile();
-		for(File file : tests){
-			if(!file.getParentFile().equals(parentFolder)){
-				throw new IllegalArgumentException("Tests file are not in the same folder");
+		for (String className : testSuiteClasses) {
+			if (isScaffolding(className)) {
+				loadClass(className, bytecode);
 			}
-			classNames.add(removeFileExtension(file.getName()));
 		}
-		
+
 		/*
-		 * if we already loaded a CUT due to its .java, do not want
-		 * to re-loaded it for a .class file that is in the same folder
+		 * once the scaffoldings are loaded, we can load the tests that
+		 * depend on them 
 		 */
-		
-		List<File> otherClasses = new LinkedList<>();
-		
-		for(File file : parentFolder.listFiles()){
-			String  name = removeFileExtension(file.getName());
-
-			if(classNames.contains(name)){
+		List<Class<?>> classes = new ArrayList<>();
+		for (String className : testSuiteClasses) {
+			if (isScaffolding(className)) {
 				continue;
 			}
-			
-			classNames.add(name);
-			otherClasses.add(file);
-		}
-		
-		return otherClasses;
-	}
-	
-
-	private static String removeFileExtension(String str) {
-		if (str == null) {
-			return null;
+			Class<?> clazz = loadClass(className, bytecode);
+			if (clazz != null) {
+				classes.add(clazz);
+			}
 		}
 
-		int pos = str.lastIndexOf(".");
-
-		if (pos == -1) {
-			return str;
+		/*
+		 * this is important to force the loading of all the other generated
+		 * classes, as they are not on the classpath.
+		 * If we do not do that, then we will miss all the anonymous classes 
+		 */
+		for (String className : bytecode.keySet()) {
+			if (!testSuiteClasses.contains(className)) {
+				loadClass(className, bytecode);
+			}
 		}
 
-		return str.substring(0, pos);
+		return classes.toArray(new Class<?>[classes.size()]);
 	}
 
 	/**
@@ -557,14 +538,9 @@ public class JUnitAnalyzer {
 			return true;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.warn("Failed to create tmp dir");
-			return false;
-		}
-
 		try {
-			List<File> generated = compileTests(tests, dir);
+			Map<String, String> sources = generateSources(tests);
+			Map<String, byte[]> generated = compileTests(sources);
 			if (generated == null) {
 				logger.warn("Failed to compile the test cases ");
 				return false;
@@ -572,14 +548,14 @@ public class JUnitAnalyzer {
 
 			//as last step, execute the generated/compiled test cases
 
-			Class<?>[] testClasses = loadTests(generated);
+			Class<?>[] testClasses = loadTests(sources.keySet(), generated);
 
 			if (testClasses == null) {
 				logger.error("Found no classes for compiled tests");
 				return false;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (!result.wasSuccessful()) {
 				logger.error("" + result.getFailureCount() + " test cases failed");
@@ -603,15 +579,6 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return false;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (IOException e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
 		}
 
 		logger.debug("Successfully compiled and run test cases generated for "
@@ -619,89 +586,23 @@ public class JUnitAnalyzer {
 		return true;
 	}
 
-	/**
-	 * Given a list of files representing .java/.class classes, load them (it
-	 * assumes the classpath to be correctly set)
-	 * 
-	 * @param files
-	 * @return
-	 */
-	private static Class<?>[] getClassesFromFiles(Collection<File> files) {
-		/*
-		 * first load only the scaffolding files
-		 */
-		for (File file : files) {
-			if(!isScaffolding(file)){
-				continue;
-			}
-			loadClass(file);			
-		}
-		
-		List<Class<?>> classes = new ArrayList<>();
-		
-		/*
-		 * once the scaffoldings are loaded, we can load the tests that
-		 * depend on them 
-		 */
-		for (File file : files) {
-			if(isScaffolding(file)){
-				continue;
-			}
-			Class<?> clazz = loadClass(file);
-			if(clazz != null){
-				classes.add(clazz);
-			}
-		}
-		
-		return classes.toArray(new Class<?>[classes.size()]);
-	}
-
-	private static boolean isScaffolding(File file){
-		String name = file.getName();
-		return name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+JAVA) || 
-				name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+CLASS);
+	private static boolean isScaffolding(String className){
+		return className.endsWith("_"+Properties.SCAFFOLDING_SUFFIX);
 	}
 	
-	private static Class<?> loadClass(File file){
-		if (!file.isFile()) {
-			return null;
-		}
-
-		String packagePrefix = Properties.CLASS_PREFIX;
-		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-			packagePrefix += ".";
-		}
-
-		String name = file.getName();
-
-		if (!name.endsWith(JAVA) && !name.endsWith(CLASS)) {
-			/*
-			 * this could happen when we scan a folder for all src/compiled
-			 * files
-			 */
+	private static Class<?> loadClass(String className, Map<String, byte[]> bytecode){
+		byte[] bytes = bytecode.get(className);
+		if (bytes == null) {
+			logger.error("No bytecode was generated for " + className);
 			return null;
 		}
 
-		String fileName = file.getAbsolutePath();
-
-		if (name.endsWith(JAVA)) {
-			name = name.substring(0, name.length() - JAVA.length());
-			fileName = fileName.substring(0, fileName.length() - JAVA.length()) + ".class";
-		} else {
-			assert name.endsWith(CLASS);
-			name = name.substring(0, name.length() - CLASS.length());
-		}
-
-		String className = packagePrefix + name;
-
 		Class<?> testClass = null;
 		try {
 			logger.info("Loading class " + className);
-			//testClass = ((InstrumentingClassLoader) TestGenerationContext.getInstance().getClassLoaderForSUT()).loadClassFromFile(className,
-			testClass = loader.loadClassFromFile(className,fileName);
+			testClass = loader.loadClassFromBytes(className, bytes);
 		} catch (ClassNotFoundException e) {
-			logger.error("Failed to load test case " + className + " from file "
-			        + file.getAbsolutePath() + " , error " + e, e);
+			logger.error("Failed to load test case " + className + " , error " + e, e);
 		}
 		return testClass;
 	}
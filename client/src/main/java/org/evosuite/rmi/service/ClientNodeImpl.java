@@ -19,6 +19,7 @@
  */
 package org.evosuite.rmi.service;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.util.ArrayList;
@@ -27,13 +28,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.evosuite.*;
 import org.evosuite.Properties.NoSuchParameterException;
@@ -42,6 +46,7 @@ import org.evosuite.coverage.ClassStatisticsPrinter;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.stoppingconditions.RMIStoppingCondition;
 import org.evosuite.junit.CoverageAnalysis;
+import org.evosuite.junit.CoverageShard;
 import org.evosuite.result.TestGenerationResult;
 import org.evosuite.result.TestGenerationResultBuilder;
 import org.evosuite.runtime.sandbox.PermissionStatistics;
@@ -62,6 +67,9 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 	private static final Logger logger = LoggerFactory.getLogger(ClientNodeImpl.class);
 	private static final long serialVersionUID = 485858845631346580L;
 
+	/** Maximum number of emigrants waiting to be sent, in multiples of the migration rate */
+	private static final int MAX_PENDING_EMIGRANTS_FACTOR = 10;
+
 	/**
 	 * The current state/phase in which this client process is (eg, search or assertion generation)
 	 */
@@ -97,7 +105,22 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 
 	private final BlockingQueue<OutputVariable> outputVariableQueue = new LinkedBlockingQueue<>();
 
+	/**
+	 * Sends the emigrants to the master, so that the search does not wait for
+	 * the RMI calls
+	 */
+	private final ExecutorService migrationExecutor = Executors.newSingleThreadExecutor();
+
+	/** Copies of the emigrants that have not been sent yet */
+	private final Queue<T> pendingEmigrants = new ConcurrentLinkedQueue<>();
+
+	/** Whether a task sending the pending emigrants has been submitted */
+	private final AtomicBoolean sendingEmigrants = new AtomicBoolean(false);
+
 	private Collection<Set<T>> bestSolutions;
+
+	/** Coverage received from the other clients, when test classes are sharded */
+	private final BlockingQueue<CoverageShard> coverageShards = new LinkedBlockingQueue<>();
 	
 	private Thread statisticsThread; 
 
@@ -205,14 +228,42 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 
     @Override
     public void emigrate(Set<T> immigrants) {
-        try {
-            logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + immigrants.size() + " immigrants");
-            masterNode.evosuite_migrate(clientRmiIdentifier, immigrants);
-        } catch (RemoteException e) {
-            logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send immigrating individuals to master", e);
+        // The search may go on to modify the individuals while they are sent
+        for (T immigrant : immigrants) {
+            pendingEmigrants.add(immigrant.clone());
+        }
+        // If sending falls behind, only the most recent emigrants are kept
+        while (pendingEmigrants.size() > MAX_PENDING_EMIGRANTS_FACTOR * Properties.MIGRANTS_COMMUNICATION_RATE) {
+            pendingEmigrants.poll();
+        }
+        if (sendingEmigrants.compareAndSet(false, true)) {
+            migrationExecutor.submit(this::sendPendingEmigrants);
         }
     }
 
+    /**
+     * Sends all emigrants collected so far in one batch
+     */
+    private void sendPendingEmigrants() {
+        do {
+            List<T> batch = new ArrayList<>();
+            T emigrant;
+            while ((emigrant = pendingEmigrants.poll()) != null) {
+                batch.add(emigrant);
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + batch.size() + " immigrants");
+                    masterNode.evosuite_migrate(clientRmiIdentifier, MigrantsCodec.encode(batch));
+                } catch (IOException e) {
+                    logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send immigrating individuals to master", e);
+                }
+            }
+            sendingEmigrants.set(false);
+            // Emigrants may have been added after the queue was drained
+        } while (!pendingEmigrants.isEmpty() && sendingEmigrants.compareAndSet(false, true));
+    }
+
     @Override
     public void sendBestSolution(Set<T> solutions) {
         try {
@@ -223,6 +274,34 @@ public class ClientNodeImpl<T extends Chromosome<T>>
         }
     }
 
+    @Override
+    public void sendCoverage(CoverageShard shard) {
+        try {
+            masterNode.evosuite_collectCoverage(clientRmiIdentifier, shard);
+        } catch (RemoteException e) {
+            logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send coverage to master", e);
+        }
+    }
+
+    @Override
+    public List<CoverageShard> getCoverageShards(long timeoutInMs) {
+        List<CoverageShard> shards = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + timeoutInMs;
+        try {
+            while (shards.size() < Properties.NUM_PARALLEL_CLIENTS - 1) {
+                CoverageShard shard = coverageShards.poll(deadline - System.currentTimeMillis(),
+                        TimeUnit.MILLISECONDS);
+                if (shard == null) {
+                    break;
+                }
+                shards.add(shard);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return shards;
+    }
+
     @Override
 	public void changeState(ClientState state) {
 		changeState(state, new ClientStateInformation(state));
@@ -528,11 +607,23 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 		});
 	}
 	
+    @SuppressWarnings("unchecked")
     @Override
-    public void immigrate(Set<T> migrants) throws RemoteException {
+    public void immigrate(byte[] migrants) throws RemoteException {
+        Set<T> decoded = new HashSet<>();
+        try {
+            for (Chromosome<?> migrant : MigrantsCodec.decode(migrants)) {
+                decoded.add((T) migrant);
+            }
+        } catch (IOException e) {
+            logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot decode immigrants", e);
+            return;
+        }
         logger.debug(ClientProcess.getPrettyPrintIdentifier() + "receiving "
-                + (migrants != null ? migrants.size() : 0) + " immigrants");
-        fireEvent(migrants);
+                + decoded.size() + " immigrants");
+        if (!decoded.isEmpty()) {
+            fireEvent(decoded);
+        }
     }
 
     @Override
@@ -541,6 +632,11 @@ public class ClientNodeImpl<T extends Chromosome<T>>
         bestSolutions.add(solutions);
     }
 
+    @Override
+    public void collectCoverage(CoverageShard shard) throws RemoteException {
+        coverageShards.add(shard);
+    }
+
     @Override
     public void addListener(Listener<Set<T>> listener) {
 	    listeners.add(listener);
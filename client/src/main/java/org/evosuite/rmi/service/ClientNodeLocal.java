@@ -20,9 +20,11 @@
 package org.evosuite.rmi.service;
 
 import org.evosuite.ga.Chromosome;
+import org.evosuite.junit.CoverageShard;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.Listenable;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -55,4 +57,17 @@ public interface ClientNodeLocal<T extends Chromosome<T>> extends Listenable<Set
 	void sendBestSolution(Set<T> solutions);
 
     Set<Set<T>> getBestSolutions();
+
+	/**
+	 * Send the coverage of the test classes executed by this client to the
+	 * first client
+	 */
+	void sendCoverage(CoverageShard shard);
+
+	/**
+	 * Wait for the coverage sent by all other clients
+	 *
+	 * @return the coverage received before the timeout
+	 */
+	List<CoverageShard> getCoverageShards(long timeoutInMs);
 }
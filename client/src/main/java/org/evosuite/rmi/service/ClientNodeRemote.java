@@ -20,6 +20,7 @@
 package org.evosuite.rmi.service;
 
 import org.evosuite.ga.Chromosome;
+import org.evosuite.junit.CoverageShard;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
@@ -54,7 +55,14 @@ public interface ClientNodeRemote<T extends Chromosome<T>> extends Remote {
 
 	void printClassStatistics() throws RemoteException;
 	
-	void immigrate(Set<T> migrants) throws RemoteException;
+	/**
+	 * @param migrants
+	 *            individuals of a neighbouring client, in the wire format of
+	 *            {@link MigrantsCodec}
+	 */
+	void immigrate(byte[] migrants) throws RemoteException;
 
     void collectBestSolutions(Set<T> solutions) throws RemoteException;
+
+	void collectCoverage(CoverageShard shard) throws RemoteException;
 }
@@ -26,6 +26,7 @@ import java.util.Set;
 
 import org.evosuite.Properties.NoSuchParameterException;
 import org.evosuite.ga.Chromosome;
+import org.evosuite.junit.CoverageShard;
 import org.evosuite.result.TestGenerationResult;
 import org.evosuite.statistics.RuntimeVariable;
 
@@ -57,7 +58,17 @@ public interface MasterNodeRemote extends Remote {
 
 	void evosuite_updateProperty(String clientRmiIdentifier, String propertyName, Object value) throws RemoteException, IllegalArgumentException, IllegalAccessException, NoSuchParameterException;
 	
-	void evosuite_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants) throws RemoteException;
+	/**
+	 * Forward encoded emigrants of a client to its neighbour, without
+	 * decoding them
+	 */
+	void evosuite_migrate(String clientRmiIdentifier, byte[] migrants) throws RemoteException;
 
     void evosuite_collectBestSolutions(String clientRmiIdentifier, Set<? extends Chromosome> solutions) throws RemoteException;
+
+	/**
+	 * Forward the coverage of the test classes executed by a client to the
+	 * first client
+	 */
+	void evosuite_collectCoverage(String clientRmiIdentifier, CoverageShard shard) throws RemoteException;
 }
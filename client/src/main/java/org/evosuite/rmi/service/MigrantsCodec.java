@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.testcase.TestCaseCodec;
+import org.evosuite.testcase.TestChromosome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Wire format of the individuals migrating between parallel clients.
+ *
+ * <p>
+ * Test chromosomes are sent as their compactly encoded test (see
+ * {@link TestCaseCodec}) without fitness values, execution results or
+ * traces, so the receiver has to evaluate them again. Other chromosomes,
+ * and tests with statements that have no compact encoding, fall back to
+ * Java serialization. Every individual is a separate entry, so that one
+ * that cannot be decoded (e.g., because a class is missing) does not
+ * prevent the others from being received.
+ * </p>
+ */
+class MigrantsCodec {
+
+	private static final Logger logger = LoggerFactory.getLogger(MigrantsCodec.class);
+
+	private static final int ENTRY_TEST = 0;
+
+	private static final int ENTRY_SERIALIZED = 1;
+
+	private MigrantsCodec() {
+	}
+
+	static byte[] encode(Collection<? extends Chromosome<?>> migrants) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(migrants.size());
+			for (Chromosome<?> migrant : migrants) {
+				byte[] entry;
+				if (migrant instanceof TestChromosome
+				        && TestCaseCodec.isSupported(((TestChromosome) migrant).getTestCase())) {
+					out.writeByte(ENTRY_TEST);
+					entry = TestCaseCodec.encode(((TestChromosome) migrant).getTestCase());
+				} else {
+					out.writeByte(ENTRY_SERIALIZED);
+					entry = serialize(migrant);
+				}
+				out.writeInt(entry.length);
+				out.write(entry);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @return the migrants that could be decoded
+	 */
+	static List<Chromosome<?>> decode(byte[] encoded) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+		int size = in.readInt();
+		List<Chromosome<?>> migrants = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			int kind = in.readByte();
+			byte[] entry = new byte[in.readInt()];
+			in.readFully(entry);
+			try {
+				if (kind == ENTRY_TEST) {
+					TestChromosome migrant = new TestChromosome();
+					migrant.setTestCase(TestCaseCodec.decode(entry));
+					migrants.add(migrant);
+				} else {
+					migrants.add(deserialize(entry));
+				}
+			} catch (IOException | ClassNotFoundException | ClassCastException e) {
+				logger.warn("Cannot decode immigrant: " + e);
+			}
+		}
+		return migrants;
+	}
+
+	private static byte[] serialize(Chromosome<?> chromosome) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(chromosome);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Chromosome<?> deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return (Chromosome<?>) in.readObject();
+		}
+	}
+}
@@ -40,6 +40,7 @@ import org.evosuite.utils.generic.GenericAccessibleObject;
 import org.evosuite.utils.generic.GenericClass;
 import org.evosuite.utils.generic.GenericConstructor;
 import org.evosuite.utils.generic.GenericMethod;
+import org.evosuite.utils.generic.GenericTypeCache;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -114,6 +115,7 @@ public class TestCluster {
 		generatorCache.clear();
 		modifiers.clear();
 		CastClassManager.getInstance().clear();
+		GenericTypeCache.getInstance().clear();
 
 		instance = null;
 	}
@@ -51,6 +51,12 @@ public enum RuntimeVariable {
 	Predicates,
 	/** Number of added jump conditions through instrumentation */
 	Instrumented_Predicates,
+	/** Fraction of instrumented dependencies whose bytecode was taken from the instrumentation cache */
+	Instrumentation_Cache_Hit_Rate,
+	/** Number of generic assignability checks and type variable maps that were taken from the cache */
+	Generic_Type_Cache_Hits,
+	/** Number of generic assignability checks and type variable maps that had to be computed */
+	Generic_Type_Cache_Misses,
 	/** Number of classes in classpath  */
 	Classpath_Classes,   
 	/**  Number of classes analyzed for test cluster */
@@ -85,6 +91,12 @@ public enum RuntimeVariable {
 	Covered_Goals,       
 	/** Number of mutants */
 	Mutants,            
+	/** Number of times a test was executed on a mutant */
+	Mutants_Executed,
+	/** Number of mutant executions skipped because the mutant was not infected */
+	Mutants_Skipped,
+	/** Mutant executions per second of time spent executing mutants */
+	Mutants_Executed_Per_Second,
 	/** Total number of statements executed */
 	Statements_Executed,
 	/** The total number of tests executed during the search */
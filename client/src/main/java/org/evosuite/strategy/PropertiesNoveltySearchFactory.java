@@ -9,6 +9,7 @@ import org.evosuite.ga.archive.ArchiveTestChromosomeFactory;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.metaheuristics.NoveltySearch;
 import org.evosuite.ga.operators.crossover.*;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
 import org.evosuite.ga.operators.ranking.RankingFunction;
@@ -100,6 +101,10 @@ public class PropertiesNoveltySearchFactory extends PropertiesSearchAlgorithmFac
       switch (Properties.RANKING_TYPE) {
         case FAST_NON_DOMINATED_SORTING:
           return new FastNonDominatedSorting<>();
+        case EFFICIENT_NON_DOMINATED_SORTING:
+          return new EfficientNonDominatedSorting<>();
+        case EFFICIENT_PREFERENCE_SORTING:
+          return new EfficientNonDominatedSorting<>(true);
         case PREFERENCE_SORTING:
         default:
           return new RankBasedPreferenceSorting<>();
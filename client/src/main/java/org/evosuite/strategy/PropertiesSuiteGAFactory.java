@@ -39,6 +39,7 @@ import org.evosuite.ga.metaheuristics.mulambda.MuPlusLambdaEA;
 import org.evosuite.ga.metaheuristics.mulambda.OnePlusLambdaLambdaGA;
 import org.evosuite.ga.metaheuristics.mulambda.OnePlusOneEA;
 import org.evosuite.ga.operators.crossover.*;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
 import org.evosuite.ga.operators.ranking.RankingFunction;
@@ -276,6 +277,10 @@ public class PropertiesSuiteGAFactory
 	  switch (Properties.RANKING_TYPE) {
 	    case FAST_NON_DOMINATED_SORTING:
 	      return new FastNonDominatedSorting<>();
+	    case EFFICIENT_NON_DOMINATED_SORTING:
+	      return new EfficientNonDominatedSorting<>();
+	    case EFFICIENT_PREFERENCE_SORTING:
+	      return new EfficientNonDominatedSorting<>(true);
 	    case PREFERENCE_SORTING:
 	    default:
 	      return new RankBasedPreferenceSorting<>();
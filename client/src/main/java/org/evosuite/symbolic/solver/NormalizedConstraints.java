@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.solver.smt.ExprToSmtVisitor;
+import org.evosuite.symbolic.solver.smt.SmtBooleanConstant;
+import org.evosuite.symbolic.solver.smt.SmtExpr;
+import org.evosuite.symbolic.solver.smt.SmtExprVisitor;
+import org.evosuite.symbolic.solver.smt.SmtIntConstant;
+import org.evosuite.symbolic.solver.smt.SmtIntVariable;
+import org.evosuite.symbolic.solver.smt.SmtOperation;
+import org.evosuite.symbolic.solver.smt.SmtRealConstant;
+import org.evosuite.symbolic.solver.smt.SmtRealVariable;
+import org.evosuite.symbolic.solver.smt.SmtStringConstant;
+import org.evosuite.symbolic.solver.smt.SmtStringVariable;
+
+/**
+ * Normal form of a constraint system, used as a cache key.
+ * 
+ * <p>
+ * Each constraint is translated to SMT and printed with anonymous variables.
+ * The constraints are sorted by that text (so the order of the original
+ * collection does not matter), duplicates are dropped, and the variables are
+ * then renamed by order of first occurrence. Two constraint systems that only
+ * differ in the order of their constraints or in the names of their variables
+ * thus get the same key.
+ * </p>
+ * 
+ * <p>
+ * Constraints that cannot be translated to SMT, or whose translation loses
+ * some of their variables (e.g., because they are approximated with concrete
+ * values), have no normal form: {@link #getKey()} returns null for them.
+ * </p>
+ */
+final class NormalizedConstraints {
+
+	private final String key;
+
+	private final Map<String, String> toCanonical;
+
+	private final Map<String, String> toOriginal;
+
+	private NormalizedConstraints(String key, Map<String, String> toCanonical) {
+		this.key = key;
+		this.toCanonical = toCanonical;
+		this.toOriginal = new HashMap<>();
+		for (Map.Entry<String, String> entry : toCanonical.entrySet()) {
+			toOriginal.put(entry.getValue(), entry.getKey());
+		}
+	}
+
+	/**
+	 * @return the normal form of the constraints, or null if they cannot be
+	 *         normalized
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Rename the variables of a model from the original names to the canonical ones
+	 */
+	public Map<String, Object> toCanonicalModel(Map<String, Object> model) {
+		return rename(model, toCanonical);
+	}
+
+	/**
+	 * Rename the variables of a model from the canonical names to the original ones
+	 */
+	public Map<String, Object> toOriginalModel(Map<String, Object> model) {
+		return rename(model, toOriginal);
+	}
+
+	private Map<String, Object> rename(Map<String, Object> model, Map<String, String> names) {
+		if (key == null) {
+			return new HashMap<>(model);
+		}
+		Map<String, Object> renamed = new HashMap<>();
+		for (Map.Entry<String, Object> entry : model.entrySet()) {
+			String name = names.get(entry.getKey());
+			if (name != null) {
+				renamed.put(name, entry.getValue());
+			}
+		}
+		return renamed;
+	}
+
+	public static NormalizedConstraints normalize(Collection<Constraint<?>> constraints) {
+		List<TranslatedConstraint> translated = new ArrayList<>();
+		for (Constraint<?> constraint : constraints) {
+			TranslatedConstraint t = TranslatedConstraint.translate(constraint);
+			if (t == null) {
+				return new NormalizedConstraints(null, Collections.<String, String> emptyMap());
+			}
+			translated.add(t);
+		}
+
+		Collections.sort(translated, (c1, c2) -> c1.anonymous.compareTo(c2.anonymous));
+
+		CanonicalPrinter printer = new CanonicalPrinter(new HashMap<>());
+		Set<String> normalized = new LinkedHashSet<>();
+		for (TranslatedConstraint t : translated) {
+			normalized.add(t.print(printer));
+		}
+
+		String key = String.join("\n", normalized);
+		return new NormalizedConstraints(key, printer.renaming);
+	}
+
+	/**
+	 * A constraint translated to SMT
+	 */
+	private static final class TranslatedConstraint {
+
+		private final String header;
+
+		private final SmtExpr left;
+
+		private final SmtExpr right;
+
+		private final String anonymous;
+
+		private TranslatedConstraint(String header, SmtExpr left, SmtExpr right) {
+			this.header = header;
+			this.left = left;
+			this.right = right;
+			this.anonymous = print(new CanonicalPrinter(null));
+		}
+
+		private String print(CanonicalPrinter printer) {
+			return "(" + header + " " + left.accept(printer, null) + " " + right.accept(printer, null) + ")";
+		}
+
+		static TranslatedConstraint translate(Constraint<?> constraint) {
+			SmtExpr left;
+			SmtExpr right;
+			try {
+				ExprToSmtVisitor visitor = new ExprToSmtVisitor();
+				left = constraint.getLeftOperand().accept(visitor, null);
+				right = constraint.getRightOperand().accept(visitor, null);
+			} catch (RuntimeException e) {
+				// unsupported expressions
+				return null;
+			}
+			if (left == null || right == null) {
+				return null;
+			}
+
+			String header = constraint.getClass().getSimpleName() + " " + constraint.getComparator();
+			TranslatedConstraint translated = new TranslatedConstraint(header, left, right);
+
+			// approximations with concrete values could make different constraints look the same
+			CanonicalPrinter collector = new CanonicalPrinter(null);
+			translated.print(collector);
+			Set<String> variables = new HashSet<>();
+			for (Variable<?> v : constraint.getVariables()) {
+				variables.add(v.getName());
+			}
+			if (!collector.seen.equals(variables)) {
+				return null;
+			}
+			return translated;
+		}
+	}
+
+	/**
+	 * Prints SMT expressions without any loss of precision. Variables are
+	 * either anonymous or renamed by order of first occurrence
+	 */
+	private static final class CanonicalPrinter implements SmtExprVisitor<String, Void> {
+
+		/**
+		 * original name -> canonical name, or null to print anonymous variables
+		 */
+		private final Map<String, String> renaming;
+
+		private final Set<String> seen = new HashSet<>();
+
+		CanonicalPrinter(Map<String, String> renaming) {
+			this.renaming = renaming;
+		}
+
+		private String variable(String type, String name) {
+			seen.add(name);
+			if (renaming == null) {
+				return type + ":?";
+			}
+			String canonical = renaming.get(name);
+			if (canonical == null) {
+				canonical = "v" + renaming.size();
+				renaming.put(name, canonical);
+			}
+			return type + ":" + canonical;
+		}
+
+		@Override
+		public String visit(SmtBooleanConstant n, Void arg) {
+			return String.valueOf(n.booleanValue());
+		}
+
+		@Override
+		public String visit(SmtIntConstant n, Void arg) {
+			return String.valueOf(n.getConstantValue());
+		}
+
+		@Override
+		public String visit(SmtRealConstant n, Void arg) {
+			return Double.toString(n.getConstantValue());
+		}
+
+		@Override
+		public String visit(SmtStringConstant n, Void arg) {
+			StringBuilder builder = new StringBuilder("\"");
+			for (char c : n.getConstantValue().toCharArray()) {
+				if (c == '"' || c == '\\') {
+					builder.append('\\').append(c);
+				} else if (c < 0x20 || c > 0x7e) {
+					builder.append(String.format("\\u%04x", (int) c));
+				} else {
+					builder.append(c);
+				}
+			}
+			return builder.append('"').toString();
+		}
+
+		@Override
+		public String visit(SmtIntVariable n, Void arg) {
+			return variable("int", n.getName());
+		}
+
+		@Override
+		public String visit(SmtRealVariable n, Void arg) {
+			return variable("real", n.getName());
+		}
+
+		@Override
+		public String visit(SmtStringVariable n, Void arg) {
+			return variable("str", n.getName());
+		}
+
+		@Override
+		public String visit(SmtOperation n, Void arg) {
+			StringBuilder builder = new StringBuilder("(");
+			builder.append(n.getOperator().toString());
+			for (SmtExpr argument : n.getArguments()) {
+				builder.append(' ').append(argument.accept(this, null));
+			}
+			return builder.append(')').toString();
+		}
+	}
+}
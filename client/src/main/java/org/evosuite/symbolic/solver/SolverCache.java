@@ -19,14 +19,62 @@
  */
 package org.evosuite.symbolic.solver;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Cache of solver results.
+ * 
+ * <p>
+ * Constraint systems are looked up by their normal form (see
+ * {@link NormalizedConstraints}), so the order of the constraints and the
+ * names of the variables do not matter. On a miss, the cache still tries to
+ * avoid calling the solver:
+ * <ul>
+ * <li>if a subset of the constraints is known to be UNSAT, so are the
+ * constraints</li>
+ * <li>if a cached model satisfies the constraints, it is reused</li>
+ * </ul>
+ * At most {@link Properties#DSE_SOLVER_CACHE_SIZE} results are kept, the least
+ * recently used ones are evicted first. If
+ * {@link Properties#DSE_SOLVER_CACHE_DIR} is set, the results are stored on
+ * disk for each CUT, and reused by the following runs on the same CUT.
+ * </p>
+ */
 public final class SolverCache {
 
+	private static final Logger logger = LoggerFactory.getLogger(SolverCache.class);
+
+	/**
+	 * Maximum number of cached models that are evaluated on a new constraint
+	 * system before calling the solver
+	 */
+	private static final int MAX_CANDIDATE_MODELS = 10;
+
+	private static final String FILE_EXTENSION = ".solver-cache";
+
 	/**
 	 * 
 	 * @param solver
@@ -34,7 +82,10 @@ public final class SolverCache {
 	 * @return 
 	 */
 	public SolverResult solve(Solver solver, Collection<Constraint<?>> constraints) {
-		if (hasCachedResult(constraints)) {
+		Set<Constraint<?>> constraintSet = new HashSet<>(constraints);
+		NormalizedConstraints normalized = NormalizedConstraints.normalize(constraintSet);
+
+		if (hasCachedResult(constraintSet, normalized)) {
 			SolverResult cached_solution = getCachedResult();
 			return cached_solution;
 		}
@@ -43,9 +94,9 @@ public final class SolverCache {
 		try {
 			solverResult = solver.solve(constraints);
 			if (solverResult.isUNSAT()) {
-				addUNSAT(constraints, solverResult);
+				addUNSAT(constraintSet, normalized, solverResult);
 			} else {
-				addSAT(constraints, solverResult);
+				addSAT(constraintSet, normalized, solverResult);
 			}
 		} catch (SolverTimeoutException | IOException | SolverParseException | SolverEmptyQueryException
 				| SolverErrorException e) {
@@ -58,7 +109,57 @@ public final class SolverCache {
 
 	private static final SolverCache instance = new SolverCache();
 
-	private HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<>();
+	/**
+	 * A cached solver result
+	 */
+	private static final class CacheEntry {
+
+		/**
+		 * null if the entry was loaded from disk
+		 */
+		private final Set<Constraint<?>> constraints;
+
+		/**
+		 * null if the entry was loaded from disk
+		 */
+		private final NormalizedConstraints normalized;
+
+		/**
+		 * the result, with the model expressed on the canonical variable names
+		 */
+		private final SolverResult result;
+
+		CacheEntry(Set<Constraint<?>> constraints, NormalizedConstraints normalized, SolverResult result) {
+			this.constraints = constraints;
+			this.normalized = normalized;
+			this.result = result;
+		}
+	}
+
+	/**
+	 * Entries indexed by normal form, or by the constraints themselves if they
+	 * have no normal form. Iteration order is from least to most recently used
+	 */
+	private final LinkedHashMap<Object, CacheEntry> cached_solver_results = new LinkedHashMap<Object, CacheEntry>(
+			16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+			if (size() > Properties.DSE_SOLVER_CACHE_SIZE) {
+				unindex(eldest.getValue());
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * SAT and UNSAT entries, indexed by each of their constraints
+	 */
+	private final Map<Constraint<?>, Set<CacheEntry>> entries_by_constraint = new HashMap<>();
+
 	private int cached_sat_result_count = 0;
 	private int cached_unsat_result_count = 0;
 
@@ -73,6 +174,11 @@ public final class SolverCache {
 	private int number_of_accesses = 0;
 	private int number_of_hits = 0;
 
+	/**
+	 * CUT whose results on disk were loaded, if any
+	 */
+	private String loaded_cut = null;
+
 	private SolverCache() {
 		/* empty constructor */
 	}
@@ -81,25 +187,87 @@ public final class SolverCache {
 		return instance;
 	}
 
-	private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-		cached_solver_results.put(unsat_constraints, unsatResult);
+	/**
+	 * Remove all cached results and reset the statistics
+	 */
+	public void clear() {
+		cached_solver_results.clear();
+		entries_by_constraint.clear();
+		cached_sat_result_count = 0;
+		cached_unsat_result_count = 0;
+		number_of_accesses = 0;
+		number_of_hits = 0;
+		loaded_cut = null;
+		valid_cached_solution = false;
+		cached_solution = null;
+	}
+
+	private void addUNSAT(Set<Constraint<?>> unsat_constraints, NormalizedConstraints normalized,
+			SolverResult unsatResult) {
+		add(unsat_constraints, normalized, unsatResult);
 		cached_unsat_result_count++;
 	}
 
-	private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-		cached_solver_results.put(sat_constraints, satResult);
+	private void addSAT(Set<Constraint<?>> sat_constraints, NormalizedConstraints normalized,
+			SolverResult satResult) {
+		SolverResult canonical = satResult.isSAT()
+				? SolverResult.newSAT(normalized.toCanonicalModel(satResult.getModel()))
+				: satResult;
+		add(sat_constraints, normalized, canonical);
 		cached_sat_result_count++;
 	}
 
+	private void add(Set<Constraint<?>> constraints, NormalizedConstraints normalized, SolverResult result) {
+		CacheEntry entry = new CacheEntry(constraints, normalized, result);
+		CacheEntry previous = cached_solver_results.put(getKey(constraints, normalized), entry);
+		if (previous != null) {
+			unindex(previous);
+		}
+		if (result.isSAT() || result.isUNSAT()) {
+			for (Constraint<?> constraint : constraints) {
+				entries_by_constraint.computeIfAbsent(constraint, c -> new LinkedHashSet<>()).add(entry);
+			}
+		}
+	}
+
+	private void unindex(CacheEntry entry) {
+		if (entry.constraints == null) {
+			return;
+		}
+		for (Constraint<?> constraint : entry.constraints) {
+			Set<CacheEntry> entries = entries_by_constraint.get(constraint);
+			if (entries != null) {
+				entries.remove(entry);
+				if (entries.isEmpty()) {
+					entries_by_constraint.remove(constraint);
+				}
+			}
+		}
+	}
+
+	private static Object getKey(Set<Constraint<?>> constraints, NormalizedConstraints normalized) {
+		return normalized.getKey() != null ? normalized.getKey() : constraints;
+	}
+
 	private boolean valid_cached_solution = false;
 	private SolverResult cached_solution = null;
 
-	private boolean hasCachedResult(Collection<Constraint<?>> constraints) {
+	private boolean hasCachedResult(Set<Constraint<?>> constraints, NormalizedConstraints normalized) {
 		number_of_accesses++;
 
-		if (this.cached_solver_results.containsKey(constraints)) {
+		loadFromDisk();
+
+		SolverResult result = getEquivalentResult(constraints, normalized);
+		if (result == null) {
+			result = getUNSATSubsetResult(constraints);
+		}
+		if (result == null) {
+			result = getSatisfyingModel(constraints);
+		}
+
+		if (result != null) {
 			valid_cached_solution = true;
-			cached_solution = this.cached_solver_results.get(constraints);
+			cached_solution = result;
 			number_of_hits++;
 			return true;
 		} else {
@@ -108,6 +276,101 @@ public final class SolverCache {
 		}
 	}
 
+	/**
+	 * Result of the same constraints, possibly in a different order or on
+	 * differently named variables
+	 */
+	private SolverResult getEquivalentResult(Set<Constraint<?>> constraints, NormalizedConstraints normalized) {
+		CacheEntry entry = cached_solver_results.get(getKey(constraints, normalized));
+		if (entry == null) {
+			return null;
+		}
+		if (!entry.result.isSAT()) {
+			return entry.result;
+		}
+
+		SolverResult result = SolverResult.newSAT(normalized.toOriginalModel(entry.result.getModel()));
+		if (constraints.equals(entry.constraints)) {
+			return result;
+		}
+		// the normal form is not a proof of equivalence, so better to check the model
+		return isSatisfiedBy(constraints, result) ? result : null;
+	}
+
+	/**
+	 * @return UNSAT if a subset of the constraints is UNSAT, null otherwise
+	 */
+	private SolverResult getUNSATSubsetResult(Set<Constraint<?>> constraints) {
+		for (Map.Entry<CacheEntry, Integer> match : countSharedConstraints(constraints).entrySet()) {
+			CacheEntry entry = match.getKey();
+			if (entry.result.isUNSAT() && match.getValue() == entry.constraints.size()) {
+				return SolverResult.newUNSAT();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Look for a model of the constraints among the cached models that share
+	 * the most constraints with them. A model of a superset of the constraints
+	 * always qualifies.
+	 */
+	private SolverResult getSatisfyingModel(Set<Constraint<?>> constraints) {
+		List<Map.Entry<CacheEntry, Integer>> candidates = new ArrayList<>();
+		for (Map.Entry<CacheEntry, Integer> match : countSharedConstraints(constraints).entrySet()) {
+			if (match.getKey().result.isSAT()) {
+				candidates.add(match);
+			}
+		}
+		if (candidates.isEmpty()) {
+			return null;
+		}
+		Collections.sort(candidates, (m1, m2) -> Integer.compare(m2.getValue(), m1.getValue()));
+
+		Set<String> variables = new HashSet<>();
+		for (Variable<?> v : Solver.getVariables(constraints)) {
+			variables.add(v.getName());
+		}
+
+		for (Map.Entry<CacheEntry, Integer> candidate : candidates.subList(0,
+				Math.min(MAX_CANDIDATE_MODELS, candidates.size()))) {
+			CacheEntry entry = candidate.getKey();
+			Map<String, Object> model = entry.normalized.toOriginalModel(entry.result.getModel());
+			if (!model.keySet().containsAll(variables)) {
+				continue;
+			}
+			SolverResult result = SolverResult.newSAT(model);
+			if (isSatisfiedBy(constraints, result)) {
+				return result;
+			}
+		}
+		return null;
+	}
+
+	private Map<CacheEntry, Integer> countSharedConstraints(Set<Constraint<?>> constraints) {
+		Map<CacheEntry, Integer> counts = new HashMap<>();
+		for (Constraint<?> constraint : constraints) {
+			Set<CacheEntry> entries = entries_by_constraint.get(constraint);
+			if (entries == null) {
+				continue;
+			}
+			for (CacheEntry entry : entries) {
+				counts.merge(entry, 1, Integer::sum);
+			}
+		}
+		return counts;
+	}
+
+	private static boolean isSatisfiedBy(Set<Constraint<?>> constraints, SolverResult result) {
+		try {
+			return Solver.checkSAT(constraints, result);
+		} catch (RuntimeException e) {
+			// e.g., the model was computed for variables of a different type
+			logger.debug("Failed to evaluate cached model: " + e);
+			return false;
+		}
+	}
+
 	public double getHitRate() {
 		return (double) this.number_of_hits / (double) this.number_of_accesses;
 	}
@@ -128,4 +391,66 @@ public final class SolverCache {
 		return this.cached_solution;
 	}
 
+	private static File getCacheFile() {
+		return new File(Properties.DSE_SOLVER_CACHE_DIR, Properties.TARGET_CLASS + FILE_EXTENSION);
+	}
+
+	/**
+	 * Load the results stored for the current CUT, if not done already
+	 */
+	private void loadFromDisk() {
+		if (Properties.DSE_SOLVER_CACHE_DIR == null || Properties.TARGET_CLASS == null
+				|| Properties.TARGET_CLASS.equals(loaded_cut)) {
+			return;
+		}
+		loaded_cut = Properties.TARGET_CLASS;
+
+		File file = getCacheFile();
+		if (!file.exists()) {
+			return;
+		}
+
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			@SuppressWarnings("unchecked")
+			Map<String, SolverResult> stored = (Map<String, SolverResult>) in.readObject();
+			for (Map.Entry<String, SolverResult> result : stored.entrySet()) {
+				if (!cached_solver_results.containsKey(result.getKey())) {
+					cached_solver_results.put(result.getKey(), new CacheEntry(null, null, result.getValue()));
+				}
+			}
+			logger.debug("Loaded " + stored.size() + " solver results from " + file);
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			logger.warn("Failed to load solver results from " + file + ": " + e);
+		}
+	}
+
+	/**
+	 * Store the results of the constraint systems that have a normal form, if
+	 * {@link Properties#DSE_SOLVER_CACHE_DIR} is set
+	 */
+	public void saveToDisk() {
+		if (Properties.DSE_SOLVER_CACHE_DIR == null || Properties.TARGET_CLASS == null) {
+			return;
+		}
+		loadFromDisk(); // do not lose the results of previous runs
+
+		LinkedHashMap<String, SolverResult> stored = new LinkedHashMap<>();
+		for (Map.Entry<Object, CacheEntry> entry : cached_solver_results.entrySet()) {
+			if (entry.getKey() instanceof String) {
+				stored.put((String) entry.getKey(), entry.getValue().result);
+			}
+		}
+		if (stored.isEmpty()) {
+			return;
+		}
+
+		File file = getCacheFile();
+		file.getParentFile().mkdirs();
+		try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeObject(stored);
+		} catch (IOException e) {
+			logger.warn("Failed to store solver results to " + file + ": " + e);
+		}
+	}
+
 }
@@ -119,23 +119,28 @@ public final class CaptureLog implements Cloneable {
 	 * Would be better to have a single list, with object
 	 * containing the different fields
 	 */
-	private final List<Integer> oids;
-	private final List<Integer> oidInitRecNo;
-	private final List<String> oidClassNames;
-	private final List<Integer> oidFirstInits;
-	private final List<Integer> oidDependencies;
+	final List<Integer> oids;
+	final List<Integer> oidInitRecNo;
+	final List<String> oidClassNames;
+	final List<Integer> oidFirstInits;
+	final List<Integer> oidDependencies;
 
 	/**
 	 * captureId -> field name
 	 */
-	private final Map<Integer, String> oidNamesOfAccessedFields;
+	final Map<Integer, String> oidNamesOfAccessedFields;
 
 	/**
 	 * oid -> index ==> oidInitReco.get(index) + oidClassNames.get(index)
 	 */
-	private final Map<Integer, Integer> oidRecMapping;
+	final Map<Integer, Integer> oidRecMapping;
 
-	private final XStream xstream;
+	/**
+	 * Only needed to serialize objects whose construction was not observed, and
+	 * expensive to create, so created on first use rather than for every log
+	 * and clone
+	 */
+	private XStream xstream;
 
 	/**
 	 * Main constructor
@@ -158,8 +163,12 @@ public final class CaptureLog implements Cloneable {
 		this.isStaticCallList = new ArrayList<>();
 
 		this.oidNamesOfAccessedFields = new LinkedHashMap<>();
+	}
 
-		this.xstream = new XStream();
+	private XStream getXStream() {
+		if (xstream == null)
+			xstream = new XStream();
+		return xstream;
 	}
 
 	public String getNameOfAccessedFields(final int captureId) {
@@ -629,12 +638,10 @@ public final class CaptureLog implements Cloneable {
 				if (paramOID == oid) {
 					logger.info("PARAM is 'this' reference -> are serialized version of 'this' is created and passed as param");
 
-					// we serialize and deserialize param in order to get a 'cloned' instance of param
-					// -> this approach is not very efficient but we can always clone an object without the
-					//    the need of the Cloneable interface
+					// we copy param in order to get a 'cloned' instance of param, without the need of the
+					// Cloneable interface; objects the copier cannot handle are serialized and deserialized
 					try {
-						String xml = xstream.toXML(param);
-						param = xstream.fromXML(xml);
+						param = copyParam(param);
 						paramOID = System.identityHashCode(param);
 
 						logUnobservedInitStmt(param);
@@ -673,6 +680,19 @@ public final class CaptureLog implements Cloneable {
 		this.checkIfInstanceFromInnerInstanceClass(receiver);
 	}
 
+	private Object copyParam(final Object param) {
+		try {
+			final Object copy = ParameterCopier.copy(param);
+			if (copy != ParameterCopier.NOT_COPYABLE) {
+				return copy;
+			}
+			logger.debug("cannot copy {} without serialization", param.getClass().getName());
+		} catch (final ReflectiveOperationException | RuntimeException e) {
+			logger.debug("cannot copy {} without serialization: {}", param.getClass().getName(), e.toString());
+		}
+		return getXStream().fromXML(getXStream().toXML(param));
+	}
+
 	@SuppressWarnings("rawtypes")
 	private void createInitLogEntries(final Object param) {
 		if (param == null) {
@@ -828,7 +848,7 @@ public final class CaptureLog implements Cloneable {
 			//					
 			//					this.bout.reset();
 			// FIXME
-			this.params.add(new Object[] { this.xstream.toXML(subject) });
+			this.params.add(new Object[] { getXStream().toXML(subject) });
 		} catch (final Exception e) {
 			logger.info("an error occurred while serializing param '{}' -> adding null as param instead",
 			            subject, e);
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.testcase.TestCaseCodec;
+
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * Reads the capture logs written by {@link CaptureLogWriter} one at a time, so
+ * that a stream of logs can be analyzed without loading all of them.
+ *
+ * <p>
+ * A stream that ends without end marker (e.g., because the capturing process
+ * died) is read up to the last complete log.
+ * </p>
+ */
+public class CaptureLogReader implements Closeable {
+
+	private final DataInputStream in;
+
+	private final ClassLoader classLoader;
+
+	/** Names read so far, by index */
+	private final List<String> readNames = new ArrayList<>();
+
+	private XStream xstream;
+
+	private boolean finished = false;
+
+	/**
+	 * @param classLoader
+	 *            used to load the classes referenced in the logs
+	 */
+	public CaptureLogReader(final InputStream in, final ClassLoader classLoader) throws IOException {
+		if (in == null) {
+			throw new NullPointerException("given InputStream must not be null");
+		}
+		this.in = new DataInputStream(new BufferedInputStream(in));
+		this.classLoader = classLoader;
+		if (TestCaseCodec.readVarInt(this.in) != CaptureLogWriter.FORMAT_VERSION) {
+			throw new IOException("Unsupported version of capture log");
+		}
+	}
+
+	/**
+	 * @return the next log, or null if there are no more logs
+	 * @throws IOException
+	 *             if the log is invalid, or refers to classes that do not exist
+	 */
+	public CaptureLog read() throws IOException {
+		if (finished) {
+			return null;
+		}
+
+		final int marker = in.read();
+		if (marker == -1 || marker == CaptureLogWriter.END_OF_STREAM) {
+			finished = true;
+			return null;
+		}
+		if (marker != CaptureLogWriter.NEXT_LOG) {
+			throw new IOException("Invalid capture log marker " + marker);
+		}
+
+		final CaptureLog log = new CaptureLog();
+		try {
+			final int numRecords = TestCaseCodec.readVarInt(in);
+			for (int i = 0; i < numRecords; i++) {
+				log.objectIds.add(in.readInt());
+				log.captureIds.add(in.readInt());
+				log.methodNames.add(readName());
+				log.descList.add(readName());
+				log.isStaticCallList.add(in.readBoolean());
+				final int numParams = TestCaseCodec.readVarInt(in);
+				final Object[] params = numParams == 0 ? CaptureLog.NO_ARGS : new Object[numParams];
+				for (int j = 0; j < numParams; j++) {
+					params[j] = readValue();
+				}
+				log.params.add(params);
+				log.returnValues.add(readValue());
+			}
+
+			final int numInfoRecords = TestCaseCodec.readVarInt(in);
+			for (int i = 0; i < numInfoRecords; i++) {
+				final int oid = in.readInt();
+				log.oidRecMapping.put(oid, i);
+				log.oids.add(oid);
+				log.oidInitRecNo.add(in.readInt());
+				log.oidClassNames.add(readName());
+				log.oidFirstInits.add(in.readInt());
+				log.oidDependencies.add(in.readInt());
+			}
+
+			final int numAccessedFields = TestCaseCodec.readVarInt(in);
+			for (int i = 0; i < numAccessedFields; i++) {
+				final int captureId = in.readInt();
+				log.oidNamesOfAccessedFields.put(captureId, readName());
+			}
+		} catch (final EOFException e) {
+			finished = true;
+			return null;
+		} catch (final ClassNotFoundException | RuntimeException e) {
+			throw new IOException("Cannot read capture log: " + e, e);
+		}
+		return log;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private Object readValue() throws IOException, ClassNotFoundException {
+		final int kind = in.readByte();
+		switch (kind) {
+		case CaptureLogWriter.VALUE_NULL:
+			return null;
+		case CaptureLogWriter.VALUE_VOID:
+			return CaptureLog.RETURN_TYPE_VOID;
+		case CaptureLogWriter.VALUE_BOOLEAN:
+			return in.readBoolean();
+		case CaptureLogWriter.VALUE_BYTE:
+			return in.readByte();
+		case CaptureLogWriter.VALUE_CHAR:
+			return in.readChar();
+		case CaptureLogWriter.VALUE_SHORT:
+			return in.readShort();
+		case CaptureLogWriter.VALUE_INT:
+			return in.readInt();
+		case CaptureLogWriter.VALUE_LONG:
+			return in.readLong();
+		case CaptureLogWriter.VALUE_FLOAT:
+			return in.readFloat();
+		case CaptureLogWriter.VALUE_DOUBLE:
+			return in.readDouble();
+		case CaptureLogWriter.VALUE_STRING:
+			return readString();
+		case CaptureLogWriter.VALUE_CLASS:
+			return ClassUtils.getClass(classLoader, readName(), false);
+		case CaptureLogWriter.VALUE_XML:
+			if (xstream == null) {
+				xstream = new XStream();
+				xstream.setClassLoader(classLoader);
+			}
+			return xstream.fromXML(readString());
+		default:
+			throw new IOException("Unknown value kind " + kind);
+		}
+	}
+
+	private String readName() throws IOException {
+		final int index = TestCaseCodec.readVarInt(in);
+		if (index > 0) {
+			if (index > readNames.size())
+				throw new IOException("Invalid name index " + index);
+			return readNames.get(index - 1);
+		}
+		final String name = in.readUTF();
+		readNames.add(name);
+		return name;
+	}
+
+	private String readString() throws IOException {
+		final int length = TestCaseCodec.readVarInt(in);
+		final StringBuilder value = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			value.append((char) TestCaseCodec.readVarInt(in));
+		}
+		return value.toString();
+	}
+}
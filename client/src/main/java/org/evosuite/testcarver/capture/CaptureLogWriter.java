@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.evosuite.testcase.TestCaseCodec;
+
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * Writes capture logs in a compact binary format, one log after the other, so
+ * that logs can be appended to a stream as soon as their capture is finished.
+ * The stream is read back by {@link CaptureLogReader}.
+ *
+ * <p>
+ * Method names, descriptors, class and field names are written only once per
+ * stream. Values in the log are object identifiers, plain values and classes;
+ * any other value is written as XML.
+ * </p>
+ */
+public class CaptureLogWriter implements Closeable {
+
+	static final int FORMAT_VERSION = 1;
+
+	static final int END_OF_STREAM = 0;
+	static final int NEXT_LOG = 1;
+
+	static final int VALUE_NULL = 0;
+	static final int VALUE_VOID = 1;
+	static final int VALUE_BOOLEAN = 2;
+	static final int VALUE_BYTE = 3;
+	static final int VALUE_CHAR = 4;
+	static final int VALUE_SHORT = 5;
+	static final int VALUE_INT = 6;
+	static final int VALUE_LONG = 7;
+	static final int VALUE_FLOAT = 8;
+	static final int VALUE_DOUBLE = 9;
+	static final int VALUE_STRING = 10;
+	static final int VALUE_CLASS = 11;
+	static final int VALUE_XML = 12;
+
+	private final DataOutputStream out;
+
+	/** Names written so far, so that each is encoded only once */
+	private final Map<String, Integer> writtenNames = new HashMap<>();
+
+	private XStream xstream;
+
+	public CaptureLogWriter(final OutputStream out) throws IOException {
+		if (out == null) {
+			throw new NullPointerException("given OutputStream must not be null");
+		}
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		TestCaseCodec.writeVarInt(this.out, FORMAT_VERSION);
+	}
+
+	/**
+	 * Append the given log to the stream
+	 */
+	public void write(final CaptureLog log) throws IOException {
+		out.writeByte(NEXT_LOG);
+
+		final int numRecords = log.objectIds.size();
+		TestCaseCodec.writeVarInt(out, numRecords);
+		for (int i = 0; i < numRecords; i++) {
+			out.writeInt(log.objectIds.get(i));
+			out.writeInt(log.captureIds.get(i));
+			writeName(log.methodNames.get(i));
+			writeName(log.descList.get(i));
+			out.writeBoolean(log.isStaticCallList.get(i));
+			final Object[] params = log.params.get(i);
+			TestCaseCodec.writeVarInt(out, params.length);
+			for (Object param : params) {
+				writeValue(param);
+			}
+			writeValue(log.returnValues.get(i));
+		}
+
+		final int numInfoRecords = log.oids.size();
+		TestCaseCodec.writeVarInt(out, numInfoRecords);
+		for (int i = 0; i < numInfoRecords; i++) {
+			out.writeInt(log.oids.get(i));
+			out.writeInt(log.oidInitRecNo.get(i));
+			writeName(log.oidClassNames.get(i));
+			out.writeInt(log.oidFirstInits.get(i));
+			out.writeInt(log.oidDependencies.get(i));
+		}
+
+		TestCaseCodec.writeVarInt(out, log.oidNamesOfAccessedFields.size());
+		for (Entry<Integer, String> entry : log.oidNamesOfAccessedFields.entrySet()) {
+			out.writeInt(entry.getKey());
+			writeName(entry.getValue());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Mark the end of the stream and close it
+	 */
+	@Override
+	public void close() throws IOException {
+		out.writeByte(END_OF_STREAM);
+		out.close();
+	}
+
+	private void writeValue(final Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(VALUE_NULL);
+		} else if (value == CaptureLog.RETURN_TYPE_VOID) {
+			out.writeByte(VALUE_VOID);
+		} else if (value instanceof Boolean) {
+			out.writeByte(VALUE_BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof Byte) {
+			out.writeByte(VALUE_BYTE);
+			out.writeByte((Byte) value);
+		} else if (value instanceof Character) {
+			out.writeByte(VALUE_CHAR);
+			out.writeChar((Character) value);
+		} else if (value instanceof Short) {
+			out.writeByte(VALUE_SHORT);
+			out.writeShort((Short) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(VALUE_INT);
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte(VALUE_LONG);
+			out.writeLong((Long) value);
+		} else if (value instanceof Float) {
+			out.writeByte(VALUE_FLOAT);
+			out.writeFloat((Float) value);
+		} else if (value instanceof Double) {
+			out.writeByte(VALUE_DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof String) {
+			out.writeByte(VALUE_STRING);
+			writeString((String) value);
+		} else if (value instanceof Class) {
+			out.writeByte(VALUE_CLASS);
+			writeName(((Class<?>) value).getName());
+		} else {
+			if (xstream == null)
+				xstream = new XStream();
+			out.writeByte(VALUE_XML);
+			writeString(xstream.toXML(value));
+		}
+	}
+
+	/**
+	 * Names are written in full the first time, and as index into the names
+	 * written so far afterwards
+	 */
+	private void writeName(final String name) throws IOException {
+		final Integer index = writtenNames.get(name);
+		if (index != null) {
+			TestCaseCodec.writeVarInt(out, index + 1);
+		} else {
+			TestCaseCodec.writeVarInt(out, 0);
+			out.writeUTF(name);
+			writtenNames.put(name, writtenNames.size());
+		}
+	}
+
+	/** Strings (e.g., XML of unobserved objects) may be longer than supported by writeUTF */
+	private void writeString(final String value) throws IOException {
+		TestCaseCodec.writeVarInt(out, value.length());
+		for (int i = 0; i < value.length(); i++) {
+			TestCaseCodec.writeVarInt(out, value.charAt(i));
+		}
+	}
+}
@@ -31,9 +31,6 @@ import org.evosuite.testcarver.exception.CapturerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.thoughtworks.xstream.XStream;
-import com.thoughtworks.xstream.io.xml.StaxDriver;
-
 public final class Capturer {
 	private static CaptureLog currentLog;
 	private static boolean isCaptureStarted = false;
@@ -115,24 +112,28 @@ public final class Capturer {
 		 */
 	}
 
+	/**
+	 * Write all captured logs in the binary format of {@link CaptureLogWriter},
+	 * and close the stream
+	 */
 	public static void save(final OutputStream out) throws IOException {
-		if (out == null) {
-			throw new NullPointerException("given OutputStream must not be null");
+		try (CaptureLogWriter writer = new CaptureLogWriter(out)) {
+			for (CaptureLog log : logs) {
+				writer.write(log);
+			}
 		}
-
-		final XStream xstream = new XStream();
-		xstream.toXML(logs, out);
-		out.close();
 	}
 
-	@SuppressWarnings("unchecked")
-	public static void load(final InputStream in) {
-		if (in == null) {
-			throw new NullPointerException("given InputStream must not be null");
+	/**
+	 * Add the logs written by {@link #save(OutputStream)} to the captured logs
+	 */
+	public static void load(final InputStream in) throws IOException {
+		try (CaptureLogReader reader = new CaptureLogReader(in, Thread.currentThread().getContextClassLoader())) {
+			CaptureLog log;
+			while ((log = reader.read()) != null) {
+				logs.add(log);
+			}
 		}
-
-		final XStream xstream = new XStream(new StaxDriver());
-		logs.addAll((ArrayList<CaptureLog>) xstream.fromXML(in));
 	}
 
 	 public static void clear() {
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+import com.thoughtworks.xstream.core.JVM;
+
+/**
+ * Deep copies of captured parameters, used instead of an XML round trip.
+ *
+ * <p>
+ * Immutable values (strings, boxed primitives, classes and enum constants) are
+ * shared rather than copied, arrays are copied element by element, and other
+ * objects are instantiated without calling a constructor and copied field by
+ * field. Objects of JDK classes are not copied, as they may depend on state
+ * the copy cannot preserve (e.g., hash maps with keys hashed by identity);
+ * for these {@link #copy(Object)} returns {@link #NOT_COPYABLE} and the caller
+ * has to fall back to serialization.
+ * </p>
+ */
+final class ParameterCopier {
+
+	/** Returned instead of a copy if the object graph contains a JDK object */
+	static final Object NOT_COPYABLE = new Object();
+
+	private static final ReflectionProvider instantiator = JVM.newReflectionProvider();
+
+	/** Instance fields of each class, including inherited ones */
+	private static final ClassValue<Field[]> instanceFields = new ClassValue<Field[]>() {
+		@Override
+		protected Field[] computeValue(Class<?> type) {
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+			}
+			return fields.toArray(new Field[0]);
+		}
+	};
+
+	/** Copies made so far, so that shared and cyclic references are kept */
+	private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+	private ParameterCopier() {
+	}
+
+	/**
+	 * @return the copy, or {@link #NOT_COPYABLE} if the object graph contains
+	 *         an object that cannot be copied
+	 * @throws ReflectiveOperationException
+	 *             if a field cannot be copied
+	 */
+	static Object copy(Object value) throws ReflectiveOperationException {
+		return new ParameterCopier().deepCopy(value);
+	}
+
+	static boolean isImmutable(Object value) {
+		return value == null || value instanceof String || value instanceof Integer
+		        || value instanceof Long || value instanceof Double || value instanceof Float
+		        || value instanceof Byte || value instanceof Short || value instanceof Boolean
+		        || value instanceof Character || value instanceof Class || value instanceof Enum;
+	}
+
+	private Object deepCopy(Object value) throws ReflectiveOperationException {
+		if (isImmutable(value))
+			return value;
+
+		Object copy = copies.get(value);
+		if (copy != null)
+			return copy;
+
+		Class<?> type = value.getClass();
+		if (type.isArray()) {
+			int length = Array.getLength(value);
+			if (type.getComponentType().isPrimitive()) {
+				copy = Array.newInstance(type.getComponentType(), length);
+				System.arraycopy(value, 0, copy, 0, length);
+				copies.put(value, copy);
+			} else {
+				Object[] elements = (Object[]) value;
+				Object[] copiedElements = (Object[]) Array.newInstance(type.getComponentType(), length);
+				copies.put(value, copiedElements);
+				for (int i = 0; i < length; i++) {
+					copiedElements[i] = deepCopy(elements[i]);
+					if (copiedElements[i] == NOT_COPYABLE)
+						return NOT_COPYABLE;
+				}
+				copy = copiedElements;
+			}
+			return copy;
+		}
+
+		if (type.getClassLoader() == null)
+			return NOT_COPYABLE;
+
+		copy = instantiator.newInstance(type);
+		copies.put(value, copy);
+		for (Field field : instanceFields.get(type)) {
+			if (!copyField(field, value, copy))
+				return NOT_COPYABLE;
+		}
+		return copy;
+	}
+
+	/**
+	 * @return whether the value of the field could be copied
+	 */
+	private boolean copyField(Field field, Object from, Object to) throws ReflectiveOperationException {
+		Class<?> type = field.getType();
+		if (!type.isPrimitive()) {
+			Object copy = deepCopy(field.get(from));
+			if (copy == NOT_COPYABLE)
+				return false;
+			field.set(to, copy);
+		} else if (type == int.class) {
+			field.setInt(to, field.getInt(from));
+		} else if (type == long.class) {
+			field.setLong(to, field.getLong(from));
+		} else if (type == double.class) {
+			field.setDouble(to, field.getDouble(from));
+		} else if (type == boolean.class) {
+			field.setBoolean(to, field.getBoolean(from));
+		} else if (type == float.class) {
+			field.setFloat(to, field.getFloat(from));
+		} else if (type == char.class) {
+			field.setChar(to, field.getChar(from));
+		} else if (type == byte.class) {
+			field.setByte(to, field.getByte(from));
+		} else {
+			field.setShort(to, field.getShort(from));
+		}
+		return true;
+	}
+}
@@ -47,6 +47,7 @@ import org.evosuite.setup.TestClusterUtils;
 import org.evosuite.testcase.statements.*;
 import org.evosuite.testcase.statements.environment.AccessedEnvironment;
 import org.evosuite.testcase.execution.CodeUnderTestException;
+import org.evosuite.testcase.execution.ExecutionCheckpoints;
 import org.evosuite.testcase.execution.Scope;
 import org.evosuite.testcase.variable.*;
 import org.evosuite.utils.generic.GenericClass;
@@ -86,6 +87,12 @@ public class DefaultTestCase implements TestCase, Serializable {
 
 	private boolean unstable = false;
 
+	/** Checkpoints of the last execution, shared with clones */
+	private transient ExecutionCheckpoints executionCheckpoints = null;
+
+	/** Usable variables by type, shared with clones until modified */
+	private transient VariableTypeIndex typeIndex = null;
+
 	private int id;
 
 	/**
@@ -240,6 +247,8 @@ public class DefaultTestCase implements TestCase, Serializable {
 	@Override
 	public VariableReference addStatement(Statement statement, int position) {
 		statements.add(position, statement);
+		if (typeIndex != null)
+			getTypeIndex().insert(position);
 		assert (isValid());
 		return statement.getReturnValue();
 	}
@@ -279,6 +288,8 @@ public class DefaultTestCase implements TestCase, Serializable {
 	public void chop(int length) {
 		while (statements.size() > length) {
 			statements.remove(length);
+			if (typeIndex != null)
+				getTypeIndex().remove(length);
 		}
 	}
 	
@@ -361,6 +372,8 @@ public class DefaultTestCase implements TestCase, Serializable {
 		t.coveredGoals.addAll(coveredGoals);
 		t.accessedEnvironment.copyFrom(accessedEnvironment);
 		t.isFailing = isFailing;
+		t.executionCheckpoints = executionCheckpoints;
+		t.typeIndex = typeIndex == null ? null : typeIndex.share();
 		t.id = idGenerator.getAndIncrement(); //always create new ID when making a clone
 		//t.exception_statement = exception_statement;
 		//t.exceptionThrown = exceptionThrown;
@@ -518,10 +531,11 @@ public class DefaultTestCase implements TestCase, Serializable {
 	@Override
 	public VariableReference getLastObject(Type type, int position)
 	        throws ConstructionFailedException {
+		VariableTypeIndex index = getTypeIndex();
 		for (int i = statements.size() - 1; i >= position; i--) {
 			Statement statement = statements.get(i);
 			VariableReference var = statement.getReturnValue();
-			if (var.isAssignableTo(type))
+			if ((getTypeFlags(index, i, var, type) & VariableTypeIndex.ASSIGNABLE) != 0)
 				return var;
 		}
 		throw new ConstructionFailedException("Found no variables of type " + type);
@@ -576,8 +590,7 @@ public class DefaultTestCase implements TestCase, Serializable {
 	public List<VariableReference> getObjects(Type type, int position) {
 		List<VariableReference> variables = new LinkedList<>();
 
-		GenericClass genericClass = new GenericClass(type);
-		Class<?> rawClass = genericClass.getRawClass();
+		VariableTypeIndex index = getTypeIndex();
 		for (int i = 0; i < position && i < size(); i++) {
 			Statement statement = statements.get(i);
 			if(statement instanceof MethodStatement) {
@@ -588,44 +601,18 @@ public class DefaultTestCase implements TestCase, Serializable {
 
 			if (value == null)
 				continue;
-			if (value instanceof ArrayReference) {
-
-				// For some reason, TypeUtils/ClassUtils sometimes claims
-				// that an array is assignable to its component type
-				// TODO: Fix
-				boolean isClassUtilsBug = false;
-				if (value.isArray()) {
-					Class<?> arrayClass = value.getVariableClass();
-					isClassUtilsBug = isClassUtilsBug(rawClass, arrayClass);
-				}
-				if (rawClass.isArray() && !isClassUtilsBug) {
-					isClassUtilsBug = isClassUtilsBug(value.getVariableClass(), rawClass);
-				}
 
-				if (value.isAssignableTo(type) && !isClassUtilsBug && value.isArray() == rawClass.isArray()) {
-					logger.debug("Array is assignable: " + value.getType() + " to "
-					        + type + ", " + value.isArray() + ", " + rawClass.isArray());
-					variables.add(value);
-				} else if (GenericClass.isAssignable(type, value.getComponentType())) {
-					Class<?> arrayClass = value.getComponentClass();
-					if (isClassUtilsBug(rawClass, arrayClass)) {
-						continue;
-					}
-
-					for (int index = 0; index < ((ArrayReference) value).getArrayLength(); index++) {
-						if (((ArrayReference) value).isInitialized(index, position))
-							variables.add(new ArrayIndex(this, (ArrayReference) value,
-							        index));
-					}
-				}
-			} else if (value instanceof ArrayIndex) {
-				// Don't need to add this because array indices are created for array statement
-			} else if (value.isAssignableTo(type) && value.isPrimitive() == rawClass.isPrimitive() &&
-					value.isArray() == rawClass.isArray()) {
+			byte flags = getTypeFlags(index, i, value, type);
+			if ((flags & VariableTypeIndex.OBJECT) != 0) {
 				variables.add(value);
-			} else {
+			} else if ((flags & VariableTypeIndex.ARRAY_ELEMENTS) != 0) {
+				for (int arrayIndex = 0; arrayIndex < ((ArrayReference) value).getArrayLength(); arrayIndex++) {
+					if (((ArrayReference) value).isInitialized(arrayIndex, position))
+						variables.add(new ArrayIndex(this, (ArrayReference) value, arrayIndex));
+				}
+			} else if ((flags & VariableTypeIndex.FIELDS) != 0) {
 				addFields(variables, value, type);
-			}			
+			}
 		}
 
 		return variables;
@@ -828,11 +815,12 @@ public class DefaultTestCase implements TestCase, Serializable {
 	/** {@inheritDoc} */
 	@Override
 	public boolean hasObject(Type type, int position) {
+		VariableTypeIndex index = getTypeIndex();
 		for (int i = 0; i < position && i < size(); i++) {
 			Statement st = statements.get(i);
 			if (st.getReturnValue() == null)
 				continue; // Nop
-			if (st.getReturnValue().isAssignableTo(type)) {
+			if ((getTypeFlags(index, i, st.getReturnValue(), type) & VariableTypeIndex.ASSIGNABLE) != 0) {
 				return true;
 			}
 		}
@@ -859,6 +847,68 @@ public class DefaultTestCase implements TestCase, Serializable {
 		return false;
 	}
 
+	private VariableTypeIndex getTypeIndex() {
+		if (typeIndex == null)
+			typeIndex = new VariableTypeIndex();
+		else
+			typeIndex = typeIndex.getModifiable();
+		return typeIndex;
+	}
+
+	/**
+	 * Determine how the variable defined at <code>position</code> can be used
+	 * as an object of the given type, using the type index
+	 */
+	private byte getTypeFlags(VariableTypeIndex index, int position, VariableReference value, Type type) {
+		byte flags = index.get(position, value, type);
+		if (flags == 0) {
+			flags = computeTypeFlags(value, type);
+			index.put(position, type, flags);
+		}
+		return flags;
+	}
+
+	private byte computeTypeFlags(VariableReference value, Type type) {
+		byte flags = VariableTypeIndex.COMPUTED;
+		boolean isAssignable = value.isAssignableTo(type);
+		if (isAssignable)
+			flags |= VariableTypeIndex.ASSIGNABLE;
+
+		Class<?> rawClass = new GenericClass(type).getRawClass();
+		if (value instanceof ArrayReference) {
+
+			// For some reason, TypeUtils/ClassUtils sometimes claims
+			// that an array is assignable to its component type
+			// TODO: Fix
+			boolean isClassUtilsBug = false;
+			if (value.isArray()) {
+				Class<?> arrayClass = value.getVariableClass();
+				isClassUtilsBug = isClassUtilsBug(rawClass, arrayClass);
+			}
+			if (rawClass.isArray() && !isClassUtilsBug) {
+				isClassUtilsBug = isClassUtilsBug(value.getVariableClass(), rawClass);
+			}
+
+			if (isAssignable && !isClassUtilsBug && value.isArray() == rawClass.isArray()) {
+				logger.debug("Array is assignable: " + value.getType() + " to "
+				        + type + ", " + value.isArray() + ", " + rawClass.isArray());
+				flags |= VariableTypeIndex.OBJECT;
+			} else if (GenericClass.isAssignable(type, value.getComponentType())
+					&& !isClassUtilsBug(rawClass, value.getComponentClass())) {
+				flags |= VariableTypeIndex.ARRAY_ELEMENTS;
+			}
+		} else if (value instanceof ArrayIndex) {
+			// Don't need to add this because array indices are created for array statement
+		} else if (isAssignable && value.isPrimitive() == rawClass.isPrimitive() &&
+				value.isArray() == rawClass.isArray()) {
+			flags |= VariableTypeIndex.OBJECT;
+		} else if (!value.isPrimitive() && !(value instanceof NullReference)
+				&& !TestClusterUtils.getAccessibleFields(value.getVariableClass()).isEmpty()) {
+			flags |= VariableTypeIndex.FIELDS;
+		}
+		return (byte) flags;
+	}
+
 	private boolean isClassUtilsBug(Class<?> rawClass, Class<?> arrayClass) {
 		while (arrayClass != null && arrayClass.isArray()) {
 			if (rawClass.isAssignableFrom(arrayClass.getComponentType())) {
@@ -949,6 +999,8 @@ public class DefaultTestCase implements TestCase, Serializable {
 			return;
 		}
 		statements.remove(position);
+		if (typeIndex != null)
+			getTypeIndex().remove(position);
 		assert (isValid());
 		// for(Statement s : statements) {
 		// for(Asss.assertions)
@@ -1127,6 +1179,16 @@ public class DefaultTestCase implements TestCase, Serializable {
 		this.unstable = unstable;
 	}
 
+	@Override
+	public ExecutionCheckpoints getExecutionCheckpoints() {
+		return executionCheckpoints;
+	}
+
+	@Override
+	public void setExecutionCheckpoints(ExecutionCheckpoints checkpoints) {
+		this.executionCheckpoints = checkpoints;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.testcase.TestCase#size()
 	 */
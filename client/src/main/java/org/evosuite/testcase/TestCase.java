@@ -29,6 +29,7 @@ import org.evosuite.contracts.ContractViolation;
 import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testcase.statements.environment.AccessedEnvironment;
+import org.evosuite.testcase.execution.ExecutionCheckpoints;
 import org.evosuite.testcase.execution.Scope;
 import org.evosuite.testcase.variable.VariableReference;
 import org.evosuite.utils.Listenable;
@@ -153,6 +154,14 @@ public interface TestCase extends Iterable<Statement>, Cloneable, Listenable<Voi
 	 */
     AccessedEnvironment getAccessedEnvironment();
 
+	/**
+	 * Retrieve the checkpoints of the last execution of this test, which allow
+	 * to execute it again only from the first modified statement on
+	 *
+	 * @return the checkpoints, or null if there are none
+	 */
+    ExecutionCheckpoints getExecutionCheckpoints();
+
 	/**
 	 * Get all assertions that exist for this test case
 	 *
@@ -485,6 +494,13 @@ public interface TestCase extends Iterable<Statement>, Cloneable, Listenable<Voi
 	 */
     void setUnstable(boolean unstable);
 
+	/**
+	 * Keep the checkpoints of the last execution of this test
+	 *
+	 * @param checkpoints
+	 */
+    void setExecutionCheckpoints(ExecutionCheckpoints checkpoints);
+
 	/**
 	 * <p>size</p>
 	 *
@@ -0,0 +1,785 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ClassPrimitiveStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BytePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.CharPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.NullReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testcase.variable.VariableReferenceImpl;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.evosuite.utils.generic.GenericArrayTypeImpl;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.evosuite.utils.generic.WildcardTypeImpl;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+
+/**
+ * Compact binary encoding of test cases, containing only the statements,
+ * the variables they use and primitive values. Assertions, execution results
+ * and coverage information are not part of the encoding.
+ *
+ * <p>
+ * Classes and members are encoded by name (and descriptor), and every name is
+ * written only once per test, so that the encoding does not depend on the
+ * order in which a JVM happens to build its test cluster. Type variables not
+ * declared by a class and capture types are replaced by their erasure, as in
+ * the Java serialization of {@link GenericClass}.
+ * </p>
+ *
+ * <p>
+ * Statements for which there is no compact encoding (e.g., functional mocks or
+ * environment data) are reported by {@link #isSupported(TestCase)}; callers
+ * have to fall back to Java serialization for such tests.
+ * </p>
+ */
+public class TestCaseCodec {
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int STATEMENT_NULL = 0;
+	private static final int STATEMENT_PRIMITIVE = 1;
+	private static final int STATEMENT_CONSTRUCTOR = 2;
+	private static final int STATEMENT_METHOD = 3;
+	private static final int STATEMENT_FIELD = 4;
+	private static final int STATEMENT_ASSIGNMENT = 5;
+	private static final int STATEMENT_ARRAY = 6;
+
+	private static final int VALUE_NULL = 0;
+	private static final int VALUE_BOOLEAN = 1;
+	private static final int VALUE_BYTE = 2;
+	private static final int VALUE_CHAR = 3;
+	private static final int VALUE_SHORT = 4;
+	private static final int VALUE_INT = 5;
+	private static final int VALUE_LONG = 6;
+	private static final int VALUE_FLOAT = 7;
+	private static final int VALUE_DOUBLE = 8;
+	private static final int VALUE_STRING = 9;
+	private static final int VALUE_ENUM = 10;
+	private static final int VALUE_CLASS = 11;
+
+	private static final int REFERENCE_NONE = 0;
+	private static final int REFERENCE_STATEMENT = 1;
+	private static final int REFERENCE_ARRAY_INDEX = 2;
+	private static final int REFERENCE_FIELD = 3;
+	private static final int REFERENCE_NULL = 4;
+	private static final int REFERENCE_CONSTANT = 5;
+
+	private static final int TYPE_NONE = 0;
+	private static final int TYPE_CLASS = 1;
+	private static final int TYPE_PARAMETERIZED = 2;
+	private static final int TYPE_ARRAY = 3;
+	private static final int TYPE_WILDCARD = 4;
+	private static final int TYPE_VARIABLE = 5;
+
+	/** Names written so far, so that each is encoded only once */
+	private final Map<String, Integer> writtenNames = new HashMap<>();
+
+	/** Names read so far, by index */
+	private final List<String> readNames = new ArrayList<>();
+
+	private TestCaseCodec() {
+	}
+
+	/**
+	 * @return true if all statements of the test can be encoded
+	 */
+	public static boolean isSupported(TestCase test) {
+		for (Statement statement : test) {
+			if (!isSupported(test, statement))
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean isSupported(TestCase test, Statement statement) {
+		Class<?> statementClass = statement.getClass();
+		if (statementClass == NullStatement.class || statementClass == ArrayStatement.class)
+			return true;
+		if (statementClass == BooleanPrimitiveStatement.class
+		        || statementClass == BytePrimitiveStatement.class
+		        || statementClass == CharPrimitiveStatement.class
+		        || statementClass == ShortPrimitiveStatement.class
+		        || statementClass == IntPrimitiveStatement.class
+		        || statementClass == LongPrimitiveStatement.class
+		        || statementClass == FloatPrimitiveStatement.class
+		        || statementClass == DoublePrimitiveStatement.class
+		        || statementClass == StringPrimitiveStatement.class
+		        || statementClass == EnumPrimitiveStatement.class
+		        || statementClass == ClassPrimitiveStatement.class) {
+			Object value = ((PrimitiveStatement<?>) statement).getValue();
+			// Only strings are decoded from null values
+			return value == null ? statementClass == StringPrimitiveStatement.class : isSupportedValue(value);
+		}
+		if (statementClass == ConstructorStatement.class) {
+			return areSupported(test, ((ConstructorStatement) statement).getParameterReferences());
+		}
+		if (statementClass == MethodStatement.class) {
+			MethodStatement ms = (MethodStatement) statement;
+			return (ms.isStatic() || isSupported(test, ms.getCallee()))
+			        && areSupported(test, ms.getParameterReferences());
+		}
+		if (statementClass == FieldStatement.class) {
+			FieldStatement fs = (FieldStatement) statement;
+			return fs.isStatic() || isSupported(test, fs.getSource());
+		}
+		if (statementClass == AssignmentStatement.class) {
+			AssignmentStatement as = (AssignmentStatement) statement;
+			return isSupported(test, as.getReturnValue()) && isSupported(test, as.getValue());
+		}
+		return false;
+	}
+
+	private static boolean areSupported(TestCase test, List<VariableReference> references) {
+		for (VariableReference reference : references) {
+			if (!isSupported(test, reference))
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean isSupported(TestCase test, VariableReference reference) {
+		if (reference == null)
+			return false;
+		if (reference instanceof ArrayIndex)
+			return isSupported(test, ((ArrayIndex) reference).getArray());
+		if (reference instanceof FieldReference) {
+			FieldReference fr = (FieldReference) reference;
+			return fr.getSource() == null || isSupported(test, fr.getSource());
+		}
+		if (reference instanceof NullReference)
+			return true;
+		if (reference instanceof ConstantValue)
+			return isSupportedValue(((ConstantValue) reference).getValue());
+		if (reference.getClass() == VariableReferenceImpl.class
+		        || reference.getClass() == ArrayReference.class) {
+			int position = reference.getStPosition();
+			return position >= 0 && position < test.size()
+			        && test.getStatement(position).getReturnValue() == reference;
+		}
+		return false;
+	}
+
+	private static boolean isSupportedValue(Object value) {
+		return value == null || value instanceof Boolean || value instanceof Byte
+		        || value instanceof Character || value instanceof Short
+		        || value instanceof Integer || value instanceof Long
+		        || value instanceof Float || value instanceof Double
+		        || value instanceof String || value instanceof Enum<?>
+		        || value instanceof Class<?>;
+	}
+
+	/**
+	 * Encode the statements of a test
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the test is not supported
+	 */
+	public static byte[] encode(TestCase test) {
+		if (!isSupported(test))
+			throw new IllegalArgumentException("Test cannot be encoded compactly: " + test.toCode());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			TestCaseCodec codec = new TestCaseCodec();
+			writeVarInt(out, FORMAT_VERSION);
+			writeVarInt(out, test.size());
+			for (Statement statement : test) {
+				codec.writeStatement(out, statement);
+			}
+		} catch (IOException e) {
+			// Cannot happen with an in-memory stream
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decode a test encoded by {@link #encode(TestCase)}, loading all classes
+	 * with the class loader of the SUT
+	 *
+	 * @throws IOException
+	 *             if the encoding is invalid, or refers to classes or members
+	 *             that do not exist
+	 */
+	public static DefaultTestCase decode(byte[] encoded) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+		if (readVarInt(in) != FORMAT_VERSION)
+			throw new IOException("Unsupported version of encoded test");
+		TestCaseCodec codec = new TestCaseCodec();
+		DefaultTestCase test = new DefaultTestCase();
+		int size = readVarInt(in);
+		try {
+			for (int i = 0; i < size; i++) {
+				test.addStatement(codec.readStatement(in, test));
+			}
+		} catch (ClassNotFoundException | NoSuchFieldException | NoSuchMethodException
+		        | RuntimeException e) {
+			throw new IOException("Cannot decode test: " + e, e);
+		}
+		return test;
+	}
+
+	// ---------------------------------------------------------------------
+	// Statements
+
+	private void writeStatement(DataOutputStream out, Statement statement) throws IOException {
+		if (statement instanceof NullStatement) {
+			out.writeByte(STATEMENT_NULL);
+		} else if (statement instanceof PrimitiveStatement) {
+			out.writeByte(STATEMENT_PRIMITIVE);
+			writeValue(out, ((PrimitiveStatement<?>) statement).getValue());
+		} else if (statement instanceof ConstructorStatement) {
+			ConstructorStatement cs = (ConstructorStatement) statement;
+			out.writeByte(STATEMENT_CONSTRUCTOR);
+			Constructor<?> constructor = cs.getConstructor().getConstructor();
+			writeName(out, constructor.getDeclaringClass().getName());
+			writeName(out, org.objectweb.asm.Type.getConstructorDescriptor(constructor));
+			writeType(out, cs.getConstructor().getOwnerType());
+			writeReferences(out, cs.getParameterReferences());
+		} else if (statement instanceof MethodStatement) {
+			MethodStatement ms = (MethodStatement) statement;
+			out.writeByte(STATEMENT_METHOD);
+			Method method = ms.getMethod().getMethod();
+			writeName(out, method.getDeclaringClass().getName());
+			writeName(out, method.getName());
+			writeName(out, org.objectweb.asm.Type.getMethodDescriptor(method));
+			writeType(out, ms.getMethod().getOwnerType());
+			writeReference(out, ms.isStatic() ? null : ms.getCallee());
+			writeReferences(out, ms.getParameterReferences());
+		} else if (statement instanceof FieldStatement) {
+			FieldStatement fs = (FieldStatement) statement;
+			out.writeByte(STATEMENT_FIELD);
+			writeField(out, fs.getField());
+			writeReference(out, fs.isStatic() ? null : fs.getSource());
+		} else if (statement instanceof AssignmentStatement) {
+			AssignmentStatement as = (AssignmentStatement) statement;
+			out.writeByte(STATEMENT_ASSIGNMENT);
+			writeReference(out, as.getReturnValue());
+			writeReference(out, as.getValue());
+		} else if (statement instanceof ArrayStatement) {
+			out.writeByte(STATEMENT_ARRAY);
+			writeType(out, statement.getReturnValue().getType());
+			writeLengths(out, ((ArrayStatement) statement).getLengths());
+			return;
+		} else {
+			throw new IllegalArgumentException("Unsupported statement: " + statement.getClass());
+		}
+
+		// The type may have changed, e.g. through a downcast
+		VariableReference retval = statement.getReturnValue();
+		writeType(out, retval.getType());
+		if (retval instanceof ArrayReference && !(statement instanceof AssignmentStatement)) {
+			out.writeBoolean(true);
+			writeVarInt(out, ((ArrayReference) retval).getArrayLength());
+		} else {
+			out.writeBoolean(false);
+		}
+	}
+
+	private Statement readStatement(DataInputStream in, TestCase test) throws IOException,
+	        ClassNotFoundException, NoSuchFieldException, NoSuchMethodException {
+		Statement statement;
+		int kind = in.readByte();
+		switch (kind) {
+		case STATEMENT_NULL:
+			statement = new NullStatement(test, Object.class);
+			break;
+		case STATEMENT_PRIMITIVE:
+			statement = createPrimitiveStatement(test, readValue(in));
+			break;
+		case STATEMENT_CONSTRUCTOR: {
+			Class<?> declaringClass = loadClass(readName(in));
+			String descriptor = readName(in);
+			Type owner = readType(in);
+			List<VariableReference> parameters = readReferences(in, test);
+			statement = new ConstructorStatement(test,
+			        new GenericConstructor(findConstructor(declaringClass, descriptor), owner), parameters);
+			break;
+		}
+		case STATEMENT_METHOD: {
+			Class<?> declaringClass = loadClass(readName(in));
+			String name = readName(in);
+			String descriptor = readName(in);
+			Type owner = readType(in);
+			VariableReference callee = readReference(in, test);
+			List<VariableReference> parameters = readReferences(in, test);
+			statement = new MethodStatement(test,
+			        new GenericMethod(findMethod(declaringClass, name, descriptor), owner), callee, parameters);
+			break;
+		}
+		case STATEMENT_FIELD: {
+			GenericField field = readField(in);
+			statement = new FieldStatement(test, field, readReference(in, test));
+			break;
+		}
+		case STATEMENT_ASSIGNMENT: {
+			VariableReference target = readReference(in, test);
+			statement = new AssignmentStatement(test, target, readReference(in, test));
+			break;
+		}
+		case STATEMENT_ARRAY:
+			return new ArrayStatement(test, readType(in), readLengths(in));
+		default:
+			throw new IOException("Unknown statement kind " + kind);
+		}
+
+		Type type = readType(in);
+		if (in.readBoolean()) {
+			int length = readVarInt(in);
+			if (!(statement.getReturnValue() instanceof ArrayReference))
+				statement.setRetval(new ArrayReference(test, new GenericClass(type), length));
+		}
+		if (!(statement instanceof AssignmentStatement))
+			statement.getReturnValue().setType(type);
+		return statement;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Statement createPrimitiveStatement(TestCase test, Object value) {
+		if (value instanceof Boolean)
+			return new BooleanPrimitiveStatement(test, (Boolean) value);
+		if (value instanceof Byte)
+			return new BytePrimitiveStatement(test, (Byte) value);
+		if (value instanceof Character)
+			return new CharPrimitiveStatement(test, (Character) value);
+		if (value instanceof Short)
+			return new ShortPrimitiveStatement(test, (Short) value);
+		if (value instanceof Integer)
+			return new IntPrimitiveStatement(test, (Integer) value);
+		if (value instanceof Long)
+			return new LongPrimitiveStatement(test, (Long) value);
+		if (value instanceof Float)
+			return new FloatPrimitiveStatement(test, (Float) value);
+		if (value instanceof Double)
+			return new DoublePrimitiveStatement(test, (Double) value);
+		if (value instanceof Enum<?>)
+			return new EnumPrimitiveStatement(test, (Enum) value);
+		if (value instanceof Class<?>)
+			return new ClassPrimitiveStatement(test, (Class<?>) value);
+		// Strings, and null strings
+		return new StringPrimitiveStatement(test, (String) value);
+	}
+
+	private static void writeLengths(DataOutputStream out, List<Integer> lengths) throws IOException {
+		writeVarInt(out, lengths.size());
+		for (int length : lengths) {
+			writeVarInt(out, length);
+		}
+	}
+
+	private static int[] readLengths(DataInputStream in) throws IOException {
+		int[] lengths = new int[readVarInt(in)];
+		for (int i = 0; i < lengths.length; i++) {
+			lengths[i] = readVarInt(in);
+		}
+		return lengths;
+	}
+
+	// ---------------------------------------------------------------------
+	// Variables
+
+	private void writeReferences(DataOutputStream out, List<VariableReference> references)
+	        throws IOException {
+		writeVarInt(out, references.size());
+		for (VariableReference reference : references) {
+			writeReference(out, reference);
+		}
+	}
+
+	private List<VariableReference> readReferences(DataInputStream in, TestCase test) throws IOException,
+	        ClassNotFoundException, NoSuchFieldException {
+		int size = readVarInt(in);
+		List<VariableReference> references = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			references.add(readReference(in, test));
+		}
+		return references;
+	}
+
+	private void writeReference(DataOutputStream out, VariableReference reference) throws IOException {
+		if (reference == null) {
+			out.writeByte(REFERENCE_NONE);
+		} else if (reference instanceof ArrayIndex) {
+			ArrayIndex index = (ArrayIndex) reference;
+			out.writeByte(REFERENCE_ARRAY_INDEX);
+			writeReference(out, index.getArray());
+			writeLengths(out, index.getArrayIndices());
+		} else if (reference instanceof FieldReference) {
+			FieldReference field = (FieldReference) reference;
+			out.writeByte(REFERENCE_FIELD);
+			writeField(out, field.getField());
+			writeType(out, field.getType());
+			writeReference(out, field.getSource());
+		} else if (reference instanceof NullReference) {
+			out.writeByte(REFERENCE_NULL);
+			writeType(out, reference.getType());
+		} else if (reference instanceof ConstantValue) {
+			out.writeByte(REFERENCE_CONSTANT);
+			writeType(out, reference.getType());
+			writeValue(out, ((ConstantValue) reference).getValue());
+		} else {
+			out.writeByte(REFERENCE_STATEMENT);
+			writeVarInt(out, reference.getStPosition());
+		}
+	}
+
+	private VariableReference readReference(DataInputStream in, TestCase test) throws IOException,
+	        ClassNotFoundException, NoSuchFieldException {
+		int kind = in.readByte();
+		switch (kind) {
+		case REFERENCE_NONE:
+			return null;
+		case REFERENCE_STATEMENT:
+			return test.getStatement(readVarInt(in)).getReturnValue();
+		case REFERENCE_ARRAY_INDEX: {
+			ArrayReference array = (ArrayReference) readReference(in, test);
+			List<Integer> indices = new ArrayList<>();
+			for (int index : readLengths(in)) {
+				indices.add(index);
+			}
+			return new ArrayIndex(test, array, indices);
+		}
+		case REFERENCE_FIELD: {
+			GenericField field = readField(in);
+			Type type = readType(in);
+			VariableReference source = readReference(in, test);
+			return new FieldReference(test, field, type, source);
+		}
+		case REFERENCE_NULL:
+			return new NullReference(test, readType(in));
+		case REFERENCE_CONSTANT: {
+			ConstantValue constant = new ConstantValue(test, readType(in));
+			constant.setValue(readValue(in));
+			return constant;
+		}
+		default:
+			throw new IOException("Unknown reference kind " + kind);
+		}
+	}
+
+	private void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(VALUE_NULL);
+		} else if (value instanceof Boolean) {
+			out.writeByte(VALUE_BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof Byte) {
+			out.writeByte(VALUE_BYTE);
+			out.writeByte((Byte) value);
+		} else if (value instanceof Character) {
+			out.writeByte(VALUE_CHAR);
+			out.writeChar((Character) value);
+		} else if (value instanceof Short) {
+			out.writeByte(VALUE_SHORT);
+			out.writeShort((Short) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(VALUE_INT);
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte(VALUE_LONG);
+			out.writeLong((Long) value);
+		} else if (value instanceof Float) {
+			out.writeByte(VALUE_FLOAT);
+			out.writeFloat((Float) value);
+		} else if (value instanceof Double) {
+			out.writeByte(VALUE_DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof String) {
+			out.writeByte(VALUE_STRING);
+			writeString(out, (String) value);
+		} else if (value instanceof Enum<?>) {
+			out.writeByte(VALUE_ENUM);
+			writeName(out, ((Enum<?>) value).getDeclaringClass().getName());
+			writeName(out, ((Enum<?>) value).name());
+		} else if (value instanceof Class<?>) {
+			out.writeByte(VALUE_CLASS);
+			writeName(out, ((Class<?>) value).getName());
+		} else {
+			throw new IllegalArgumentException("Unsupported value: " + value.getClass());
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readValue(DataInputStream in) throws IOException, ClassNotFoundException {
+		int kind = in.readByte();
+		switch (kind) {
+		case VALUE_NULL:
+			return null;
+		case VALUE_BOOLEAN:
+			return in.readBoolean();
+		case VALUE_BYTE:
+			return in.readByte();
+		case VALUE_CHAR:
+			return in.readChar();
+		case VALUE_SHORT:
+			return in.readShort();
+		case VALUE_INT:
+			return in.readInt();
+		case VALUE_LONG:
+			return in.readLong();
+		case VALUE_FLOAT:
+			return in.readFloat();
+		case VALUE_DOUBLE:
+			return in.readDouble();
+		case VALUE_STRING:
+			return readString(in);
+		case VALUE_ENUM: {
+			Class enumClass = loadClass(readName(in));
+			return Enum.valueOf(enumClass, readName(in));
+		}
+		case VALUE_CLASS:
+			return loadClass(readName(in));
+		default:
+			throw new IOException("Unknown value kind " + kind);
+		}
+	}
+
+	// ---------------------------------------------------------------------
+	// Types and members
+
+	private void writeType(DataOutputStream out, Type type) throws IOException {
+		if (type == null) {
+			out.writeByte(TYPE_NONE);
+		} else if (type instanceof Class<?>) {
+			out.writeByte(TYPE_CLASS);
+			writeName(out, ((Class<?>) type).getName());
+		} else if (type instanceof ParameterizedType) {
+			ParameterizedType pt = (ParameterizedType) type;
+			out.writeByte(TYPE_PARAMETERIZED);
+			writeName(out, ((Class<?>) pt.getRawType()).getName());
+			writeType(out, pt.getOwnerType());
+			writeTypes(out, pt.getActualTypeArguments());
+		} else if (type instanceof GenericArrayType) {
+			out.writeByte(TYPE_ARRAY);
+			writeType(out, ((GenericArrayType) type).getGenericComponentType());
+		} else if (type instanceof WildcardType) {
+			out.writeByte(TYPE_WILDCARD);
+			writeTypes(out, ((WildcardType) type).getUpperBounds());
+			writeTypes(out, ((WildcardType) type).getLowerBounds());
+		} else if (type instanceof TypeVariable<?>
+		        && ((TypeVariable<?>) type).getGenericDeclaration() instanceof Class<?>) {
+			TypeVariable<?> variable = (TypeVariable<?>) type;
+			out.writeByte(TYPE_VARIABLE);
+			writeName(out, ((Class<?>) variable.getGenericDeclaration()).getName());
+			writeName(out, variable.getName());
+		} else {
+			// Type variables of methods, capture types
+			out.writeByte(TYPE_CLASS);
+			writeName(out, GenericTypeReflector.erase(type).getName());
+		}
+	}
+
+	private void writeTypes(DataOutputStream out, Type[] types) throws IOException {
+		writeVarInt(out, types.length);
+		for (Type type : types) {
+			writeType(out, type);
+		}
+	}
+
+	private Type readType(DataInputStream in) throws IOException, ClassNotFoundException {
+		int kind = in.readByte();
+		switch (kind) {
+		case TYPE_NONE:
+			return null;
+		case TYPE_CLASS:
+			return loadClass(readName(in));
+		case TYPE_PARAMETERIZED: {
+			Class<?> rawClass = loadClass(readName(in));
+			Type owner = readType(in);
+			return new ParameterizedTypeImpl(rawClass, readTypes(in), owner);
+		}
+		case TYPE_ARRAY:
+			return GenericArrayTypeImpl.createArrayType(readType(in));
+		case TYPE_WILDCARD: {
+			Type[] upperBounds = readTypes(in);
+			return new WildcardTypeImpl(upperBounds, readTypes(in));
+		}
+		case TYPE_VARIABLE: {
+			Class<?> declaringClass = loadClass(readName(in));
+			String name = readName(in);
+			for (TypeVariable<?> variable : declaringClass.getTypeParameters()) {
+				if (variable.getName().equals(name))
+					return variable;
+			}
+			throw new IOException("Unknown type variable " + name + " of " + declaringClass);
+		}
+		default:
+			throw new IOException("Unknown type kind " + kind);
+		}
+	}
+
+	private Type[] readTypes(DataInputStream in) throws IOException, ClassNotFoundException {
+		Type[] types = new Type[readVarInt(in)];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = readType(in);
+		}
+		return types;
+	}
+
+	private void writeField(DataOutputStream out, GenericField field) throws IOException {
+		writeName(out, field.getField().getDeclaringClass().getName());
+		writeName(out, field.getField().getName());
+		writeType(out, field.getOwnerType());
+	}
+
+	private GenericField readField(DataInputStream in) throws IOException, ClassNotFoundException,
+	        NoSuchFieldException {
+		Class<?> declaringClass = loadClass(readName(in));
+		Field field = declaringClass.getDeclaredField(readName(in));
+		return new GenericField(field, readType(in));
+	}
+
+	private static Constructor<?> findConstructor(Class<?> declaringClass, String descriptor)
+	        throws NoSuchMethodException {
+		for (Constructor<?> constructor : declaringClass.getDeclaredConstructors()) {
+			if (org.objectweb.asm.Type.getConstructorDescriptor(constructor).equals(descriptor))
+				return constructor;
+		}
+		throw new NoSuchMethodException(declaringClass.getName() + ".<init>" + descriptor);
+	}
+
+	private static Method findMethod(Class<?> declaringClass, String name, String descriptor)
+	        throws NoSuchMethodException {
+		for (Method method : declaringClass.getDeclaredMethods()) {
+			if (method.getName().equals(name)
+			        && org.objectweb.asm.Type.getMethodDescriptor(method).equals(descriptor))
+				return method;
+		}
+		throw new NoSuchMethodException(declaringClass.getName() + "." + name + descriptor);
+	}
+
+	private static Class<?> loadClass(String name) throws ClassNotFoundException {
+		return ClassUtils.getClass(TestGenerationContext.getInstance().getClassLoaderForSUT(), name, false);
+	}
+
+	// ---------------------------------------------------------------------
+	// Primitives
+
+	/**
+	 * Names are written in full the first time, and as index into the names
+	 * written so far afterwards
+	 */
+	private void writeName(DataOutputStream out, String name) throws IOException {
+		Integer index = writtenNames.get(name);
+		if (index != null) {
+			writeVarInt(out, index + 1);
+		} else {
+			writeVarInt(out, 0);
+			out.writeUTF(name);
+			writtenNames.put(name, writtenNames.size());
+		}
+	}
+
+	private String readName(DataInputStream in) throws IOException {
+		int index = readVarInt(in);
+		if (index > 0) {
+			if (index > readNames.size())
+				throw new IOException("Invalid name index " + index);
+			return readNames.get(index - 1);
+		}
+		String name = in.readUTF();
+		readNames.add(name);
+		return name;
+	}
+
+	/** Strings may be longer than supported by writeUTF, and may be null */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		writeVarInt(out, value.length());
+		for (int i = 0; i < value.length(); i++) {
+			writeVarInt(out, value.charAt(i));
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = readVarInt(in);
+		StringBuilder value = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			value.append((char) readVarInt(in));
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Write a non-negative integer in 7-bit groups, so that small values take
+	 * a single byte
+	 */
+	public static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	public static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+}
@@ -112,6 +112,7 @@ public final class TestChromosome extends AbstractTestChromosome<TestChromosome>
 		c.test = test.clone();
 		c.setFitnessValues(getFitnessValues());
 		c.setPreviousFitnessValues(getPreviousFitnessValues());
+		c.copyGoalFitness(this);
 		c.copyCachedResults(this);
 		c.setChanged(isChanged());
 		c.setLocalSearchApplied(hasLocalSearchBeenApplied());
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.evosuite.testcase.variable.VariableReference;
+
+/**
+ * Index of a {@link DefaultTestCase} from requested types to the way the
+ * variable defined at each position can be used for them, so that the
+ * expensive assignability checks are done once per variable and type rather
+ * than on every lookup.
+ *
+ * <p>
+ * The index is kept up to date when statements are inserted or removed. As
+ * the types of variables may also change (e.g., when they are downcast after
+ * an execution), every entry remembers the kind and type of the variable it
+ * was computed for, and is recomputed when they no longer match. Copies of a
+ * test case share the index until one of them changes it.
+ * </p>
+ */
+class VariableTypeIndex {
+
+	/** The flags for this position and type have been computed */
+	static final byte COMPUTED = 1;
+
+	/** {@link VariableReference#isAssignableTo(Type)} holds */
+	static final byte ASSIGNABLE = 2;
+
+	/** The variable itself can be used as an object of the type */
+	static final byte OBJECT = 4;
+
+	/** The initialized elements of the array can be used */
+	static final byte ARRAY_ELEMENTS = 8;
+
+	/** Accessible fields of the variable may be usable */
+	static final byte FIELDS = 16;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** Kind of variable for which the flags at a position were computed */
+	private Class<?>[] referenceClasses = new Class<?>[DEFAULT_CAPACITY];
+
+	/** Type of variable for which the flags at a position were computed */
+	private Type[] types = new Type[DEFAULT_CAPACITY];
+
+	private int size = 0;
+
+	private final Map<Type, byte[]> flags = new HashMap<>();
+
+	private boolean shared = false;
+
+	/**
+	 * Mark this index as used by another test case as well
+	 */
+	VariableTypeIndex share() {
+		shared = true;
+		return this;
+	}
+
+	/**
+	 * @return this index if it is not shared, or a private copy otherwise
+	 */
+	VariableTypeIndex getModifiable() {
+		if (!shared)
+			return this;
+
+		VariableTypeIndex copy = new VariableTypeIndex();
+		copy.referenceClasses = referenceClasses.clone();
+		copy.types = types.clone();
+		copy.size = size;
+		for (Map.Entry<Type, byte[]> entry : flags.entrySet()) {
+			copy.flags.put(entry.getKey(), entry.getValue().clone());
+		}
+		return copy;
+	}
+
+	/**
+	 * Get the flags for the variable at a position, or 0 if they still need
+	 * to be computed
+	 */
+	byte get(int position, VariableReference variable, Type type) {
+		assert !shared;
+		validate(position, variable);
+		byte[] values = flags.get(type);
+		if (values == null || values.length <= position)
+			return 0;
+		return values[position];
+	}
+
+	void put(int position, Type type, byte value) {
+		assert !shared && position < size;
+		byte[] values = flags.get(type);
+		if (values == null) {
+			values = new byte[types.length];
+			flags.put(type, values);
+		} else if (values.length <= position) {
+			values = Arrays.copyOf(values, types.length);
+			flags.put(type, values);
+		}
+		values[position] = value;
+	}
+
+	private void validate(int position, VariableReference variable) {
+		if (position >= size) {
+			ensureCapacity(position + 1);
+			size = position + 1;
+		}
+		Type type = variable.getType();
+		if (referenceClasses[position] != variable.getClass() || !Objects.equals(types[position], type)) {
+			referenceClasses[position] = variable.getClass();
+			types[position] = type;
+			for (byte[] values : flags.values()) {
+				if (position < values.length)
+					values[position] = 0;
+			}
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= types.length)
+			return;
+		int newCapacity = Math.max(capacity, types.length * 2);
+		referenceClasses = Arrays.copyOf(referenceClasses, newCapacity);
+		types = Arrays.copyOf(types, newCapacity);
+	}
+
+	/**
+	 * A statement was inserted at the given position
+	 */
+	void insert(int position) {
+		assert !shared;
+		if (position >= size)
+			return;
+		ensureCapacity(size + 1);
+		System.arraycopy(referenceClasses, position, referenceClasses, position + 1, size - position);
+		System.arraycopy(types, position, types, position + 1, size - position);
+		referenceClasses[position] = null;
+		types[position] = null;
+		for (Map.Entry<Type, byte[]> entry : flags.entrySet()) {
+			byte[] values = entry.getValue();
+			if (values.length < types.length) {
+				values = Arrays.copyOf(values, types.length);
+				entry.setValue(values);
+			}
+			int length = Math.min(size, values.length - 1) - position;
+			if (length > 0)
+				System.arraycopy(values, position, values, position + 1, length);
+			values[position] = 0;
+		}
+		size++;
+	}
+
+	/**
+	 * The statement at the given position was removed
+	 */
+	void remove(int position) {
+		assert !shared;
+		if (position >= size)
+			return;
+		System.arraycopy(referenceClasses, position + 1, referenceClasses, position, size - position - 1);
+		System.arraycopy(types, position + 1, types, position, size - position - 1);
+		size--;
+		referenceClasses[size] = null;
+		types[size] = null;
+		for (byte[] values : flags.values()) {
+			int length = Math.min(size + 1, values.length) - position - 1;
+			if (length > 0)
+				System.arraycopy(values, position + 1, values, position, length);
+			int last = Math.min(size, values.length - 1);
+			if (last >= position)
+				values[last] = 0;
+		}
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.assertion.CheapPurityAnalyzer;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.FunctionalMockStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.PrimitiveExpression;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.environment.EnvironmentDataStatement;
+
+/**
+ * Per-statement checkpoints of one execution of a test case, used to execute
+ * a modified version of the test only from the first modified statement on.
+ *
+ * <p>
+ * The checkpoint at position <code>k</code> consists of the execution trace
+ * and the values of the variables after the first <code>k</code> statements.
+ * As objects cannot be copied, the values are the live objects of the
+ * execution: the checkpoint at <code>k</code> is only usable if none of the
+ * statements executed from <code>k</code> on had side effects, i.e., if they
+ * were primitive values, array creations, field reads or calls of methods
+ * that the {@link CheapPurityAnalyzer} considers free of side effects.
+ * Executions resumed from a checkpoint share these objects: once one of them
+ * runs a statement with side effects, the objects are no longer in the state
+ * of the checkpoint and the checkpoints of all executions sharing them are
+ * invalidated.
+ * </p>
+ *
+ * <p>
+ * Static fields, system properties and the simulated environment (file
+ * system, network, time and random numbers) are reset after each execution,
+ * so the statements before a checkpoint must not have changed them either.
+ * An execution that wrote static fields or system properties, or accessed the
+ * environment, therefore has no usable checkpoints at all.
+ * </p>
+ *
+ * <p>
+ * Copying the trace after every statement would cost more than executing
+ * most statements again, so the trace is only kept after the last statement
+ * and at the position an execution was resumed from. Executions can thus be
+ * resumed if statements were appended to an unchanged test, or if only
+ * statements after the position it was resumed from were changed.
+ * </p>
+ */
+public class ExecutionCheckpoints {
+
+	/** Copy of the test case as it was executed */
+	private final TestCase executedTest;
+
+	/** Trace after statements 0..i at index i, if it was kept */
+	private final List<ExecutionTrace> traces = new ArrayList<>();
+
+	/** Value of the variable defined by statement i, at index i */
+	private final List<Object> values = new ArrayList<>();
+
+	/** System properties read by statements 0..i, at index i */
+	private final List<Set<String>> readProperties = new ArrayList<>();
+
+	/** Smallest position from which execution can be resumed */
+	private int firstCheckpoint = 1;
+
+	/** Shared by all executions that use the same objects */
+	private Owner owner = new Owner();
+
+	private boolean disabled = false;
+
+	private static class Owner {
+		private volatile boolean valid = true;
+	}
+
+	public ExecutionCheckpoints(TestCase test) {
+		this.executedTest = test.clone();
+		// Do not keep the checkpoints of earlier executions alive
+		this.executedTest.setExecutionCheckpoints(null);
+	}
+
+	/**
+	 * Create the checkpoints for an execution that is resumed from position
+	 * <code>position</code> of <code>previous</code>, which shares the prefix
+	 * of that execution
+	 */
+	ExecutionCheckpoints(TestCase test, ExecutionCheckpoints previous, int position) {
+		this(test);
+		traces.addAll(previous.traces.subList(0, position));
+		values.addAll(previous.values.subList(0, position));
+		readProperties.addAll(previous.readProperties.subList(0, position));
+		firstCheckpoint = previous.firstCheckpoint;
+		owner = previous.owner;
+	}
+
+	/**
+	 * Determine the longest prefix of <code>test</code> that does not need to
+	 * be executed again
+	 *
+	 * @param test
+	 *            the test case that is going to be executed
+	 * @return the position from which execution can be resumed, or 0
+	 */
+	public int getResumablePosition(TestCase test) {
+		if (!isValid())
+			return 0;
+
+		int limit = Math.min(test.size(), traces.size());
+		int position = 0;
+		while (position < limit
+				&& test.getStatement(position).same(executedTest.getStatement(position)))
+			position++;
+
+		// The unchanged statements after the last kept trace are executed again
+		while (position >= firstCheckpoint && traces.get(position - 1) == null)
+			position--;
+
+		return position >= firstCheckpoint ? position : 0;
+	}
+
+	/**
+	 * The trace after the first <code>position</code> statements
+	 */
+	public ExecutionTrace getTrace(int position) {
+		return traces.get(position - 1);
+	}
+
+	/**
+	 * The system properties read by the first <code>position</code>
+	 * statements
+	 */
+	public Set<String> getReadProperties(int position) {
+		return readProperties.get(position - 1);
+	}
+
+	/**
+	 * Put the values of the variables defined by the first
+	 * <code>position</code> statements of <code>test</code> into the scope
+	 */
+	public void restoreScope(TestCase test, Scope scope, int position) {
+		for (int i = 0; i < position; i++) {
+			scope.setObject(test.getStatement(i).getReturnValue(), values.get(i));
+		}
+	}
+
+	/**
+	 * Called before the statement at <code>position</code> is executed
+	 */
+	void beforeStatement(int position, Statement statement) {
+		assert position == traces.size();
+		if (!isSideEffectFree(statement))
+			discardCheckpoints(position);
+	}
+
+	/**
+	 * Record the state after the successful execution of the statement at
+	 * <code>position</code>
+	 *
+	 * @param hadSideEffects
+	 *            whether the statement was observed to write static fields
+	 *            or system properties
+	 */
+	void afterStatement(int position, Statement statement, Scope scope, Set<String> properties,
+			boolean hadSideEffects) {
+		assert position == traces.size();
+		if (hadSideEffects)
+			disable();
+
+		traces.add(null);
+		values.add(scope.getObject(statement.getReturnValue()));
+		readProperties.add(properties);
+	}
+
+	/**
+	 * Keep the trace after the last statement, if all statements were
+	 * executed successfully
+	 */
+	void afterLastStatement(ExecutionTrace trace) {
+		if (!traces.isEmpty() && traces.get(traces.size() - 1) == null)
+			traces.set(traces.size() - 1, trace);
+	}
+
+	private void discardCheckpoints(int position) {
+		// Other executions sharing the objects can no longer use them
+		owner.valid = false;
+		owner = new Owner();
+
+		// Earlier states can never be restored, so do not keep them alive
+		Collections.fill(traces, null);
+		Collections.fill(values, null);
+		Collections.fill(readProperties, null);
+		firstCheckpoint = position + 1;
+	}
+
+	/**
+	 * None of the checkpoints of this execution can be used
+	 */
+	void disable() {
+		disabled = true;
+	}
+
+	public boolean isValid() {
+		return !disabled && owner.valid;
+	}
+
+	/**
+	 * @return number of statements for which a checkpoint was recorded
+	 */
+	public int size() {
+		return traces.size();
+	}
+
+	/**
+	 * Whether executing the statement leaves all objects that existed before
+	 * as they were
+	 */
+	public static boolean isSideEffectFree(Statement statement) {
+		if (statement instanceof EnvironmentDataStatement)
+			return false;
+
+		if (statement instanceof PrimitiveStatement
+				|| statement instanceof PrimitiveExpression
+				|| statement instanceof ArrayStatement
+				|| statement instanceof FieldStatement)
+			return true;
+
+		// Private methods are invoked through reflection
+		if (statement.getClass().equals(MethodStatement.class)) {
+			MethodStatement ms = (MethodStatement) statement;
+			return CheapPurityAnalyzer.getInstance().isSideEffectFree(ms.getMethod().getMethod());
+		}
+
+		return false;
+	}
+
+	/**
+	 * Functional mocks record their invocations, which makes them unsuitable
+	 * for reuse in a later execution
+	 */
+	static boolean preventsCheckpoints(Statement statement) {
+		return statement instanceof FunctionalMockStatement;
+	}
+}
@@ -52,6 +52,9 @@ public class ExecutionResult implements Cloneable {
 	/** Trace recorded during execution */
 	protected ExecutionTrace trace;
 
+	/** Summary of the coverage in the trace, computed on demand */
+	private ExecutionSummary summary = null;
+
 	/** Duration of execution */
 	protected long executionTime = 0L;
 
@@ -272,6 +275,20 @@ public class ExecutionResult implements Cloneable {
 			throw new IllegalArgumentException("Trace cannot be null");
 		}
 		this.trace = trace;
+		this.summary = null;
+	}
+
+	/**
+	 * Compact summary of the coverage in the execution trace, computed once
+	 * and shared by the clones of this result
+	 * 
+	 * @return a {@link org.evosuite.testcase.execution.ExecutionSummary} object.
+	 */
+	public ExecutionSummary getSummary() {
+		if (summary == null) {
+			summary = new ExecutionSummary(this);
+		}
+		return summary;
 	}
 
 	/**
@@ -404,6 +421,7 @@ public class ExecutionResult implements Cloneable {
 		ExecutionResult copy = new ExecutionResult(test, mutation);
 		copy.exceptions.putAll(exceptions);
 		copy.trace = trace.lazyClone();
+		copy.summary = summary;
 		copy.explicitExceptions.putAll(explicitExceptions);
 		copy.executionTime = executionTime;
 		copy.inputGoals = new LinkedHashMap<>(inputGoals);
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EntityWithParametersStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.Statement;
+
+/**
+ * Compact view of the coverage recorded in an {@link ExecutionResult}, as
+ * needed by the suite-level coverage fitness functions.
+ *
+ * <p>
+ * Branches are stored in parallel arrays sorted by branch id, lines as a bit
+ * set, so that fitness functions merging the coverage of many tests do not
+ * have to iterate over the (boxed) maps of the trace again for every
+ * evaluation. A summary is computed at most once per execution result and
+ * shared by its clones; it must not be modified.
+ * </p>
+ */
+public class ExecutionSummary {
+
+	private final ExecutionResult result;
+
+	private final int[] branchIds;
+
+	private final int[] predicateCounts;
+
+	/** NaN if the branch has no true distance */
+	private final double[] trueDistances;
+
+	/** NaN if the branch has no false distance */
+	private final double[] falseDistances;
+
+	private final String[] methods;
+
+	private final int[] methodCounts;
+
+	private final BitSet coveredLines = new BitSet();
+
+	/** Lazily computed, as only method coverage needs it */
+	private Set<String> calledMethods = null;
+
+	/**
+	 * Lazily computed, as only the control flow distances of branch goals need
+	 * them; keyed by class name, dot and method name
+	 */
+	private Map<String, List<CallDistances>> callDistances = null;
+
+	/**
+	 * Minimal true and false distances of the branches evaluated in one call of
+	 * a method, sorted by branch id.
+	 */
+	public static final class CallDistances {
+
+		private final int[] branchIds;
+
+		private final double[] trueDistances;
+
+		private final double[] falseDistances;
+
+		CallDistances(MethodCall call) {
+			Map<Integer, double[]> distances = new HashMap<>();
+			for (int pos = 0; pos < call.branchTrace.size(); pos++) {
+				double trueDistance = call.trueDistanceTrace.get(pos);
+				double falseDistance = call.falseDistanceTrace.get(pos);
+				double[] min = distances.get(call.branchTrace.get(pos));
+				if (min == null) {
+					distances.put(call.branchTrace.get(pos), new double[] { trueDistance, falseDistance });
+				} else {
+					min[0] = Math.min(min[0], trueDistance);
+					min[1] = Math.min(min[1], falseDistance);
+				}
+			}
+			branchIds = new int[distances.size()];
+			int n = 0;
+			for (Integer id : distances.keySet())
+				branchIds[n++] = id;
+			Arrays.sort(branchIds);
+			trueDistances = new double[n];
+			falseDistances = new double[n];
+			for (int i = 0; i < n; i++) {
+				double[] min = distances.get(branchIds[i]);
+				trueDistances[i] = min[0];
+				falseDistances[i] = min[1];
+			}
+		}
+
+		/**
+		 * @return the index of the branch, or a negative value if it was not
+		 *         evaluated in this call
+		 */
+		public int indexOf(int branchId) {
+			return Arrays.binarySearch(branchIds, branchId);
+		}
+
+		public double getTrueDistance(int index) {
+			return trueDistances[index];
+		}
+
+		public double getFalseDistance(int index) {
+			return falseDistances[index];
+		}
+	}
+
+	ExecutionSummary(ExecutionResult result) {
+		this.result = result;
+		// Results that were not obtained by executing a test have no trace
+		ExecutionTrace trace = result.getTrace() == null ? new ExecutionTraceImpl() : result.getTrace();
+
+		Map<Integer, Integer> predicates = trace.getPredicateExecutionCount();
+		Map<Integer, Double> trueDistanceMap = trace.getTrueDistances();
+		Map<Integer, Double> falseDistanceMap = trace.getFalseDistances();
+		int[] ids = new int[predicates.size() + trueDistanceMap.size() + falseDistanceMap.size()];
+		int n = 0;
+		for (Integer id : predicates.keySet())
+			ids[n++] = id;
+		for (Integer id : trueDistanceMap.keySet())
+			ids[n++] = id;
+		for (Integer id : falseDistanceMap.keySet())
+			ids[n++] = id;
+		Arrays.sort(ids);
+		int distinct = 0;
+		for (int i = 0; i < n; i++) {
+			if (distinct == 0 || ids[distinct - 1] != ids[i])
+				ids[distinct++] = ids[i];
+		}
+
+		branchIds = Arrays.copyOf(ids, distinct);
+		predicateCounts = new int[distinct];
+		trueDistances = new double[distinct];
+		falseDistances = new double[distinct];
+		for (int i = 0; i < distinct; i++) {
+			Integer count = predicates.get(branchIds[i]);
+			predicateCounts[i] = count == null ? 0 : count;
+			Double trueDistance = trueDistanceMap.get(branchIds[i]);
+			trueDistances[i] = trueDistance == null ? Double.NaN : trueDistance;
+			Double falseDistance = falseDistanceMap.get(branchIds[i]);
+			falseDistances[i] = falseDistance == null ? Double.NaN : falseDistance;
+		}
+
+		Map<String, Integer> methodExecutions = trace.getMethodExecutionCount();
+		methods = new String[methodExecutions.size()];
+		methodCounts = new int[methodExecutions.size()];
+		int m = 0;
+		for (Entry<String, Integer> entry : methodExecutions.entrySet()) {
+			methods[m] = entry.getKey();
+			methodCounts[m++] = entry.getValue();
+		}
+
+		for (Integer line : trace.getCoveredLines())
+			coveredLines.set(line);
+	}
+
+	/**
+	 * @return the number of branches with a predicate count or a distance
+	 */
+	public int getNumBranches() {
+		return branchIds.length;
+	}
+
+	/**
+	 * @param index
+	 *            between 0 and {@link #getNumBranches()}, in ascending order
+	 *            of branch ids
+	 */
+	public int getBranchId(int index) {
+		return branchIds[index];
+	}
+
+	public int getPredicateCount(int index) {
+		return predicateCounts[index];
+	}
+
+	/**
+	 * @return the minimal true distance, or NaN if there is none
+	 */
+	public double getTrueDistance(int index) {
+		return trueDistances[index];
+	}
+
+	/**
+	 * @return the minimal false distance, or NaN if there is none
+	 */
+	public double getFalseDistance(int index) {
+		return falseDistances[index];
+	}
+
+	public int getNumMethods() {
+		return methods.length;
+	}
+
+	/**
+	 * @return the name (class name and method name with descriptor) of an
+	 *         executed method
+	 */
+	public String getMethod(int index) {
+		return methods[index];
+	}
+
+	public int getMethodCount(int index) {
+		return methodCounts[index];
+	}
+
+	/**
+	 * @return whether the line of the target class (or one of its inner
+	 *         classes) was covered
+	 */
+	public boolean isLineCovered(int line) {
+		return line >= 0 && coveredLines.get(line);
+	}
+
+	/**
+	 * @return the methods and constructors (class name, dot, method name and
+	 *         descriptor) called directly by the statements of the test, up to
+	 *         the first exception if <code>break_on_exception</code> is set
+	 */
+	public synchronized Set<String> getCalledMethods() {
+		if (calledMethods == null) {
+			List<Integer> exceptionPositions = new ArrayList<>(result.getPositionsWhereExceptionsWereThrown());
+			Collections.sort(exceptionPositions);
+			Set<String> called = new LinkedHashSet<>();
+			for (Statement stmt : result.test) {
+				if (Properties.BREAK_ON_EXCEPTION && !exceptionPositions.isEmpty()
+				        && stmt.getPosition() > exceptionPositions.get(0)) {
+					break;
+				}
+				if (stmt instanceof MethodStatement || stmt instanceof ConstructorStatement) {
+					EntityWithParametersStatement ps = (EntityWithParametersStatement) stmt;
+					called.add(ps.getDeclaringClassName() + "." + ps.getMethodName() + ps.getDescriptor());
+				}
+			}
+			calledMethods = Collections.unmodifiableSet(called);
+		}
+		return calledMethods;
+	}
+
+	/**
+	 * @return the branch distances of each call of the method, in the order of
+	 *         the calls
+	 */
+	public synchronized List<CallDistances> getCallDistances(String className, String methodName) {
+		if (callDistances == null) {
+			callDistances = new HashMap<>();
+			if (result.getTrace() != null) {
+				for (MethodCall call : result.getTrace().getMethodCalls()) {
+					callDistances.computeIfAbsent(call.className + "." + call.methodName, k -> new ArrayList<>())
+					        .add(new CallDistances(call));
+				}
+			}
+		}
+		return callDistances.getOrDefault(className + "." + methodName, Collections.emptyList());
+	}
+}
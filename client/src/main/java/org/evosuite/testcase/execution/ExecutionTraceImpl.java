@@ -42,6 +42,8 @@ import org.evosuite.coverage.dataflow.Use;
 import org.evosuite.setup.CallContext;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.ArrayUtil;
+import org.evosuite.utils.IntDoubleHashMap;
+import org.evosuite.utils.IntIntHashMap;
 import org.objectweb.asm.Opcodes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -198,15 +200,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	public Map<String, Map<String, Map<Integer, Integer>>> coverage = Collections
 			.synchronizedMap(new HashMap<>());
 
-	public Map<Integer, Integer> coveredFalse = Collections.synchronizedMap(new HashMap<>());
+	public IntIntHashMap coveredFalse = new IntIntHashMap();
 
 	public Map<String, Integer> coveredMethods = Collections.synchronizedMap(new HashMap<>());
 
 	public Map<String, Integer> coveredBranchlessMethods = Collections.synchronizedMap(new HashMap<>());
 
-	public Map<Integer, Integer> coveredPredicates = Collections.synchronizedMap(new HashMap<>());
+	public IntIntHashMap coveredPredicates = new IntIntHashMap();
 
-	public Map<Integer, Integer> coveredTrue = Collections.synchronizedMap(new HashMap<>());
+	public IntIntHashMap coveredTrue = new IntIntHashMap();
 
 	public Map<Integer, Integer> coveredDefs = Collections.synchronizedMap(new HashMap<>());
 
@@ -227,14 +229,16 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	// The last explicitly thrown exception is kept here
 	private Throwable explicitException = null;
 
-	public Map<Integer, Double> falseDistances = Collections.synchronizedMap(new HashMap<>());
-	private final Map<Integer, Double> falseDistancesSum = Collections.synchronizedMap(new HashMap<>());
+	// Branch distances are recorded on every passed branch, so they are kept in
+	// primitive maps that are neither synchronized nor boxing
+	public IntDoubleHashMap falseDistances = new IntDoubleHashMap();
+	private final IntDoubleHashMap falseDistancesSum = new IntDoubleHashMap();
 	// finished_calls;
 	public List<MethodCall> finishedCalls = Collections.synchronizedList(new ArrayList<>());
 	public Map<Integer, Object> knownCallerObjects = Collections.synchronizedMap(new HashMap<>());
 	// to differentiate between different MethodCalls
 	private int methodId = 0;
-	public Map<Integer, Double> mutantDistances = Collections.synchronizedMap(new HashMap<>());
+	public IntDoubleHashMap mutantDistances = new IntDoubleHashMap();
 	// for defuse-coverage it is important to keep track of all the objects that
 	// called the ExecutionTracer
 	private int objectCounter = 0;
@@ -260,9 +264,9 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 
 	public Set<Integer> touchedMutants = Collections.synchronizedSet(new HashSet<>());
 
-	public Map<Integer, Double> trueDistances = Collections.synchronizedMap(new HashMap<>());
+	public IntDoubleHashMap trueDistances = new IntDoubleHashMap();
 
-	private final Map<Integer, Double> trueDistancesSum = Collections.synchronizedMap(new HashMap<>());
+	private final IntDoubleHashMap trueDistancesSum = new IntDoubleHashMap();
 
 	public static Set<Integer> gradientBranches = Collections.synchronizedSet(new HashSet<>());
 
@@ -325,25 +329,13 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		}
 
 		if (traceCoverage) {
-			if (!coveredPredicates.containsKey(branch))
-				coveredPredicates.put(branch, 1);
-			else
-				coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
+			coveredPredicates.increment(branch);
 
-			if (true_distance == 0.0) {
-				if (!coveredTrue.containsKey(branch))
-					coveredTrue.put(branch, 1);
-				else
-					coveredTrue.put(branch, coveredTrue.get(branch) + 1);
+			if (true_distance == 0.0)
+				coveredTrue.increment(branch);
 
-			}
-
-			if (false_distance == 0.0) {
-				if (!coveredFalse.containsKey(branch))
-					coveredFalse.put(branch, 1);
-				else
-					coveredFalse.put(branch, coveredFalse.get(branch) + 1);
-			}
+			if (false_distance == 0.0)
+				coveredFalse.increment(branch);
 		}
 
 		if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
@@ -451,25 +443,10 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			}
 		}
 
-		if (!trueDistances.containsKey(branch))
-			trueDistances.put(branch, true_distance);
-		else
-			trueDistances.put(branch, Math.min(trueDistances.get(branch), true_distance));
-
-		if (!falseDistances.containsKey(branch))
-			falseDistances.put(branch, false_distance);
-		else
-			falseDistances.put(branch, Math.min(falseDistances.get(branch), false_distance));
-
-		if (!trueDistancesSum.containsKey(branch))
-			trueDistancesSum.put(branch, true_distance);
-		else
-			trueDistancesSum.put(branch, trueDistancesSum.get(branch) + true_distance);
-
-		if (!falseDistancesSum.containsKey(branch))
-			falseDistancesSum.put(branch, false_distance);
-		else
-			falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+		trueDistances.putMin(branch, true_distance);
+		falseDistances.putMin(branch, false_distance);
+		trueDistancesSum.add(branch, true_distance);
+		falseDistancesSum.add(branch, false_distance);
 
 		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
 				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
@@ -550,15 +527,18 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		duCounter = 0;
 		objectCounter = 0;
 		knownCallerObjects = new HashMap<>();
-		trueDistances = new HashMap<>();
-		falseDistances = new HashMap<>();
-		mutantDistances = new HashMap<>();
+		// The primitive maps keep their tables, which makes the reset cheap
+		trueDistances.clear();
+		falseDistances.clear();
+		trueDistancesSum.clear();
+		falseDistancesSum.clear();
+		mutantDistances.clear();
 		touchedMutants = new HashSet<>();
 		coveredMethods = new HashMap<>();
 		coveredBranchlessMethods = new HashMap<>();
-		coveredPredicates = new HashMap<>();
-		coveredTrue = new HashMap<>();
-		coveredFalse = new HashMap<>();
+		coveredPredicates.clear();
+		coveredTrue.clear();
+		coveredFalse.clear();
 		coveredDefs = new HashMap<>();
 		passedDefinitions = new HashMap<>();
 		passedUses = new HashMap<>();
@@ -1418,11 +1398,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	public void mutationPassed(int mutationId, double distance) {
 
 		touchedMutants.add(mutationId);
-		if (!mutantDistances.containsKey(mutationId)) {
-			mutantDistances.put(mutationId, distance);
-		} else {
-			mutantDistances.put(mutationId, Math.min(distance, mutantDistances.get(mutationId)));
-		}
+		mutantDistances.putMin(mutationId, distance);
 	}
 
 	/**
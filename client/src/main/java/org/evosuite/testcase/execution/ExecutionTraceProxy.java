@@ -705,11 +705,13 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 
 	@Override
 	public void putStaticPassed(String classNameWithDots, String fieldName) {
+		copyOnWrite();
 		trace.putStaticPassed(classNameWithDots, fieldName);
 	}
 
 	@Override
 	public void getStaticPassed(String classNameWithDots, String fieldName) {
+		copyOnWrite();
 		trace.getStaticPassed(classNameWithDots, fieldName);
 	}
 
@@ -720,6 +722,7 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 
 	@Override
 	public void classInitialized(String classNameWithDots) {
+		copyOnWrite();
 		trace.classInitialized(classNameWithDots);
 	}
 
@@ -238,6 +238,37 @@ public class ExecutionTracer {
 		// return copy;
 	}
 
+	/**
+	 * Return the trace of the current execution without finishing the method
+	 * calls that are still active
+	 */
+	ExecutionTrace getCurrentTrace() {
+		return trace;
+	}
+
+	/**
+	 * Return a copy of the trace of the current execution so far, without
+	 * finishing the method calls that are still active
+	 * 
+	 * @return a {@link org.evosuite.testcase.execution.ExecutionTrace} object.
+	 */
+	public ExecutionTrace getTraceSnapshot() {
+		return trace.lazyClone();
+	}
+
+	/**
+	 * Continue the current execution from a snapshot of an earlier one
+	 * 
+	 * @param snapshot
+	 *            trace returned by {@link #getTraceSnapshot()}
+	 * @param numStatements
+	 *            number of statements executed when the snapshot was taken
+	 */
+	public void restore(ExecutionTrace snapshot, int numStatements) {
+		trace = snapshot.lazyClone();
+		num_statements = numStatements;
+	}
+
 	/**
 	 * Return the last explicitly thrown exception
 	 * 
@@ -97,6 +97,9 @@ public class TestCaseExecutor implements ThreadFactory {
 	/** Constant <code>testsExecuted=0</code> */
 	public static int testsExecuted = 0;
 
+	/** Number of statements that were restored from checkpoints instead of being executed */
+	public static long statementsRestored = 0;
+
 	/**
 	 * Used when we spawn a new thread to give a unique name
 	 */
@@ -307,6 +310,11 @@ public class TestCaseExecutor implements ThreadFactory {
 		// #TODO steenbuck could be nicer (TestRunnable should be an interface
 		TestRunnable callable = new TestRunnable(tc, scope, observers);
 		callable.storeCurrentThreads();
+		ExecutionCheckpoints checkpoints = null;
+		// Without resetting static fields, writes to them are not observed
+		if (Properties.INCREMENTAL_EXECUTION && Properties.RESET_STATIC_FIELDS) {
+			checkpoints = prepareCheckpoints(tc, scope, callable);
+		}
 
 		/*
 		 * FIXME: the sequence of "catch" with calls to "result.set" should be
@@ -396,6 +404,10 @@ public class TestCaseExecutor implements ThreadFactory {
 			if (Properties.LOG_TIMEOUT) {
 				logger.warn("Timeout occurred for " + Properties.TARGET_CLASS);
 			}
+			if (checkpoints != null) {
+				// The statement that timed out might still be running
+				checkpoints.disable();
+			}
 			logger.info("TimeoutException, need to stop runner", e1);
 			ExecutionTracer.setKillSwitch(true);
 			try {
@@ -492,7 +504,50 @@ public class TestCaseExecutor implements ThreadFactory {
 			if (threadGroup != null)
 				PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
 			TestCluster.getInstance().handleRuntimeAccesses(tc);
+			if (checkpoints != null && accessedEnvironment(tc)) {
+				// The environment is reset before the next execution
+				checkpoints.disable();
+			}
+		}
+	}
+
+	private static boolean accessedEnvironment(TestCase tc) {
+		return tc.getAccessedEnvironment().isFileSystemAccessed()
+				|| tc.getAccessedEnvironment().isNetworkAccessed()
+				|| org.evosuite.runtime.Random.wasAccessed()
+				|| org.evosuite.runtime.System.wasTimeAccessed();
+	}
+
+	/**
+	 * Restore the longest unchanged prefix of the test case from the
+	 * checkpoints of its last execution, and set up recording new ones
+	 * 
+	 * @return the checkpoints of the upcoming execution
+	 */
+	private ExecutionCheckpoints prepareCheckpoints(TestCase tc, Scope scope, TestRunnable callable) {
+		if (!observers.isEmpty()) {
+			// Observers need to see every statement
+			tc.setExecutionCheckpoints(null);
+			return null;
+		}
+
+		ExecutionCheckpoints previous = tc.getExecutionCheckpoints();
+		int position = previous == null ? 0 : previous.getResumablePosition(tc);
+
+		ExecutionCheckpoints checkpoints;
+		if (position > 0) {
+			logger.debug("Resuming execution at statement {}", position);
+			checkpoints = new ExecutionCheckpoints(tc, previous, position);
+			ExecutionTracer.getExecutionTracer().restore(previous.getTrace(position), position);
+			previous.restoreScope(tc, scope, position);
+			callable.resumeFrom(position, previous.getReadProperties(position));
+			statementsRestored += position;
+		} else {
+			checkpoints = new ExecutionCheckpoints(tc);
 		}
+		callable.setCheckpoints(checkpoints);
+		tc.setExecutionCheckpoints(checkpoints);
+		return checkpoints;
 	}
 
 	private boolean isInStaticInit() {
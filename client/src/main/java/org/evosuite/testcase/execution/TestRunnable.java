@@ -72,6 +72,15 @@ public class TestRunnable implements InterfaceTestRunnable {
 	protected Set<ExecutionObserver> observers;
 
 	protected final ThreadStopper threadStopper;
+
+	/** Position of the first statement to execute */
+	private int startPosition = 0;
+
+	/** System properties read by the statements that are not executed again */
+	private Set<String> startReadProperties = null;
+
+	/** Checkpoints recorded during the execution, if any */
+	private ExecutionCheckpoints checkpoints = null;
 	
 	/**
 	 * <p>
@@ -99,6 +108,30 @@ public class TestRunnable implements InterfaceTestRunnable {
 		threadStopper = new ThreadStopper(killSwitch, threadsToIgnore, Properties.TIMEOUT);
 	}
 
+	/**
+	 * Record checkpoints after each statement
+	 * 
+	 * @param checkpoints
+	 *            the checkpoints of this execution
+	 */
+	public void setCheckpoints(ExecutionCheckpoints checkpoints) {
+		this.checkpoints = checkpoints;
+	}
+
+	/**
+	 * Only execute the statements from <code>position</code> on, as the ones
+	 * before have been restored from a checkpoint
+	 * 
+	 * @param position
+	 *            position of the first statement to execute
+	 * @param readProperties
+	 *            system properties read by the statements before
+	 */
+	public void resumeFrom(int position, Set<String> readProperties) {
+		this.startPosition = position;
+		this.startReadProperties = readProperties;
+	}
+
 	/**
 	 * <p>
 	 * After the test case is executed, if any SUT thread is still running, we
@@ -191,7 +224,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 		 *  need AtomicInteger as we want to get latest updated value even if exception is thrown in the 'try' block.
 		 *  we practically use it as wrapper for int, which we can then pass by reference
 		 */
-		AtomicInteger num = new AtomicInteger(0);
+		AtomicInteger num = new AtomicInteger(startPosition);
 
 		try {
 			if(Properties.REPLACE_CALLS){
@@ -251,7 +284,10 @@ public class TestRunnable implements InterfaceTestRunnable {
 		result.setExecutionTime(System.currentTimeMillis() - threadStopper.getStartTime());
 		result.setExecutedStatements(num.get());
 		result.setThrownExceptions(exceptionsThrown);
-		result.setReadProperties(org.evosuite.runtime.System.getAllPropertiesReadSoFar());
+		Set<String> readProperties = org.evosuite.runtime.System.getAllPropertiesReadSoFar();
+		if (startReadProperties != null)
+			readProperties.addAll(startReadProperties);
+		result.setReadProperties(readProperties);
 		result.setWasAnyPropertyWritten(org.evosuite.runtime.System.wasAnyPropertyWritten());
 		
 		return result;
@@ -275,7 +311,10 @@ public class TestRunnable implements InterfaceTestRunnable {
 			InvocationTargetException, IllegalAccessException,
 			InstantiationException, VMError, EvosuiteError {
 		
-		for (Statement s : test) {
+		boolean recordCheckpoints = checkpoints != null;
+
+		for (int position = startPosition; position < test.size(); position++) {
+			Statement s = test.getStatement(position);
 
 			if (Thread.currentThread().isInterrupted() || Thread.interrupted()) {
 				logger.info("Thread interrupted at statement " + num + ": " + s.getCode());
@@ -289,11 +328,36 @@ public class TestRunnable implements InterfaceTestRunnable {
 			ExecutionTracer.statementExecuted();
 			informObservers_before(s);
 
+			int staticWrites = 0;
+			boolean propertyWritten = false;
+			if (recordCheckpoints) {
+				if (ExecutionCheckpoints.preventsCheckpoints(s))
+					checkpoints.disable();
+				checkpoints.beforeStatement(position, s);
+				staticWrites = ExecutionTracer.getExecutionTracer().getCurrentTrace().getClassesWithStaticWrites().size();
+				propertyWritten = org.evosuite.runtime.System.wasAnyPropertyWritten();
+			}
+
 			/*
 			 * Here actually execute a statement of the SUT
 			 */
 			Throwable exceptionThrown = s.execute(scope, out);
 
+			if (recordCheckpoints) {
+				if (exceptionThrown == null) {
+					ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
+					boolean sideEffects = tracer.getCurrentTrace().getClassesWithStaticWrites().size() != staticWrites
+							|| org.evosuite.runtime.System.wasAnyPropertyWritten() != propertyWritten;
+					Set<String> readProperties = org.evosuite.runtime.System.getAllPropertiesReadSoFar();
+					if (startReadProperties != null)
+						readProperties.addAll(startReadProperties);
+					checkpoints.afterStatement(position, s, scope, readProperties, sideEffects);
+				} else {
+					// The result of a resumed execution would miss the exception
+					recordCheckpoints = false;
+				}
+			}
+
 			if (exceptionThrown != null) {
 				// if internal error, then throw exception
 				// -------------------------------------------------------
@@ -351,6 +415,8 @@ public class TestRunnable implements InterfaceTestRunnable {
 
 			num.incrementAndGet();
 		} // end of loop
+		if (recordCheckpoints)
+			checkpoints.afterLastStatement(ExecutionTracer.getExecutionTracer().getTraceSnapshot());
 		informObservers_finished(result);
 		//TODO
 	}
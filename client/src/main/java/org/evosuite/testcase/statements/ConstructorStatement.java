@@ -194,6 +194,7 @@ public class ConstructorStatement extends EntityWithParametersStatement {
 				        InstantiationException, CodeUnderTestException {
 
 					java.lang.reflect.Type[] parameterTypes = constructor.getParameterTypes();
+					Class<?>[] parameterClasses = constructor.getConstructor().getParameterTypes();
 					for (int i = 0; i < parameters.size(); i++) {
 						VariableReference parameterVar = parameters.get(i);
 						try {
@@ -216,7 +217,7 @@ public class ConstructorStatement extends EntityWithParametersStatement {
 							throw new CodeUnderTestException(
 							        new UncompilableCodeException("Cannot assign "+parameterVar.getVariableClass().getName() +" to "+parameterTypes[i]));
 						}
-						if(inputs[i] == null && constructor.getConstructor().getParameterTypes()[i].isPrimitive()) {
+						if(inputs[i] == null && parameterClasses[i].isPrimitive()) {
 							throw new CodeUnderTestException(new NullPointerException());
 						}
 
@@ -231,7 +232,7 @@ public class ConstructorStatement extends EntityWithParametersStatement {
 						}
 					}
 
-					Object ret = constructor.getConstructor().newInstance(inputs);
+					Object ret = MemberInvoker.newInstance(constructor.getConstructor(), inputs);
 
 					try {
 						// assert(retval.getVariableClass().isAssignableFrom(ret.getClass())) :"we want an " + retval.getVariableClass() + " but got an " + ret.getClass();
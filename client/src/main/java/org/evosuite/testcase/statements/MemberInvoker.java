@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.statements;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invokes the methods and constructors of method and constructor statements
+ * through method handles, which are considerably cheaper than reflection for
+ * tests that call cheap members many times.
+ *
+ * <p>
+ * The handle of a member is created the first time it is invoked, and cached
+ * in a {@link ClassValue} of its declaring class, so the cache does not keep
+ * classes of discarded class loaders alive. A call falls back to reflection
+ * if no handle could be created, if an argument is not an instance of the
+ * parameter type or of its wrapper, eg an {@code Integer} for a {@code long}
+ * parameter that reflection would widen, or if the callee of an instance
+ * method is null or of the wrong class. Reflection then raises the
+ * same exceptions as before; exceptions thrown by the member are always
+ * wrapped in an {@link InvocationTargetException}.
+ * </p>
+ */
+final class MemberInvoker {
+
+	private static final Logger logger = LoggerFactory.getLogger(MemberInvoker.class);
+
+	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	/** Handle of a member and the classes its arguments must be instances of */
+	private static final class Invoker {
+
+		/** Null if the member has to be invoked through reflection */
+		private final MethodHandle handle;
+
+		private final Class<?>[] parameterTypes;
+
+		private final Class<?>[] argumentClasses;
+
+		Invoker(MethodHandle handle, Class<?>[] parameterTypes) {
+			this.handle = handle;
+			this.parameterTypes = parameterTypes;
+			this.argumentClasses = new Class<?>[parameterTypes.length];
+			for (int i = 0; i < parameterTypes.length; i++)
+				argumentClasses[i] = ClassUtils.primitiveToWrapper(parameterTypes[i]);
+		}
+
+		boolean accepts(Object[] inputs) {
+			if (handle == null || inputs.length != argumentClasses.length)
+				return false;
+			for (int i = 0; i < inputs.length; i++) {
+				if (inputs[i] == null) {
+					if (parameterTypes[i].isPrimitive())
+						return false;
+				} else if (!argumentClasses[i].isInstance(inputs[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private static final ClassValue<Map<Member, Invoker>> invokers = new ClassValue<Map<Member, Invoker>>() {
+		@Override
+		protected Map<Member, Invoker> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private MemberInvoker() {
+	}
+
+	static Object invoke(Method method, Object callee, Object[] inputs)
+	        throws InvocationTargetException, IllegalAccessException {
+		if (Properties.METHOD_HANDLES) {
+			Invoker invoker = invokers.get(method.getDeclaringClass())
+			        .computeIfAbsent(method, m -> createInvoker(method));
+			if (invoker.accepts(inputs)
+			        && (Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass().isInstance(callee))) {
+				try {
+					return (Object) invoker.handle.invokeExact(callee, inputs);
+				} catch (Throwable t) {
+					throw new InvocationTargetException(t);
+				}
+			}
+		}
+		return method.invoke(callee, inputs);
+	}
+
+	static Object newInstance(Constructor<?> constructor, Object[] inputs)
+	        throws InvocationTargetException, InstantiationException, IllegalAccessException {
+		if (Properties.METHOD_HANDLES) {
+			Invoker invoker = invokers.get(constructor.getDeclaringClass())
+			        .computeIfAbsent(constructor, c -> createInvoker(constructor));
+			if (invoker.accepts(inputs)) {
+				try {
+					return (Object) invoker.handle.invokeExact(inputs);
+				} catch (Throwable t) {
+					throw new InvocationTargetException(t);
+				}
+			}
+		}
+		return constructor.newInstance(inputs);
+	}
+
+	/**
+	 * @return an invoker with a handle of type (Object, Object[])Object
+	 */
+	private static Invoker createInvoker(Method method) {
+		int numParameters = method.getParameterCount();
+		MethodHandle handle;
+		try {
+			handle = lookup.unreflect(method).asFixedArity();
+			if (Modifier.isStatic(method.getModifiers()))
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			handle = handle.asType(MethodType.genericMethodType(numParameters + 1))
+			        .asSpreader(Object[].class, numParameters);
+		} catch (Throwable t) {
+			logger.debug("Invoking {} through reflection: {}", method, t.toString());
+			handle = null;
+		}
+		return new Invoker(handle, method.getParameterTypes());
+	}
+
+	/**
+	 * @return an invoker with a handle of type (Object[])Object
+	 */
+	private static Invoker createInvoker(Constructor<?> constructor) {
+		int numParameters = constructor.getParameterCount();
+		MethodHandle handle;
+		try {
+			handle = lookup.unreflectConstructor(constructor).asFixedArity()
+			        .asType(MethodType.genericMethodType(numParameters))
+			        .asSpreader(Object[].class, numParameters);
+		} catch (Throwable t) {
+			logger.debug("Invoking {} through reflection: {}", constructor, t.toString());
+			handle = null;
+		}
+		return new Invoker(handle, constructor.getParameterTypes());
+	}
+}
@@ -230,10 +230,11 @@ public class MethodStatement extends EntityWithParametersStatement {
 					Object callee_object;
 					try {
 						java.lang.reflect.Type[] parameterTypes = method.getParameterTypes();
+						Class<?>[] parameterClasses = method.getRawParameterTypes();
 						for (int i = 0; i < parameters.size(); i++) {
 							VariableReference parameterVar = parameters.get(i);
 							inputs[i] = parameterVar.getObject(scope);
-							if(inputs[i] == null && method.getMethod().getParameterTypes()[i].isPrimitive()) {
+							if(inputs[i] == null && parameterClasses[i].isPrimitive()) {
 								throw new CodeUnderTestException(new NullPointerException());
 							}
 							if (inputs[i] != null && !TypeUtils.isAssignable(inputs[i].getClass(), parameterTypes[i])) {
@@ -258,7 +259,7 @@ public class MethodStatement extends EntityWithParametersStatement {
 						throw new EvosuiteError(e);
 					}
 
-					Object ret = method.getMethod().invoke(callee_object, inputs);
+					Object ret = MemberInvoker.invoke(method.getMethod(), callee_object, inputs);
 					// Try exact return type
 					/*
 					 * TODO: Sometimes we do want to cast an Object to String etc...
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.testcase.TestCaseCodec;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests stored by {@link TestSuiteSerialization} in its binary format.
+ *
+ * <p>
+ * The file starts with a header ({@link #MAGIC}, {@link #FORMAT_VERSION}),
+ * followed by one entry per test and an index of all entries. Each entry is
+ * either the compact encoding of a test (see {@link TestCaseCodec}) or, for
+ * tests without compact encoding, a Java serialized {@link TestChromosome}.
+ * The index lists the target class, kind, offset and length of each entry,
+ * and the file ends with the offset of the index and {@link #MAGIC} again.
+ * </p>
+ *
+ * <p>
+ * Opening a file only memory-maps it and reads the index; a test is decoded
+ * when it is requested, so that a large file of seeds can be filtered by
+ * target class without decoding the tests of other classes.
+ * </p>
+ */
+public class SerializedTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializedTests.class);
+
+    /** "EVOT" */
+    static final int MAGIC = 0x45564F54;
+
+    static final int FORMAT_VERSION = 1;
+
+    static final int ENTRY_TEST = 0;
+
+    static final int ENTRY_SERIALIZED = 1;
+
+    /** Header and trailer are two ints each */
+    private static final int HEADER_SIZE = 8;
+
+    private final File file;
+
+    private final ByteBuffer buffer;
+
+    private final String[] targetClasses;
+
+    private final byte[] kinds;
+
+    private final int[] offsets;
+
+    private final int[] lengths;
+
+    private SerializedTests(File file, ByteBuffer buffer, String[] targetClasses, byte[] kinds,
+                            int[] offsets, int[] lengths) {
+        this.file = file;
+        this.buffer = buffer;
+        this.targetClasses = targetClasses;
+        this.kinds = kinds;
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+    /**
+     * @return whether the file starts with the header of the binary format;
+     *         files written by older versions contain Java serialized tests
+     */
+    public static boolean isBinaryFormat(File file) {
+        if (file.length() < 2 * HEADER_SIZE) {
+            return false;
+        }
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Map the file and read its index
+     *
+     * @throws IOException if the file cannot be read or is not in the binary format
+     */
+    public static SerializedTests open(File file) throws IOException {
+        ByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File of serialized tests is too large: " + file.getAbsolutePath());
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int size = buffer.limit();
+        if (size < 2 * HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(size - 4) != MAGIC) {
+            throw new IOException("Not a file of serialized tests: " + file.getAbsolutePath());
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported version of serialized tests: " + file.getAbsolutePath());
+        }
+        int indexOffset = buffer.getInt(size - HEADER_SIZE);
+        if (indexOffset < HEADER_SIZE || indexOffset > size - HEADER_SIZE) {
+            throw new IOException("Invalid index of serialized tests: " + file.getAbsolutePath());
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                slice(buffer, indexOffset, size - HEADER_SIZE - indexOffset)));
+        String[] names = new String[TestCaseCodec.readVarInt(in)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+        int numTests = TestCaseCodec.readVarInt(in);
+        String[] targetClasses = new String[numTests];
+        byte[] kinds = new byte[numTests];
+        int[] offsets = new int[numTests];
+        int[] lengths = new int[numTests];
+        for (int i = 0; i < numTests; i++) {
+            kinds[i] = in.readByte();
+            int name = TestCaseCodec.readVarInt(in);
+            if (name >= names.length) {
+                throw new IOException("Invalid index of serialized tests: " + file.getAbsolutePath());
+            }
+            targetClasses[i] = names[name];
+            offsets[i] = in.readInt();
+            lengths[i] = in.readInt();
+            if (offsets[i] < HEADER_SIZE || lengths[i] < 0 || offsets[i] + lengths[i] > indexOffset) {
+                throw new IOException("Invalid index of serialized tests: " + file.getAbsolutePath());
+            }
+        }
+        return new SerializedTests(file, buffer, targetClasses, kinds, offsets, lengths);
+    }
+
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * @return the class the test was generated for, or the empty string if unknown
+     */
+    public String getTargetClass(int index) {
+        return targetClasses[index];
+    }
+
+    /**
+     * Decode a single test, loading its classes with the class loader of the SUT
+     *
+     * @throws IOException if the test refers to classes or members that do not exist (anymore)
+     */
+    public TestChromosome loadTest(int index) throws IOException {
+        byte[] entry = slice(buffer, offsets[index], lengths[index]);
+        if (kinds[index] == ENTRY_TEST) {
+            TestChromosome test = new TestChromosome();
+            test.setTestCase(TestCaseCodec.decode(entry));
+            return test;
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(entry))) {
+            TestChromosome test = (TestChromosome) in.readObject();
+            for (Statement st : test.getTestCase()) {
+                st.changeClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
+            }
+            return test;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Cannot read serialized test: " + e, e);
+        }
+    }
+
+    /**
+     * @param targetClass if not {@code null}, only tests generated for this class are returned
+     * @return the indices of the matching tests
+     */
+    public List<Integer> getIndices(String targetClass) {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < size(); i++) {
+            if (targetClass == null || targetClass.equals(targetClasses[i])) {
+                indices.add(i);
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Decode all tests generated for the given class, skipping those that
+     * cannot be decoded anymore
+     *
+     * @param targetClass if {@code null}, all tests are loaded
+     */
+    public List<TestChromosome> loadTests(String targetClass) {
+        List<TestChromosome> list = new ArrayList<>();
+        for (int i : getIndices(targetClass)) {
+            try {
+                list.add(loadTest(i));
+            } catch (IOException e) {
+                logger.warn("Problems when reading a serialized test from " + file.getAbsolutePath() + " : " + e.getMessage());
+            }
+        }
+        return list;
+    }
+
+    private static byte[] slice(ByteBuffer buffer, int offset, int length) {
+        // Work on a duplicate, so that concurrent reads do not share a position
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        byte[] bytes = new byte[length];
+        view.get(bytes);
+        return bytes;
+    }
+}
@@ -19,7 +19,9 @@
  */
 package org.evosuite.testsuite;
 
+import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
+import org.evosuite.testcase.TestCaseCodec;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.utils.DebuggingObjectOutputStream;
@@ -29,7 +31,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Created by Andrea Arcuri on 08/06/15.
@@ -42,41 +47,99 @@ public class TestSuiteSerialization {
     public static boolean saveTests(List<TestSuiteChromosome> list, File target) throws IllegalArgumentException{
         Inputs.checkNull(list,target);
 
-        File parent = target.getParentFile();
-        if(!parent.exists()){
-            parent.mkdirs();
+        List<TestChromosome> tests = new ArrayList<>();
+        for(TestSuiteChromosome ts : list) {
+            tests.addAll(ts.getTestChromosomes());
         }
+        return writeTests(tests, Collections.nCopies(tests.size(), getTargetClass()), target);
+    }
+    
+    public static boolean saveTests(TestSuiteChromosome ts, File target) throws IllegalArgumentException{
+        List<TestChromosome> tests = ts.getTestChromosomes();
+        return writeTests(tests, Collections.nCopies(tests.size(), getTargetClass()), target);
+    }
 
-        try(ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target));){
-            for(TestSuiteChromosome ts : list) {
-                for (TestChromosome tc : ts.getTestChromosomes()) {
-                    out.writeObject(tc);
-                }
+    /**
+     * Save the test suites generated for different classes in the same file,
+     * so that the tests of each class can then be loaded with
+     * {@link #loadTestsForClass(File, String)}
+     *
+     * @param suites the test suites, keyed by the class they were generated for
+     */
+    public static boolean saveTests(Map<String, TestSuiteChromosome> suites, File target) throws IllegalArgumentException{
+        Inputs.checkNull(suites,target);
+
+        List<TestChromosome> tests = new ArrayList<>();
+        List<String> targetClasses = new ArrayList<>();
+        for(Map.Entry<String, TestSuiteChromosome> entry : suites.entrySet()) {
+            for(TestChromosome tc : entry.getValue().getTestChromosomes()) {
+                tests.add(tc);
+                targetClasses.add(entry.getKey());
             }
-
-            out.flush();
-            out.close();
-        }catch (IOException e){
-            logger.error("Failed to open/handle "+target.getAbsolutePath()+" for writing: "+e.getMessage());
-            return false;
         }
+        return writeTests(tests, targetClasses, target);
+    }
 
-        return true;
+    /**
+     * @return the target class recorded for tests saved without one, ie {@link Properties#TARGET_CLASS}
+     */
+    private static String getTargetClass() {
+        return Properties.TARGET_CLASS == null ? "" : Properties.TARGET_CLASS;
     }
-    
-    public static boolean saveTests(TestSuiteChromosome ts, File target) throws IllegalArgumentException{
+
+    /**
+     * Write the tests in the binary format read by {@link SerializedTests}
+     *
+     * @param targetClasses the class each test was generated for
+     */
+    private static boolean writeTests(List<TestChromosome> tests, List<String> targetClasses, File target) {
         File parent = target.getParentFile();
-        if(!parent.exists()){
+        if(parent != null && !parent.exists()){
             parent.mkdirs();
         }
 
-        try(ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target));){
-        	for (TestChromosome tc : ts.getTestChromosomes()) {
-        		out.writeObject(tc);
+        Map<String, Integer> names = new LinkedHashMap<>();
+        int[] nameIndices = new int[tests.size()];
+        for (int i = 0; i < tests.size(); i++) {
+            nameIndices[i] = names.computeIfAbsent(targetClasses.get(i), name -> names.size());
+        }
+        byte[] kinds = new byte[tests.size()];
+        int[] offsets = new int[tests.size()];
+        int[] lengths = new int[tests.size()];
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target)))){
+            out.writeInt(SerializedTests.MAGIC);
+            out.writeInt(SerializedTests.FORMAT_VERSION);
+
+            for (int i = 0; i < tests.size(); i++) {
+                TestChromosome tc = tests.get(i);
+                byte[] entry;
+                if (TestCaseCodec.isSupported(tc.getTestCase())) {
+                    kinds[i] = SerializedTests.ENTRY_TEST;
+                    entry = TestCaseCodec.encode(tc.getTestCase());
+                } else {
+                    kinds[i] = SerializedTests.ENTRY_SERIALIZED;
+                    entry = serialize(tc);
+                }
+                offsets[i] = out.size();
+                lengths[i] = entry.length;
+                out.write(entry);
             }
 
-            out.flush();
-            out.close();
+            int indexOffset = out.size();
+            TestCaseCodec.writeVarInt(out, names.size());
+            for (String name : names.keySet()) {
+                out.writeUTF(name);
+            }
+            TestCaseCodec.writeVarInt(out, tests.size());
+            for (int i = 0; i < tests.size(); i++) {
+                out.writeByte(kinds[i]);
+                TestCaseCodec.writeVarInt(out, nameIndices[i]);
+                out.writeInt(offsets[i]);
+                out.writeInt(lengths[i]);
+            }
+            out.writeInt(indexOffset);
+            out.writeInt(SerializedTests.MAGIC);
         }catch (IOException e){
             logger.error("Failed to open/handle "+target.getAbsolutePath()+" for writing: "+e.getMessage());
             return false;
@@ -85,6 +148,14 @@ public class TestSuiteSerialization {
         return true;
     }
 
+    private static byte[] serialize(TestChromosome tc) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new DebuggingObjectOutputStream(bytes)) {
+            out.writeObject(tc);
+        }
+        return bytes.toByteArray();
+    }
+
 
     public static boolean saveTests(List<TestSuiteChromosome> ts, File folder, String fileName) throws IllegalArgumentException{
         Inputs.checkNull(ts,folder,fileName);
@@ -108,10 +179,29 @@ public class TestSuiteSerialization {
     }
 
     public static List<TestChromosome> loadTests(File target) throws IllegalArgumentException{
+        return loadTestsForClass(target, null);
+    }
+
+    /**
+     * Load the tests stored in the given file. Tests are only filtered by
+     * target class in files of the binary format, as files written by older
+     * versions do not record it.
+     *
+     * @param targetClass if not {@code null}, only tests generated for this class are loaded
+     */
+    public static List<TestChromosome> loadTestsForClass(File target, String targetClass) throws IllegalArgumentException{
         Inputs.checkNull(target);
 
-        List<TestChromosome> list = new ArrayList<>();
+        if (SerializedTests.isBinaryFormat(target)) {
+            try {
+                return SerializedTests.open(target).loadTests(targetClass);
+            } catch (IOException e) {
+                logger.error("Failed to open/handle " + target.getAbsolutePath() + " for reading: " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
 
+        List<TestChromosome> list = new ArrayList<>();
         try(ObjectInputStream in = new ObjectInputStream(new FileInputStream(target)) ){
 
             try {
@@ -55,9 +55,11 @@ public class SerializationSuiteChromosomeFactory
 
         this.defaultFactory = defaultFactory;
         if (Properties.CTG_SEEDS_FILE_IN != null) {
-            this.previousSuite.addAll(TestSuiteSerialization.loadTests(Properties.CTG_SEEDS_FILE_IN));
+            this.previousSuite.addAll(TestSuiteSerialization.loadTestsForClass(new File(Properties.CTG_SEEDS_FILE_IN),
+                    Properties.TARGET_CLASS));
         } else {
-        	this.previousSuite.addAll(TestSuiteSerialization.loadTests(Properties.SEED_DIR + File.separator + Properties.TARGET_CLASS));
+        	this.previousSuite.addAll(TestSuiteSerialization.loadTestsForClass(new File(Properties.SEED_DIR + File.separator + Properties.TARGET_CLASS),
+                    Properties.TARGET_CLASS));
         }
     }
 
@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Open addressing hash map from <code>int</code> to <code>double</code>.
+ *
+ * <p>
+ * The primitive accessors ({@link #get(int)}, {@link #putMin(int, double)},
+ * {@link #add(int, double)}) neither box nor allocate, which makes this map
+ * suitable for data written on every instrumented branch (e.g. the branch
+ * distances of an execution trace). The {@link Map} view is kept so that
+ * existing clients iterating over <code>Map&lt;Integer, Double&gt;</code>
+ * keep working; boxing only happens when that view is used.
+ * </p>
+ *
+ * <p>
+ * Not thread-safe.
+ * </p>
+ */
+public class IntDoubleHashMap extends AbstractMap<Integer, Double> implements Cloneable {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int[] keys;
+	private double[] values;
+	private boolean[] used;
+	private int size = 0;
+
+	public IntDoubleHashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public IntDoubleHashMap(int expectedSize) {
+		allocate(IntHashing.tableSizeFor(expectedSize));
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new double[capacity];
+		used = new boolean[capacity];
+	}
+
+	private int indexOf(int key) {
+		int mask = keys.length - 1;
+		int pos = IntHashing.mix(key) & mask;
+		while (used[pos]) {
+			if (keys[pos] == key)
+				return pos;
+			pos = (pos + 1) & mask;
+		}
+		return -(pos + 1);
+	}
+
+	private int insertionPoint(int key) {
+		int pos = indexOf(key);
+		if (pos >= 0)
+			return pos;
+		if (IntHashing.needsResize(size + 1, keys.length)) {
+			rehash(keys.length << 1);
+			pos = indexOf(key);
+		}
+		pos = -pos - 1;
+		used[pos] = true;
+		keys[pos] = key;
+		size++;
+		return pos;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = keys;
+		double[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(capacity);
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (!oldUsed[i])
+				continue;
+			int pos = IntHashing.mix(oldKeys[i]) & mask;
+			while (used[pos])
+				pos = (pos + 1) & mask;
+			used[pos] = true;
+			keys[pos] = oldKeys[i];
+			values[pos] = oldValues[i];
+		}
+	}
+
+	public boolean containsKey(int key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Returns the value stored for <code>key</code>
+	 *
+	 * @throws NoSuchElementException
+	 *             if there is no value for <code>key</code>
+	 */
+	public double get(int key) {
+		int pos = indexOf(key);
+		if (pos < 0)
+			throw new NoSuchElementException("No value for key " + key);
+		return values[pos];
+	}
+
+	public double getOrDefault(int key, double defaultValue) {
+		int pos = indexOf(key);
+		return pos < 0 ? defaultValue : values[pos];
+	}
+
+	public void put(int key, double value) {
+		int pos = insertionPoint(key);
+		values[pos] = value;
+	}
+
+	/**
+	 * Stores <code>value</code> if there is no value for <code>key</code> yet,
+	 * or if it is smaller than the current one
+	 */
+	public void putMin(int key, double value) {
+		int pos = indexOf(key);
+		if (pos >= 0) {
+			if (value < values[pos])
+				values[pos] = value;
+		} else {
+			pos = insertionPoint(key);
+			values[pos] = value;
+		}
+	}
+
+	/**
+	 * Adds <code>value</code> to the current value of <code>key</code>, which
+	 * is considered to be 0 if there is none yet
+	 */
+	public void add(int key, double value) {
+		int pos = indexOf(key);
+		if (pos >= 0) {
+			values[pos] += value;
+		} else {
+			pos = insertionPoint(key);
+			values[pos] = value;
+		}
+	}
+
+	public void putAll(IntDoubleHashMap other) {
+		for (int i = 0; i < other.keys.length; i++) {
+			if (other.used[i])
+				put(other.keys[i], other.values[i]);
+		}
+	}
+
+	private void removeAt(int pos) {
+		// Backward shift deletion keeps probe sequences intact without tombstones
+		int mask = keys.length - 1;
+		int gap = pos;
+		int next = (gap + 1) & mask;
+		while (used[next]) {
+			int home = IntHashing.mix(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		used[gap] = false;
+		size--;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all entries, but keeps the allocated table so that the map can
+	 * be reused cheaply
+	 */
+	@Override
+	public void clear() {
+		if (size == 0)
+			return;
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Integer && containsKey(((Integer) key).intValue());
+	}
+
+	@Override
+	public Double get(Object key) {
+		if (!(key instanceof Integer))
+			return null;
+		int pos = indexOf((Integer) key);
+		return pos < 0 ? null : values[pos];
+	}
+
+	@Override
+	public Double put(Integer key, Double value) {
+		int pos = indexOf(key);
+		Double old = pos < 0 ? null : values[pos];
+		put(key.intValue(), value.doubleValue());
+		return old;
+	}
+
+	@Override
+	public void putAll(Map<? extends Integer, ? extends Double> m) {
+		if (m instanceof IntDoubleHashMap) {
+			putAll((IntDoubleHashMap) m);
+		} else {
+			super.putAll(m);
+		}
+	}
+
+	@Override
+	public Double remove(Object key) {
+		if (!(key instanceof Integer))
+			return null;
+		int pos = indexOf((Integer) key);
+		if (pos < 0)
+			return null;
+		double old = values[pos];
+		removeAt(pos);
+		return old;
+	}
+
+	@Override
+	public Set<Entry<Integer, Double>> entrySet() {
+		return new AbstractSet<Entry<Integer, Double>>() {
+			@Override
+			public Iterator<Entry<Integer, Double>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public IntDoubleHashMap clone() {
+		try {
+			IntDoubleHashMap copy = (IntDoubleHashMap) super.clone();
+			copy.keys = keys.clone();
+			copy.values = values.clone();
+			copy.used = used.clone();
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private class EntryIterator implements Iterator<Entry<Integer, Double>> {
+
+		private int next = advance(0);
+
+		private int current = -1;
+
+		private int advance(int from) {
+			int pos = from;
+			while (pos < used.length && !used[pos])
+				pos++;
+			return pos;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < used.length;
+		}
+
+		@Override
+		public Entry<Integer, Double> next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			current = next;
+			next = advance(next + 1);
+			final int pos = current;
+			return new SimpleEntry<Integer, Double>(keys[pos], values[pos]) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public Double setValue(Double value) {
+					values[pos] = value;
+					return super.setValue(value);
+				}
+			};
+		}
+
+		@Override
+		public void remove() {
+			// Removal may shift later entries into already visited slots,
+			// so only removal through the map itself is supported
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+/**
+ * Shared helpers for the open addressing primitive maps in this package
+ */
+final class IntHashing {
+
+	/** Maximum load factor is 1/2, probe sequences stay short */
+	private static final int MAX_FILL_SHIFT = 1;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private IntHashing() {
+	}
+
+	/**
+	 * Spread the bits of the key, sequential ids (branch ids, mutation ids)
+	 * would otherwise cluster in neighbouring slots
+	 */
+	static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	static int tableSizeFor(int expectedSize) {
+		int capacity = 2;
+		while (capacity < MAXIMUM_CAPACITY && (capacity >> MAX_FILL_SHIFT) < expectedSize)
+			capacity <<= 1;
+		return capacity;
+	}
+
+	static boolean needsResize(int size, int capacity) {
+		return size > (capacity >> MAX_FILL_SHIFT) && capacity < MAXIMUM_CAPACITY;
+	}
+}
@@ -159,8 +159,15 @@ public class GenericClass implements Serializable {
 		if (rhsType == null || lhsType == null)
 			return false;
 
+		GenericTypeCache cache = GenericTypeCache.getInstance();
+		Boolean cached = cache.getAssignable(lhsType, rhsType);
+		if (cached != null)
+			return cached;
+
 		try {
-			return TypeUtils.isAssignable(rhsType, lhsType);
+			boolean result = TypeUtils.isAssignable(rhsType, lhsType);
+			cache.putAssignable(lhsType, rhsType, result);
+			return result;
 		} catch (Throwable e) {
 			logger.debug("Found unassignable type: " + e);
 			return false;
@@ -890,6 +897,11 @@ public class GenericClass implements Serializable {
 	public Map<TypeVariable<?>, Type> getTypeVariableMap() {
 		if(typeVariableMap != null)
 			return typeVariableMap;
+		Map<TypeVariable<?>, Type> cachedMap = GenericTypeCache.getInstance().getTypeVariableMap(type, rawClass);
+		if(cachedMap != null) {
+			typeVariableMap = cachedMap;
+			return cachedMap;
+		}
 		//logger.debug("Getting type variable map for " + type);
 		List<TypeVariable<?>> typeVariables = getTypeVariables();
 		List<Type> types = getParameterTypes();
@@ -929,6 +941,7 @@ public class GenericClass implements Serializable {
 		}
 
 		//logger.debug("Type map: " + typeMap);
+		GenericTypeCache.getInstance().putTypeVariableMap(type, rawClass, typeMap);
 		typeVariableMap = typeMap;
 		return typeMap;
 	}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.evosuite.Properties;
+import org.evosuite.rmi.ClientServices;
+import org.evosuite.statistics.RuntimeVariable;
+
+/**
+ * Memoization of the reflective type relationships computed by
+ * {@link GenericClass}, i.e., whether one type is assignable to another and
+ * the type variable map of a type.
+ *
+ * <p>
+ * Entries are keyed on the {@link Type} objects rather than on
+ * {@link GenericClass} instances, as the latter are mutable (see
+ * {@link GenericClass#changeClassLoader(ClassLoader)}). Types loaded by
+ * different class loaders are different keys, so entries never become
+ * stale; however, they keep the classes of old class loaders alive, which is
+ * why the cache is cleared whenever the test cluster is reset. The number of
+ * entries of each kind is bounded by <code>generic_type_cache_size</code>; when
+ * the limit is reached, the entries of that kind are dropped at once.
+ * </p>
+ */
+public class GenericTypeCache {
+
+	private static final GenericTypeCache instance = new GenericTypeCache();
+
+	/** Pair of types, used as key of the caches */
+	private static final class TypePair {
+
+		private final Type first;
+
+		private final Type second;
+
+		private final int hashCode;
+
+		TypePair(Type first, Type second) {
+			this.first = first;
+			this.second = second;
+			this.hashCode = 31 * first.hashCode() + (second == null ? 0 : second.hashCode());
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof TypePair))
+				return false;
+			TypePair other = (TypePair) obj;
+			return hashCode == other.hashCode && first.equals(other.first)
+			        && (second == null ? other.second == null : second.equals(other.second));
+		}
+	}
+
+	/** Whether the second type of the pair is assignable to the first one */
+	private final Map<TypePair, Boolean> assignable = new ConcurrentHashMap<>();
+
+	/** Type variable maps by type and raw class */
+	private final Map<TypePair, Map<TypeVariable<?>, Type>> typeVariableMaps = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private GenericTypeCache() {
+	}
+
+	public static GenericTypeCache getInstance() {
+		return instance;
+	}
+
+	private static boolean isEnabled() {
+		return Properties.GENERIC_TYPE_CACHE_SIZE > 0;
+	}
+
+	private static <K, V> void putBounded(Map<K, V> map, K key, V value) {
+		if (map.size() >= Properties.GENERIC_TYPE_CACHE_SIZE)
+			map.clear();
+		map.put(key, value);
+	}
+
+	/**
+	 * @return whether <code>rhsType</code> is known to be assignable to
+	 *         <code>lhsType</code>, or null if this has not been determined yet
+	 */
+	Boolean getAssignable(Type lhsType, Type rhsType) {
+		if (!isEnabled())
+			return null;
+		Boolean result = assignable.get(new TypePair(lhsType, rhsType));
+		if (result == null)
+			misses.increment();
+		else
+			hits.increment();
+		return result;
+	}
+
+	void putAssignable(Type lhsType, Type rhsType, boolean result) {
+		if (isEnabled())
+			putBounded(assignable, new TypePair(lhsType, rhsType), result);
+	}
+
+	/**
+	 * @return a copy of the type variable map of the type, or null if it has
+	 *         not been computed yet
+	 */
+	Map<TypeVariable<?>, Type> getTypeVariableMap(Type type, Class<?> rawClass) {
+		if (!isEnabled())
+			return null;
+		Map<TypeVariable<?>, Type> typeMap = typeVariableMaps.get(new TypePair(type, rawClass));
+		if (typeMap == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		// Callers may modify the map they get
+		return new LinkedHashMap<>(typeMap);
+	}
+
+	void putTypeVariableMap(Type type, Class<?> rawClass, Map<TypeVariable<?>, Type> typeMap) {
+		if (isEnabled())
+			putBounded(typeVariableMaps, new TypePair(type, rawClass), new LinkedHashMap<>(typeMap));
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public void trackStatistics() {
+		ClientServices.track(RuntimeVariable.Generic_Type_Cache_Hits, getHits());
+		ClientServices.track(RuntimeVariable.Generic_Type_Cache_Misses, getMisses());
+	}
+
+	/**
+	 * Remove all entries, e.g. because the classes of the SUT are reloaded
+	 */
+	public void clear() {
+		assignable.clear();
+		typeVariableMaps.clear();
+	}
+
+	public void reset() {
+		clear();
+		hits.reset();
+		misses.reset();
+	}
+}
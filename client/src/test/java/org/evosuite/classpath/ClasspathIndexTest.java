@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.classpath;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClasspathIndexTest {
+
+	private static final File folder = new File("local_test_data" + File.separator + "aCpEntry");
+
+	private static final File jar = new File("local_test_data" + File.separator + "water-simulator.jar");
+
+	@Rule
+	public TemporaryFolder indexDir = new TemporaryFolder();
+
+	@After
+	public void tearDown() {
+		Properties.CLASSPATH_INDEX_DIR = null;
+	}
+
+	@Test
+	public void testListInParallel() {
+		Map<String, List<String>> listings = ClasspathIndex.listClasses(Arrays.asList(folder.getPath(),
+				jar.getPath(), "does-not-exist"));
+		Assert.assertEquals(2, listings.size());
+		Assert.assertTrue(listings.get(folder.getAbsolutePath()).contains("foo.ExternalClass"));
+		Assert.assertFalse(listings.get(jar.getAbsolutePath()).isEmpty());
+	}
+
+	@Test
+	public void testJarListingIsStored() throws Exception {
+		Properties.CLASSPATH_INDEX_DIR = indexDir.getRoot().getAbsolutePath();
+		List<String> classes = ClasspathIndex.listClasses(jar);
+		File[] stored = indexDir.getRoot().listFiles();
+		Assert.assertEquals(1, stored.length);
+
+		// Loaded from the stored listing on the next run
+		Assert.assertEquals(classes, ClasspathIndex.listClasses(jar));
+		Assert.assertEquals(1, indexDir.getRoot().listFiles().length);
+
+		// Folders are not stored
+		ClasspathIndex.listClasses(folder);
+		Assert.assertEquals(1, indexDir.getRoot().listFiles().length);
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.coverage.mutation;
+
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MutantBatchTest {
+
+    @After
+    public void tearDown() {
+        MutantBatch.reset();
+    }
+
+    @Test
+    public void testInfection() {
+        ExecutionTraceImpl trace = new ExecutionTraceImpl();
+        trace.mutationPassed(1, 3.0);
+        trace.mutationPassed(1, 0.0);
+        trace.mutationPassed(2, 2.0);
+        trace.mutationPassed(2, 1.0);
+
+        Assert.assertTrue(MutantBatch.isInfected(trace, 1));
+        Assert.assertFalse(MutantBatch.isInfected(trace, 2));
+        // Without a recorded distance the mutant must not be skipped
+        Assert.assertTrue(MutantBatch.isInfected(trace, 3));
+    }
+
+    @Test
+    public void testCounters() {
+        Assert.assertEquals(0.0, MutantBatch.getExecutedMutantsPerSecond(), 0.0);
+
+        MutantBatch.executed(250_000_000L);
+        MutantBatch.executed(250_000_000L);
+        MutantBatch.skipped(3);
+
+        Assert.assertEquals(2, MutantBatch.getNumExecutedMutants());
+        Assert.assertEquals(3, MutantBatch.getNumSkippedMutants());
+        Assert.assertEquals(4.0, MutantBatch.getExecutedMutantsPerSecond(), 0.001);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.evosuite.ga.comparators.DominanceComparator;
+import org.junit.Test;
+
+public class GoalIndexTest {
+
+	/** Minimises the gene at a given position */
+	private static class GeneGoal extends FitnessFunction<DummyChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int position;
+
+		GeneGoal(int position) {
+			this.position = position;
+		}
+
+		@Override
+		public double getFitness(DummyChromosome individual) {
+			return individual.get(position);
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+	}
+
+	@Test
+	public void testGoalsAreNumberedDensely() {
+		GeneGoal first = new GeneGoal(0);
+		GeneGoal second = new GeneGoal(1);
+		GoalIndex<DummyChromosome> index = new GoalIndex<>();
+		index.registerAll(Arrays.asList(first, second, first));
+
+		assertEquals(2, index.size());
+		assertEquals(0, index.indexOf(first));
+		assertEquals(1, index.indexOf(second));
+		assertEquals(-1, index.indexOf(new GeneGoal(2)));
+		assertEquals(second, index.get(1));
+	}
+
+	@Test
+	public void testFitnessArrayFollowsFitnessValues() {
+		GeneGoal first = new GeneGoal(0);
+		GeneGoal second = new GeneGoal(1);
+		GoalIndex<DummyChromosome> index = new GoalIndex<>();
+		index.registerAll(Arrays.asList(first, second));
+
+		DummyChromosome c = new DummyChromosome(5, 7);
+		c.setFitness(first, 1.0);
+		c.setGoalIndex(index);
+		c.setFitness(second, 2.0);
+		assertEquals(1.0, c.getFitness(0), 0.0);
+		assertEquals(2.0, c.getFitness(1), 0.0);
+
+		// Goals without recorded fitness are computed
+		c.setFitnessValues(Collections.singletonMap(second, 3.0));
+		assertEquals(5.0, c.getFitness(0), 0.0);
+		assertEquals(3.0, c.getFitness(1), 0.0);
+	}
+
+	@Test
+	public void testDominanceIsIndependentOfIndex() {
+		Random random = new Random(42);
+		Set<GeneGoal> goals = new LinkedHashSet<>();
+		for (int i = 0; i < 5; i++)
+			goals.add(new GeneGoal(i));
+		GoalIndex<DummyChromosome> index = new GoalIndex<>();
+		index.registerAll(goals);
+
+		List<DummyChromosome> plain = new ArrayList<>();
+		List<DummyChromosome> indexed = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			int[] genes = new int[goals.size()];
+			for (int j = 0; j < genes.length; j++)
+				genes[j] = random.nextInt(4);
+			DummyChromosome c = new DummyChromosome(genes);
+			DummyChromosome d = new DummyChromosome(genes);
+			d.setGoalIndex(index);
+			for (GeneGoal goal : goals) {
+				c.setFitness(goal, goal.getFitness(c));
+				d.setFitness(goal, goal.getFitness(d));
+			}
+			plain.add(c);
+			indexed.add(d);
+		}
+
+		DominanceComparator<DummyChromosome> comparator = new DominanceComparator<>(goals);
+		for (int i = 0; i < plain.size(); i++)
+			for (int j = 0; j < plain.size(); j++)
+				assertEquals(comparator.compare(plain.get(i), plain.get(j)),
+				        comparator.compare(indexed.get(i), indexed.get(j)));
+	}
+}
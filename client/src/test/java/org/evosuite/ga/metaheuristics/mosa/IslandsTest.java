@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class IslandsTest {
+
+    private final int DEFAULT_FREQUENCY = Properties.MIGRANTS_ITERATION_FREQUENCY;
+
+    private final int DEFAULT_RATE = Properties.MIGRANTS_COMMUNICATION_RATE;
+
+    @After
+    public void resetProperties() {
+        Properties.MIGRANTS_ITERATION_FREQUENCY = DEFAULT_FREQUENCY;
+        Properties.MIGRANTS_COMMUNICATION_RATE = DEFAULT_RATE;
+    }
+
+    private static List<TestChromosome> population(int size) {
+        List<TestChromosome> population = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            TestChromosome test = new TestChromosome();
+            test.setTestCase(new DefaultTestCase());
+            population.add(test);
+        }
+        return population;
+    }
+
+    @Test
+    public void testIslandsTakeTurns() {
+        Properties.MIGRANTS_ITERATION_FREQUENCY = -1;
+        Islands islands = new Islands();
+        List<TestChromosome> first = population(2);
+        List<TestChromosome> second = population(2);
+        islands.add(first);
+        islands.add(second);
+
+        List<TestChromosome> evolved = population(2);
+        assertSame(second, islands.next(evolved));
+        assertEquals(1, islands.getCurrent());
+        assertSame(evolved, islands.next(second));
+        assertEquals(0, islands.getCurrent());
+        assertTrue(islands.pollImmigrants().isEmpty());
+    }
+
+    @Test
+    public void testMigrationToNextIsland() {
+        Properties.MIGRANTS_ITERATION_FREQUENCY = 2;
+        Properties.MIGRANTS_COMMUNICATION_RATE = 1;
+        Islands islands = new Islands();
+        List<TestChromosome> first = population(3);
+        islands.add(first);
+        islands.add(population(3));
+        islands.add(population(3));
+
+        // First generation of every island: nobody migrates
+        for (int i = 0; i < 3; i++) {
+            islands.next(islands.getPopulation(islands.getCurrent()));
+        }
+        islands.next(first);
+        assertEquals(1, islands.getCurrent());
+        List<TestChromosome> arrived = islands.pollImmigrants();
+        assertEquals(1, arrived.size());
+        // Emigrants are copies, as ranks and distances are stored in the individuals
+        for (TestChromosome individual : first) {
+            assertNotSame(individual, arrived.get(0));
+        }
+        assertTrue(islands.pollImmigrants().isEmpty());
+    }
+}
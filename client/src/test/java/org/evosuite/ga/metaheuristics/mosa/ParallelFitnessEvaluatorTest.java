@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelFitnessEvaluatorTest {
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(ParallelFitnessEvaluator.isEnabled());
+    }
+
+    @Test
+    public void testEnabledForDefaultCriteria() {
+        Properties.FITNESS_EVALUATION_THREADS = 4;
+        assertTrue(ParallelFitnessEvaluator.isEnabled());
+    }
+
+    @Test
+    public void testDisabledForCriteriaThatReExecuteTests() {
+        Properties.FITNESS_EVALUATION_THREADS = 4;
+        Properties.CRITERION = new Criterion[] { Criterion.BRANCH, Criterion.STRONGMUTATION };
+        assertFalse(ParallelFitnessEvaluator.isEnabled());
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EfficientNonDominatedSortingTest {
+
+    /** Minimises the gene at a given position */
+    private static class GeneGoal extends FitnessFunction<DummyChromosome> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int position;
+
+        GeneGoal(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public double getFitness(DummyChromosome individual) {
+            return individual.get(position);
+        }
+
+        @Override
+        public boolean isMaximizationFunction() {
+            return false;
+        }
+    }
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static Set<GeneGoal> goals(int number) {
+        Set<GeneGoal> goals = new LinkedHashSet<>();
+        for (int i = 0; i < number; i++) {
+            goals.add(new GeneGoal(i));
+        }
+        return goals;
+    }
+
+    private static List<DummyChromosome> population(Random random, int size, int numGoals) {
+        List<DummyChromosome> population = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int[] genes = new int[numGoals];
+            for (int j = 0; j < numGoals; j++) {
+                // Few distinct values, so that there are ties and duplicates
+                genes[j] = random.nextInt(5);
+            }
+            population.add(new DummyChromosome(genes));
+        }
+        return population;
+    }
+
+    private static Set<DummyChromosome> asIdentitySet(List<DummyChromosome> front) {
+        Set<DummyChromosome> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(front);
+        return set;
+    }
+
+    @Test
+    public void testSameFrontsAsFastNonDominatedSorting() {
+        Random random = new Random(42);
+        for (int numGoals : new int[] { 1, 2, 3, 8 }) {
+            Set<GeneGoal> goals = goals(numGoals);
+            for (int run = 0; run < 20; run++) {
+                List<DummyChromosome> population = population(random, 40, numGoals);
+
+                FastNonDominatedSorting<DummyChromosome> expected = new FastNonDominatedSorting<>();
+                expected.computeRankingAssignment(population, goals);
+                EfficientNonDominatedSorting<DummyChromosome> actual = new EfficientNonDominatedSorting<>();
+                actual.computeRankingAssignment(population, goals);
+
+                assertEquals(expected.getNumberOfSubfronts(), actual.getNumberOfSubfronts());
+                for (int rank = 0; rank < expected.getNumberOfSubfronts(); rank++) {
+                    assertEquals(asIdentitySet(expected.getSubfront(rank)),
+                            asIdentitySet(actual.getSubfront(rank)));
+                    for (DummyChromosome c : actual.getSubfront(rank)) {
+                        assertEquals(rank, c.getRank());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPreferenceSortingZeroFront() {
+        Set<GeneGoal> goals = goals(3);
+        DummyChromosome best0 = new DummyChromosome(0, 5, 5);
+        DummyChromosome best1 = new DummyChromosome(5, 0, 5);
+        DummyChromosome best2 = new DummyChromosome(5, 5, 0);
+        DummyChromosome dominating = new DummyChromosome(1, 1, 1);
+        DummyChromosome dominated = new DummyChromosome(2, 2, 2);
+        List<DummyChromosome> population = new ArrayList<>();
+        Collections.addAll(population, dominated, best0, dominating, best1, best2);
+
+        EfficientNonDominatedSorting<DummyChromosome> ranking = new EfficientNonDominatedSorting<>(true);
+        ranking.computeRankingAssignment(population, goals);
+
+        assertEquals(3, ranking.getNumberOfSubfronts());
+        assertEquals(asIdentitySet(ranking.getSubfront(0)), asIdentitySet(list(best0, best1, best2)));
+        assertEquals(Collections.singletonList(dominating), ranking.getSubfront(1));
+        assertEquals(Collections.singletonList(dominated), ranking.getSubfront(2));
+        assertEquals(2, dominated.getRank());
+    }
+
+    @Test
+    public void testPreferenceSortingWithFullZeroFront() {
+        Properties.POPULATION = 2;
+        Set<GeneGoal> goals = goals(2);
+        DummyChromosome best0 = new DummyChromosome(0, 5);
+        DummyChromosome best1 = new DummyChromosome(5, 0);
+        DummyChromosome dominating = new DummyChromosome(1, 1);
+        DummyChromosome dominated = new DummyChromosome(2, 2);
+
+        EfficientNonDominatedSorting<DummyChromosome> ranking = new EfficientNonDominatedSorting<>(true);
+        ranking.computeRankingAssignment(list(best0, best1, dominating, dominated), goals);
+
+        // The remaining solutions are not needed and share the second front
+        assertEquals(2, ranking.getNumberOfSubfronts());
+        assertEquals(2, ranking.getSubfront(1).size());
+        assertTrue(ranking.getSubfront(2).isEmpty());
+    }
+
+    @Test
+    public void testEmptyPopulation() {
+        EfficientNonDominatedSorting<DummyChromosome> ranking = new EfficientNonDominatedSorting<>();
+        ranking.computeRankingAssignment(new ArrayList<>(), goals(2));
+        assertEquals(0, ranking.getNumberOfSubfronts());
+    }
+
+    private static List<DummyChromosome> list(DummyChromosome... chromosomes) {
+        List<DummyChromosome> list = new ArrayList<>();
+        Collections.addAll(list, chromosomes);
+        return list;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs.cdg;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.graphs.cfg.ControlFlowGraph;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DominatorTreeTest {
+
+	private static class Graph extends ControlFlowGraph<String> {
+
+		Graph(String... edges) {
+			super("Foo", "bar()V", 0);
+			for (int i = 0; i < edges.length; i += 2) {
+				addVertex(edges[i]);
+				addVertex(edges[i + 1]);
+				addEdge(edges[i], edges[i + 1]);
+			}
+		}
+
+		@Override
+		public BytecodeInstruction getInstruction(int instructionId) {
+			return null;
+		}
+
+		@Override
+		public boolean containsInstruction(BytecodeInstruction instruction) {
+			return false;
+		}
+
+		@Override
+		public String getCFGType() {
+			return "TEST";
+		}
+	}
+
+	/** A loop from d back to a, containing a branch at a */
+	private static Graph loop() {
+		return new Graph("entry", "a", "a", "b", "a", "c", "b", "d", "c", "d", "d", "a", "d", "exit");
+	}
+
+	@Test
+	public void testDominators() {
+		DominatorTree<String> dt = new DominatorTree<>(loop());
+
+		Assert.assertNull(dt.getImmediateDominator("entry"));
+		Assert.assertEquals("entry", dt.getImmediateDominator("a"));
+		Assert.assertEquals("a", dt.getImmediateDominator("b"));
+		Assert.assertEquals("a", dt.getImmediateDominator("c"));
+		Assert.assertEquals("a", dt.getImmediateDominator("d"));
+		Assert.assertEquals("d", dt.getImmediateDominator("exit"));
+
+		Assert.assertEquals(Collections.emptySet(), dt.getDominatingFrontiers("entry"));
+		Assert.assertEquals(Collections.singleton("a"), dt.getDominatingFrontiers("a"));
+		Assert.assertEquals(Collections.singleton("d"), dt.getDominatingFrontiers("b"));
+		Assert.assertEquals(Collections.singleton("d"), dt.getDominatingFrontiers("c"));
+		Assert.assertEquals(Collections.singleton("a"), dt.getDominatingFrontiers("d"));
+		Assert.assertEquals(6, dt.vertexCount());
+		Assert.assertEquals(5, dt.edgeCount());
+	}
+
+	@Test
+	public void testPostDominators() {
+		DominatorTree<String> dt = new DominatorTree<>(loop(), true);
+
+		Assert.assertNull(dt.getImmediateDominator("exit"));
+		Assert.assertEquals("exit", dt.getImmediateDominator("d"));
+		Assert.assertEquals("d", dt.getImmediateDominator("b"));
+		Assert.assertEquals("d", dt.getImmediateDominator("c"));
+		Assert.assertEquals("d", dt.getImmediateDominator("a"));
+		Assert.assertEquals("a", dt.getImmediateDominator("entry"));
+
+		// b and c are control dependent on a, a and d on the loop condition at d
+		Assert.assertEquals(Collections.singleton("a"), dt.getDominatingFrontiers("b"));
+		Assert.assertEquals(Collections.singleton("a"), dt.getDominatingFrontiers("c"));
+		Assert.assertEquals(Collections.singleton("d"), dt.getDominatingFrontiers("a"));
+		Assert.assertEquals(Collections.singleton("d"), dt.getDominatingFrontiers("d"));
+		Assert.assertEquals(Collections.emptySet(), dt.getDominatingFrontiers("entry"));
+	}
+
+	@Test
+	public void testLongMethodDoesNotOverflowStack() {
+		int length = 100000;
+		String[] edges = new String[6 * length];
+		for (int i = 0; i < length; i++) {
+			// a diamond per step
+			edges[6 * i] = "n" + i;
+			edges[6 * i + 1] = "n" + (i + 1);
+			edges[6 * i + 2] = "n" + i;
+			edges[6 * i + 3] = "m" + i;
+			edges[6 * i + 4] = "m" + i;
+			edges[6 * i + 5] = "n" + (i + 1);
+		}
+		Graph cfg = new Graph(edges);
+
+		DominatorTree<String> dt = new DominatorTree<>(cfg);
+		Assert.assertEquals("n" + (length - 1), dt.getImmediateDominator("n" + length));
+		Assert.assertEquals(new HashSet<>(Arrays.asList("n" + (length / 2 + 1))),
+				dt.getDominatingFrontiers("m" + length / 2));
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+
+import com.examples.with.different.packagename.ArrayStack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class InstrumentationCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String DEFAULT_TARGET_CLASS = Properties.TARGET_CLASS;
+
+    private final String DEFAULT_PROJECT_PREFIX = Properties.PROJECT_PREFIX;
+
+    private final boolean DEFAULT_RESET_STATIC_FIELDS = Properties.RESET_STATIC_FIELDS;
+
+    @Before
+    public void setUp() {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        // ArrayStack is a dependency of a CUT in another package
+        Properties.TARGET_CLASS = "org.example.Foo";
+        Properties.PROJECT_PREFIX = "org.example";
+        Properties.INSTRUMENTATION_CACHE_DIR = folder.getRoot().getAbsolutePath();
+        InstrumentationCache.getInstance().reset();
+    }
+
+    @After
+    public void tearDown() {
+        Properties.TARGET_CLASS = DEFAULT_TARGET_CLASS;
+        Properties.PROJECT_PREFIX = DEFAULT_PROJECT_PREFIX;
+        Properties.RESET_STATIC_FIELDS = DEFAULT_RESET_STATIC_FIELDS;
+        Properties.INSTRUMENTATION_CACHE_DIR = null;
+        ClassPathHandler.resetSingleton();
+        InstrumentationCache.getInstance().reset();
+    }
+
+    private static int searchInNewClassLoader() throws Exception {
+        InstrumentingClassLoader loader = new InstrumentingClassLoader();
+        Class<?> clazz = loader.loadClass(ArrayStack.class.getName());
+        Object stack = clazz.newInstance();
+        clazz.getMethod("push", Object.class).invoke(stack, "foo");
+        clazz.getMethod("push", Object.class).invoke(stack, "bar");
+        return (Integer) clazz.getMethod("search", Object.class).invoke(stack, "foo");
+    }
+
+    @Test
+    public void testDependencyIsTakenFromCache() throws Exception {
+        assertEquals(2, searchInNewClassLoader());
+        assertEquals(0.0, InstrumentationCache.getInstance().getHitRate(), 0.0);
+        File[] entries = folder.getRoot().listFiles();
+        assertNotNull(entries);
+        assertFalse(entries.length == 0);
+
+        assertEquals(2, searchInNewClassLoader());
+        assertEquals(0.5, InstrumentationCache.getInstance().getHitRate(), 0.0);
+    }
+
+    @Test
+    public void testLoopCountersAreRelocated() throws Exception {
+        searchInNewClassLoader();
+        InstrumentationCache cache = InstrumentationCache.getInstance();
+        // ArrayStack.search contains a loop
+        String key = getKey(cache, ArrayStack.class);
+
+        byte[] first = cache.get(key);
+        byte[] second = cache.get(key);
+        assertNotNull(first);
+        // Each class gets its own loop counters
+        assertFalse(Arrays.equals(first, second));
+    }
+
+    @SuppressWarnings("deprecation")
+    private static String getKey(InstrumentationCache cache, Class<?> clazz) throws Exception {
+        String className = clazz.getName().replace('.', '/');
+        try (InputStream in = clazz.getClassLoader().getResourceAsStream(className + ".class")) {
+            return cache.getKey(className, new ClassReader(in).b);
+        }
+    }
+
+    @Test
+    public void testKeyDependsOnSettings() {
+        InstrumentationCache cache = InstrumentationCache.getInstance();
+        byte[] bytecode = new byte[] { 1, 2, 3 };
+        String key = cache.getKey("foo/Bar", bytecode);
+        assertEquals(key, cache.getKey("foo/Bar", bytecode));
+        assertNull(cache.get(key));
+
+        Properties.RESET_STATIC_FIELDS = !Properties.RESET_STATIC_FIELDS;
+        assertFalse(key.equals(cache.getKey("foo/Bar", bytecode)));
+    }
+}
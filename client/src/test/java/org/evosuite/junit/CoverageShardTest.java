@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties.Criterion;
+import org.evosuite.junit.CoverageShard.GoalCoverage;
+import org.junit.Test;
+
+public class CoverageShardTest {
+
+	private static GoalCoverage coverage(List<String> goals, int... covered) {
+		BitSet bits = new BitSet();
+		for (int goal : covered) {
+			bits.set(goal);
+		}
+		return new GoalCoverage(new ArrayList<>(goals), bits);
+	}
+
+	@Test
+	public void testMergeSameGoals() {
+		List<String> goals = Arrays.asList("a", "b", "c");
+		GoalCoverage coverage = coverage(goals, 0);
+		coverage.merge(coverage(goals, 2));
+
+		assertEquals(3, coverage.getNumGoals());
+		assertEquals(2, coverage.getNumCoveredGoals());
+		assertTrue(coverage.isCovered(2));
+		assertFalse(coverage.isCovered(1));
+	}
+
+	@Test
+	public void testMergeDifferentGoalsByName() {
+		GoalCoverage coverage = coverage(Arrays.asList("a", "b"), 0);
+		coverage.merge(coverage(Arrays.asList("b", "inner"), 0, 1));
+
+		assertEquals(3, coverage.getNumGoals());
+		assertTrue(coverage.isCovered(0));
+		assertTrue(coverage.isCovered(1));
+		assertTrue(coverage.isCovered(2));
+	}
+
+	@Test
+	public void testMergeShardIntoCoverage() {
+		Map<String, Map<Criterion, GoalCoverage>> coverage = new LinkedHashMap<>();
+		coverage.computeIfAbsent("Foo", k -> new LinkedHashMap<>()).put(Criterion.LINE,
+		        coverage(Arrays.asList("a", "b"), 1));
+
+		Map<String, Map<Criterion, GoalCoverage>> other = new LinkedHashMap<>();
+		other.computeIfAbsent("Foo", k -> new LinkedHashMap<>()).put(Criterion.LINE,
+		        coverage(Arrays.asList("a", "b"), 0));
+		other.get("Foo").put(Criterion.BRANCH, coverage(Collections.singletonList("c")));
+		CoverageShard shard = new CoverageShard(5, other);
+		shard.mergeInto(coverage);
+
+		assertEquals(2, coverage.get("Foo").get(Criterion.LINE).getNumCoveredGoals());
+		assertEquals(1, coverage.get("Foo").get(Criterion.BRANCH).getNumGoals());
+		assertEquals(5, shard.getTestsExecuted());
+	}
+
+	@Test
+	public void testShardsPartitionTestClasses() {
+		List<Class<?>> testClasses = Arrays.asList(String.class, Integer.class, Long.class, Double.class,
+		        Float.class);
+		List<Class<?>> all = new ArrayList<>();
+		for (int shard = 0; shard < 3; shard++) {
+			all.addAll(CoverageAnalysis.getShard(testClasses, shard, 3));
+		}
+		assertEquals(testClasses.size(), all.size());
+		assertTrue(all.containsAll(testClasses));
+		assertEquals(Arrays.asList(Integer.class, Float.class), CoverageAnalysis.getShard(testClasses, 1, 3));
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InMemoryCompilerTest {
+
+	private static final String CLASSPATH = System.getProperty("java.class.path");
+
+	@Before
+	public void checkCompiler() {
+		Assume.assumeTrue(JUnitAnalyzer.isJavaCompilerAvailable());
+	}
+
+	@Test
+	public void testCompileNestedAndAnonymousClasses() {
+		Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("foo.A", "package foo; public class A { static class Inner {} "
+				+ "Runnable r = new Runnable() { public void run() {} }; }");
+		sources.put("foo.B", "package foo; public class B extends A {}");
+
+		InMemoryCompiler.Result result = InMemoryCompiler.compile(sources, CLASSPATH);
+
+		Assert.assertTrue(result.isCompiled());
+		Assert.assertTrue(result.getFailedUnits().isEmpty());
+		Assert.assertTrue(result.getClasses().containsKey("foo.A"));
+		Assert.assertTrue(result.getClasses().containsKey("foo.A$Inner"));
+		Assert.assertTrue(result.getClasses().containsKey("foo.A$1"));
+		Assert.assertTrue(result.getClasses().containsKey("foo.B"));
+	}
+
+	@Test
+	public void testErrorsAreAttributedToEachUnit() {
+		Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("foo.Ok", "package foo; public class Ok {}");
+		sources.put("foo.Bad1", "package foo; public class Bad1 { int x = \"\"; }");
+		sources.put("foo.Bad2", "package foo; public class Bad2 { void m() { undefined(); } }");
+
+		InMemoryCompiler.Result result = InMemoryCompiler.compile(sources, CLASSPATH);
+
+		Assert.assertFalse(result.isCompiled());
+		Assert.assertFalse(result.hasUnattributedErrors());
+		Assert.assertEquals(2, result.getFailedUnits().size());
+		Assert.assertTrue(result.getFailedUnits().contains("foo.Bad1"));
+		Assert.assertTrue(result.getFailedUnits().contains("foo.Bad2"));
+	}
+}
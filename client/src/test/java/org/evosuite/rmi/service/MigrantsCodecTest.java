@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.runtime.testdata.EvoSuiteFile;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MigrantsCodecTest {
+
+	private static TestChromosome chromosome(TestCaseBuilder builder) {
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(builder.getDefaultTestCase());
+		return chromosome;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		TestCaseBuilder compact = new TestCaseBuilder();
+		VariableReference list = compact.appendConstructor(ArrayList.class.getConstructor());
+		VariableReference int0 = compact.appendIntPrimitive(42);
+		compact.appendMethod(list, ArrayList.class.getMethod("add", Object.class), int0);
+
+		// No compact encoding for environment data
+		TestCaseBuilder serialized = new TestCaseBuilder();
+		serialized.appendFileNamePrimitive(new EvoSuiteFile("foo"));
+
+		List<Chromosome<?>> migrants = Arrays.asList(chromosome(compact), chromosome(serialized),
+				new DummyChromosome(1, 2, 3));
+		List<Chromosome<?>> decoded = MigrantsCodec.decode(MigrantsCodec.encode(migrants));
+
+		Assert.assertEquals(3, decoded.size());
+		Assert.assertEquals(((TestChromosome) migrants.get(0)).getTestCase().toCode(),
+				((TestChromosome) decoded.get(0)).getTestCase().toCode());
+		Assert.assertEquals(((TestChromosome) migrants.get(1)).getTestCase().toCode(),
+				((TestChromosome) decoded.get(1)).getTestCase().toCode());
+		Assert.assertEquals(migrants.get(2), decoded.get(2));
+	}
+
+	@Test
+	public void testCompactEncodingIsSmaller() throws Exception {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference list = builder.appendConstructor(ArrayList.class.getConstructor());
+		VariableReference string0 = builder.appendStringPrimitive("foo");
+		builder.appendMethod(list, ArrayList.class.getMethod("add", Object.class), string0);
+		TestChromosome chromosome = chromosome(builder);
+
+		int compact = MigrantsCodec.encode(Collections.singletonList(chromosome)).length;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(chromosome);
+		}
+		Assert.assertTrue(compact * 10 < bytes.size());
+	}
+}
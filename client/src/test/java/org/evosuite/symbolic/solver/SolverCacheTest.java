@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolverCacheTest {
+
+	private static final int DEFAULT_CACHE_SIZE = Properties.DSE_SOLVER_CACHE_SIZE;
+	private static final String DEFAULT_CACHE_DIR = Properties.DSE_SOLVER_CACHE_DIR;
+	private static final String DEFAULT_TARGET_CLASS = Properties.TARGET_CLASS;
+
+	/**
+	 * Returns a fixed result and counts how often it was called
+	 */
+	private static class FixedSolver extends Solver {
+
+		private final SolverResult result;
+
+		private int calls = 0;
+
+		FixedSolver(SolverResult result) {
+			this.result = result;
+		}
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			calls++;
+			return result;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		SolverCache.getInstance().clear();
+	}
+
+	@After
+	public void tearDown() {
+		SolverCache.getInstance().clear();
+		Properties.DSE_SOLVER_CACHE_SIZE = DEFAULT_CACHE_SIZE;
+		Properties.DSE_SOLVER_CACHE_DIR = DEFAULT_CACHE_DIR;
+		Properties.TARGET_CLASS = DEFAULT_TARGET_CLASS;
+	}
+
+	private static IntegerVariable var(String name) {
+		return new IntegerVariable(name, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	private static Constraint<?> constraint(IntegerVariable v, Comparator cmp, long value) {
+		return new IntegerConstraint(v, cmp, new IntegerConstant(value));
+	}
+
+	private static SolverResult sat(String name, long value) {
+		Map<String, Object> model = new HashMap<>();
+		model.put(name, value);
+		return SolverResult.newSAT(model);
+	}
+
+	@Test
+	public void testReorderedAndRenamedConstraints() {
+		IntegerVariable x = var("x");
+		FixedSolver solver = new FixedSolver(sat("x", 7L));
+		SolverCache.getInstance().solve(solver,
+				Arrays.asList(constraint(x, Comparator.GT, 5), constraint(x, Comparator.LT, 10)));
+
+		IntegerVariable y = var("y");
+		SolverResult result = SolverCache.getInstance().solve(solver,
+				Arrays.asList(constraint(y, Comparator.LT, 10), constraint(y, Comparator.GT, 5)));
+
+		Assert.assertEquals(1, solver.calls);
+		Assert.assertTrue(result.isSAT());
+		Assert.assertEquals(7L, result.getValue("y"));
+	}
+
+	@Test
+	public void testUNSATSubset() {
+		IntegerVariable x = var("x");
+		IntegerVariable z = var("z");
+		FixedSolver solver = new FixedSolver(SolverResult.newUNSAT());
+		Constraint<?> gt = constraint(x, Comparator.GT, 5);
+		Constraint<?> lt = constraint(x, Comparator.LT, 3);
+		SolverCache.getInstance().solve(solver, Arrays.asList(gt, lt));
+
+		SolverResult result = SolverCache.getInstance().solve(solver,
+				Arrays.asList(gt, constraint(z, Comparator.EQ, 1), lt));
+
+		Assert.assertEquals(1, solver.calls);
+		Assert.assertTrue(result.isUNSAT());
+	}
+
+	@Test
+	public void testModelReuse() {
+		IntegerVariable x = var("x");
+		Constraint<?> gt = constraint(x, Comparator.GT, 5);
+		FixedSolver solver = new FixedSolver(sat("x", 7L));
+		SolverCache.getInstance().solve(solver, Arrays.asList(gt, constraint(x, Comparator.LT, 10)));
+
+		// subset of the solved constraints
+		SolverResult result = SolverCache.getInstance().solve(solver, Collections.singletonList(gt));
+		Assert.assertEquals(1, solver.calls);
+		Assert.assertEquals(7L, result.getValue("x"));
+
+		// shares a constraint, and x=7 still satisfies the other one
+		result = SolverCache.getInstance().solve(solver, Arrays.asList(gt, constraint(x, Comparator.NE, 8)));
+		Assert.assertEquals(1, solver.calls);
+		Assert.assertEquals(7L, result.getValue("x"));
+
+		// x=7 does not satisfy x>8
+		SolverCache.getInstance().solve(solver, Arrays.asList(gt, constraint(x, Comparator.GT, 8)));
+		Assert.assertEquals(2, solver.calls);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		Properties.DSE_SOLVER_CACHE_SIZE = 1;
+		IntegerVariable x = var("x");
+		FixedSolver solver = new FixedSolver(SolverResult.newUnknown());
+
+		Collection<Constraint<?>> first = Collections.singletonList(constraint(x, Comparator.EQ, 1));
+		Collection<Constraint<?>> second = Collections.singletonList(constraint(x, Comparator.EQ, 2));
+		SolverCache.getInstance().solve(solver, first);
+		SolverCache.getInstance().solve(solver, second);
+		SolverCache.getInstance().solve(solver, second);
+		Assert.assertEquals(2, solver.calls);
+
+		SolverCache.getInstance().solve(solver, first);
+		Assert.assertEquals(3, solver.calls);
+	}
+
+	@Test
+	public void testResultsAreStoredOnDisk() throws Exception {
+		File dir = Files.createTempDirectory("solver_cache").toFile();
+		try {
+			Properties.DSE_SOLVER_CACHE_DIR = dir.getAbsolutePath();
+			Properties.TARGET_CLASS = "com.example.Foo";
+
+			IntegerVariable x = var("x");
+			FixedSolver solver = new FixedSolver(sat("x", 42L));
+			SolverCache.getInstance().solve(solver, Collections.singletonList(constraint(x, Comparator.GT, 40)));
+			SolverCache.getInstance().saveToDisk();
+
+			// as in a new run
+			SolverCache.getInstance().clear();
+			IntegerVariable y = var("y");
+			SolverResult result = SolverCache.getInstance().solve(solver,
+					Collections.singletonList(constraint(y, Comparator.GT, 40)));
+
+			Assert.assertEquals(1, solver.calls);
+			Assert.assertEquals(42L, result.getValue("y"));
+		} finally {
+			FileUtils.deleteDirectory(dir);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CaptureLogWriterTest {
+
+	private static CaptureLog createLog() {
+		CaptureLog log = new CaptureLog();
+		ArrayList<Object> list = new ArrayList<>();
+		log.log(1, list, CaptureLog.OBSERVED_INIT, "()V");
+		log.logEnd(1, list, CaptureLog.RETURN_TYPE_VOID);
+		log.log(2, list, "add", "(Ljava/lang/Object;)Z", "fooä\n");
+		log.logEnd(2, list, true);
+		log.log(3, String.class, "valueOf", "(J)Ljava/lang/String;", 42L);
+		log.logEnd(3, String.class, "42");
+		return log;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		CaptureLog log = createLog();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (CaptureLogWriter writer = new CaptureLogWriter(bytes)) {
+			writer.write(log);
+			writer.write(new CaptureLog());
+		}
+
+		try (CaptureLogReader reader = new CaptureLogReader(new ByteArrayInputStream(bytes.toByteArray()),
+		        getClass().getClassLoader())) {
+			CaptureLog read = reader.read();
+			Assert.assertEquals(log.toString(), read.toString());
+			Assert.assertEquals(log.getTypeName(log.getOID(0)), read.getTypeName(read.getOID(0)));
+			Assert.assertSame(CaptureLog.RETURN_TYPE_VOID, read.returnValues.get(0));
+			Assert.assertEquals(0, reader.read().objectIds.size());
+			Assert.assertNull(reader.read());
+		}
+	}
+
+	@Test
+	public void testTruncatedStreamEndsAfterLastCompleteLog() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		CaptureLogWriter writer = new CaptureLogWriter(bytes);
+		writer.write(createLog());
+		int end = bytes.size();
+		writer.write(createLog());
+		byte[] truncated = new byte[end + 10];
+		System.arraycopy(bytes.toByteArray(), 0, truncated, 0, truncated.length);
+
+		CaptureLogReader reader = new CaptureLogReader(new ByteArrayInputStream(truncated),
+		        getClass().getClassLoader());
+		Assert.assertNotNull(reader.read());
+		Assert.assertNull(reader.read());
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParameterCopierTest {
+
+	private static class Node {
+		private final String name;
+		private int[] values = { 1, 2 };
+		private Node next;
+		private Object[] others;
+
+		Node(String name) {
+			this.name = name;
+		}
+	}
+
+	@Test
+	public void testDeepCopyKeepsCyclesAndSharesImmutables() throws Exception {
+		Node node = new Node("foo");
+		node.next = node;
+		node.others = new Object[] { node, 17 };
+
+		Node copy = (Node) ParameterCopier.copy(node);
+		Assert.assertNotSame(node, copy);
+		Assert.assertSame(node.name, copy.name);
+		Assert.assertNotSame(node.values, copy.values);
+		Assert.assertArrayEquals(node.values, copy.values);
+		Assert.assertSame(copy, copy.next);
+		Assert.assertSame(copy, copy.others[0]);
+		Assert.assertSame(node.others[1], copy.others[1]);
+	}
+
+	@Test
+	public void testJdkObjectsAreNotCopied() throws Exception {
+		Assert.assertSame(ParameterCopier.NOT_COPYABLE, ParameterCopier.copy(new HashMap<>()));
+
+		Node node = new Node("foo");
+		node.others = new Object[] { new HashMap<>() };
+		Assert.assertSame(ParameterCopier.NOT_COPYABLE, ParameterCopier.copy(node));
+	}
+}
@@ -19,6 +19,11 @@
  */
 package org.evosuite.testcase;
 
+import java.util.List;
+
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -31,4 +36,56 @@ public class DefaultTestCaseTest {
 		DefaultTestCase clone = tc.clone();
 		Assert.assertTrue(tc.statements != clone.statements);
 	}
+
+	@Test
+	public void testObjectsAfterInsertAndRemove() {
+		DefaultTestCase tc = new DefaultTestCase();
+		VariableReference string0 = tc.addStatement(new StringPrimitiveStatement(tc, "foo"));
+		VariableReference int0 = tc.addStatement(new IntPrimitiveStatement(tc, 42));
+		Assert.assertEquals(1, tc.getObjects(String.class, tc.size()).size());
+		Assert.assertTrue(tc.hasObject(int.class, tc.size()));
+
+		VariableReference string1 = tc.addStatement(new StringPrimitiveStatement(tc, "bar"), 0);
+		List<VariableReference> strings = tc.getObjects(String.class, tc.size());
+		Assert.assertEquals(2, strings.size());
+		Assert.assertTrue(strings.contains(string0));
+		Assert.assertTrue(strings.contains(string1));
+		Assert.assertEquals(int0, tc.getObjects(int.class, tc.size()).get(0));
+
+		tc.remove(1);
+		strings = tc.getObjects(String.class, tc.size());
+		Assert.assertEquals(1, strings.size());
+		Assert.assertEquals(string1, strings.get(0));
+		Assert.assertFalse(tc.hasObject(int.class, 1));
+		Assert.assertTrue(tc.hasObject(int.class, 2));
+	}
+
+	@Test
+	public void testObjectsAfterTypeChange() throws Exception {
+		DefaultTestCase tc = new DefaultTestCase();
+		VariableReference var = tc.addStatement(new StringPrimitiveStatement(tc, "foo"));
+		Assert.assertEquals(var, tc.getLastObject(String.class));
+		Assert.assertTrue(tc.getObjects(Integer.class, tc.size()).isEmpty());
+
+		var.setType(Integer.class);
+		Assert.assertEquals(var, tc.getLastObject(Integer.class));
+		Assert.assertEquals(1, tc.getObjects(Integer.class, tc.size()).size());
+		Assert.assertFalse(tc.hasObject(String.class, tc.size()));
+	}
+
+	@Test
+	public void testClonesDoNotShareChanges() {
+		DefaultTestCase tc = new DefaultTestCase();
+		tc.addStatement(new StringPrimitiveStatement(tc, "foo"));
+		Assert.assertEquals(1, tc.getObjects(String.class, tc.size()).size());
+
+		DefaultTestCase clone = tc.clone();
+		clone.addStatement(new StringPrimitiveStatement(clone, "bar"), 0);
+		Assert.assertEquals(2, clone.getObjects(String.class, clone.size()).size());
+		Assert.assertEquals(1, tc.getObjects(String.class, tc.size()).size());
+
+		clone.chop(1);
+		Assert.assertEquals(1, clone.getObjects(String.class, clone.size()).size());
+		Assert.assertEquals("bar", ((StringPrimitiveStatement) clone.getStatement(0)).getValue());
+	}
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.runtime.testdata.EvoSuiteFile;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCaseCodecTest {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference list = builder.appendConstructor(ArrayList.class.getConstructor());
+		VariableReference string = builder.appendStringPrimitive("fooä\n");
+		builder.appendMethod(list, ArrayList.class.getMethod("add", Object.class), string);
+		VariableReference int0 = builder.appendIntPrimitive(-17);
+		VariableReference point = builder.appendConstructor(Point.class.getConstructor());
+		builder.appendAssignment(point, Point.class.getField("x"), int0);
+		VariableReference x = builder.appendFieldStmt(point, Point.class.getField("y"));
+		builder.appendStaticFieldStmt(Integer.class.getField("MAX_VALUE"));
+		ArrayReference array = builder.appendArrayStmt(int[].class, 3);
+		builder.appendAssignment(array, 1, x);
+		builder.appendEnumPrimitive(TimeUnit.SECONDS);
+		builder.appendClassPrimitive(String.class);
+		builder.appendNull(String.class);
+		builder.appendLongPrimitive(Long.MIN_VALUE);
+		builder.appendDoublePrimitive(Double.NaN);
+		builder.appendCharPrimitive('c');
+		builder.appendBooleanPrimitive(true);
+		DefaultTestCase test = builder.getDefaultTestCase();
+
+		Assert.assertTrue(TestCaseCodec.isSupported(test));
+		byte[] encoded = TestCaseCodec.encode(test);
+		DefaultTestCase decoded = TestCaseCodec.decode(encoded);
+		Assert.assertEquals(test.toCode(), decoded.toCode());
+		Assert.assertTrue(decoded.isValid());
+	}
+
+	@Test
+	public void testNamesAreWrittenOnce() throws Exception {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference list = builder.appendConstructor(ArrayList.class.getConstructor());
+		VariableReference int0 = builder.appendIntPrimitive(0);
+		builder.appendMethod(list, ArrayList.class.getMethod("add", Object.class), int0);
+		int oneCall = TestCaseCodec.encode(builder.getDefaultTestCase()).length;
+		builder.appendMethod(list, ArrayList.class.getMethod("add", Object.class), int0);
+		int twoCalls = TestCaseCodec.encode(builder.getDefaultTestCase()).length;
+
+		// Method name, descriptor and types are references to earlier names
+		Assert.assertTrue(twoCalls - oneCall < 20);
+	}
+
+	@Test
+	public void testEnvironmentDataIsNotSupported() {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		builder.appendFileNamePrimitive(new EvoSuiteFile("foo"));
+		Assert.assertFalse(TestCaseCodec.isSupported(builder.getDefaultTestCase()));
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutionCheckpointsTest {
+
+	private final boolean DEFAULT_SANDBOX = Properties.SANDBOX;
+
+	private final boolean DEFAULT_INCREMENTAL_EXECUTION = Properties.INCREMENTAL_EXECUTION;
+
+	private final boolean DEFAULT_RESET_STATIC_FIELDS = Properties.RESET_STATIC_FIELDS;
+
+	@Before
+	public void setUp() {
+		Properties.SANDBOX = false;
+		Properties.INCREMENTAL_EXECUTION = true;
+		Properties.RESET_STATIC_FIELDS = true;
+		TestCaseExecutor.getInstance().newObservers();
+	}
+
+	@After
+	public void reset() {
+		Properties.SANDBOX = DEFAULT_SANDBOX;
+		Properties.INCREMENTAL_EXECUTION = DEFAULT_INCREMENTAL_EXECUTION;
+		Properties.RESET_STATIC_FIELDS = DEFAULT_RESET_STATIC_FIELDS;
+		ClassPathHandler.resetSingleton();
+	}
+
+	private static long run(DefaultTestCase tc) {
+		long before = TestCaseExecutor.statementsRestored;
+		ExecutionResult result = TestCaseExecutor.runTest(tc);
+		assertTrue(result.noThrownExceptions());
+		assertEquals(tc.size(), result.getExecutedStatements());
+		return TestCaseExecutor.statementsRestored - before;
+	}
+
+	@Test
+	public void testResumeAfterUnchangedPrefix() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference int0 = builder.appendIntPrimitive(-5);
+		VariableReference int1 = builder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		DefaultTestCase tc = builder.getDefaultTestCase();
+
+		assertEquals(0, run(tc));
+		ExecutionCheckpoints checkpoints = tc.getExecutionCheckpoints();
+		assertNotNull(checkpoints);
+		assertEquals(2, checkpoints.size());
+
+		// The new statements use the restored value of int1
+		VariableReference int2 = builder.appendIntPrimitive(3);
+		builder.appendMethod(null, Math.class.getMethod("max", int.class, int.class), int1, int2);
+		assertEquals(2, run(tc));
+		assertEquals(4, tc.getExecutionCheckpoints().size());
+
+		// The trace is kept where the execution was resumed
+		((IntPrimitiveStatement) tc.getStatement(2)).setValue(4);
+		assertEquals(2, run(tc));
+	}
+
+	@Test
+	public void testOnlyResumedWithStaticReset() throws NoSuchMethodException {
+		Properties.RESET_STATIC_FIELDS = false;
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference int0 = builder.appendIntPrimitive(-5);
+		builder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		DefaultTestCase tc = builder.getDefaultTestCase();
+
+		assertEquals(0, run(tc));
+		builder.appendIntPrimitive(3);
+		assertEquals(0, run(tc));
+	}
+
+	@Test
+	public void testModifiedPrefixIsExecuted() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference int0 = builder.appendIntPrimitive(-5);
+		builder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		DefaultTestCase tc = builder.getDefaultTestCase();
+
+		assertEquals(0, run(tc));
+		((IntPrimitiveStatement) tc.getStatement(0)).setValue(7);
+		assertEquals(0, run(tc));
+		((IntPrimitiveStatement) tc.getStatement(0)).setValue(8);
+		assertEquals(0, run(tc));
+	}
+
+	@Test
+	public void testStatementWithSideEffects() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference sb = builder.appendConstructor(StringBuilder.class.getConstructor());
+		VariableReference string0 = builder.appendStringPrimitive("foo");
+		builder.appendMethod(sb, StringBuilder.class.getMethod("append", String.class), string0);
+		VariableReference int0 = builder.appendIntPrimitive(-5);
+		builder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		DefaultTestCase tc = builder.getDefaultTestCase();
+		assertEquals(0, run(tc));
+
+		// Nothing before the call to append can be restored
+		assertFalse(ExecutionCheckpoints.isSideEffectFree(tc.getStatement(2)));
+		DefaultTestCase clone = tc.clone();
+		((StringPrimitiveStatement) clone.getStatement(1)).setValue("bar");
+		assertEquals(0, run(clone));
+
+		// Only the trace after the last statement is kept
+		((IntPrimitiveStatement) tc.getStatement(3)).setValue(4);
+		assertEquals(0, run(tc));
+		clone = tc.clone();
+		clone.addStatement(new IntPrimitiveStatement(clone, 2));
+		assertEquals(5, run(clone));
+	}
+
+	@Test
+	public void testSharedCheckpointsAreInvalidated() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference sb = builder.appendConstructor(StringBuilder.class.getConstructor());
+		VariableReference int0 = builder.appendIntPrimitive(-5);
+		builder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		DefaultTestCase tc = builder.getDefaultTestCase();
+		assertEquals(0, run(tc));
+
+		// The clone continues from the same checkpoints and changes sb
+		DefaultTestCase clone = tc.clone();
+		VariableReference string0 = clone.addStatement(new StringPrimitiveStatement(clone, "foo"));
+		Method append = StringBuilder.class.getMethod("append", String.class);
+		clone.addStatement(new MethodStatement(clone, new GenericMethod(append, StringBuilder.class),
+				clone.getStatement(0).getReturnValue(), Collections.singletonList(string0)));
+		assertEquals(3, run(clone));
+
+		// So the original can no longer use them
+		assertFalse(tc.getExecutionCheckpoints().isValid());
+		((IntPrimitiveStatement) tc.getStatement(1)).setValue(4);
+		assertEquals(0, run(tc));
+		assertTrue(tc.getExecutionCheckpoints().isValid());
+		assertEquals(sb, tc.getStatement(0).getReturnValue());
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Test;
+
+public class ExecutionSummaryTest {
+
+	private final String DEFAULT_TARGET_CLASS = Properties.TARGET_CLASS;
+
+	private final boolean DEFAULT_BREAK_ON_EXCEPTION = Properties.BREAK_ON_EXCEPTION;
+
+	@After
+	public void reset() {
+		Properties.TARGET_CLASS = DEFAULT_TARGET_CLASS;
+		Properties.BREAK_ON_EXCEPTION = DEFAULT_BREAK_ON_EXCEPTION;
+		ExecutionTraceImpl.disableTraceCalls();
+	}
+
+	@Test
+	public void testBranchesMethodsAndLines() {
+		Properties.TARGET_CLASS = "Foo";
+		ExecutionTraceImpl trace = new ExecutionTraceImpl();
+		trace.enteredMethod("Foo", "bar()V", null);
+		trace.branchPassed(5, 0, 3.0, 0.0);
+		trace.branchPassed(2, 0, 0.0, 1.0);
+		trace.branchPassed(5, 0, 1.0, 0.0);
+		trace.linePassed("Foo", "bar()V", 7);
+
+		ExecutionResult result = new ExecutionResult(new DefaultTestCase());
+		result.setTrace(trace);
+		ExecutionSummary summary = result.getSummary();
+
+		assertEquals(2, summary.getNumBranches());
+		assertEquals(2, summary.getBranchId(0));
+		assertEquals(1, summary.getPredicateCount(0));
+		assertEquals(0.0, summary.getTrueDistance(0), 0.0);
+		assertEquals(1.0, summary.getFalseDistance(0), 0.0);
+		assertEquals(5, summary.getBranchId(1));
+		assertEquals(2, summary.getPredicateCount(1));
+		assertEquals(1.0, summary.getTrueDistance(1), 0.0);
+
+		assertEquals(1, summary.getNumMethods());
+		assertEquals("Foo.bar()V", summary.getMethod(0));
+		assertEquals(1, summary.getMethodCount(0));
+
+		assertTrue(summary.isLineCovered(7));
+		assertFalse(summary.isLineCovered(8));
+	}
+
+	@Test
+	public void testCallDistances() {
+		Properties.TARGET_CLASS = "Foo";
+		ExecutionTraceImpl.enableTraceCalls();
+		ExecutionTraceImpl trace = new ExecutionTraceImpl();
+		trace.enteredMethod("Foo", "bar()V", null);
+		trace.branchPassed(5, 0, 3.0, 0.0);
+		trace.branchPassed(5, 0, 1.0, 0.0);
+		trace.exitMethod("Foo", "bar()V");
+		trace.enteredMethod("Foo", "bar()V", null);
+		trace.branchPassed(2, 0, 0.0, 4.0);
+		trace.exitMethod("Foo", "bar()V");
+
+		ExecutionResult result = new ExecutionResult(new DefaultTestCase());
+		result.setTrace(trace);
+		List<ExecutionSummary.CallDistances> calls = result.getSummary().getCallDistances("Foo", "bar()V");
+
+		assertEquals(2, calls.size());
+		int index = calls.get(0).indexOf(5);
+		assertEquals(1.0, calls.get(0).getTrueDistance(index), 0.0);
+		assertEquals(0.0, calls.get(0).getFalseDistance(index), 0.0);
+		assertTrue(calls.get(0).indexOf(2) < 0);
+		index = calls.get(1).indexOf(2);
+		assertEquals(4.0, calls.get(1).getFalseDistance(index), 0.0);
+		assertTrue(calls.get(1).indexOf(5) < 0);
+		assertTrue(result.getSummary().getCallDistances("Foo", "baz()V").isEmpty());
+	}
+
+	@Test
+	public void testSharedByClonesAndResetWithTrace() {
+		ExecutionResult result = new ExecutionResult(new DefaultTestCase());
+		result.setTrace(new ExecutionTraceImpl());
+		ExecutionSummary summary = result.getSummary();
+		assertSame(summary, result.getSummary());
+		assertSame(summary, result.clone().getSummary());
+
+		result.setTrace(new ExecutionTraceImpl());
+		assertNotSame(summary, result.getSummary());
+	}
+
+	@Test
+	public void testCalledMethodsStopAtException() throws Exception {
+		Properties.BREAK_ON_EXCEPTION = true;
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference list = builder.appendConstructor(ArrayList.class.getConstructor());
+		builder.appendMethod(list, ArrayList.class.getMethod("clear"));
+		builder.appendMethod(list, ArrayList.class.getMethod("size"));
+		ExecutionResult result = new ExecutionResult(builder.getDefaultTestCase());
+		result.setThrownExceptions(Collections.singletonMap(1, new RuntimeException()));
+
+		assertEquals(2, result.getSummary().getCalledMethods().size());
+		assertTrue(result.getSummary().getCalledMethods().contains("java.util.ArrayList.<init>()V"));
+		assertTrue(result.getSummary().getCalledMethods().contains("java.util.ArrayList.clear()V"));
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.statements;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Test;
+
+public class MemberInvokerTest {
+
+	private final boolean DEFAULT_METHOD_HANDLES = Properties.METHOD_HANDLES;
+
+	@After
+	public void reset() {
+		Properties.METHOD_HANDLES = DEFAULT_METHOD_HANDLES;
+	}
+
+	@Test
+	public void testMethods() throws Exception {
+		List<Object> list = new ArrayList<>();
+		assertNull(MemberInvoker.invoke(List.class.getMethod("clear"), list, new Object[0]));
+		assertEquals(true, MemberInvoker.invoke(List.class.getMethod("add", Object.class), list, new Object[] { "foo" }));
+		assertEquals("foo", MemberInvoker.invoke(List.class.getMethod("get", int.class), list, new Object[] { 0 }));
+		assertEquals(Arrays.asList("a", "b"),
+		        MemberInvoker.invoke(Arrays.class.getMethod("asList", Object[].class), null,
+		                new Object[] { new Object[] { "a", "b" } }));
+	}
+
+	@Test
+	public void testArgumentsThatNeedWidening() throws Exception {
+		// Not a plain unboxing, so this falls back to reflection
+		assertEquals(5L, MemberInvoker.invoke(Math.class.getMethod("abs", long.class), null, new Object[] { -5 }));
+		assertEquals(5L, MemberInvoker.invoke(Math.class.getMethod("abs", long.class), null, new Object[] { -5L }));
+	}
+
+	@Test
+	public void testExceptionsAreWrapped() throws Exception {
+		try {
+			MemberInvoker.invoke(List.class.getMethod("get", int.class), new ArrayList<>(), new Object[] { 1 });
+			fail();
+		} catch (InvocationTargetException e) {
+			assertSame(IndexOutOfBoundsException.class, e.getCause().getClass());
+		}
+		try {
+			MemberInvoker.newInstance(ArrayList.class.getConstructor(int.class), new Object[] { -1 });
+			fail();
+		} catch (InvocationTargetException e) {
+			assertSame(IllegalArgumentException.class, e.getCause().getClass());
+		}
+	}
+
+	@Test
+	public void testConstructors() throws Exception {
+		assertEquals(new ArrayList<>(), MemberInvoker.newInstance(ArrayList.class.getConstructor(), new Object[0]));
+		assertEquals("foo", MemberInvoker.newInstance(String.class.getConstructor(String.class), new Object[] { "foo" }));
+	}
+
+	@Test
+	public void testReflection() throws Exception {
+		Properties.METHOD_HANDLES = false;
+		assertEquals(3, MemberInvoker.invoke(String.class.getMethod("length"), "foo", new Object[0]));
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.testdata.EvoSuiteFile;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestSuiteSerializationTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final String targetClass = Properties.TARGET_CLASS;
+
+	@After
+	public void restoreProperties() {
+		Properties.TARGET_CLASS = targetClass;
+	}
+
+	private static TestChromosome listTest(int value) throws Exception {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference list = builder.appendConstructor(ArrayList.class.getConstructor());
+		VariableReference int0 = builder.appendIntPrimitive(value);
+		builder.appendMethod(list, ArrayList.class.getMethod("add", Object.class), int0);
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(builder.getDefaultTestCase());
+		return test;
+	}
+
+	private static TestChromosome fileTest() {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		builder.appendFileNamePrimitive(new EvoSuiteFile("foo"));
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(builder.getDefaultTestCase());
+		return test;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		suite.addTest(listTest(17));
+		suite.addTest(fileTest());
+		File file = folder.newFile("seeds");
+		Properties.TARGET_CLASS = "com.example.Foo";
+
+		Assert.assertTrue(TestSuiteSerialization.saveTests(suite, file));
+		Assert.assertTrue(SerializedTests.isBinaryFormat(file));
+
+		List<TestChromosome> tests = TestSuiteSerialization.loadTests(file);
+		Assert.assertEquals(2, tests.size());
+		Assert.assertEquals(suite.getTestChromosome(0).getTestCase().toCode(), tests.get(0).getTestCase().toCode());
+		Assert.assertEquals(suite.getTestChromosome(1).getTestCase().toCode(), tests.get(1).getTestCase().toCode());
+	}
+
+	@Test
+	public void testLazyLoadingByTargetClass() throws Exception {
+		File first = folder.newFile("first");
+		Properties.TARGET_CLASS = "com.example.Foo";
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		suite.addTest(listTest(1));
+		suite.addTest(listTest(2));
+		Assert.assertTrue(TestSuiteSerialization.saveTests(suite, first));
+
+		SerializedTests tests = SerializedTests.open(first);
+		Assert.assertEquals(2, tests.size());
+		Assert.assertEquals("com.example.Foo", tests.getTargetClass(1));
+		Assert.assertEquals(suite.getTestChromosome(1).getTestCase().toCode(),
+				tests.loadTest(1).getTestCase().toCode());
+
+		Assert.assertEquals(2, tests.getIndices("com.example.Foo").size());
+		Assert.assertTrue(tests.getIndices("com.example.Bar").isEmpty());
+		Assert.assertTrue(TestSuiteSerialization.loadTestsForClass(first, "com.example.Bar").isEmpty());
+		Assert.assertEquals(2, TestSuiteSerialization.loadTestsForClass(first, null).size());
+	}
+
+	@Test
+	public void testTestsOfTwoClassesInSameFile() throws Exception {
+		TestSuiteChromosome foo = new TestSuiteChromosome();
+		foo.addTest(listTest(1));
+		foo.addTest(listTest(2));
+		TestSuiteChromosome bar = new TestSuiteChromosome();
+		bar.addTest(listTest(3));
+		Map<String, TestSuiteChromosome> suites = new LinkedHashMap<>();
+		suites.put("com.example.Foo", foo);
+		suites.put("com.example.Bar", bar);
+		File file = folder.newFile("seeds");
+		Properties.TARGET_CLASS = "com.example.Foo";
+
+		Assert.assertTrue(TestSuiteSerialization.saveTests(suites, file));
+
+		SerializedTests tests = SerializedTests.open(file);
+		Assert.assertEquals(3, tests.size());
+		Assert.assertEquals("com.example.Bar", tests.getTargetClass(2));
+
+		List<TestChromosome> loaded = TestSuiteSerialization.loadTestsForClass(file, "com.example.Bar");
+		Assert.assertEquals(1, loaded.size());
+		Assert.assertEquals(bar.getTestChromosome(0).getTestCase().toCode(), loaded.get(0).getTestCase().toCode());
+		Assert.assertEquals(2, TestSuiteSerialization.loadTestsForClass(file, "com.example.Foo").size());
+	}
+
+	@Test
+	public void testJavaSerializedFilesCanStillBeLoaded() throws Exception {
+		TestChromosome test = listTest(42);
+		File file = folder.newFile("legacy");
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+			out.writeObject(test);
+		}
+
+		Assert.assertFalse(SerializedTests.isBinaryFormat(file));
+		List<TestChromosome> tests = TestSuiteSerialization.loadTestsForClass(file, "com.example.Foo");
+		Assert.assertEquals(1, tests.size());
+		Assert.assertEquals(test.size(), tests.get(0).size());
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntDoubleHashMapTest {
+
+    @Test
+    public void testPutMinAndAdd() {
+        IntDoubleHashMap map = new IntDoubleHashMap();
+        Assert.assertFalse(map.containsKey(3));
+
+        map.putMin(3, 5.0);
+        map.putMin(3, 7.0);
+        map.putMin(3, 2.0);
+        Assert.assertEquals(2.0, map.get(3), 0.0);
+
+        map.add(4, 1.5);
+        map.add(4, 1.5);
+        Assert.assertEquals(3.0, map.get(4), 0.0);
+        Assert.assertEquals(2, map.size());
+
+        Assert.assertEquals(Double.valueOf(2.0), map.get((Object) 3));
+        Assert.assertNull(map.get((Object) 42));
+        Assert.assertEquals(-1.0, map.getOrDefault(42, -1.0), 0.0);
+    }
+
+    @Test
+    public void testClearKeepsMapUsable() {
+        IntDoubleHashMap map = new IntDoubleHashMap();
+        for (int i = 0; i < 100; i++)
+            map.put(i, i);
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.containsKey(5));
+        map.put(5, 1.0);
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(1.0, map.get(5), 0.0);
+    }
+
+    @Test
+    public void testBehavesLikeHashMap() {
+        Random random = new Random(42);
+        IntDoubleHashMap map = new IntDoubleHashMap();
+        Map<Integer, Double> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(500) - 250;
+            if (random.nextInt(4) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                double value = random.nextDouble();
+                expected.merge(key, value, Math::min);
+                map.putMin(key, value);
+            }
+        }
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.keySet(), map.keySet());
+
+        IntDoubleHashMap copy = map.clone();
+        copy.put(1000, 1.0);
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.size() + 1, copy.size());
+    }
+
+    @Test
+    public void testIntIntCounters() {
+        IntIntHashMap map = new IntIntHashMap();
+        map.increment(7);
+        map.increment(7);
+        map.increment(-1);
+        Assert.assertEquals(2, map.get(7));
+        Assert.assertEquals(1, map.get(-1));
+
+        Map<Integer, Integer> expected = new HashMap<>();
+        expected.put(7, 2);
+        expected.put(-1, 1);
+        Assert.assertEquals(expected, map);
+    }
+}
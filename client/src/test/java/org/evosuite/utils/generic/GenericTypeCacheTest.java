@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.setup.TestCluster;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GenericTypeCacheTest {
+
+    private final int DEFAULT_CACHE_SIZE = Properties.GENERIC_TYPE_CACHE_SIZE;
+
+    private final GenericTypeCache cache = GenericTypeCache.getInstance();
+
+    @Before
+    public void setUp() {
+        cache.reset();
+    }
+
+    @After
+    public void tearDown() {
+        Properties.GENERIC_TYPE_CACHE_SIZE = DEFAULT_CACHE_SIZE;
+        cache.reset();
+    }
+
+    private static Type listOf(Type parameter) {
+        return new ParameterizedTypeImpl(List.class, new Type[] { parameter }, null);
+    }
+
+    @Test
+    public void testAssignabilityIsMemoized() {
+        Assert.assertTrue(GenericClass.isAssignable(listOf(Object.class), listOf(Object.class)));
+        Assert.assertFalse(GenericClass.isAssignable(listOf(Integer.class), listOf(String.class)));
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(2, cache.getMisses());
+
+        // Equal but not identical types hit the cache
+        Assert.assertTrue(GenericClass.isAssignable(listOf(Object.class), listOf(Object.class)));
+        Assert.assertFalse(GenericClass.isAssignable(listOf(Integer.class), listOf(String.class)));
+        Assert.assertEquals(2, cache.getHits());
+
+        // The direction of the check matters
+        Assert.assertFalse(GenericClass.isAssignable(ArrayList.class, List.class));
+        Assert.assertTrue(GenericClass.isAssignable(List.class, ArrayList.class));
+    }
+
+    @Test
+    public void testTypeVariableMapIsCopied() {
+        Type type = listOf(String.class);
+        Map<TypeVariable<?>, Type> first = new GenericClass(type).getTypeVariableMap();
+        Assert.assertEquals(String.class, first.get(List.class.getTypeParameters()[0]));
+        first.clear();
+
+        Map<TypeVariable<?>, Type> second = new GenericClass(type).getTypeVariableMap();
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(String.class, second.get(List.class.getTypeParameters()[0]));
+    }
+
+    @Test
+    public void testClearedOnTestClusterReset() {
+        GenericClass.isAssignable(Object.class, String.class);
+        TestCluster.reset();
+        GenericClass.isAssignable(Object.class, String.class);
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testDisabled() {
+        Properties.GENERIC_TYPE_CACHE_SIZE = 0;
+        Assert.assertTrue(GenericClass.isAssignable(Object.class, String.class));
+        Assert.assertTrue(GenericClass.isAssignable(Object.class, String.class));
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(0, cache.getMisses());
+    }
+}
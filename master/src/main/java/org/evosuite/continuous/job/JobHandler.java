@@ -20,6 +20,7 @@
 package org.evosuite.continuous.job;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -50,7 +51,17 @@ public class JobHandler extends Thread {
 
 	private final JobExecutor executor;
 
+	/** Heap of the EvoSuite master process, the rest of the memory of a job goes to the client */
+	private static final int MASTER_MB = 250;
+
 	private Process latestProcess;
+
+	/** Process executing successive jobs, see {@link JobWorker} */
+	private Process worker;
+
+	private BufferedReader workerOutput;
+
+	private Writer workerInput;
 	
 	/**
 	 * Main constructor
@@ -92,6 +103,17 @@ public class JobHandler extends Thread {
 
 	public void stopExecution() {
 		this.interrupt();
+		/*
+		 * reading the output of a worker cannot be interrupted
+		 */
+		Process process = worker;
+		if (process != null) {
+			process.destroy();
+		}
+	}
+
+	private static boolean useWorkers() {
+		return Properties.CTG_JOBS_PER_WORKER > 1 && Properties.CTG_DEBUG_PORT == null;
 	}
 
 	@Override
@@ -105,6 +127,20 @@ public class JobHandler extends Thread {
 				break;
 			}
 
+			if (useWorkers()) {
+				try {
+					executeOnWorker(job);
+				} catch (Exception e) {
+					if (!isInterrupted()) {
+						logger.error("Failed to execute job on worker: " + e.getMessage(), e);
+					}
+					stopWorker();
+				} finally {
+					executor.doneWithJob(job);
+				}
+				continue;
+			}
+
 			Process process = null;
 
 			try {
@@ -166,6 +202,84 @@ public class JobHandler extends Thread {
 				executor.doneWithJob(job);
 			}
 		}
+		stopWorker();
+	}
+
+	/**
+	 * Execute the job on the worker process of this handler, starting a new
+	 * worker if there is none
+	 *
+	 * @param job
+	 * @throws IOException
+	 */
+	private void executeOnWorker(JobDefinition job) throws IOException {
+		if (worker == null) {
+			/*
+			 * the client runs in the worker as well, so it gets all the memory
+			 * of the job. All jobs have the same memory, see CtgConfiguration
+			 */
+			List<String> commands = getJavaCommands(job.memoryInMB);
+			commands.add(JobWorker.class.getName());
+			commands.add("" + Properties.CTG_JOBS_PER_WORKER);
+
+			ProcessBuilder builder = new ProcessBuilder(commands);
+			builder.directory(new File(System.getProperty("user.dir")));
+			builder.redirectErrorStream(true);
+			worker = builder.start();
+			latestProcess = worker;
+			workerOutput = new BufferedReader(new InputStreamReader(worker.getInputStream(), StandardCharsets.UTF_8));
+			workerInput = new OutputStreamWriter(worker.getOutputStream(), StandardCharsets.UTF_8);
+		}
+
+		LocalDateTime endBy = LocalDateTime.now().plus(job.seconds , ChronoUnit.SECONDS);
+		LoggingUtils.getEvoLogger().info("Going to start job for: " + job.cut +
+				". Expected to end in "+job.seconds +" seconds, by "+endBy.toString());
+
+		StringBuilder line = new StringBuilder(getLogFolder(job));
+		for (String argument : getEvoSuiteArguments(job)) {
+			line.append(JobWorker.SEPARATOR).append(argument);
+		}
+		workerInput.write(line.append('\n').toString());
+		workerInput.flush();
+
+		/*
+		 * the output of the job is kept in case it fails, and it has to be consumed
+		 * anyway, as otherwise the worker would block once the pipe is full
+		 */
+		StringBuilder output = new StringBuilder();
+		String outputLine;
+		while ((outputLine = workerOutput.readLine()) != null) {
+			if (outputLine.startsWith(JobWorker.DONE)) {
+				String[] tokens = outputLine.split(" ");
+				if (Integer.parseInt(tokens[1]) != 0) {
+					logger.warn("Job ended with erroneous exit code: " + job.cut
+					        + "\nProcess console output:\n" + output);
+				}
+				if (Boolean.parseBoolean(tokens[2])) {
+					stopWorker();
+				}
+				return;
+			}
+			output.append(outputLine).append('\n');
+		}
+
+		logger.warn("Worker died while executing job: " + job.cut
+		        + "\nProcess console output:\n" + output);
+		stopWorker();
+	}
+
+	private void stopWorker() {
+		if (worker == null) {
+			return;
+		}
+		try {
+			workerInput.close();
+			workerOutput.close();
+		} catch (IOException e) {
+			logger.error("Failed to close worker stream: " + e.toString());
+		}
+		worker.destroy();
+		worker = null;
 	}
 
 	/**
@@ -205,6 +319,31 @@ public class JobHandler extends Thread {
 
 	private List<String> getCommandString(JobDefinition job) {
 
+		List<String> commands = getJavaCommands(MASTER_MB);
+		commands.add("-Devosuite.log.folder=" + getLogFolder(job));
+
+		/*
+			Actual call to EvoSuite. "Commands" before this line will be applied
+			to the spawn process, whereas the ones after will be its input parameters
+		 */
+		commands.add(org.evosuite.EvoSuite.class.getName());
+		commands.addAll(getEvoSuiteArguments(job));
+		return commands;
+	}
+
+	private String getLogFolder(JobDefinition job) {
+		File logs = executor.getStorage().getTmpLogs();
+		return logs.getAbsolutePath() + File.separator + job.cut;
+	}
+
+	/**
+	 * @param memoryInMB
+	 *            the maximum heap of the JVM
+	 * @return the commands to start a JVM for the EvoSuite master process,
+	 *         which do not depend on the job
+	 */
+	private List<String> getJavaCommands(int memoryInMB) {
+
 		List<String> commands = new ArrayList<>();
 		commands.add(JavaExecCmdUtil.getJavaBinExecutablePath()/*"java"*/);
 
@@ -227,21 +366,11 @@ public class JobHandler extends Thread {
 		commands.add("-D" + LoggingUtils.USE_DIFFERENT_LOGGING_XML_PARAMETER + "=logback-ctg.xml");
 		commands.add("-Dlogback.configurationFile=logback-ctg.xml");
 
-		StorageManager storage = executor.getStorage();
-		File logs = storage.getTmpLogs();
-		commands.add("-Devosuite.log.folder=" + logs.getAbsolutePath() + File.separator + job.cut);
-
 		if (Properties.LOG_LEVEL != null && !Properties.LOG_LEVEL.isEmpty()) {
 			commands.add("-Dlog.level=" + Properties.LOG_LEVEL);
 		}
 
-		/*
-		 * TODO: this will likely need better handling
-		 */
-		int masterMB = 250;
-		int clientMB = job.memoryInMB - masterMB;
-
-		commands.add("-Xmx" + masterMB + "m");
+		commands.add("-Xmx" + memoryInMB + "m");
 
 		if(Properties.CTG_DEBUG_PORT != null){
 			//set for Master
@@ -251,11 +380,18 @@ public class JobHandler extends Thread {
 			);
 		}
 
+		return commands;
+	}
+
+	private List<String> getEvoSuiteArguments(JobDefinition job) {
+
+		List<String> commands = new ArrayList<>();
+		StorageManager storage = executor.getStorage();
+
 		/*
-			Actual call to EvoSuite. "Commands" before this line will be applied
-			to the spawn process, whereas the ones after will be its input parameters
+		 * TODO: this will likely need better handling
 		 */
-		commands.add(org.evosuite.EvoSuite.class.getName());
+		int clientMB = job.memoryInMB - MASTER_MB;
 
 		if(Properties.CTG_DEBUG_PORT != null) {
 			//set for Client
@@ -328,6 +464,10 @@ public class JobHandler extends Thread {
 			commands.add("-Dctg_seeds_file_in=" + seedIn.getAbsolutePath() + File.separator +seedsFileName);
 		}
 
+		commands.add("-Ddse_solver_cache_dir=" + StorageManager.getSolverCacheFolder().getAbsolutePath());
+		commands.add("-Dinstrumentation_cache_dir=" + StorageManager.getInstrumentationCacheFolder().getAbsolutePath());
+		commands.add("-Dclasspath_index_dir=" + StorageManager.getClasspathIndexFolder().getAbsolutePath());
+
 		commands.addAll(getOutputVariables());
 		commands.add("-Danalysis_criteria=" + Properties.ANALYSIS_CRITERIA);
 
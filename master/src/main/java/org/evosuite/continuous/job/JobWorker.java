@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.coverage.exception.ExceptionCoverageFactory;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.utils.ExternalProcessGroupHandler;
+import org.evosuite.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Entry point of a long-lived process that executes successive CTG jobs, so
+ * that the startup of a new JVM, and the loading and JIT compilation of
+ * EvoSuite, is only paid once every few jobs.
+ *
+ * <p>
+ * Both the EvoSuite master and the client of a job run in the worker: the
+ * client is started on a thread (see {@link Properties#CLIENT_ON_THREAD}), as
+ * done in the system tests. Jobs are read from standard input, one per line:
+ * the log folder of the job followed by the EvoSuite command line arguments,
+ * separated by {@link #SEPARATOR}. Before each job the properties, the class
+ * path and the test generation context (class loader, test cluster, archive,
+ * pools) of the previous one are reset. When a job is done, a line starting
+ * with {@link #DONE} is written to standard output, followed by the exit code
+ * the job would have had as a separate process and whether the worker is going
+ * to exit. The worker exits after the given number of jobs, after a failed job,
+ * when the client of a job did not stop, or when its heap is getting full.
+ * </p>
+ */
+public class JobWorker {
+
+	private static final Logger logger = LoggerFactory.getLogger(JobWorker.class);
+
+	public static final char SEPARATOR = '\0';
+
+	public static final String DONE = "EVOSUITE_JOB_DONE";
+
+	/** Fraction of the maximum heap that can be in use after a job */
+	private static final double MAX_USED_HEAP = 0.75;
+
+	/**
+	 * @param args the maximum number of jobs to execute
+	 */
+	public static void main(String[] args) throws IOException {
+		int maxJobs = Integer.parseInt(args[0]);
+		PrintStream out = LoggingUtils.DEFAULT_OUT;
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		java.util.Properties systemProperties = (java.util.Properties) System.getProperties().clone();
+
+		int jobs = 0;
+		String line;
+		while ((line = in.readLine()) != null) {
+			String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+			int exitCode = execute(fields[0], Arrays.copyOfRange(fields, 1, fields.length), systemProperties);
+			jobs++;
+			boolean last = exitCode != 0 || jobs >= maxJobs || isClientRunning() || isHeapFull();
+			out.println(DONE + " " + exitCode + " " + last);
+			out.flush();
+			if (last)
+				break;
+		}
+
+		/*
+		 * Some threads could still be running, so we need to kill the process explicitly
+		 */
+		System.exit(0);
+	}
+
+	private static int execute(String logFolder, String[] args, java.util.Properties systemProperties) {
+		System.setProperties((java.util.Properties) systemProperties.clone());
+		System.setProperty("evosuite.log.folder", logFolder);
+		LoggingUtils.changeLogbackFile(LoggingUtils.getLogbackFileName());
+
+		Properties.getInstance().resetToDefaults();
+		Properties.getInstance().loadProperties(true);
+		Properties.CLIENT_ON_THREAD = true;
+		// All jobs have the same project class path, so the class listings of
+		// ResourceList are kept
+		ClassPathHandler.resetSingleton();
+		resetClientState();
+
+		try {
+			new EvoSuite().parseCommandLine(args);
+			return 0;
+		} catch (Throwable t) {
+			logger.error("Fatal crash on main EvoSuite process. Class " + Properties.TARGET_CLASS
+			        + ". Configuration id : " + Properties.CONFIGURATION_ID, t);
+			return -1;
+		}
+	}
+
+	/**
+	 * Forget the state the client of the previous job left in static fields,
+	 * as in {@code SystemTestBase}
+	 */
+	private static void resetClientState() {
+		TestCaseExecutor.getInstance().newObservers();
+		// this also resets the test cluster and the archive
+		TestGenerationContext.getInstance().resetContext();
+		ClassReInitializer.resetSingleton();
+		ExceptionCoverageFactory.getGoals().clear();
+		Archive.getArchiveInstance().reset();
+	}
+
+	/**
+	 * @return whether the client thread of the last job is still alive, ie
+	 *         the master gave up waiting for it
+	 */
+	private static boolean isClientRunning() {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.isAlive() && ExternalProcessGroupHandler.CLIENT_THREAD_NAME.equals(thread.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isHeapFull() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		return used > MAX_USED_HEAP * runtime.maxMemory();
+	}
+}
@@ -158,6 +158,27 @@ public class StorageManager {
 		return new File(new File(Properties.CTG_DIR),"evosuite-"+Properties.CTG_SEEDS_DIR_NAME);
 	}
 
+	/**
+	 * Folder where the constraint solver results of each CUT are kept across CTG runs
+	 */
+	public static File getSolverCacheFolder(){
+		return new File(new File(Properties.CTG_DIR),Properties.CTG_SOLVER_CACHE_DIR_NAME);
+	}
+
+	/**
+	 * Folder where the instrumented bytecode of dependencies is kept across CTG runs
+	 */
+	public static File getInstrumentationCacheFolder(){
+		return new File(new File(Properties.CTG_DIR),Properties.CTG_INSTRUMENTATION_CACHE_DIR_NAME);
+	}
+
+	/**
+	 * Folder where the class listings of jars on the classpath are kept across CTG runs
+	 */
+	public static File getClasspathIndexFolder(){
+		return new File(new File(Properties.CTG_DIR),Properties.CTG_CLASSPATH_INDEX_DIR_NAME);
+	}
+
 	/**
 	 * Create a new tmp folder for this CTG session
 	 * 
@@ -39,6 +39,7 @@ import org.evosuite.rmi.MasterServices;
 import org.evosuite.rmi.service.ClientNodeRemote;
 import org.evosuite.runtime.util.JavaExecCmdUtil;
 import org.evosuite.statistics.SearchStatistics;
+import org.evosuite.utils.ArrayUtil;
 import org.evosuite.utils.ExternalProcessGroupHandler;
 import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
@@ -99,7 +100,8 @@ public class MeasureCoverage {
 
 		classPath += !classPath.isEmpty() ? File.pathSeparator + projectCP : projectCP;
 
-		ExternalProcessGroupHandler handler = new ExternalProcessGroupHandler();
+		int numClients = getNumberOfClients();
+		ExternalProcessGroupHandler handler = new ExternalProcessGroupHandler(numClients);
 		int port = handler.openServer();
 		List<String> cmdLine = new ArrayList<>();
 		cmdLine.add(JavaExecCmdUtil.getJavaBinExecutablePath(true)/*EvoSuite.JAVA_CMD*/);
@@ -121,12 +123,12 @@ public class MeasureCoverage {
 
 		cmdLine.add("-DTARGET_CLASS=" + targetClass);
 		cmdLine.add("-Djunit=" + Properties.JUNIT);
+		cmdLine.add("-Dnum_parallel_clients=" + numClients);
 		if (Properties.PROJECT_PREFIX != null) {
 			cmdLine.add("-DPROJECT_PREFIX=" + Properties.PROJECT_PREFIX);
 		}
 
 		cmdLine.add("-Dclassloader=true");
-		cmdLine.add(ClientProcess.class.getName());
 
 		/*
 		 * TODO: here we start the client with several properties that are set through -D. These properties are not visible to the master process (ie
@@ -135,24 +137,32 @@ public class MeasureCoverage {
 		Properties.getInstance();// should force the load, just to be sure
 		Properties.TARGET_CLASS = targetClass;
 		Properties.PROCESS_COMMUNICATION_PORT = port;
+		Properties.NUM_PARALLEL_CLIENTS = numClients;
 
-		LoggingUtils logUtils = new LoggingUtils();
+		LoggingUtils[] logServer = new LoggingUtils[numClients];
+		List<String[]> processArgs = new ArrayList<>();
+		for (int i = 0; i < numClients; i++) {
+			List<String> cmdLineClone = new ArrayList<>(cmdLine);
+			cmdLineClone.add(ClientProcess.class.getName());
+			cmdLineClone.add(numClients == 1 ? ClientProcess.DEFAULT_CLIENT_NAME : ClientProcess.CLIENT_PREFIX + i);
 
-		if (!Properties.CLIENT_ON_THREAD) {
-			/*
-			 * We want to completely mute the SUT. So, we block all outputs from client, and use a remote logging
-			 */
-			boolean logServerStarted = logUtils.startLogServer();
-			if (!logServerStarted) {
-				logger.error("Cannot start the log server");
-				return;
+			if (!Properties.CLIENT_ON_THREAD) {
+				/*
+				 * We want to completely mute the SUT. So, we block all outputs from client, and use a remote logging
+				 */
+				logServer[i] = new LoggingUtils();
+				boolean logServerStarted = logServer[i].startLogServer();
+				if (!logServerStarted) {
+					logger.error("Cannot start the log server");
+					return;
+				}
+				int logPort = logServer[i].getLogServerPort(); //
+				cmdLineClone.add(1, "-Dmaster_log_port=" + logPort);
+				cmdLineClone.add(1, "-Devosuite.log.appender=CLIENT");
 			}
-			int logPort = logUtils.getLogServerPort(); //
-			cmdLine.add(1, "-Dmaster_log_port=" + logPort);
-			cmdLine.add(1, "-Devosuite.log.appender=CLIENT");
+			processArgs.add(cmdLineClone.toArray(new String[0]));
 		}
 
-		String[] newArgs = cmdLine.toArray(new String[cmdLine.size()]);
 		for (String entry : ClassPathHandler.getInstance().getClassPathElementsForTargetProject()) {
 			try {
 				ClassPathHacker.addFile(entry);
@@ -163,7 +173,7 @@ public class MeasureCoverage {
 		}
 
 		handler.setBaseDir(EvoSuite.base_dir_path);
-		if (handler.startProcess(newArgs)) {
+		if (handler.startProcessGroup(processArgs)) {
 			Set<ClientNodeRemote> clients = null;
 			try {
 				clients = new CopyOnWriteArraySet<>(MasterServices.getInstance().getMasterNode()
@@ -202,7 +212,7 @@ public class MeasureCoverage {
 					SearchStatistics.getInstance().writeStatisticsForAnalysis();
 				}
 			}
-			handler.killProcess();
+			handler.killAllProcesses();
 
 		} else {
 			LoggingUtils.getEvoLogger().info("* Could not connect to client process");
@@ -215,8 +225,28 @@ public class MeasureCoverage {
 				Thread.sleep(100);
 			} catch (InterruptedException e) {
 			}
-			logUtils.closeLogServer();
+			for (LoggingUtils aLogServer : logServer) {
+				aLogServer.closeLogServer();
+			}
 		}
 
 	}
+
+	/**
+	 * The test classes are sharded across parallel clients, unless the
+	 * coverage needs a single execution of all tests: mutants are identified
+	 * differently in each client, and the coverage matrix has a row per test.
+	 */
+	private static int getNumberOfClients() {
+		if (Properties.NUM_PARALLEL_CLIENTS <= 1) {
+			return 1;
+		}
+		if (Properties.COVERAGE_MATRIX || Properties.SELECTED_JUNIT != null
+		        || ArrayUtil.contains(Properties.CRITERION, Properties.Criterion.MUTATION)
+		        || ArrayUtil.contains(Properties.CRITERION, Properties.Criterion.STRONGMUTATION)) {
+			LoggingUtils.getEvoLogger().info("* Measuring coverage with a single client");
+			return 1;
+		}
+		return Properties.NUM_PARALLEL_CLIENTS;
+	}
 }
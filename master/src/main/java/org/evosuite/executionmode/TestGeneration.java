@@ -385,6 +385,15 @@ public class TestGeneration {
 		Properties.TARGET_CLASS = target;
 		Properties.PROCESS_COMMUNICATION_PORT = port;
 
+		if (Properties.CLIENT_ON_THREAD && !Properties.IS_RUNNING_A_SYSTEM_TEST) {
+			/*
+			 * A client on a thread shares the Properties of this process, so it would
+			 * not see the ones set for it through -D (eg the strategy). System tests
+			 * set them directly, but CTG workers do not
+			 */
+			setClientOptions(cmdLine);
+		}
+
         for (int i = 0; i < Properties.NUM_PARALLEL_CLIENTS; i++) {
             List<String> cmdLineClone = new ArrayList<>(cmdLine);
 
@@ -599,6 +608,30 @@ public class TestGeneration {
 	}
 
 
+	/**
+	 * Set the properties given with -D in the command line of the client
+	 *
+	 * @param cmdLine
+	 */
+	private static void setClientOptions(List<String> cmdLine) {
+		Set<String> propertyNames = new HashSet<>(Properties.getParameters());
+		for (String option : cmdLine) {
+			if (!option.startsWith("-D")) {
+				continue;
+			}
+			String[] nameAndValue = option.substring(2).split("=", 2);
+			if (nameAndValue.length < 2 || !propertyNames.contains(nameAndValue[0])) {
+				continue;
+			}
+			try {
+				Properties.getInstance().setValue(nameAndValue[0], nameAndValue[1]);
+			} catch (Exception e) {
+				throw new Error("Invalid value for property " + nameAndValue[0] + ": " + nameAndValue[1]
+				        + ". Exception " + e.getMessage(), e);
+			}
+		}
+	}
+
 	private static List<List<TestGenerationResult>> generateTestsTarget(Properties.Strategy strategy, String target,
 	        List<String> args) {
         List<List<TestGenerationResult>> results = new ArrayList<>();
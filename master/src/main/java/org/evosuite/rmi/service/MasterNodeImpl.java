@@ -33,6 +33,7 @@ import org.evosuite.ClientProcess;
 import org.evosuite.Properties;
 import org.evosuite.Properties.NoSuchParameterException;
 import org.evosuite.ga.Chromosome;
+import org.evosuite.junit.CoverageShard;
 import org.evosuite.result.TestGenerationResult;
 import org.evosuite.statistics.SearchStatistics;
 import org.evosuite.statistics.RuntimeVariable;
@@ -194,7 +195,7 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 	}
 
     @Override
-    public void evosuite_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants)
+    public void evosuite_migrate(String clientRmiIdentifier, byte[] migrants)
             throws RemoteException {
         //implements ring topology
         int idSender = Integer.parseInt(clientRmiIdentifier.replaceAll("[^0-9]", ""));
@@ -220,6 +221,16 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
         }
     }
 
+    @Override
+    public void evosuite_collectCoverage(String clientRmiIdentifier, CoverageShard shard) {
+        try {
+            ClientNodeRemote node = clients.get(ClientProcess.DEFAULT_CLIENT_NAME);
+            node.collectCoverage(shard);
+        } catch (RemoteException e) {
+            logger.error("Cannot send coverage to client 0", e);
+        }
+    }
+
     @Override
 	public void addListener(Listener<ClientStateInformation> listener) {
 		listeners.add(listener);
@@ -107,6 +107,9 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		case DEBUG:
 			backend = new DebugStatisticsBackend();
 			break;
+		case STREAMING:
+			backend = new StreamingStatisticsBackend();
+			break;
 		case NONE:
 		default:
 			// If no backend is specified, there is no output
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.OutputVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This statistics backend appends the scalar output variables to
+ * <code>statistics.csv</code>, like {@link CSVStatisticsBackend}, but writes
+ * the timeline variables (e.g., <code>CoverageTimeline_T1</code>,
+ * <code>CoverageTimeline_T2</code>, ...) as one series each to the binary
+ * file <code>timelines.bin</code> (see {@link #readTimelines(File)}).
+ * 
+ * <p>
+ * Both files stay open for the lifetime of the JVM, and rows are written by a
+ * background thread, so that writing the statistics of many classes neither
+ * reopens the files nor blocks the caller. Buffered data is flushed whenever
+ * there are no more pending rows, and on shutdown.
+ * </p>
+ */
+public class StreamingStatisticsBackend implements StatisticsBackend {
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingStatisticsBackend.class);
+
+	public static final String CSV_FILE = "statistics.csv";
+
+	public static final String TIMELINE_FILE = "timelines.bin";
+
+	private static final Pattern TIMELINE_VARIABLE = Pattern.compile("(.+)_T\\d+");
+
+	private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "StatisticsWriter");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/* The following fields are only accessed by the writer thread */
+
+	private static File openDir = null;
+
+	private static Writer csv = null;
+
+	private static DataOutputStream timelines = null;
+
+	private static int pendingRows = 0;
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(StreamingStatisticsBackend::close));
+	}
+
+	/**
+	 * Timeline series of one class, as read back from <code>timelines.bin</code>
+	 */
+	public static class TimelineRecord {
+
+		private final String className;
+
+		private final Map<String, double[]> series;
+
+		public TimelineRecord(String className, Map<String, double[]> series) {
+			this.className = className;
+			this.series = series;
+		}
+
+		public String getClassName() {
+			return className;
+		}
+
+		/**
+		 * @return the values of each timeline variable, by name (e.g.,
+		 *         <code>CoverageTimeline</code>). Values that are not numbers
+		 *         are NaN.
+		 */
+		public Map<String, double[]> getSeries() {
+			return series;
+		}
+	}
+
+	@Override
+	public void writeData(Chromosome<?> result, Map<String, OutputVariable<?>> data) {
+		// The caller may modify the variables afterwards, so convert them now
+		List<String> columns = new ArrayList<>();
+		StringBuilder row = new StringBuilder();
+		Map<String, List<Object>> series = new LinkedHashMap<>();
+		for (Entry<String, OutputVariable<?>> e : data.entrySet()) {
+			Matcher matcher = TIMELINE_VARIABLE.matcher(e.getKey());
+			if (matcher.matches()) {
+				series.computeIfAbsent(matcher.group(1), name -> new ArrayList<>()).add(e.getValue().getValue());
+			} else {
+				if (!columns.isEmpty())
+					row.append(",");
+				columns.add(e.getKey());
+				row.append(e.getValue().getValue());
+			}
+		}
+		row.append("\n");
+
+		OutputVariable<?> targetClass = data.get("TARGET_CLASS");
+		String className = targetClass == null ? Properties.TARGET_CLASS : String.valueOf(targetClass.getValue());
+		byte[] record = series.isEmpty() ? null : encodeTimelines(className, series);
+		File dir = CSVStatisticsBackend.getReportDir();
+
+		synchronized (writer) {
+			pendingRows++;
+		}
+		writer.execute(() -> write(dir, columns, row.toString(), record));
+	}
+
+	private static byte[] encodeTimelines(String className, Map<String, List<Object>> series) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeUTF(className);
+			out.writeInt(series.size());
+			for (Entry<String, List<Object>> e : series.entrySet()) {
+				out.writeUTF(e.getKey());
+				out.writeInt(e.getValue().size());
+				for (Object value : e.getValue())
+					out.writeDouble(toDouble(value));
+			}
+		} catch (IOException e) {
+			// Cannot happen for a byte array
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static double toDouble(Object value) {
+		if (value instanceof Number)
+			return ((Number) value).doubleValue();
+		try {
+			return Double.parseDouble(String.valueOf(value));
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	private static void write(File dir, List<String> columns, String row, byte[] record) {
+		try {
+			if (!dir.equals(openDir)) {
+				closeStreams();
+				openDir = dir;
+			}
+			if (csv == null) {
+				File f = new File(dir, CSV_FILE);
+				boolean writeHeader = f.length() == 0L;
+				csv = new BufferedWriter(new FileWriter(f, true));
+				if (writeHeader)
+					csv.write(String.join(",", columns) + "\n");
+			}
+			csv.write(row);
+
+			if (record != null) {
+				if (timelines == null)
+					timelines = new DataOutputStream(new BufferedOutputStream(
+					        new FileOutputStream(new File(dir, TIMELINE_FILE), true)));
+				timelines.write(record);
+			}
+		} catch (IOException e) {
+			logger.warn("Error while writing statistics: " + e.getMessage());
+		}
+
+		boolean idle;
+		synchronized (writer) {
+			idle = --pendingRows == 0;
+		}
+		if (idle)
+			flushStreams();
+	}
+
+	private static void flushStreams() {
+		try {
+			if (csv != null)
+				csv.flush();
+			if (timelines != null)
+				timelines.flush();
+		} catch (IOException e) {
+			logger.warn("Error while writing statistics: " + e.getMessage());
+		}
+	}
+
+	private static void closeStreams() {
+		try {
+			if (csv != null)
+				csv.close();
+			if (timelines != null)
+				timelines.close();
+		} catch (IOException e) {
+			logger.warn("Error while writing statistics: " + e.getMessage());
+		}
+		csv = null;
+		timelines = null;
+		openDir = null;
+	}
+
+	/**
+	 * Wait until all rows passed to the backend so far are written and
+	 * flushed
+	 */
+	public static void flush() {
+		runOnWriter(StreamingStatisticsBackend::flushStreams);
+	}
+
+	/**
+	 * Write all pending rows and close the files. They are reopened if more
+	 * data is written afterwards.
+	 */
+	public static void close() {
+		runOnWriter(StreamingStatisticsBackend::closeStreams);
+	}
+
+	private static void runOnWriter(Runnable task) {
+		try {
+			writer.submit(task).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			logger.warn("Error while writing statistics: " + e.getCause());
+		}
+	}
+
+	/**
+	 * Read the timelines written by this backend
+	 * 
+	 * @param file
+	 *            a <code>timelines.bin</code> file
+	 * @return one record per class, in the order they were written
+	 * @throws IOException
+	 */
+	public static List<TimelineRecord> readTimelines(File file) throws IOException {
+		List<TimelineRecord> records = new ArrayList<>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			while (true) {
+				String className;
+				try {
+					className = in.readUTF();
+				} catch (EOFException e) {
+					break;
+				}
+				int numSeries = in.readInt();
+				Map<String, double[]> series = new LinkedHashMap<>();
+				for (int i = 0; i < numSeries; i++) {
+					String name = in.readUTF();
+					double[] values = new double[in.readInt()];
+					for (int j = 0; j < values.length; j++)
+						values[j] = in.readDouble();
+					series.put(name, values);
+				}
+				records.add(new TimelineRecord(className, series));
+			}
+		}
+		return records;
+	}
+}
@@ -65,6 +65,9 @@ public class ExternalProcessGroupHandler {
 	protected static final Object WAITING_FOR_DATA = "waiting_for_data_"
 			+ System.currentTimeMillis();
 
+	/** Name of the thread running the client, when {@link Properties#CLIENT_ON_THREAD} is set */
+	public static final String CLIENT_THREAD_NAME = "client";
+
 	protected Thread[] processKillHooks;
 	protected Thread clientRunningOnThread;
 
@@ -307,7 +310,8 @@ public class ExternalProcessGroupHandler {
 			/*
 			 * Here we run client on a thread instead of process.
 			 * NOTE: this should only be done for debugging, ie in
-			 * JUnit files created for testing EvoSuite. 
+			 * JUnit files created for testing EvoSuite, and in CTG
+			 * workers (see JobWorker)
 			 */
 			clientRunningOnThread = new Thread() {
 				@Override
@@ -319,7 +323,7 @@ public class ExternalProcessGroupHandler {
 					ClientProcess.main(new String[0]);
 				}
 			};
-			clientRunningOnThread.setName("client");
+			clientRunningOnThread.setName(CLIENT_THREAD_NAME);
 			clientRunningOnThread.start();
             Sandbox.addPrivilegedThread(clientRunningOnThread);
 		}
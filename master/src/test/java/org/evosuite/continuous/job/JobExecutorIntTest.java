@@ -36,6 +36,7 @@ import org.evosuite.continuous.CtgConfiguration;
 import org.evosuite.Properties.AvailableSchedule;
 import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.continuous.persistency.StorageManager.TestsOnDisk;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -47,6 +48,8 @@ import static org.junit.Assert.assertTrue;
 
 public class JobExecutorIntTest {
 
+	private static final int DEFAULT_JOBS_PER_WORKER = Properties.CTG_JOBS_PER_WORKER;
+
 	private StorageManager storage;
 
 	@Before
@@ -61,8 +64,23 @@ public class JobExecutorIntTest {
 		}
 	}
 
+	@After
+	public void resetProperties(){
+		Properties.CTG_JOBS_PER_WORKER = DEFAULT_JOBS_PER_WORKER;
+	}
+
 	@Test(timeout = 90_000)
 	public void testActualExecutionOfSchedule() throws IOException {
+		checkActualExecutionOfSchedule();
+	}
+
+	@Test(timeout = 90_000)
+	public void testActualExecutionOfScheduleOnWorker() throws IOException {
+		Properties.CTG_JOBS_PER_WORKER = 2;
+		checkActualExecutionOfSchedule();
+	}
+
+	private void checkActualExecutionOfSchedule() throws IOException {
 
 		Properties.TEST_SCAFFOLDING = true;
 		
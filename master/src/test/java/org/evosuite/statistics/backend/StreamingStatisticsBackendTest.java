@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.statistics.OutputVariable;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StreamingStatisticsBackendTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final String DEFAULT_REPORT_DIR = Properties.REPORT_DIR;
+
+	@Before
+	public void setUp() {
+		Properties.REPORT_DIR = folder.getRoot().getAbsolutePath();
+	}
+
+	@After
+	public void tearDown() {
+		StreamingStatisticsBackend.close();
+		Properties.REPORT_DIR = DEFAULT_REPORT_DIR;
+	}
+
+	private static Map<String, OutputVariable<?>> row(String className, Object... timeline) {
+		Map<String, OutputVariable<?>> data = new LinkedHashMap<>();
+		data.put("TARGET_CLASS", new OutputVariable<>("TARGET_CLASS", className));
+		data.put("Coverage", new OutputVariable<>("Coverage", 0.5));
+		for (int i = 0; i < timeline.length; i++) {
+			String name = "CoverageTimeline_T" + (i + 1);
+			data.put(name, new OutputVariable<>(name, timeline[i]));
+		}
+		data.put("Total_Goals", new OutputVariable<>("Total_Goals", 4));
+		return data;
+	}
+
+	@Test
+	public void testScalarsAndTimelinesAreSeparated() throws Exception {
+		StreamingStatisticsBackend backend = new StreamingStatisticsBackend();
+		backend.writeData(new TestSuiteChromosome(), row("Foo", 0.25, 0.5));
+		backend.writeData(new TestSuiteChromosome(), row("Bar", 1, "n/a"));
+		StreamingStatisticsBackend.flush();
+
+		List<String> lines = Files.readAllLines(new File(folder.getRoot(), StreamingStatisticsBackend.CSV_FILE).toPath());
+		Assert.assertEquals(3, lines.size());
+		Assert.assertEquals("TARGET_CLASS,Coverage,Total_Goals", lines.get(0));
+		Assert.assertEquals("Foo,0.5,4", lines.get(1));
+		Assert.assertEquals("Bar,0.5,4", lines.get(2));
+
+		List<StreamingStatisticsBackend.TimelineRecord> records = StreamingStatisticsBackend
+		        .readTimelines(new File(folder.getRoot(), StreamingStatisticsBackend.TIMELINE_FILE));
+		Assert.assertEquals(2, records.size());
+		Assert.assertEquals("Foo", records.get(0).getClassName());
+		Assert.assertArrayEquals(new double[] { 0.25, 0.5 },
+		        records.get(0).getSeries().get("CoverageTimeline"), 0.0);
+		double[] second = records.get(1).getSeries().get("CoverageTimeline");
+		Assert.assertEquals(1.0, second[0], 0.0);
+		Assert.assertTrue(Double.isNaN(second[1]));
+	}
+
+	@Test
+	public void testHeaderIsWrittenOncePerFile() throws Exception {
+		StreamingStatisticsBackend backend = new StreamingStatisticsBackend();
+		backend.writeData(new TestSuiteChromosome(), row("Foo"));
+		StreamingStatisticsBackend.close();
+		backend.writeData(new TestSuiteChromosome(), row("Bar"));
+		StreamingStatisticsBackend.flush();
+
+		List<String> lines = Files.readAllLines(new File(folder.getRoot(), StreamingStatisticsBackend.CSV_FILE).toPath());
+		Assert.assertEquals(3, lines.size());
+		Assert.assertFalse(new File(folder.getRoot(), StreamingStatisticsBackend.TIMELINE_FILE).exists());
+	}
+}
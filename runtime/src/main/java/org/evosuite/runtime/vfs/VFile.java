@@ -19,8 +19,7 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Representation of a virtual file
@@ -30,46 +29,67 @@ import java.util.List;
  */
 public class VFile extends FSObject{
 
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * the actual data contained in file. Only the first {@link #size}
+	 * bytes are valid, the rest of the array is spare capacity
+	 */
+	private byte[] data;
+
 	/**
-	 * the actual data contained in file as a list of bytes
+	 * number of valid bytes in {@link #data}
 	 */
-	private final List<Byte> data;
+	private int size;
 
 	public VFile(String path, VFolder parent) {
 		super(path, parent);
 
 		//TODO might need a better type of data structure supporting multi-threading
-		data = new ArrayList<>(1024);
+		data = new byte[INITIAL_CAPACITY];
+		size = 0;
 	}
 
-	public void eraseData(){
-		data.clear();
+	public synchronized void eraseData(){
+		size = 0;
+		if(data.length > INITIAL_CAPACITY){
+			//do not keep large buffers alive for deleted/erased files
+			data = new byte[INITIAL_CAPACITY];
+		}
 	}
 
 	public synchronized int getDataSize(){
-		return data.size();
+		return size;
 	}
 
+	/**
+	 * Make sure {@link #data} can hold at least {@code capacity} bytes,
+	 * growing geometrically to keep appends amortized constant time
+	 */
+	private void ensureCapacity(int capacity){
+		if(capacity <= data.length){
+			return;
+		}
+		int newCapacity = Math.max(data.length, 1);
+		while(newCapacity < capacity){
+			newCapacity = newCapacity << 1;
+			if(newCapacity <= 0){ //overflow
+				newCapacity = Integer.MAX_VALUE;
+				break;
+			}
+		}
+		data = Arrays.copyOf(data, newCapacity);
+	}
 
 	public synchronized void setLength(int newLength){
 
-		/*
-		 * Note: this implementation is not particularly efficient...
-		 * but setLength is rarely called
-		 */
-
-		while(newLength > data.size()){
-			data.add((byte)0);
+		if(newLength > size){
+			ensureCapacity(newLength);
+			//spare capacity might contain stale data from a previous truncation
+			Arrays.fill(data, size, newLength, (byte) 0);
 		}
 
-		if(newLength==0){
-			data.clear();
-			return;
-		}
-		
-		while(data.size() > newLength){
-			data.remove(data.size()-1);
-		}
+		size = newLength;
 	}
 
     /**
@@ -82,15 +102,34 @@ public class VFile extends FSObject{
 			throw new IllegalArgumentException("Position in the file cannot be negative");
 		}
 
-		if(position >= data.size()){
+		if(position >= size){
+			return -1; //this represent the end of the stream
+		}
+
+		return data[position] & 0xFF;
+	}
+
+	/**
+	 * Copy up to {@code len} bytes starting at {@code position} into {@code b}
+	 * 
+	 * @return the number of copied bytes, or -1 if {@code position} is at (or after) the end of the file
+	 */
+	public synchronized int read(int position, byte[] b, int off, int len) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+
+		if(position >= size){
 			return -1; //this represent the end of the stream
 		}
 
-		return data.get(position) & 0xFF;
+		int toRead = Math.min(len, size - position);
+		System.arraycopy(data, position, b, off, toRead);
+		return toRead;
 	}
 
 	public synchronized int writeBytes(byte[] b, int off, int len){
-		return writeBytes(data.size(),b,off,len);
+		return writeBytes(size,b,off,len);
 	}
 
 	
@@ -104,20 +143,14 @@ public class VFile extends FSObject{
 			return 0;
 		}
 
-		if(position >= data.size()){
+		if(position >= size){
 			setLength(position);
 		}
 
-		int written = 0;
-		for(int i=off; i<b.length & (i-off)<len; i++){
-			if(position < data.size()){
-				data.set(position,(b[i]));
-			} else {
-				data.add(b[i]);
-			}
-			position++;
-			written++;
-		}
+		int written = Math.max(0, Math.min(len, b.length - off));
+		ensureCapacity(position + written);
+		System.arraycopy(b, off, data, position, written);
+		size = Math.max(size, position + written);
 
 		setLastModified(getCurrentTimeMillis());
 
@@ -23,6 +23,9 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.evosuite.runtime.mock.MockFramework;
 import org.evosuite.runtime.mock.java.io.MockFile;
@@ -86,4 +89,49 @@ public class MockRandomAccessFileTest {
 		
 		Assert.assertEquals(LENGTH, size);
 	}
+
+	@Test
+	public void testBulkReadAndChannel() throws IOException{
+
+		MockFramework.enable();
+		VirtualFileSystem.getInstance().resetSingleton();
+		VirtualFileSystem.getInstance().init();
+
+		String fileName = "foo_random_access_bulk.txt";
+		byte[] data = new byte[3000];
+		for(int i=0; i<data.length; i++){
+			data[i] = (byte) (i % 100);
+		}
+
+		RandomAccessFile ra = new MockRandomAccessFile(fileName,"rw");
+		ra.write(data);
+		Assert.assertEquals(data.length, ra.length());
+
+		ra.seek(0);
+		byte[] read = new byte[data.length + 5];
+		Assert.assertEquals(data.length, ra.read(read));
+		Assert.assertEquals(data.length, ra.getFilePointer());
+		Assert.assertEquals(-1, ra.read(read));
+		Assert.assertEquals(data[2999], read[2999]);
+
+		ra.close();
+
+		String path = new MockFile(fileName).getAbsolutePath();
+		FileChannel channel = new EvoFileChannel(new AtomicInteger(data.length), path, true, true);
+		ByteBuffer direct = ByteBuffer.allocateDirect(10);
+		Assert.assertEquals(10, channel.read(direct, 5));
+		Assert.assertEquals(data[14], direct.get(9));
+		Assert.assertEquals(data.length, channel.position());
+
+		channel.position(data.length - 4);
+		ByteBuffer heap = ByteBuffer.allocate(10);
+		Assert.assertEquals(4, channel.read(heap));
+		Assert.assertEquals(4, heap.position());
+		Assert.assertEquals(-1, channel.read(heap));
+
+		heap.flip();
+		Assert.assertEquals(4, channel.write(heap));
+		Assert.assertEquals(data.length + 4, channel.size());
+		channel.close();
+	}
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VFileTest {
+
+	@Test
+	public void testWriteAndReadBeyondInitialCapacity(){
+		VFile file = new VFile("foo", null);
+
+		byte[] data = new byte[5000];
+		for(int i=0; i<data.length; i++){
+			data[i] = (byte) i;
+		}
+
+		Assert.assertEquals(data.length, file.writeBytes(data, 0, data.length));
+		Assert.assertEquals(data.length, file.getDataSize());
+
+		byte[] copy = new byte[data.length + 10];
+		Assert.assertEquals(data.length, file.read(0, copy, 0, copy.length));
+		for(int i=0; i<data.length; i++){
+			Assert.assertEquals(data[i], copy[i]);
+		}
+		Assert.assertEquals(-1, file.read(data.length, copy, 0, copy.length));
+		Assert.assertEquals(data[4999] & 0xFF, file.read(4999));
+	}
+
+	@Test
+	public void testOverwriteAndPartialRead(){
+		VFile file = new VFile("foo", null);
+		file.writeBytes(new byte[]{1, 2, 3, 4}, 0, 4);
+		file.writeBytes(1, new byte[]{9, 9, 9, 9, 9}, 2, 10); //only 3 bytes available in the array
+
+		Assert.assertEquals(4, file.getDataSize());
+
+		byte[] buffer = new byte[3];
+		Assert.assertEquals(2, file.read(2, buffer, 1, 2));
+		Assert.assertArrayEquals(new byte[]{0, 9, 9}, buffer);
+	}
+
+	@Test
+	public void testWriteAfterEndFillsWithZeros(){
+		VFile file = new VFile("foo", null);
+		file.writeBytes(new byte[]{5, 5, 5}, 0, 3);
+		file.setLength(1);
+		file.writeBytes(3, new byte[]{7}, 0, 1);
+
+		Assert.assertEquals(4, file.getDataSize());
+		Assert.assertEquals(5, file.read(0));
+		Assert.assertEquals(0, file.read(1));
+		Assert.assertEquals(0, file.read(2));
+		Assert.assertEquals(7, file.read(3));
+	}
+}